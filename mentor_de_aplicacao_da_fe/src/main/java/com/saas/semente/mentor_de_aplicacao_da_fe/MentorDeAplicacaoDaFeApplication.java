@@ -2,8 +2,10 @@ package com.saas.semente.mentor_de_aplicacao_da_fe;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class MentorDeAplicacaoDaFeApplication {
 
 	public static void main(String[] args) {
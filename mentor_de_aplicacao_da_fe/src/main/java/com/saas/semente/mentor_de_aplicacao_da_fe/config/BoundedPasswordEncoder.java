@@ -0,0 +1,165 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * PasswordEncoder que roda o BCrypt num pool PRÓPRIO e limitado (threads + fila), fora das threads do Tomcat.
+ * Uma rajada de logins (credential stuffing) enche a fila e passa a ser recusada na hora,
+ * em vez de ocupar todos os núcleos e travar a geração de mentorias.
+ *
+ * Hashes novos saem como "{bcrypt}..." com o custo calibrado na subida; hashes antigos (sem prefixo
+ * ou com custo menor) continuam válidos e são refeitos no próximo login (upgradeEncoding).
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder, DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+    private static final String BCRYPT_ID = "bcrypt";
+    private static final String CALIBRATION_PASSWORD = "calibracao-do-custo-bcrypt";
+
+    /**
+     * Fila cheia ou espera esgotada. É uma AuthenticationException: no login vira "/login?error",
+     * não um erro 500.
+     */
+    public static class HashingRejectedException extends AuthenticationServiceException {
+        public HashingRejectedException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final MeterRegistry meterRegistry;
+    private final int strength;
+
+    public BoundedPasswordEncoder(MeterRegistry meterRegistry, int strength, int threads, int queueCapacity, long timeoutMillis) {
+        this.meterRegistry = meterRegistry;
+        this.strength = strength;
+        this.timeoutMillis = timeoutMillis;
+
+        DelegatingPasswordEncoder delegating = new DelegatingPasswordEncoder(BCRYPT_ID,
+                Map.of(BCRYPT_ID, new BCryptPasswordEncoder(strength)));
+        // Hashes gravados antes do prefixo {id} são BCrypt puro (qualquer custo)
+        delegating.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        this.delegate = delegating;
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("password.hashing.queue", executor, e -> e.getQueue().size())
+                .description("Hashes de senha aguardando uma thread do pool")
+                .register(meterRegistry);
+        logger.info("BCrypt com custo {} em pool de {} threads (fila {}, espera máxima {} ms).",
+                strength, threads, queueCapacity, timeoutMillis);
+    }
+
+    /**
+     * Maior custo (entre min e max) cujo hash ainda cabe no alvo de latência NESTA máquina.
+     * Cada +1 dobra o tempo, então basta medir uma vez por degrau.
+     */
+    public static int calibrateStrength(int minStrength, int maxStrength, long targetMillis) {
+        int strength = minStrength;
+        long elapsed = measureMillis(strength);
+        while (strength < maxStrength && elapsed * 2 <= targetMillis) {
+            strength++;
+            elapsed = measureMillis(strength);
+        }
+        logger.info("Custo do BCrypt calibrado em {} ({} ms por hash; alvo {} ms).", strength, elapsed, targetMillis);
+        return strength;
+    }
+
+    private static long measureMillis(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        encoder.encode(CALIBRATION_PASSWORD); // Aquecimento (JIT)
+        long start = System.nanoTime();
+        encoder.encode(CALIBRATION_PASSWORD);
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run("encode", () -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run("matches", () -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword); // Só lê o prefixo/custo: não precisa do pool
+    }
+
+    private <T> T run(String operation, Callable<T> task) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            count(operation, "rejected");
+            throw new HashingRejectedException("Muitas verificações de senha em andamento. Tente novamente em instantes.", e);
+        }
+
+        try {
+            T result = future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            sample.stop(meterRegistry.timer("password.hashing.duration", "operation", operation));
+            count(operation, "ok");
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            count(operation, "timeout");
+            throw new HashingRejectedException("A verificação de senha demorou demais. Tente novamente em instantes.", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(true);
+            throw new HashingRejectedException("Verificação de senha interrompida.", e);
+        } catch (ExecutionException e) {
+            count(operation, "error");
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void count(String operation, String result) {
+        meterRegistry.counter("password.hashing", "operation", operation, "result", result).increment();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
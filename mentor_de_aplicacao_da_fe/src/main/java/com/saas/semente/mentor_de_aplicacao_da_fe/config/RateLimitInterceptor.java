@@ -0,0 +1,67 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.config;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.service.RateLimitService;
+import com.saas.semente.mentor_de_aplicacao_da_fe.service.RateLimitStore;
+import com.saas.semente.mentor_de_aplicacao_da_fe.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Aplica o RateLimitService aos POSTs caros (/generate, /checkout/process, /upgrade-plan),
+ * respondendo 429 com Retry-After quando o bucket está vazio.
+ */
+@Component
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitInterceptor.class);
+
+    private final RateLimitService rateLimitService;
+    private final UserService userService;
+
+    public RateLimitInterceptor(RateLimitService rateLimitService, UserService userService) {
+        this.rateLimitService = rateLimitService;
+        this.userService = userService;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (!"POST".equalsIgnoreCase(request.getMethod())) {
+            return true;
+        }
+
+        // Com server.forward-headers-strategy, o remoteAddr já é o IP real atrás do proxy
+        String clientIp = request.getRemoteAddr();
+        RateLimitStore.Decision decision = "/generate".equals(request.getServletPath())
+                ? rateLimitService.checkGenerate(userService.getAuthenticatedSnapshot(), clientIp)
+                : rateLimitService.checkCheckout(authenticatedUsername(), clientIp);
+
+        if (decision.allowed()) {
+            return true;
+        }
+
+        logger.warn("Limite de taxa atingido em {} (IP {}, usuário {}).", request.getServletPath(), clientIp, authenticatedUsername());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(decision.retryAfterSeconds()));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write("Muitas solicitações em pouco tempo. Tente novamente em "
+                + decision.retryAfterSeconds() + " segundos.");
+        return false;
+    }
+
+    private static String authenticatedUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
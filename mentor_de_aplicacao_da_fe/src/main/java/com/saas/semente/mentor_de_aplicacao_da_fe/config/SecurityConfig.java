@@ -1,21 +1,32 @@
 package com.saas.semente.mentor_de_aplicacao_da_fe.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod; 
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
+    /**
+     * BCrypt em pool limitado, com custo calibrado para o alvo de latência desta máquina.
+     * O rehash no login é feito pelo DaoAuthenticationProvider via CustomUserDetailsService (UserDetailsPasswordService).
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(MeterRegistry meterRegistry,
+                                                  @Value("${mentorship.password.bcrypt.min-strength:10}") int minStrength,
+                                                  @Value("${mentorship.password.bcrypt.max-strength:14}") int maxStrength,
+                                                  @Value("${mentorship.password.bcrypt.target-ms:250}") long targetMillis,
+                                                  @Value("${mentorship.password.hashing.threads:2}") int threads,
+                                                  @Value("${mentorship.password.hashing.queue-capacity:16}") int queueCapacity,
+                                                  @Value("${mentorship.password.hashing.timeout-ms:3000}") long timeoutMillis) {
+        int strength = BoundedPasswordEncoder.calibrateStrength(minStrength, maxStrength, targetMillis);
+        return new BoundedPasswordEncoder(meterRegistry, strength, threads, queueCapacity, timeoutMillis);
     }
 
     @Bean
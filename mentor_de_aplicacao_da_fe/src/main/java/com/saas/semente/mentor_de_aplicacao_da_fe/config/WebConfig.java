@@ -0,0 +1,22 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final RateLimitInterceptor rateLimitInterceptor;
+
+    public WebConfig(RateLimitInterceptor rateLimitInterceptor) {
+        this.rateLimitInterceptor = rateLimitInterceptor;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Limite de taxa apenas nos POSTs que chamam o Gemini, o BCrypt ou o Mercado Pago
+        registry.addInterceptor(rateLimitInterceptor)
+                .addPathPatterns("/generate", "/checkout/process", "/upgrade-plan");
+    }
+}
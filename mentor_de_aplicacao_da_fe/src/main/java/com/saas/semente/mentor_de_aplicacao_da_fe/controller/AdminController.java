@@ -0,0 +1,113 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.controller;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.service.DashboardStatsService;
+import com.saas.semente.mentor_de_aplicacao_da_fe.service.UsageAccountingService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Relatórios internos (JSON). Acesso restrito aos e-mails listados em app.admin.emails.
+ */
+@Controller
+public class AdminController {
+
+    private final UsageAccountingService usageService;
+    private final DashboardStatsService dashboardStatsService;
+    private final Set<String> adminEmails;
+
+    public AdminController(UsageAccountingService usageService, DashboardStatsService dashboardStatsService,
+                           @Value("${app.admin.emails:}") String adminEmails) {
+        this.usageService = usageService;
+        this.dashboardStatsService = dashboardStatsService;
+        this.adminEmails = Arrays.stream(adminEmails.split(","))
+                .map(String::trim)
+                .filter(email -> !email.isEmpty())
+                .map(String::toLowerCase)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Rota: /admin/usage (Uso de tokens e custo estimado por plano; padrão: mês corrente)
+     */
+    @GetMapping("/admin/usage")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> usageByPlan(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        if (!isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        LocalDate start = from != null ? from : LocalDate.now().withDayOfMonth(1);
+        LocalDate end = to != null ? to : LocalDate.now();
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("from", start);
+        body.put("to", end);
+        body.put("plans", usageService.planReport(start, end));
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Rota: /admin/usage/users (Usuários com maior consumo de tokens no período)
+     */
+    @GetMapping("/admin/usage/users")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> topUsers(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        if (!isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        LocalDate start = from != null ? from : LocalDate.now().withDayOfMonth(1);
+        LocalDate end = to != null ? to : LocalDate.now();
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("from", start);
+        body.put("to", end);
+        body.put("users", usageService.topUsers(start, end, Math.max(1, Math.min(limit, 100))));
+        return ResponseEntity.ok(body);
+    }
+
+    /**
+     * Rota: POST /admin/dashboard-stats/rebuild (Refaz as estatísticas do dashboard a partir do histórico;
+     * sem userId, de todos os usuários com mentorias, um por transação)
+     */
+    @PostMapping("/admin/dashboard-stats/rebuild")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> rebuildDashboardStats(
+            @RequestParam(value = "userId", required = false) Long userId) {
+        if (!isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        List<Long> userIds = userId != null ? List.of(userId) : dashboardStatsService.usersWithApplications();
+        userIds.forEach(dashboardStatsService::rebuild);
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("rebuiltUsers", userIds.size());
+        return ResponseEntity.ok(body);
+    }
+
+    private boolean isAdmin() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getName() != null
+                && adminEmails.contains(authentication.getName().toLowerCase());
+    }
+}
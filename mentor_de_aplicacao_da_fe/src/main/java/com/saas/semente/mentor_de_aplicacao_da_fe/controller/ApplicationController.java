@@ -1,24 +1,40 @@
 package com.saas.semente.mentor_de_aplicacao_da_fe.controller;
 
-import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplication;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplicationSummary;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.MentorshipJob;
 import com.saas.semente.mentor_de_aplicacao_da_fe.model.User;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.UserSnapshot;
 import com.saas.semente.mentor_de_aplicacao_da_fe.service.FaithApplicationService;
+import com.saas.semente.mentor_de_aplicacao_da_fe.service.JournalSearchService;
+import com.saas.semente.mentor_de_aplicacao_da_fe.service.MentorshipJobService;
+import com.saas.semente.mentor_de_aplicacao_da_fe.service.QuotaService;
+import com.saas.semente.mentor_de_aplicacao_da_fe.service.RecordDetailCache;
 import com.saas.semente.mentor_de_aplicacao_da_fe.service.UserService;
 
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
-import org.springframework.transaction.annotation.Transactional; // <-- IMPORT ADICIONADO
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @Controller
 public class ApplicationController {
@@ -26,19 +42,32 @@ public class ApplicationController {
     // Apenas injeção de Services
     private final FaithApplicationService applicationService;
     private final UserService userService;
+    private final MentorshipJobService jobService;
+    private final QuotaService quotaService;
+    private final RecordDetailCache recordCache;
+    private final JournalSearchService searchService;
+    private final CacheControl recordCacheControl;
     private static final Logger logger = LoggerFactory.getLogger(ApplicationController.class);
 
-    public ApplicationController(FaithApplicationService applicationService, UserService userService) {
+    public ApplicationController(FaithApplicationService applicationService, UserService userService,
+                                 MentorshipJobService jobService, QuotaService quotaService,
+                                 RecordDetailCache recordCache, JournalSearchService searchService,
+                                 @Value("${mentorship.record.max-age-seconds:3600}") long recordMaxAgeSeconds) {
         this.applicationService = applicationService;
         this.userService = userService;
+        this.jobService = jobService;
+        this.quotaService = quotaService;
+        this.recordCache = recordCache;
+        this.searchService = searchService;
+        this.recordCacheControl = CacheControl.maxAge(Duration.ofSeconds(recordMaxAgeSeconds)).cachePrivate();
     }
 
     /**
      * Rota principal: / (Diário de Aplicações)
      */
     @GetMapping("/")
-    @Transactional(readOnly = true) // <-- ANOTAÇÃO ADICIONADA AQUI
-    public String index(Model model) {
+    public String index(@RequestParam(value = "job", required = false) String jobId,
+                        @RequestParam(value = "before", required = false) String before, Model model) {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
         if (authentication == null ||
@@ -48,11 +77,25 @@ public class ApplicationController {
             return "redirect:/lading-page-saas";
         }
 
-        User user = userService.getAuthenticatedUser(); // Delega a obtenção do User
-
-        // Delega a busca de dados ao Service
-        List<FaithApplication> applications = applicationService.getAllApplicationsByUserId(user.getId());
-        model.addAttribute("applications", applications);
+        UserSnapshot user = userService.getAuthenticatedSnapshot(); // Retrato em cache: sem consulta ao banco
+
+        // Delega a busca de dados ao Service (uma página por vez, pelo cursor "before")
+        FaithApplicationService.JournalPage page = applicationService.getJournalPage(user.id(), before);
+        model.addAttribute("applications", page.applications());
+        model.addAttribute("nextCursor", page.nextCursor());
+
+        // Job de geração em andamento (ou recém-finalizado) vindo do POST /generate
+        if (jobId != null) {
+            jobService.findJob(jobId, user.id()).ifPresent(job -> {
+                if (job.getStatus() == MentorshipJob.Status.COMPLETED) {
+                    model.addAttribute("successMessage", job.getMessage());
+                } else if (job.getStatus() == MentorshipJob.Status.FAILED) {
+                    model.addAttribute("errorMessage", job.getMessage());
+                } else {
+                    model.addAttribute("pendingJobId", job.getId());
+                }
+            });
+        }
 
         return "index";
     }
@@ -69,84 +112,156 @@ public class ApplicationController {
 
         User user = userService.getAuthenticatedUser();
 
-        // 1. LÓGICA DE CONTROLE DE LIMITE (Pre-check e reset) - Delega ao Service
-        userService.checkAndResetMonthlyPromptCount(user);
-
-        int currentCount = user.getMonthlyPromptCount(); // Pega a contagem atualizada (após potencial reset)
-        int limit = user.getSubscriptionPlan().getMonthlyLimit();
-
-        // 2. Checagem final de limite (lógica de apresentação/feedback)
-        if (limit != Integer.MAX_VALUE && currentCount >= limit) {
+        // 1. Reserva atômica de uma vaga da cota (UPDATE condicional: nunca ultrapassa o limite;
+        //    a virada do mês é feita em lote pelo QuotaRolloverService)
+        Optional<QuotaService.Reservation> reservation = quotaService.reserve(user);
+        if (reservation.isEmpty()) {
+            int limit = user.getSubscriptionPlan().getMonthlyLimit();
             ra.addFlashAttribute("errorMessage",
                     "Você atingiu o limite de " + limit + " mentorias neste mês (" + user.getSubscriptionPlan().name() + "). Considere fazer upgrade para o Plano Jardineiro (Ilimitado)!");
             return "redirect:/";
         }
 
         try {
-            // 3. Executa a lógica de geração, incrementando o contador internamente no Service
-            applicationService.generateAndSaveMentorship(userChallenge, user);
-
-            // Pega o novo contador (já incrementado pelo Service) para o feedback
-            int newCount = user.getMonthlyPromptCount();
-
-            ra.addFlashAttribute("successMessage",
-                    "Mentoria gerada e registrada com sucesso! Você usou " + newCount + " de " + (limit == Integer.MAX_VALUE ? "∞" : limit) + " prompts neste mês."); // Ajuste para exibir ∞ se for ilimitado
-        } catch (Exception e) {
-            // Mensagem de erro apenas no console, para não expor a API
-            logger.error("Erro ao chamar a API do Gemini ou processar JSON: {}", e.getMessage(), e);
-            ra.addFlashAttribute("errorMessage", "Erro ao gerar a mentoria. Verifique sua chave de API ou a conexão.");
+            // 2. Registra o job e retorna na hora; um worker chama o Gemini e salva a mentoria
+            MentorshipJob job = jobService.submit(userChallenge, user, reservation.get());
+            return "redirect:/?job=" + job.getId();
+        } catch (RejectedExecutionException e) {
+            logger.warn("Fila de geração cheia. Job recusado para o usuário {}", user.getId());
+            ra.addFlashAttribute("errorMessage", "O Mentor está atendendo muitas pessoas agora. Tente novamente em alguns instantes.");
         }
 
         return "redirect:/";
     }
 
+    /**
+     * Rota AJAX: /generate/jobs/{id} (Polling do estado do job)
+     */
+    @GetMapping("/generate/jobs/{id}")
+    @ResponseBody
+    public ResponseEntity<Map<String, Object>> getJobStatus(@PathVariable("id") String id) {
+        UserSnapshot user = userService.getAuthenticatedSnapshot();
+
+        return jobService.findJob(id, user.id())
+                .map(job -> ResponseEntity.ok(jobService.toPayload(job)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Rota SSE: /generate/jobs/{id}/events (Notifica a página quando o job termina)
+     */
+    @GetMapping(value = "/generate/jobs/{id}/events", produces = "text/event-stream")
+    public ResponseEntity<SseEmitter> streamJobEvents(@PathVariable("id") String id) {
+        UserSnapshot user = userService.getAuthenticatedSnapshot();
+
+        return jobService.findJob(id, user.id())
+                .map(job -> ResponseEntity.ok(jobService.subscribe(job)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     /**
      * Rota: /dashboard (Foco: Mapeamento de Modelo)
      */
     @GetMapping("/dashboard")
-    @Transactional(readOnly = true)
     public String dashboard(Model model) {
-        User user = userService.getAuthenticatedUser();
+        UserSnapshot user = userService.getAuthenticatedSnapshot();
 
-        // 1. Obtém todos os registros do usuário
-        List<FaithApplication> allRecords = applicationService.getAllApplicationsByUserId(user.getId());
+        // Estatísticas já agregadas (temas, dias e últimos temas do mês): não carrega o histórico
+        model.addAllAttributes(applicationService.getDashboardData(user.id()));
 
-        // 2. Delega o cálculo e agrupamento de dados para o Service
-        Map<String, Object> dashboardData = applicationService.getDashboardData(allRecords);
+        return "dasboard"; // Note: o nome do template é "dasboard.html", não "dashboard.html"
+    }
 
-        // 3. Adiciona os atributos ao modelo
-        model.addAllAttributes(dashboardData);
+    /**
+     * Rota AJAX: /dashboard/day/{day} (Registros de um dia do mês corrente, ao clicar no calendário)
+     */
+    @GetMapping("/dashboard/day/{day}")
+    @ResponseBody
+    public ResponseEntity<List<FaithApplicationSummary>> dashboardDay(@PathVariable("day") int day) {
+        UserSnapshot user = userService.getAuthenticatedSnapshot();
 
-        return "dasboard"; // Note: o nome do template é "dasboard.html", não "dashboard.html"
+        YearMonth month = YearMonth.now();
+        if (!month.isValidDay(day)) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(applicationService.getDayApplications(user.id(), month.atDay(day)));
     }
 
     /**
      * Rota: /all-records
      */
     @GetMapping("/all-records")
-    @Transactional(readOnly = true)
-    public String allRecords(Model model) {
-        User user = userService.getAuthenticatedUser();
-
-        List<FaithApplication> applications = applicationService.getAllApplicationsByUserId(user.getId());
-        model.addAttribute("applications", applications);
+    public String allRecords(@RequestParam(value = "before", required = false) String before,
+                             @RequestParam(value = "theme", required = false) Long themeId, Model model) {
+        UserSnapshot user = userService.getAuthenticatedSnapshot();
+
+        FaithApplicationService.JournalPage page = applicationService.getJournalPage(user.id(), themeId, before);
+        model.addAttribute("applications", page.applications());
+        model.addAttribute("nextCursor", page.nextCursor());
+        // Facetas: temas do usuário (pelo índice de temas) e o selecionado
+        model.addAttribute("themes", applicationService.getUserThemes(user.id()));
+        model.addAttribute("selectedTheme", themeId);
         return "all-records";
     }
 
+    /**
+     * Rota AJAX: /all-records/page (Rolagem infinita: só as linhas da próxima página; cursor seguinte no X-Next-Cursor).
+     * Com ?theme={id}, só as mentorias daquele tema.
+     */
+    @GetMapping("/all-records/page")
+    public String allRecordsPage(@RequestParam("before") String before,
+                                 @RequestParam(value = "theme", required = false) Long themeId,
+                                 Model model, HttpServletResponse response) {
+        UserSnapshot user = userService.getAuthenticatedSnapshot();
+
+        FaithApplicationService.JournalPage page = applicationService.getJournalPage(user.id(), themeId, before);
+        model.addAttribute("applications", page.applications());
+        if (page.nextCursor() != null) {
+            response.setHeader("X-Next-Cursor", page.nextCursor());
+        }
+        return "all-records :: recordItems";
+    }
+
+    /**
+     * Rota AJAX: /search?q=...&page=0 (Busca no diário, por relevância, com trechos destacados)
+     */
+    @GetMapping("/search")
+    @ResponseBody
+    public ResponseEntity<JournalSearchService.SearchPage> search(@RequestParam("q") String query,
+                                                                  @RequestParam(value = "page", defaultValue = "0") int page) {
+        UserSnapshot user = userService.getAuthenticatedSnapshot();
+
+        return ResponseEntity.ok(searchService.search(user.id(), query, page));
+    }
+
     /**
      * Rota AJAX: /record/{id} (Foco: Resposta HTTP)
+     * Mentorias são imutáveis: o navegador guarda a resposta (private, max-age) e revalida pelo ETag.
+     * Um If-None-Match que bate vira 304 sem ler os textos no banco.
      */
     @GetMapping("/record/{id}")
     @ResponseBody
-    @Transactional(readOnly = true) // <-- ANOTAÇÃO TAMBÉM NECESSÁRIA AQUI para ler LOB via AJAX
-    public ResponseEntity<FaithApplication> getRecordById(@PathVariable("id") Long id) {
-        User user = userService.getAuthenticatedUser();
-
-        // Delega a busca e o filtro de segurança ao Service
-        Optional<FaithApplication> app = applicationService.getApplicationByIdAndUserId(id, user.getId());
+    public ResponseEntity<byte[]> getRecordById(@PathVariable("id") Long id, WebRequest request) {
+        UserSnapshot user = userService.getAuthenticatedSnapshot();
+
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+            Optional<String> etag = recordCache.etag(id, user.id());
+            if (etag.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            if (request.checkNotModified(etag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).cacheControl(recordCacheControl).build();
+            }
+        }
 
-        return app.map(ResponseEntity::ok)
-                  .orElse(ResponseEntity.notFound().build());
+        // Busca filtrada pelo dono (Camada de Segurança) e já serializada
+        return recordCache.get(id, user.id())
+                .map(record -> ResponseEntity.ok()
+                        .eTag(record.etag())
+                        .cacheControl(recordCacheControl)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(record.json()))
+                .orElse(ResponseEntity.notFound().build());
     }
 
     /**
@@ -155,12 +270,12 @@ public class ApplicationController {
      */
     @RequestMapping(value = "/delete/{id}", method = { RequestMethod.DELETE, RequestMethod.POST })
     public String deleteRecord(@PathVariable("id") Long id, RedirectAttributes ra) {
-        User user = userService.getAuthenticatedUser();
+        UserSnapshot user = userService.getAuthenticatedSnapshot();
 
         // Delega a lógica de exclusão e verificação de propriedade ao Service
-        boolean deleted = applicationService.deleteApplication(id, user.getId());
-
+        boolean deleted = applicationService.deleteApplication(id, user.id());
         if (deleted) {
+            recordCache.evict(id);
             ra.addFlashAttribute("successMessage", "Registro excluído com sucesso!");
         } else {
             ra.addFlashAttribute("errorMessage", "Erro: Registro não encontrado ou você não tem permissão para excluí-lo.");
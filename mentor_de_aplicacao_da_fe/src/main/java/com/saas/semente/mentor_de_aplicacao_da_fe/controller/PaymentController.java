@@ -3,14 +3,19 @@ package com.saas.semente.mentor_de_aplicacao_da_fe.controller;
 import com.mercadopago.exceptions.MPApiException;
 import com.mercadopago.exceptions.MPException;
 import com.mercadopago.resources.preference.Preference;
+import com.saas.semente.mentor_de_aplicacao_da_fe.config.BoundedPasswordEncoder;
 import com.saas.semente.mentor_de_aplicacao_da_fe.model.SubscriptionPlan; 
 import com.saas.semente.mentor_de_aplicacao_da_fe.model.User;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.UserSnapshot;
+import com.saas.semente.mentor_de_aplicacao_da_fe.service.CheckoutStateService;
 import com.saas.semente.mentor_de_aplicacao_da_fe.service.EmailService;
 import com.saas.semente.mentor_de_aplicacao_da_fe.service.MercadoPagoService;
+import com.saas.semente.mentor_de_aplicacao_da_fe.service.QuotaService;
 import com.saas.semente.mentor_de_aplicacao_da_fe.service.SubscriptionService; 
 import com.saas.semente.mentor_de_aplicacao_da_fe.service.UserService; 
 
-import jakarta.servlet.http.HttpSession;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Controller;
@@ -44,27 +49,33 @@ public class PaymentController {
     private final UserService userService;
     private final SubscriptionService subscriptionService;
     private final MercadoPagoService mercadoPagoService;
+    private final QuotaService quotaService;
+    private final CheckoutStateService checkoutStateService;
     
-    public PaymentController(UserService userService, SubscriptionService subscriptionService, EmailService emailService, MercadoPagoService mercadoPagoService){
+    public PaymentController(UserService userService, SubscriptionService subscriptionService, EmailService emailService,
+                             MercadoPagoService mercadoPagoService, QuotaService quotaService,
+                             CheckoutStateService checkoutStateService){
         this.userService = userService;
         this.subscriptionService = subscriptionService;
         this.mercadoPagoService = mercadoPagoService;
+        this.quotaService = quotaService;
+        this.checkoutStateService = checkoutStateService;
     }
 
     @GetMapping("/my-plan")
     public String myPlan(Model model) {
-        User user = userService.getAuthenticatedUser(); 
+        UserSnapshot user = userService.getAuthenticatedSnapshot(); // Retrato em cache: só o contador vem do banco
 
-        if (!user.isEnabled()) {
+        if (!user.enabled()) {
             return "redirect:/checkout/processing";
         }
         
         model.addAttribute("subscriptionPlans", SubscriptionPlan.values());
 
-        int currentCount = user.getMonthlyPromptCount();
-        int limit = user.getSubscriptionPlan().getMonthlyLimit();
-        String planName = user.getSubscriptionPlan().name();
-        int usagePercentage = subscriptionService.calculateUsagePercentage(user);
+        int currentCount = quotaService.usedInCurrentCycle(user.id());
+        int limit = user.monthlyLimit();
+        String planName = user.plan().name();
+        int usagePercentage = subscriptionService.calculateUsagePercentage(currentCount, limit);
 
         model.addAttribute("planName", planName);
         model.addAttribute("currentCount", currentCount);
@@ -101,12 +112,12 @@ public class PaymentController {
             @RequestParam("planName") String planName, 
             Model model,
             RedirectAttributes ra,
-            HttpSession session) { 
+            HttpServletRequest request,
+            HttpServletResponse response) { 
         
-        session.setAttribute("checkoutData_name", name);
-        session.setAttribute("checkoutData_email", email);
-        session.setAttribute("checkoutData_cpf", identificationNumber);
-        session.setAttribute("checkoutData_planName", planName);
+        // Cookie cifrado em vez da sessão: a volta do Mercado Pago pode cair em outra instância
+        checkoutStateService.store(new CheckoutStateService.CheckoutState(name, email, identificationNumber, planName),
+                request, response);
 
         String cpfLimpo = identificationNumber.replaceAll("[^0-9]", "");
 
@@ -165,21 +176,29 @@ public class PaymentController {
         Optional<User> existingUserOpt = userService.findByEmail(email);
         User userToProcess; 
 
-        if (existingUserOpt.isPresent()) {
-            User existingUser = existingUserOpt.get();
-            
-            if (existingUser.isEnabled()) {
-                model.addAttribute("accountExistsError", "O e-mail **" + email + "** já está registrado e ativo. Por favor, <a th:href='@{/login}' href='/login' class='alert-link'>faça login</a> para gerenciar seu plano.");
-                preencherModeloComErro.run();
-                return "checkout"; 
+        try {
+            if (existingUserOpt.isPresent()) {
+                User existingUser = existingUserOpt.get();
+                
+                if (existingUser.isEnabled()) {
+                    model.addAttribute("accountExistsError", "O e-mail **" + email + "** já está registrado e ativo. Por favor, <a th:href='@{/login}' href='/login' class='alert-link'>faça login</a> para gerenciar seu plano.");
+                    preencherModeloComErro.run();
+                    return "checkout"; 
+                } else {
+                    logger.info("Reutilizando registro inativo para o email: {}", email);
+                    userToProcess = subscriptionService.updateInactiveUser(existingUser, name, password, cpfLimpo, planName);
+                }
+                
             } else {
-                logger.info("Reutilizando registro inativo para o email: {}", email);
-                userToProcess = subscriptionService.updateInactiveUser(existingUser, name, password, cpfLimpo, planName);
+                logger.info("Criando novo registro inativo (pré-registro) para o email: {}", email);
+                userToProcess = subscriptionService.preRegisterUser(name, email, password, cpfLimpo, planName);
             }
-            
-        } else {
-            logger.info("Criando novo registro inativo (pré-registro) para o email: {}", email);
-            userToProcess = subscriptionService.preRegisterUser(name, email, password, cpfLimpo, planName);
+        } catch (BoundedPasswordEncoder.HashingRejectedException e) {
+            // Pool do BCrypt saturado (rajada de logins/cadastros): recusa rápida em vez de travar o servidor
+            logger.warn("Cadastro recusado por sobrecarga no hash de senha: {}", email);
+            model.addAttribute(ATTRIBUTE_ERROR_MESSAGE, "Estamos com muitos acessos no momento. Tente novamente em alguns instantes.");
+            preencherModeloComErro.run();
+            return "checkout";
         }
 
         // --- FLUXO DE SUCESSO ---
@@ -223,20 +242,16 @@ public class PaymentController {
     /**
      * NOVO MÉTODO: Rota GET para onde o Mercado Pago redireciona
      * em caso de pagamento FALHO ou CANCELADO (clicar em "Voltar").
-     * Este método restaura os dados do formulário da sessão.
+     * Este método restaura os dados do formulário a partir do cookie cifrado do checkout.
      */
     @GetMapping("/checkout/cancel")
-    public String checkoutCancel(HttpSession session, RedirectAttributes ra) {
+    public String checkoutCancel(HttpServletRequest request, HttpServletResponse response, RedirectAttributes ra) {
         
-        String name = (String) session.getAttribute("checkoutData_name");
-        String email = (String) session.getAttribute("checkoutData_email");
-        String cpf = (String) session.getAttribute("checkoutData_cpf");
-        String planName = (String) session.getAttribute("checkoutData_planName");
-
-        session.removeAttribute("checkoutData_name");
-        session.removeAttribute("checkoutData_email");
-        session.removeAttribute("checkoutData_cpf");
-        session.removeAttribute("checkoutData_planName");
+        Optional<CheckoutStateService.CheckoutState> state = checkoutStateService.consume(request, response);
+        String name = state.map(CheckoutStateService.CheckoutState::name).orElse(null);
+        String email = state.map(CheckoutStateService.CheckoutState::email).orElse(null);
+        String cpf = state.map(CheckoutStateService.CheckoutState::cpf).orElse(null);
+        String planName = state.map(CheckoutStateService.CheckoutState::planName).orElse(null);
 
         ra.addFlashAttribute("name", name);
         ra.addFlashAttribute("email", email);
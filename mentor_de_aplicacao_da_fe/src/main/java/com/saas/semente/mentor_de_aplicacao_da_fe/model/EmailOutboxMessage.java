@@ -0,0 +1,72 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * E-mail na caixa de saída, já renderizado (assunto e corpo) no momento do evento.
+ * Gravado na transação do evento: se ela for desfeita, o e-mail também some.
+ */
+@Entity
+@Table(name = "email_outbox")
+@Data
+@NoArgsConstructor
+public class EmailOutboxMessage {
+
+    public enum Type {
+        WELCOME,              // Ativação da assinatura (REG)
+        UPGRADE_CONFIRMATION  // Troca de plano (UPG)
+    }
+
+    public enum Status {
+        PENDING, // Aguardando o envio (novo ou com nova tentativa agendada)
+        SENT,    // Aceito pelo servidor SMTP
+        FAILED   // Tentativas esgotadas
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "message_type", nullable = false, length = 40)
+    private Type type;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String body;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+
+    @Column(length = 500)
+    private String lastError;
+}
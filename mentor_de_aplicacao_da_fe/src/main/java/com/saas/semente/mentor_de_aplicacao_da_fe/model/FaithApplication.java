@@ -1,12 +1,14 @@
 package com.saas.semente.mentor_de_aplicacao_da_fe.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
-import jakarta.persistence.Lob; 
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
@@ -18,6 +20,8 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 public class FaithApplication {
 
+    public static final int EXCERPT_LENGTH = 160;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -27,28 +31,47 @@ public class FaithApplication {
     private User user; 
 
     // Campos preenchidos pelo usuário
-    @Lob // Garante que o texto seja longo (TEXT)
+    @Column(columnDefinition = "text") // Inline (TOAST), não large object: lido junto com a linha
     private String userChallenge;
 
+    // Começo do desafio para as listagens (FaithApplicationSummary), sem ler o texto inteiro
+    @Column(length = EXCERPT_LENGTH)
+    private String challengeExcerpt;
+
     // Campos gerados pela IA (Mentor Premium)
     private String identifiedTheme;
 
-    @Lob // Garante que o texto seja longo (TEXT)
+    @Column(columnDefinition = "text") // Inline (TOAST), não large object: lido junto com a linha
     private String versiculoBussola;
 
-    @Lob // Garante que o texto seja longo (TEXT)
+    @Column(columnDefinition = "text") // Inline (TOAST), não large object: lido junto com a linha
     private String reflexaoAplicada;
 
     // ****** INÍCIO DA CORREÇÃO ******
-    @Lob // Garante que o texto seja longo (TEXT)
+    @Column(columnDefinition = "text") // Inline (TOAST), não large object: lido junto com a linha
     private String conselhosPraticos; // NOVO CAMPO
     // ****** FIM DA CORREÇÃO ******
 
     private String referenciasCruzadas;
 
-    @Lob // Garante que o texto seja longo (TEXT)
+    @Column(columnDefinition = "text") // Inline (TOAST), não large object: lido junto com a linha
     private String oracaoSemente;
 
+    // Roteamento: modelo que gerou a mentoria e o motivo da escolha (primary, lite, fallback-*, cache)
+    @Column(length = 80)
+    private String generationModel;
+
+    @Column(length = 40)
+    private String routingReason;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
-}
\ No newline at end of file
+
+    @PrePersist
+    @PreUpdate
+    void fillChallengeExcerpt() {
+        challengeExcerpt = userChallenge == null || userChallenge.length() <= EXCERPT_LENGTH
+                ? userChallenge
+                : userChallenge.substring(0, EXCERPT_LENGTH - 1) + "…";
+    }
+}
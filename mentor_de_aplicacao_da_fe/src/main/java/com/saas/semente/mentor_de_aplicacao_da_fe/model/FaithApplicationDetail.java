@@ -0,0 +1,20 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Resposta do /record/{id}: a mentoria completa, sem o usuário (nem o hash da senha) da entidade.
+ * Uma mentoria não muda depois de criada, então (id, createdAt) identifica o conteúdo: é a base do ETag.
+ */
+public record FaithApplicationDetail(Long id, String userChallenge, String identifiedTheme, String versiculoBussola,
+                                     String reflexaoAplicada, String conselhosPraticos, String referenciasCruzadas,
+                                     String oracaoSemente, LocalDateTime createdAt) {
+
+    /**
+     * ETag forte (entre aspas) de uma mentoria.
+     */
+    public static String etag(Long id, LocalDateTime createdAt) {
+        return "\"" + id + "-" + createdAt.toInstant(ZoneOffset.UTC).toEpochMilli() + "\"";
+    }
+}
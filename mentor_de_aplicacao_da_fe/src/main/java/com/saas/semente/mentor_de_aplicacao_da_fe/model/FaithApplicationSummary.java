@@ -0,0 +1,11 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Linha das listagens do diário (/, /all-records): só colunas curtas.
+ * O texto completo da mentoria é lido apenas pelo /record/{id}.
+ */
+public record FaithApplicationSummary(Long id, String identifiedTheme, String versiculoBussola,
+                                      LocalDateTime createdAt, String excerpt) {
+}
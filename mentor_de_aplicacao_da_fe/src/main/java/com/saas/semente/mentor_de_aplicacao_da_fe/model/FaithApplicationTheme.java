@@ -0,0 +1,45 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Vínculo mentoria -> tema. userId e createdAt são cópias da mentoria: o filtro por tema do diário
+ * usa só o índice (user_id, theme_id, created_at DESC, application_id DESC).
+ */
+@Entity
+@Table(name = "faith_application_theme")
+@IdClass(FaithApplicationTheme.Key.class)
+@Data
+@NoArgsConstructor
+public class FaithApplicationTheme {
+
+    @Id
+    private Long applicationId;
+
+    @Id
+    private Long themeId;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long applicationId;
+        private Long themeId;
+    }
+}
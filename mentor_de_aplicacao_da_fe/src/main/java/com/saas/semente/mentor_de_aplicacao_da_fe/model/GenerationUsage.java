@@ -0,0 +1,53 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Registro APPEND-ONLY de cada chamada ao gerador de mentorias (tokens do usageMetadata,
+ * modelo e latência). Nunca é atualizado; os totais consultáveis ficam em UsageDailyRollup.
+ */
+@Entity
+@Table(name = "generation_usage")
+@Data
+@NoArgsConstructor
+public class GenerationUsage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SubscriptionPlan plan;
+
+    @Column(nullable = false, length = 80)
+    private String model;
+
+    private int promptTokens;
+
+    private int candidatesTokens;
+
+    private int cachedTokens;
+
+    private int totalTokens;
+
+    private long latencyMs;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,39 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.model;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+
+/**
+ * Posição no diário para a paginação por cursor (keyset): a última aplicação já exibida.
+ * Formato na URL: "{createdAt ISO}_{id}" (ex.: 2025-03-01T10:15:30.123456_42).
+ */
+public record JournalCursor(LocalDateTime createdAt, Long id) {
+
+    public static JournalCursor of(FaithApplicationSummary app) {
+        return new JournalCursor(app.createdAt(), app.id());
+    }
+
+    /**
+     * Cursor vindo da URL. Ausente ou malformado: vazio (volta para a primeira página).
+     */
+    public static Optional<JournalCursor> parse(String value) {
+        if (value == null || value.isBlank()) {
+            return Optional.empty();
+        }
+        int separator = value.lastIndexOf('_');
+        if (separator <= 0) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new JournalCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1))));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    public String encode() {
+        return createdAt + "_" + id;
+    }
+}
@@ -0,0 +1,50 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Camada persistente (opcional) do cache de mentorias.
+ * A chave é o SHA-256 do desafio normalizado (ver ChallengeNormalizer).
+ */
+@Entity
+@Table(name = "mentorship_cache")
+@Data
+@NoArgsConstructor
+public class MentorshipCacheEntry {
+
+    @Id
+    @Column(length = 64)
+    private String cacheKey;
+
+    @Column(columnDefinition = "text", nullable = false)
+    private String normalizedChallenge;
+
+    @Column(columnDefinition = "text")
+    private String identifiedTheme;
+
+    @Column(columnDefinition = "text")
+    private String versiculoBussola;
+
+    @Column(columnDefinition = "text")
+    private String reflexaoAplicada;
+
+    @Column(columnDefinition = "text")
+    private String conselhosPraticos;
+
+    @Column(columnDefinition = "text")
+    private String referenciasCruzadas;
+
+    @Column(columnDefinition = "text")
+    private String oracaoSemente;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,108 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.model;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Job de geração de mentoria mantido em memória pela instância que o executa (NÃO é uma entidade JPA).
+ * O POST /generate cria o job e retorna na hora; os workers do
+ * MentorshipJobService chamam o Gemini e salvam a FaithApplication.
+ * Cada mudança é copiada para {@link MentorshipJobState}, lido pelas demais instâncias.
+ */
+public class MentorshipJob {
+
+    public enum Status {
+        PENDING,   // Aguardando um worker livre
+        RUNNING,   // Chamando o Gemini
+        COMPLETED, // FaithApplication salva
+        FAILED     // Erro na geração ou ao salvar
+    }
+
+    private final String id;
+    private final Long userId;
+    private final String userChallenge;
+    private final Instant createdAt = Instant.now();
+
+    private volatile Status status = Status.PENDING;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile Long applicationId;
+    private volatile String message;
+
+    // Campos já recebidos no modo streaming (reenviados a quem se inscrever depois)
+    private final Map<String, String> streamedFields = new ConcurrentHashMap<>();
+
+    public MentorshipJob(String id, Long userId, String userChallenge) {
+        this.id = id;
+        this.userId = userId;
+        this.userChallenge = userChallenge;
+    }
+
+    public void markRunning() {
+        this.startedAt = Instant.now();
+        this.status = Status.RUNNING;
+    }
+
+    public void complete(Long applicationId, String message) {
+        this.applicationId = applicationId;
+        this.message = message;
+        this.finishedAt = Instant.now();
+        this.status = Status.COMPLETED;
+    }
+
+    public void fail(String message) {
+        this.message = message;
+        this.finishedAt = Instant.now();
+        this.status = Status.FAILED;
+    }
+
+    public void putStreamedField(String field, String value) {
+        streamedFields.put(field, value);
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUserChallenge() {
+        return userChallenge;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public Long getApplicationId() {
+        return applicationId;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public Map<String, String> getStreamedFields() {
+        return Collections.unmodifiableMap(streamedFields);
+    }
+}
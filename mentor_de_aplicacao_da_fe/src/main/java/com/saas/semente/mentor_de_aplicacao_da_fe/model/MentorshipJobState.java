@@ -0,0 +1,58 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado persistido de um {@link MentorshipJob}: gravado pelo worker que roda o job e lido pelo polling
+ * e pelo SSE de qualquer instância.
+ */
+@Entity
+@Table(name = "mentorship_job")
+@Data
+@NoArgsConstructor
+public class MentorshipJobState {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private MentorshipJob.Status status;
+
+    private Long applicationId;
+
+    @Column(length = 500)
+    private String message;
+
+    @Column(columnDefinition = "text") // Seções já recebidas no modo streaming, em JSON
+    private String streamedFields;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime finishedAt;
+
+    public MentorshipJobState(MentorshipJob job) {
+        this.id = job.getId();
+        this.userId = job.getUserId();
+        this.status = job.getStatus();
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public boolean isFinished() {
+        return status == MentorshipJob.Status.COMPLETED || status == MentorshipJob.Status.FAILED;
+    }
+}
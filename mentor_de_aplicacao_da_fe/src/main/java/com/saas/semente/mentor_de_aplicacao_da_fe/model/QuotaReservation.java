@@ -0,0 +1,49 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Vaga da cota mensal reservada antes da chamada ao Gemini.
+ * RESERVED já conta no monthlyPromptCount; vira COMMITTED junto com a FaithApplication salva
+ * ou RELEASED (devolvendo a vaga) se a geração falhar ou a reserva expirar.
+ */
+@Entity
+@Table(name = "quota_reservation")
+@Data
+@NoArgsConstructor
+public class QuotaReservation {
+
+    public enum Status {
+        RESERVED,  // Vaga ocupada, geração em andamento
+        COMMITTED, // Mentoria salva: a vaga foi consumida
+        RELEASED   // Geração falhou ou expirou: a vaga foi devolvida
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.RESERVED;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    private LocalDateTime resolvedAt;
+}
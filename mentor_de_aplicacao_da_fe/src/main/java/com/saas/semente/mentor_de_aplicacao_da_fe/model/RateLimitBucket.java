@@ -0,0 +1,29 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Token bucket do limitador de taxa no modo compartilhado (mentorship.ratelimit.store=postgres).
+ */
+@Entity
+@Table(name = "rate_limit_bucket")
+@Data
+@NoArgsConstructor
+public class RateLimitBucket {
+
+    @Id
+    @Column(length = 120)
+    private String bucketKey;
+
+    private double tokens;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+}
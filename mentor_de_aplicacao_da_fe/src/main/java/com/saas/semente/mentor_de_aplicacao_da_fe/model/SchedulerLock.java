@@ -0,0 +1,30 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Trava de tarefa agendada compartilhada entre as instâncias (uma linha por tarefa).
+ * Quem consegue avançar o locked_until executa; os demais pulam a rodada.
+ */
+@Entity
+@Table(name = "scheduler_lock")
+@Data
+@NoArgsConstructor
+public class SchedulerLock {
+
+    @Id
+    @Column(length = 64)
+    private String name;
+
+    @Column(nullable = false)
+    private LocalDateTime lockedUntil;
+
+    private String lockedBy;
+}
@@ -0,0 +1,30 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Tema normalizado (ThemeCanonicalizer): "Preocupação" e "ansiedade" são o mesmo tema.
+ */
+@Entity
+@Table(name = "theme")
+@Data
+@NoArgsConstructor
+public class Theme {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String canonicalKey;
+
+    @Column(nullable = false)
+    private String displayName;
+}
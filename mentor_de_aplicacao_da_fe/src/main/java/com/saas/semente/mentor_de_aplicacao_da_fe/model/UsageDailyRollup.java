@@ -0,0 +1,59 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Totais diários de uso por usuário e plano, acumulados a cada geração (upsert em
+ * UsageDailyRollupRepository.accumulate). Os relatórios somam esta tabela, nunca a generation_usage.
+ */
+@Entity
+@Table(name = "usage_daily_rollup")
+@IdClass(UsageDailyRollup.Key.class)
+@Data
+@NoArgsConstructor
+public class UsageDailyRollup {
+
+    @Id
+    private LocalDate usageDay;
+
+    @Id
+    private Long userId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    private SubscriptionPlan plan;
+
+    private long generations;
+
+    private long promptTokens;
+
+    private long candidatesTokens;
+
+    private long cachedTokens;
+
+    private long totalTokens;
+
+    private long latencyMsSum;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private LocalDate usageDay;
+        private Long userId;
+        private SubscriptionPlan plan;
+    }
+}
@@ -0,0 +1,38 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aviso de que o retrato em cache de um usuário ficou velho (plano/ativação mudaram).
+ * Gravado na mesma transação da mudança; cada instância lê os avisos recentes e descarta o retrato.
+ */
+@Entity
+@Table(name = "user_cache_invalidation")
+@Data
+@NoArgsConstructor
+public class UserCacheInvalidation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String email;
+
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    public UserCacheInvalidation(String email) {
+        this.email = email;
+    }
+}
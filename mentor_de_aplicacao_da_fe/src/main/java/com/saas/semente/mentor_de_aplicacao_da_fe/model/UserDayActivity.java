@@ -0,0 +1,39 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Mentorias do usuário em um dia (os dias marcados no calendário do dashboard).
+ */
+@Entity
+@Table(name = "user_day_activity")
+@IdClass(UserDayActivity.Key.class)
+@Data
+@NoArgsConstructor
+public class UserDayActivity {
+
+    @Id
+    private Long userId;
+
+    @Id
+    private LocalDate activityDay;
+
+    private long applicationCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private LocalDate activityDay;
+    }
+}
@@ -0,0 +1,24 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Últimos temas distintos do usuário, do mais recente ao mais antigo, separados por vírgula.
+ */
+@Entity
+@Table(name = "user_recent_themes")
+@Data
+@NoArgsConstructor
+public class UserRecentThemes {
+
+    @Id
+    private Long userId;
+
+    @Column(nullable = false, length = 1000)
+    private String themes;
+}
@@ -0,0 +1,17 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.model;
+
+/**
+ * Retrato imutável do usuário logado (NÃO é uma entidade JPA), mantido no UserSnapshotCache
+ * para as páginas de leitura não consultarem app_user a cada requisição.
+ * O contador mensal fica de fora: muda a cada geração e é lido direto do banco quando exibido.
+ */
+public record UserSnapshot(Long id, String email, String name, SubscriptionPlan plan, boolean enabled) {
+
+    public static UserSnapshot of(User user) {
+        return new UserSnapshot(user.getId(), user.getEmail(), user.getName(), user.getSubscriptionPlan(), user.isEnabled());
+    }
+
+    public int monthlyLimit() {
+        return plan.getMonthlyLimit();
+    }
+}
@@ -0,0 +1,44 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Quantas mentorias do usuário no mês citaram o tema (contador mantido por DashboardStatsService).
+ */
+@Entity
+@Table(name = "user_theme_stat")
+@IdClass(UserThemeStat.Key.class)
+@Data
+@NoArgsConstructor
+public class UserThemeStat {
+
+    @Id
+    private Long userId;
+
+    // Primeiro dia do mês
+    @Id
+    private LocalDate statMonth;
+
+    @Id
+    private String theme;
+
+    private long applicationCount;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private LocalDate statMonth;
+        private String theme;
+    }
+}
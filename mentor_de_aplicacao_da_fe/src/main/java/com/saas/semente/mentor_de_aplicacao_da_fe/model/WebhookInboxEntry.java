@@ -0,0 +1,66 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Notificação do Mercado Pago recebida pelo webhook, única por (tópico, recurso).
+ * Reenvios da mesma notificação só incrementam {@code notifications}; o efeito no usuário acontece
+ * uma vez, na transação que marca a entrada como DONE.
+ */
+@Entity
+@Table(name = "webhook_inbox",
+        uniqueConstraints = @UniqueConstraint(name = "uk_webhook_inbox_resource", columnNames = {"topic", "resource_id"}))
+@Data
+@NoArgsConstructor
+public class WebhookInboxEntry {
+
+    public enum Status {
+        PENDING, // Aguardando o worker (nova ou com nova tentativa agendada)
+        WAITING, // Pagamento ainda não decidido (pending/in_process): volta a PENDING na próxima notificação
+        DONE,    // Processada (aprovação aplicada ou pagamento recusado)
+        FAILED   // Tentativas esgotadas: volta a PENDING se o Mercado Pago notificar de novo
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 40)
+    private String topic;
+
+    @Column(name = "resource_id", nullable = false, length = 64)
+    private String resourceId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status = Status.PENDING;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(nullable = false)
+    private int notifications = 1;
+
+    @Column(nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(nullable = false)
+    private LocalDateTime receivedAt;
+
+    private LocalDateTime processedAt;
+
+    @Column(length = 500)
+    private String lastError;
+}
@@ -0,0 +1,119 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.repository;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.UserThemeStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Estatísticas do dashboard (user_theme_stat, user_day_activity, user_recent_themes).
+ * Os contadores mudam por upsert atômico (+1/-1): mentorias simultâneas do mesmo usuário não se perdem.
+ * Os últimos temas são lidos e reescritos com a linha travada ({@link #lockRecentThemes}).
+ */
+@Repository
+public interface DashboardStatsRepository extends JpaRepository<UserThemeStat, UserThemeStat.Key> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_theme_stat (user_id, stat_month, theme, application_count)
+            VALUES (:userId, :month, :theme, :delta)
+            ON CONFLICT (user_id, stat_month, theme) DO UPDATE SET
+                application_count = user_theme_stat.application_count + EXCLUDED.application_count
+            """, nativeQuery = true)
+    int addToTheme(@Param("userId") Long userId, @Param("month") LocalDate month,
+                   @Param("theme") String theme, @Param("delta") long delta);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_day_activity (user_id, activity_day, application_count)
+            VALUES (:userId, :day, :delta)
+            ON CONFLICT (user_id, activity_day) DO UPDATE SET
+                application_count = user_day_activity.application_count + EXCLUDED.application_count
+            """, nativeQuery = true)
+    int addToDay(@Param("userId") Long userId, @Param("day") LocalDate day, @Param("delta") long delta);
+
+    /**
+     * Remove os contadores zerados por exclusões.
+     */
+    @Modifying
+    @Query("DELETE FROM UserThemeStat s WHERE s.userId = :userId AND s.applicationCount <= 0")
+    int deleteEmptyThemes(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM UserDayActivity d WHERE d.userId = :userId AND d.applicationCount <= 0")
+    int deleteEmptyDays(@Param("userId") Long userId);
+
+    /**
+     * Cria a linha dos últimos temas, se ainda não existir, para que {@link #lockRecentThemes} sempre tenha o que travar.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_recent_themes (user_id, themes) VALUES (:userId, '') ON CONFLICT (user_id) DO NOTHING",
+           nativeQuery = true)
+    int insertRecentThemesIfAbsent(@Param("userId") Long userId);
+
+    /**
+     * Lê os últimos temas travando a linha até o fim da transação: outra mentoria do mesmo usuário
+     * espera e depois lê o valor já atualizado (sem isso, uma das duas atualizações se perderia).
+     */
+    @Query(value = "SELECT themes FROM user_recent_themes WHERE user_id = :userId FOR UPDATE", nativeQuery = true)
+    String lockRecentThemes(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_recent_themes (user_id, themes) VALUES (:userId, :themes)
+            ON CONFLICT (user_id) DO UPDATE SET themes = EXCLUDED.themes
+            """, nativeQuery = true)
+    int saveRecentThemes(@Param("userId") Long userId, @Param("themes") String themes);
+
+    /**
+     * Temas do mês, do mais frequente ao menos frequente.
+     */
+    @Query("SELECT s FROM UserThemeStat s WHERE s.userId = :userId AND s.statMonth = :month " +
+           "ORDER BY s.applicationCount DESC, s.theme")
+    List<UserThemeStat> findThemes(@Param("userId") Long userId, @Param("month") LocalDate month);
+
+    @Query("SELECT d.activityDay FROM UserDayActivity d WHERE d.userId = :userId " +
+           "AND d.activityDay >= :from AND d.activityDay < :to ORDER BY d.activityDay")
+    List<LocalDate> findActiveDays(@Param("userId") Long userId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT r.themes FROM UserRecentThemes r WHERE r.userId = :userId")
+    Optional<String> findRecentThemes(@Param("userId") Long userId);
+
+    // --- Reconstrução a partir do histórico (backfill/correção) ---
+
+    @Modifying
+    @Query("DELETE FROM UserThemeStat s WHERE s.userId = :userId")
+    int deleteThemes(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM UserDayActivity d WHERE d.userId = :userId")
+    int deleteDays(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_theme_stat (user_id, stat_month, theme, application_count)
+            SELECT a.user_id, CAST(date_trunc('month', a.created_at) AS DATE), t.theme, COUNT(*)
+            FROM faith_application a
+            CROSS JOIN LATERAL (SELECT DISTINCT btrim(part) AS theme
+                                FROM regexp_split_to_table(a.identified_theme, ',') AS part) t
+            WHERE a.user_id = :userId AND a.created_at IS NOT NULL AND t.theme <> ''
+            GROUP BY 1, 2, 3
+            """, nativeQuery = true)
+    int rebuildThemes(@Param("userId") Long userId);
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_day_activity (user_id, activity_day, application_count)
+            SELECT a.user_id, CAST(a.created_at AS DATE), COUNT(*)
+            FROM faith_application a
+            WHERE a.user_id = :userId AND a.created_at IS NOT NULL
+            GROUP BY 1, 2
+            """, nativeQuery = true)
+    int rebuildDays(@Param("userId") Long userId);
+}
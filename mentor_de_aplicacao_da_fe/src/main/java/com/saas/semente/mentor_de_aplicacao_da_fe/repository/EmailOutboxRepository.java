@@ -0,0 +1,44 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.repository;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.EmailOutboxMessage;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    @Query("SELECT m FROM EmailOutboxMessage m WHERE m.status = :status AND m.nextAttemptAt <= :now ORDER BY m.nextAttemptAt, m.id")
+    List<EmailOutboxMessage> findDue(@Param("status") EmailOutboxMessage.Status status, @Param("now") LocalDateTime now, Limit limit);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = :sent, m.sentAt = :now, m.lastError = NULL " +
+           "WHERE m.id IN :ids AND m.status = :pending")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("pending") EmailOutboxMessage.Status pending,
+                 @Param("sent") EmailOutboxMessage.Status sent, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE EmailOutboxMessage m SET m.status = :status, m.attempts = m.attempts + 1, " +
+           "m.nextAttemptAt = :nextAttemptAt, m.lastError = :error " +
+           "WHERE m.id = :id AND m.status = :pending AND m.attempts = :attempts")
+    int reschedule(@Param("id") Long id, @Param("attempts") int attempts, @Param("pending") EmailOutboxMessage.Status pending,
+                   @Param("status") EmailOutboxMessage.Status status, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("error") String error);
+
+    long countByStatus(EmailOutboxMessage.Status status);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m WHERE m.status = :status AND m.sentAt < :before")
+    int deleteSentBefore(@Param("status") EmailOutboxMessage.Status status, @Param("before") LocalDateTime before);
+}
@@ -1,21 +1,112 @@
 package com.saas.semente.mentor_de_aplicacao_da_fe.repository;
 
 import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplication;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplicationDetail;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplicationSummary;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface FaithApplicationRepository extends JpaRepository<FaithApplication, Long> {
 
+    // Projeção das listagens: sem os textos pesados (reflexão, conselhos, oração, desafio completo)
+    String SUMMARY = "SELECT new com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplicationSummary(" +
+                     "a.id, a.identifiedTheme, a.versiculoBussola, a.createdAt, a.challengeExcerpt) FROM FaithApplication a ";
+
+    /**
+     * Primeira página do diário (mais recentes primeiro). Usa o índice (user_id, created_at DESC, id DESC).
+     */
+    @Query(SUMMARY + "WHERE a.user.id = :userId ORDER BY a.createdAt DESC, a.id DESC")
+    List<FaithApplicationSummary> findJournalFirstPage(@Param("userId") Long userId, Limit limit);
+
+    /**
+     * Página seguinte ao cursor (createdAt, id), sem OFFSET: o custo não cresce com o tamanho do histórico.
+     * O "createdAt <= :createdAt" redundante vira o limite da varredura do índice; o OR só desempata o mesmo instante.
+     */
+    @Query(SUMMARY + "WHERE a.user.id = :userId AND a.createdAt <= :createdAt " +
+           "AND (a.createdAt < :createdAt OR a.id < :id) ORDER BY a.createdAt DESC, a.id DESC")
+    List<FaithApplicationSummary> findJournalPageAfter(@Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt,
+                                                       @Param("id") Long id, Limit limit);
+
+    // Filtro por tema: percorre o índice dos vínculos (user_id, theme_id, created_at DESC, application_id DESC)
+    String THEMED = SUMMARY + "JOIN FaithApplicationTheme l ON l.applicationId = a.id WHERE l.userId = :userId AND l.themeId = :themeId ";
+
+    @Query(THEMED + "ORDER BY l.createdAt DESC, l.applicationId DESC")
+    List<FaithApplicationSummary> findThemedFirstPage(@Param("userId") Long userId, @Param("themeId") Long themeId, Limit limit);
+
+    @Query(THEMED + "AND l.createdAt <= :createdAt AND (l.createdAt < :createdAt OR l.applicationId < :id) " +
+           "ORDER BY l.createdAt DESC, l.applicationId DESC")
+    List<FaithApplicationSummary> findThemedPageAfter(@Param("userId") Long userId, @Param("themeId") Long themeId,
+                                                      @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                      Limit limit);
+
     /**
-     * NOVO: Busca todas as aplicações por ID do Usuário, ordenadas pela data de criação decrescente.
-     * Spring Data JPA interpreta 'findByUserId' como: 
-     * Encontre as aplicações onde o campo 'user' (na FaithApplication) tem o 'id' correspondente.
+     * Resultado da busca textual: a linha da listagem, a relevância e o trecho com os termos marcados.
      */
-    List<FaithApplication> findByUserIdOrderByCreatedAtDesc(Long userId);
+    interface SearchRow {
+        Long getId();
+        String getIdentifiedTheme();
+        String getVersiculoBussola();
+        LocalDateTime getCreatedAt();
+        double getRank();
+        String getSnippet();
+    }
+
+    /**
+     * Busca no diário do usuário (search_vector + índice GIN, V16/V17), da mais relevante para a menos.
+     * O trecho (ts_headline, caro) só é gerado para as linhas da página, depois do LIMIT. Os caracteres usados
+     * como marcadores (STX/ETX, JournalSearchService) são removidos do texto antes, para não virarem destaque.
+     */
+    @Query(value = """
+            SELECT p.id AS id, a.identified_theme AS identifiedTheme, a.versiculo_bussola AS versiculoBussola,
+                   a.created_at AS createdAt, p.rank AS rank,
+                   ts_headline('portuguese',
+                               translate(concat_ws(' … ', a.user_challenge, a.reflexao_aplicada, a.conselhos_praticos,
+                                                   a.oracao_semente), chr(2) || chr(3), ''),
+                               p.query, :headlineOptions) AS snippet
+            FROM (SELECT f.id, ts_rank_cd(f.search_vector, q) AS rank, q AS query, f.created_at
+                  FROM faith_application f, websearch_to_tsquery('portuguese', :query) q
+                  WHERE f.user_id = :userId AND f.search_vector @@ q
+                  ORDER BY rank DESC, f.created_at DESC, f.id DESC
+                  LIMIT :limit OFFSET :offset) p
+            JOIN faith_application a ON a.id = p.id
+            ORDER BY p.rank DESC, p.created_at DESC, p.id DESC
+            """, nativeQuery = true)
+    List<SearchRow> search(@Param("userId") Long userId, @Param("query") String query,
+                           @Param("headlineOptions") String headlineOptions,
+                           @Param("limit") int limit, @Param("offset") int offset);
+
+    /**
+     * Mentoria completa de um usuário (DTO do /record/{id}), sem carregar o User associado.
+     */
+    @Query("SELECT new com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplicationDetail(" +
+           "a.id, a.userChallenge, a.identifiedTheme, a.versiculoBussola, a.reflexaoAplicada, a.conselhosPraticos, " +
+           "a.referenciasCruzadas, a.oracaoSemente, a.createdAt) FROM FaithApplication a WHERE a.id = :id AND a.user.id = :userId")
+    Optional<FaithApplicationDetail> findDetail(@Param("id") Long id, @Param("userId") Long userId);
+
+    /**
+     * Só o createdAt (para o ETag): revalidar o cache do navegador não lê as colunas de texto.
+     */
+    @Query("SELECT a.createdAt FROM FaithApplication a WHERE a.id = :id AND a.user.id = :userId")
+    Optional<LocalDateTime> findCreatedAt(@Param("id") Long id, @Param("userId") Long userId);
+
+    /**
+     * Aplicações de um intervalo [from, to) (ex.: um dia do calendário do dashboard), pelo mesmo índice.
+     */
+    @Query(SUMMARY + "WHERE a.user.id = :userId AND a.createdAt >= :from AND a.createdAt < :to ORDER BY a.createdAt DESC, a.id DESC")
+    List<FaithApplicationSummary> findSummariesBetween(@Param("userId") Long userId, @Param("from") LocalDateTime from,
+                                                       @Param("to") LocalDateTime to);
+
+    @Query("SELECT DISTINCT a.user.id FROM FaithApplication a")
+    List<Long> findUserIdsWithApplications();
     
     // O método findAllByOrderByCreatedAtDesc() foi removido por razões de segurança, 
     // já que agora todos os dados devem ser filtrados por usuário.
-}
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.repository;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplicationTheme;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface FaithApplicationThemeRepository extends JpaRepository<FaithApplicationTheme, FaithApplicationTheme.Key> {
+
+    @Modifying
+    @Query(value = "INSERT INTO faith_application_theme (application_id, theme_id, user_id, created_at) " +
+                   "VALUES (:applicationId, :themeId, :userId, :createdAt) ON CONFLICT DO NOTHING", nativeQuery = true)
+    int link(@Param("applicationId") Long applicationId, @Param("themeId") Long themeId,
+             @Param("userId") Long userId, @Param("createdAt") LocalDateTime createdAt);
+
+    /**
+     * No Postgres o ON DELETE CASCADE já remove os vínculos; aqui a exclusão não depende do schema.
+     */
+    @Modifying
+    @Query("DELETE FROM FaithApplicationTheme l WHERE l.applicationId = :applicationId")
+    int deleteByApplication(@Param("applicationId") Long applicationId);
+}
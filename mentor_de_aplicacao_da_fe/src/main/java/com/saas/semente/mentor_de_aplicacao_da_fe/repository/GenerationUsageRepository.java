@@ -0,0 +1,9 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.repository;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.GenerationUsage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface GenerationUsageRepository extends JpaRepository<GenerationUsage, Long> {
+}
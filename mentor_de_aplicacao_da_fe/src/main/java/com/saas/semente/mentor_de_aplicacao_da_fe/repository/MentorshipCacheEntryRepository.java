@@ -0,0 +1,21 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.repository;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.MentorshipCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface MentorshipCacheEntryRepository extends JpaRepository<MentorshipCacheEntry, String> {
+
+    /**
+     * Remove em lote as entradas que passaram do TTL do cache.
+     */
+    @Modifying
+    @Query("DELETE FROM MentorshipCacheEntry e WHERE e.createdAt < :threshold")
+    int deleteExpired(@Param("threshold") LocalDateTime threshold);
+}
@@ -0,0 +1,47 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.repository;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.MentorshipJob;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.MentorshipJobState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface MentorshipJobStateRepository extends JpaRepository<MentorshipJobState, String> {
+
+    Optional<MentorshipJobState> findByIdAndUserId(String id, Long userId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE MentorshipJobState j SET j.status = :status WHERE j.id = :id")
+    int updateStatus(@Param("id") String id, @Param("status") MentorshipJob.Status status);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE MentorshipJobState j SET j.streamedFields = :fields WHERE j.id = :id")
+    int updateStreamedFields(@Param("id") String id, @Param("fields") String fields);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            UPDATE MentorshipJobState j
+               SET j.status = :status, j.applicationId = :applicationId, j.message = :message, j.finishedAt = :finishedAt
+             WHERE j.id = :id
+            """)
+    int finish(@Param("id") String id,
+               @Param("status") MentorshipJob.Status status,
+               @Param("applicationId") Long applicationId,
+               @Param("message") String message,
+               @Param("finishedAt") LocalDateTime finishedAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM MentorshipJobState j WHERE j.createdAt < :before")
+    int deleteCreatedBefore(@Param("before") LocalDateTime before);
+}
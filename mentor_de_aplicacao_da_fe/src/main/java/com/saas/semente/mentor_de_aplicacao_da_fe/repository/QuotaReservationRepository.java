@@ -0,0 +1,29 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.repository;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.QuotaReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface QuotaReservationRepository extends JpaRepository<QuotaReservation, Long> {
+
+    /**
+     * Troca o estado apenas se a reserva ainda estiver em {@code from}: só um nó/thread vence a transição.
+     * @return 1 se a transição aconteceu, 0 se outro já resolveu a reserva.
+     */
+    @Modifying
+    @Query("UPDATE QuotaReservation r SET r.status = :to, r.resolvedAt = :now WHERE r.id = :id AND r.status = :from")
+    int transition(@Param("id") Long id,
+                   @Param("from") QuotaReservation.Status from,
+                   @Param("to") QuotaReservation.Status to,
+                   @Param("now") LocalDateTime now);
+
+    // Reservas abandonadas (ex.: o nó caiu durante a geração)
+    List<QuotaReservation> findTop500ByStatusAndCreatedAtBefore(QuotaReservation.Status status, LocalDateTime before);
+}
@@ -0,0 +1,42 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.repository;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.RateLimitBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface RateLimitBucketRepository extends JpaRepository<RateLimitBucket, String> {
+
+    /**
+     * Repõe as fichas pelo tempo decorrido e consome uma, se houver (bucket criado cheio no primeiro uso).
+     * @return 1 se consumiu, 0 se o bucket está vazio.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            INSERT INTO rate_limit_bucket (bucket_key, tokens, updated_at)
+            VALUES (:key, :capacity - 1, LOCALTIMESTAMP)
+            ON CONFLICT (bucket_key) DO UPDATE SET
+                tokens = LEAST(:capacity, rate_limit_bucket.tokens
+                         + EXTRACT(EPOCH FROM (LOCALTIMESTAMP - rate_limit_bucket.updated_at)) * :rate) - 1,
+                updated_at = LOCALTIMESTAMP
+            WHERE LEAST(:capacity, rate_limit_bucket.tokens
+                  + EXTRACT(EPOCH FROM (LOCALTIMESTAMP - rate_limit_bucket.updated_at)) * :rate) >= 1
+            """, nativeQuery = true)
+    int tryConsume(@Param("key") String key, @Param("capacity") int capacity, @Param("rate") double refillPerSecond);
+
+    @Query(value = "SELECT LEAST(:capacity, tokens + EXTRACT(EPOCH FROM (LOCALTIMESTAMP - updated_at)) * :rate) " +
+                   "FROM rate_limit_bucket WHERE bucket_key = :key", nativeQuery = true)
+    Double availableTokens(@Param("key") String key, @Param("capacity") int capacity, @Param("rate") double refillPerSecond);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM RateLimitBucket b WHERE b.updatedAt < :before")
+    int deleteIdle(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,30 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.repository;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    // Cria a linha da tarefa na primeira execução (já expirada, livre para quem chegar)
+    @Modifying
+    @Query(value = "INSERT INTO scheduler_lock (name, locked_until, locked_by) VALUES (:name, :now, NULL) " +
+                   "ON CONFLICT (name) DO NOTHING", nativeQuery = true)
+    int createIfAbsent(@Param("name") String name, @Param("now") LocalDateTime now);
+
+    // Adquire a trava se estiver livre (expirada): só uma instância consegue o UPDATE
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :until, l.lockedBy = :node WHERE l.name = :name AND l.lockedUntil <= :now")
+    int acquire(@Param("name") String name, @Param("node") String node,
+                @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :now WHERE l.name = :name AND l.lockedBy = :node")
+    int release(@Param("name") String name, @Param("node") String node, @Param("now") LocalDateTime now);
+}
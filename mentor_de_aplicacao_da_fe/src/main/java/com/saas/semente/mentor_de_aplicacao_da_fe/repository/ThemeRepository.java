@@ -0,0 +1,42 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.repository;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.Theme;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ThemeRepository extends JpaRepository<Theme, Long> {
+
+    /**
+     * Tema do diário do usuário e quantas mentorias o citam (facetas do /all-records).
+     */
+    interface ThemeCount {
+        Long getId();
+        String getDisplayName();
+        long getApplications();
+    }
+
+    Optional<Theme> findByCanonicalKey(String canonicalKey);
+
+    /**
+     * Cria o tema se ainda não existir (gerações simultâneas do mesmo tema novo não colidem).
+     */
+    @Modifying
+    @Query(value = "INSERT INTO theme (canonical_key, display_name) VALUES (:key, :displayName) " +
+                   "ON CONFLICT (canonical_key) DO NOTHING", nativeQuery = true)
+    int insertIfAbsent(@Param("key") String key, @Param("displayName") String displayName);
+
+    /**
+     * Temas do usuário, do mais citado ao menos citado (varre só o prefixo user_id do índice dos vínculos).
+     */
+    @Query("SELECT t.id AS id, t.displayName AS displayName, COUNT(l) AS applications " +
+           "FROM FaithApplicationTheme l JOIN Theme t ON t.id = l.themeId WHERE l.userId = :userId " +
+           "GROUP BY t.id, t.displayName ORDER BY COUNT(l) DESC, t.displayName")
+    List<ThemeCount> findUserThemes(@Param("userId") Long userId);
+}
@@ -0,0 +1,83 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.repository;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.SubscriptionPlan;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.UsageDailyRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface UsageDailyRollupRepository extends JpaRepository<UsageDailyRollup, UsageDailyRollup.Key> {
+
+    /**
+     * Totais de um plano no período.
+     */
+    interface PlanUsage {
+        SubscriptionPlan getPlan();
+        long getGenerations();
+        long getUsers();
+        long getPromptTokens();
+        long getCandidatesTokens();
+        long getCachedTokens();
+        long getTotalTokens();
+        long getLatencyMsSum();
+    }
+
+    /**
+     * Totais de um usuário no período.
+     */
+    interface UserUsage {
+        Long getUserId();
+        SubscriptionPlan getPlan();
+        long getGenerations();
+        long getPromptTokens();
+        long getCandidatesTokens();
+        long getCachedTokens();
+        long getTotalTokens();
+    }
+
+    /**
+     * Soma uma geração ao total do dia (linha criada na primeira geração do usuário no dia).
+     * Upsert atômico do Postgres: gerações simultâneas do mesmo usuário não se perdem.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO usage_daily_rollup (usage_day, user_id, plan, generations, prompt_tokens,
+                                            candidates_tokens, cached_tokens, total_tokens, latency_ms_sum)
+            VALUES (:day, :userId, :plan, 1, :promptTokens, :candidatesTokens, :cachedTokens, :totalTokens, :latencyMs)
+            ON CONFLICT (usage_day, user_id, plan) DO UPDATE SET
+                generations       = usage_daily_rollup.generations + 1,
+                prompt_tokens     = usage_daily_rollup.prompt_tokens + EXCLUDED.prompt_tokens,
+                candidates_tokens = usage_daily_rollup.candidates_tokens + EXCLUDED.candidates_tokens,
+                cached_tokens     = usage_daily_rollup.cached_tokens + EXCLUDED.cached_tokens,
+                total_tokens      = usage_daily_rollup.total_tokens + EXCLUDED.total_tokens,
+                latency_ms_sum    = usage_daily_rollup.latency_ms_sum + EXCLUDED.latency_ms_sum
+            """, nativeQuery = true)
+    int accumulate(@Param("day") LocalDate day,
+                   @Param("userId") Long userId,
+                   @Param("plan") String plan,
+                   @Param("promptTokens") long promptTokens,
+                   @Param("candidatesTokens") long candidatesTokens,
+                   @Param("cachedTokens") long cachedTokens,
+                   @Param("totalTokens") long totalTokens,
+                   @Param("latencyMs") long latencyMs);
+
+    @Query("SELECT r.plan AS plan, SUM(r.generations) AS generations, COUNT(DISTINCT r.userId) AS users, " +
+           "SUM(r.promptTokens) AS promptTokens, SUM(r.candidatesTokens) AS candidatesTokens, " +
+           "SUM(r.cachedTokens) AS cachedTokens, SUM(r.totalTokens) AS totalTokens, SUM(r.latencyMsSum) AS latencyMsSum " +
+           "FROM UsageDailyRollup r WHERE r.usageDay BETWEEN :from AND :to GROUP BY r.plan")
+    List<PlanUsage> summarizeByPlan(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Query("SELECT r.userId AS userId, r.plan AS plan, SUM(r.generations) AS generations, " +
+           "SUM(r.promptTokens) AS promptTokens, SUM(r.candidatesTokens) AS candidatesTokens, " +
+           "SUM(r.cachedTokens) AS cachedTokens, SUM(r.totalTokens) AS totalTokens " +
+           "FROM UsageDailyRollup r WHERE r.usageDay BETWEEN :from AND :to " +
+           "GROUP BY r.userId, r.plan ORDER BY SUM(r.totalTokens) DESC")
+    List<UserUsage> findTopUsers(@Param("from") LocalDate from, @Param("to") LocalDate to, Pageable pageable);
+}
@@ -0,0 +1,32 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.repository;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.UserCacheInvalidation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UserCacheInvalidationRepository extends JpaRepository<UserCacheInvalidation, Long> {
+
+    /**
+     * Avisos com id acima do último lido, em ordem de id (o id vem da identity: cresce na ordem de inserção,
+     * não na de commit).
+     */
+    @Query("SELECT i FROM UserCacheInvalidation i WHERE i.id > :afterId ORDER BY i.id")
+    List<UserCacheInvalidation> findAfter(@Param("afterId") long afterId);
+
+    // Releitura dos ids pulados (transações que ainda não tinham commitado na leitura anterior)
+    List<UserCacheInvalidation> findByIdIn(Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM UserCacheInvalidation i WHERE i.createdAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
@@ -1,9 +1,15 @@
 package com.saas.semente.mentor_de_aplicacao_da_fe.repository;
 
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.SubscriptionPlan;
 import com.saas.semente.mentor_de_aplicacao_da_fe.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
@@ -13,4 +19,56 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
 
     boolean existsByEmail(String email);
+
+    // --- Cota mensal: UPDATEs condicionais (atômicos no banco, seguros entre instâncias) ---
+
+    // Ocupa uma vaga apenas se ainda houver cota (1 = reservado, 0 = limite atingido).
+    // Se o ciclo do usuário é anterior a cycleStart (a virada ainda não rodou), a reserva já abre o ciclo novo.
+    @Modifying
+    @Query("UPDATE User u SET " +
+           "u.monthlyPromptCount = CASE WHEN u.lastPromptMonthCheck IS NULL OR u.lastPromptMonthCheck < :cycleStart " +
+           "THEN 1 ELSE u.monthlyPromptCount + 1 END, " +
+           "u.lastPromptMonthCheck = CASE WHEN u.lastPromptMonthCheck IS NULL OR u.lastPromptMonthCheck < :cycleStart " +
+           "THEN :now ELSE u.lastPromptMonthCheck END " +
+           "WHERE u.id = :id AND (u.lastPromptMonthCheck IS NULL OR u.lastPromptMonthCheck < :cycleStart OR u.monthlyPromptCount < :limit)")
+    int tryReserveSlot(@Param("id") Long id, @Param("limit") int limit,
+                       @Param("cycleStart") LocalDateTime cycleStart, @Param("now") LocalDateTime now);
+
+    // Devolve a vaga, a menos que o ciclo tenha sido reiniciado depois da reserva (reset/upgrade)
+    @Modifying
+    @Query("UPDATE User u SET u.monthlyPromptCount = u.monthlyPromptCount - 1 WHERE u.id = :id AND u.monthlyPromptCount > 0 " +
+           "AND (u.lastPromptMonthCheck IS NULL OR u.lastPromptMonthCheck <= :reservedAt)")
+    int releaseSlot(@Param("id") Long id, @Param("reservedAt") LocalDateTime reservedAt);
+
+    // Conta a vaga sem checar o limite (reserva expirada cuja mentoria acabou salva)
+    @Modifying
+    @Query("UPDATE User u SET u.monthlyPromptCount = u.monthlyPromptCount + 1 WHERE u.id = :id")
+    int forceConsumeSlot(@Param("id") Long id);
+
+    // Rehash no login (UserDetailsPasswordService): só a coluna da senha
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.email = :email")
+    int updatePassword(@Param("email") String email, @Param("password") String password);
+
+    @Query("SELECT u.monthlyPromptCount FROM User u WHERE u.id = :id")
+    int findMonthlyPromptCount(@Param("id") Long id);
+
+    // Só o contador (pela PK): o resto do usuário vem do retrato em cache
+    @Query("SELECT CASE WHEN u.lastPromptMonthCheck IS NULL OR u.lastPromptMonthCheck < :cycleStart " +
+           "THEN 0 ELSE u.monthlyPromptCount END FROM User u WHERE u.id = :id")
+    int findUsedInCycle(@Param("id") Long id, @Param("cycleStart") LocalDateTime cycleStart);
+
+    // Virada mensal em lote: zera um bloco de usuários com ciclo anterior a cycleStart (transação própria por bloco)
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE app_user SET monthly_prompt_count = 0, last_prompt_month_check = :now WHERE id IN (" +
+                   "SELECT id FROM app_user WHERE last_prompt_month_check IS NULL OR last_prompt_month_check < :cycleStart " +
+                   "ORDER BY id LIMIT :chunkSize)", nativeQuery = true)
+    int resetDueChunk(@Param("cycleStart") LocalDateTime cycleStart, @Param("now") LocalDateTime now,
+                      @Param("chunkSize") int chunkSize);
+
+    // Assinantes ativos do plano (base do custo por usuário no relatório de uso)
+    @Query("SELECT COUNT(u) FROM User u WHERE u.subscriptionPlan = :plan AND u.isEnabled = true")
+    long countActiveByPlan(@Param("plan") SubscriptionPlan plan);
 }
\ No newline at end of file
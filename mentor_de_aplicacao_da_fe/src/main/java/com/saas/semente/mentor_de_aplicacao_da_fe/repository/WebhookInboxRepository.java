@@ -0,0 +1,77 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.repository;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.WebhookInboxEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface WebhookInboxRepository extends JpaRepository<WebhookInboxEntry, Long> {
+
+    /**
+     * Grava a notificação uma única vez por (tópico, recurso). Reenvios só contam em notifications;
+     * uma entrada WAITING (pagamento ainda pendente) ou FAILED volta a PENDING, pois o status do pagamento mudou.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO webhook_inbox (topic, resource_id, status, attempts, notifications, next_attempt_at, received_at) " +
+                   "VALUES (:topic, :resourceId, 'PENDING', 0, 1, :now, :now) " +
+                   "ON CONFLICT (topic, resource_id) DO UPDATE SET " +
+                   "notifications = webhook_inbox.notifications + 1, " +
+                   "attempts = CASE WHEN webhook_inbox.status IN ('WAITING', 'FAILED') THEN 0 ELSE webhook_inbox.attempts END, " +
+                   "next_attempt_at = CASE WHEN webhook_inbox.status IN ('WAITING', 'FAILED') THEN EXCLUDED.next_attempt_at " +
+                   "ELSE webhook_inbox.next_attempt_at END, " +
+                   "status = CASE WHEN webhook_inbox.status IN ('WAITING', 'FAILED') THEN 'PENDING' ELSE webhook_inbox.status END",
+           nativeQuery = true)
+    int receive(@Param("topic") String topic, @Param("resourceId") String resourceId, @Param("now") LocalDateTime now);
+
+    @Query("SELECT e FROM WebhookInboxEntry e WHERE e.status = :status AND e.nextAttemptAt <= :now ORDER BY e.nextAttemptAt, e.id")
+    List<WebhookInboxEntry> findDue(@Param("status") WebhookInboxEntry.Status status, @Param("now") LocalDateTime now, Limit limit);
+
+    /**
+     * Encerra a entrada SE ninguém a processou desde a leitura (mesmo status e número de tentativas).
+     * Executado na transação que aplica o efeito: 0 linhas desfaz tudo.
+     */
+    @Modifying
+    @Query("UPDATE WebhookInboxEntry e SET e.status = :status, e.processedAt = :now, e.lastError = NULL " +
+           "WHERE e.id = :id AND e.status = :expected AND e.attempts = :attempts")
+    int complete(@Param("id") Long id, @Param("expected") WebhookInboxEntry.Status expected, @Param("attempts") int attempts,
+                 @Param("status") WebhookInboxEntry.Status status, @Param("now") LocalDateTime now);
+
+    /**
+     * Pagamento ainda pendente: aguarda a próxima notificação. Se uma notificação chegou durante o
+     * processamento (notifications mudou), a entrada continua PENDING e é lida de novo.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE WebhookInboxEntry e SET e.status = :waiting, e.attempts = 0, e.lastError = NULL " +
+           "WHERE e.id = :id AND e.status = :pending AND e.attempts = :attempts AND e.notifications = :notifications")
+    int park(@Param("id") Long id, @Param("attempts") int attempts, @Param("notifications") int notifications,
+             @Param("pending") WebhookInboxEntry.Status pending, @Param("waiting") WebhookInboxEntry.Status waiting);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE WebhookInboxEntry e SET e.status = :status, e.attempts = e.attempts + 1, " +
+           "e.nextAttemptAt = :nextAttemptAt, e.lastError = :error " +
+           "WHERE e.id = :id AND e.status = :pending AND e.attempts = :attempts")
+    int reschedule(@Param("id") Long id, @Param("attempts") int attempts, @Param("pending") WebhookInboxEntry.Status pending,
+                   @Param("status") WebhookInboxEntry.Status status, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                   @Param("error") String error);
+
+    long countByStatus(WebhookInboxEntry.Status status);
+
+    @Query("SELECT MIN(e.receivedAt) FROM WebhookInboxEntry e WHERE e.status = :status")
+    LocalDateTime findOldestReceivedAt(@Param("status") WebhookInboxEntry.Status status);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM WebhookInboxEntry e WHERE e.status = :status AND e.processedAt < :before")
+    int deleteProcessedBefore(@Param("status") WebhookInboxEntry.Status status, @Param("before") LocalDateTime before);
+}
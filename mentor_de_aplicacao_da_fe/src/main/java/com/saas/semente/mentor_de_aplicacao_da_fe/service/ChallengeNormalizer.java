@@ -0,0 +1,42 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Normaliza o desafio do usuário para servir de chave de cache:
+ * minúsculas, sem acentos, sem pontuação, espaços colapsados e sem stop-words.
+ * Ex: "Como perdoar o meu PAI?" e "como perdoar meu pai" geram a mesma chave.
+ */
+@Component
+public class ChallengeNormalizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_ALPHANUMERIC = Pattern.compile("[^a-z0-9]+");
+
+    // Stop-words do português (já sem acento). Negações como "nao" ficam de fora de propósito.
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "o", "as", "os", "e", "de", "do", "da", "dos", "das", "em", "no", "na", "nos", "nas",
+            "um", "uma", "uns", "umas", "com", "por", "para", "pra", "pelo", "pela", "ao", "aos",
+            "que", "se", "me", "mim", "eu", "meu", "minha", "meus", "minhas", "muito", "muita",
+            "estou", "esta", "ando", "tenho", "ter", "sou", "ser", "isso", "esse", "essa", "mas", "ou");
+
+    public String normalize(String userChallenge) {
+        if (userChallenge == null) {
+            return "";
+        }
+
+        String folded = DIACRITICS.matcher(Normalizer.normalize(userChallenge, Normalizer.Form.NFD)).replaceAll("");
+        String[] tokens = NON_ALPHANUMERIC.split(folded.toLowerCase(Locale.ROOT));
+
+        return Arrays.stream(tokens)
+                .filter(token -> !token.isEmpty() && !STOP_WORDS.contains(token))
+                .collect(Collectors.joining(" "));
+    }
+}
@@ -0,0 +1,160 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Dados do formulário de checkout guardados num cookie cifrado e assinado (AES-GCM) com validade,
+ * em vez da HttpSession: a volta do Mercado Pago (/checkout/cancel) pode cair em QUALQUER instância.
+ * Todas as instâncias precisam da mesma mentorship.checkout.state-secret.
+ */
+@Service
+public class CheckoutStateService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckoutStateService.class);
+
+    static final String COOKIE_NAME = "checkout_state";
+    private static final String COOKIE_PATH = "/checkout";
+    private static final int IV_BYTES = 12;
+    private static final int TAG_BITS = 128;
+    // Amarra o token a este uso: a mesma chave não decifra tokens de outro propósito
+    private static final byte[] ASSOCIATED_DATA = "checkout-state-v1".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * O que é restaurado no formulário quando o pagamento é cancelado.
+     */
+    public record CheckoutState(String name, String email, String cpf, String planName) {
+    }
+
+    // Formato serializado (dentro do token cifrado), com a expiração
+    private record Payload(String n, String e, String c, String p, long exp) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final SecretKeySpec key;
+    private final Duration ttl;
+    private final SecureRandom random = new SecureRandom();
+
+    public CheckoutStateService(ObjectMapper objectMapper,
+                                @Value("${mentorship.checkout.state-secret:}") String secret,
+                                @Value("${mentorship.checkout.state-ttl-minutes:60}") long ttlMinutes) {
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.key = new SecretKeySpec(deriveKey(secret), "AES");
+    }
+
+    private byte[] deriveKey(String secret) {
+        if (secret == null || secret.isBlank()) {
+            // Chave aleatória: funciona com uma instância, mas cada instância teria a sua
+            logger.warn("mentorship.checkout.state-secret não configurado: usando chave aleatória (apenas para uma instância).");
+            byte[] randomKey = new byte[32];
+            random.nextBytes(randomKey);
+            return randomKey;
+        }
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Grava o estado do checkout no cookie (HttpOnly, SameSite=Lax: a volta do Mercado Pago é uma navegação GET).
+     */
+    public void store(CheckoutState state, HttpServletRequest request, HttpServletResponse response) {
+        ResponseCookie cookie = ResponseCookie.from(COOKIE_NAME, encode(state, Instant.now()))
+                .httpOnly(true)
+                .secure(request.isSecure())
+                .sameSite("Lax")
+                .path(COOKIE_PATH)
+                .maxAge(ttl)
+                .build();
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+    }
+
+    /**
+     * Lê e apaga o estado do checkout. Vazio se o cookie não existir, tiver expirado ou sido adulterado.
+     */
+    public Optional<CheckoutState> consume(HttpServletRequest request, HttpServletResponse response) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return Optional.empty();
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie.from(COOKIE_NAME, "")
+                        .httpOnly(true)
+                        .secure(request.isSecure())
+                        .sameSite("Lax")
+                        .path(COOKIE_PATH)
+                        .maxAge(0)
+                        .build()
+                        .toString());
+                return decode(cookie.getValue(), Instant.now());
+            }
+        }
+        return Optional.empty();
+    }
+
+    String encode(CheckoutState state, Instant now) {
+        try {
+            byte[] plain = objectMapper.writeValueAsBytes(new Payload(state.name(), state.email(), state.cpf(),
+                    state.planName(), now.plus(ttl).getEpochSecond()));
+            byte[] iv = new byte[IV_BYTES];
+            random.nextBytes(iv);
+
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(ASSOCIATED_DATA);
+            byte[] encrypted = cipher.doFinal(plain);
+
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(
+                    ByteBuffer.allocate(iv.length + encrypted.length).put(iv).put(encrypted).array());
+        } catch (Exception e) {
+            throw new IllegalStateException("Falha ao cifrar o estado do checkout.", e);
+        }
+    }
+
+    Optional<CheckoutState> decode(String token, Instant now) {
+        try {
+            byte[] raw = Base64.getUrlDecoder().decode(token);
+            if (raw.length <= IV_BYTES) {
+                return Optional.empty();
+            }
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, raw, 0, IV_BYTES));
+            cipher.updateAAD(ASSOCIATED_DATA);
+            Payload payload = objectMapper.readValue(cipher.doFinal(raw, IV_BYTES, raw.length - IV_BYTES), Payload.class);
+
+            if (now.getEpochSecond() > payload.exp()) {
+                return Optional.empty();
+            }
+            return Optional.of(new CheckoutState(payload.n(), payload.e(), payload.c(), payload.p()));
+        } catch (Exception e) {
+            // Tag GCM inválida (adulterado/outra chave) ou token malformado
+            logger.warn("Cookie de checkout inválido descartado: {}", e.getClass().getSimpleName());
+            return Optional.empty();
+        }
+    }
+}
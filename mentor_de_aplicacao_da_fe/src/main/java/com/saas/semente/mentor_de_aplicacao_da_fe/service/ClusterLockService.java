@@ -0,0 +1,46 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.SchedulerLockRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Garante que uma tarefa agendada rode em UMA instância por vez (tabela scheduler_lock).
+ * A trava tem prazo: se a instância cair no meio, outra assume quando o prazo vencer.
+ */
+@Service
+public class ClusterLockService {
+
+    // Identifica esta instância nos registros da trava (pid@host)
+    private final String nodeId = ManagementFactory.getRuntimeMXBean().getName();
+
+    private final SchedulerLockRepository lockRepository;
+
+    public ClusterLockService(SchedulerLockRepository lockRepository) {
+        this.lockRepository = lockRepository;
+    }
+
+    /**
+     * Tenta adquirir a trava por até {@code lease}.
+     * @return true se esta instância deve executar a tarefa.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean tryLock(String name, Duration lease) {
+        LocalDateTime now = LocalDateTime.now();
+        lockRepository.createIfAbsent(name, now);
+        return lockRepository.acquire(name, nodeId, now, now.plus(lease)) == 1;
+    }
+
+    /**
+     * Libera a trava antes do prazo (apenas se ainda for desta instância).
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void unlock(String name) {
+        lockRepository.release(name, nodeId, LocalDateTime.now());
+    }
+}
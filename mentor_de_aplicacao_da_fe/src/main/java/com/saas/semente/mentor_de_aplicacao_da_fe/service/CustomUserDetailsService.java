@@ -1,13 +1,19 @@
 package com.saas.semente.mentor_de_aplicacao_da_fe.service;
 
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.User;
 import com.saas.semente.mentor_de_aplicacao_da_fe.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomUserDetailsService.class);
 
     private final UserRepository userRepository;
 
@@ -22,4 +28,18 @@ public class CustomUserDetailsService implements UserDetailsService {
         return userRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado com o e-mail: " + email));
     }
-}
\ No newline at end of file
+
+    /**
+     * Rehash no login: chamado pelo Spring Security quando a senha confere mas o hash está
+     * num formato/custo antigo (PasswordEncoder.upgradeEncoding).
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        logger.info("Hash de senha atualizado no login para o usuário: {}", user.getUsername());
+        if (user instanceof User entity) {
+            entity.setPassword(newPassword);
+        }
+        return user;
+    }
+}
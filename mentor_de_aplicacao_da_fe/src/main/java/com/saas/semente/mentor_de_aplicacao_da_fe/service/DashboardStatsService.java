@@ -0,0 +1,160 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplication;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplicationSummary;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.UserThemeStat;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.DashboardStatsRepository;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.FaithApplicationRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Estatísticas do dashboard por usuário: contadores de tema por mês, dias com atividade e os últimos temas.
+ * Atualizadas na MESMA transação que salva ou exclui a mentoria, então o dashboard só lê
+ * algumas linhas (uma por tema/dia do mês), qualquer que seja o tamanho do histórico.
+ */
+@Service
+public class DashboardStatsService {
+
+    static final int RECENT_THEMES = 3;
+    // Mentorias mais recentes consultadas para refazer os últimos temas após uma exclusão
+    private static final int RECENT_SCAN = 50;
+
+    /**
+     * O que o dashboard mostra de um mês.
+     */
+    public record DashboardStats(Map<String, Long> themeFrequency, List<Integer> registrationDays,
+                                 List<String> recentThemes) {
+    }
+
+    private final DashboardStatsRepository statsRepository;
+    private final FaithApplicationRepository applicationRepository;
+
+    public DashboardStatsService(DashboardStatsRepository statsRepository, FaithApplicationRepository applicationRepository) {
+        this.statsRepository = statsRepository;
+        this.applicationRepository = applicationRepository;
+    }
+
+    /**
+     * Soma a mentoria recém-salva. Deve rodar na transação que a salvou.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordCreated(FaithApplication app) {
+        Long userId = app.getUser().getId();
+        LocalDate day = dayOf(app);
+        List<String> themes = themesOf(app.getIdentifiedTheme());
+
+        themes.forEach(theme -> statsRepository.addToTheme(userId, day.withDayOfMonth(1), theme, 1));
+        statsRepository.addToDay(userId, day, 1);
+
+        if (!themes.isEmpty()) {
+            // Os temas da nova vêm primeiro; os anteriores seguem sem repetir
+            Set<String> recent = new LinkedHashSet<>(themes);
+            recent.addAll(lockRecentThemes(userId));
+            saveRecentThemes(userId, recent);
+        }
+    }
+
+    /**
+     * Desconta uma mentoria excluída. Deve rodar na transação da exclusão, DEPOIS do delete.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(FaithApplication app) {
+        Long userId = app.getUser().getId();
+        LocalDate day = dayOf(app);
+        List<String> themes = themesOf(app.getIdentifiedTheme());
+
+        themes.forEach(theme -> statsRepository.addToTheme(userId, day.withDayOfMonth(1), theme, -1));
+        statsRepository.addToDay(userId, day, -1);
+        statsRepository.deleteEmptyThemes(userId);
+        statsRepository.deleteEmptyDays(userId);
+
+        if (themes.stream().anyMatch(lockRecentThemes(userId)::contains)) {
+            refreshRecentThemes(userId);
+        }
+    }
+
+    /**
+     * Refaz as estatísticas de um usuário a partir do histórico (backfill ou correção).
+     */
+    @Transactional
+    public void rebuild(Long userId) {
+        lockRecentThemes(userId);
+        statsRepository.deleteThemes(userId);
+        statsRepository.deleteDays(userId);
+        statsRepository.rebuildThemes(userId);
+        statsRepository.rebuildDays(userId);
+        refreshRecentThemes(userId);
+    }
+
+    /**
+     * Usuários com mentorias (alvo do rebuild de todos).
+     */
+    public List<Long> usersWithApplications() {
+        return applicationRepository.findUserIdsWithApplications();
+    }
+
+    @Transactional(readOnly = true)
+    public DashboardStats getStats(Long userId, YearMonth month) {
+        Map<String, Long> themeFrequency = new LinkedHashMap<>();
+        for (UserThemeStat stat : statsRepository.findThemes(userId, month.atDay(1))) {
+            themeFrequency.put(stat.getTheme(), stat.getApplicationCount());
+        }
+        List<Integer> days = statsRepository.findActiveDays(userId, month.atDay(1), month.plusMonths(1).atDay(1)).stream()
+                .map(LocalDate::getDayOfMonth)
+                .toList();
+        return new DashboardStats(themeFrequency, days, recentThemes(userId));
+    }
+
+    // Os contadores do dashboard usam os temas como o modelo os escreveu (o filtro usa os canônicos)
+    private static List<String> themesOf(String identifiedTheme) {
+        return ThemeCanonicalizer.split(identifiedTheme);
+    }
+
+    private void refreshRecentThemes(Long userId) {
+        Set<String> recent = new LinkedHashSet<>();
+        for (FaithApplicationSummary app : applicationRepository.findJournalFirstPage(userId, Limit.of(RECENT_SCAN))) {
+            recent.addAll(themesOf(app.identifiedTheme()));
+            if (recent.size() >= RECENT_THEMES) {
+                break;
+            }
+        }
+        saveRecentThemes(userId, recent);
+    }
+
+    /**
+     * Últimos temas com a linha travada até o fim da transação (leitura + reescrita sem perder atualizações).
+     */
+    private List<String> lockRecentThemes(Long userId) {
+        statsRepository.insertRecentThemesIfAbsent(userId);
+        return themesOf(statsRepository.lockRecentThemes(userId));
+    }
+
+    private List<String> recentThemes(Long userId) {
+        return statsRepository.findRecentThemes(userId)
+                .map(DashboardStatsService::themesOf)
+                .orElse(List.of());
+    }
+
+    private void saveRecentThemes(Long userId, Set<String> themes) {
+        List<String> kept = new ArrayList<>(themes).subList(0, Math.min(themes.size(), RECENT_THEMES));
+        statsRepository.saveRecentThemes(userId, String.join(",", kept));
+    }
+
+    private static LocalDate dayOf(FaithApplication app) {
+        LocalDateTime createdAt = app.getCreatedAt() != null ? app.getCreatedAt() : LocalDateTime.now();
+        return createdAt.toLocalDate();
+    }
+}
@@ -0,0 +1,236 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.EmailOutboxMessage;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.EmailOutboxRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envia a caixa de saída de e-mails (email_outbox) em lotes: uma instância por vez (ClusterLockService),
+ * cada lote por UMA conexão SMTP autenticada (JavaMailSender.send(MimeMessage...) conecta uma vez e envia todos).
+ * Respeita o limite do provedor (max-per-minute) e reagenda as falhas com backoff exponencial.
+ */
+@Service
+public class EmailOutboxSender {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxSender.class);
+    private static final String LOCK_NAME = "email-outbox";
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final EmailOutboxRepository outboxRepository;
+    private final JavaMailSender mailSender;
+    private final ClusterLockService lockService;
+    private final MeterRegistry meterRegistry;
+    private final String from;
+    private final int batchSize;
+    private final int maxPerMinute;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lockLease;
+    private final Duration retention;
+    private final Timer batchTimer;
+    private final AtomicLong pending = new AtomicLong();
+
+    // Janela de um minuto do limite do provedor (só a thread do agendador mexe aqui)
+    private long windowStart;
+    private int sentInWindow;
+
+    public EmailOutboxSender(EmailOutboxRepository outboxRepository,
+                             JavaMailSender mailSender,
+                             ClusterLockService lockService,
+                             MeterRegistry meterRegistry,
+                             @Value("${mentorship.email.from:${spring.mail.username:}}") String from,
+                             @Value("${mentorship.email.outbox.batch-size:20}") int batchSize,
+                             @Value("${mentorship.email.outbox.max-per-minute:30}") int maxPerMinute,
+                             @Value("${mentorship.email.outbox.max-attempts:8}") int maxAttempts,
+                             @Value("${mentorship.email.outbox.initial-backoff-seconds:60}") long initialBackoffSeconds,
+                             @Value("${mentorship.email.outbox.max-backoff-seconds:3600}") long maxBackoffSeconds,
+                             @Value("${mentorship.email.outbox.lock-seconds:120}") long lockSeconds,
+                             @Value("${mentorship.email.outbox.retention-days:30}") long retentionDays) {
+        this.outboxRepository = outboxRepository;
+        this.mailSender = mailSender;
+        this.lockService = lockService;
+        this.meterRegistry = meterRegistry;
+        this.from = from;
+        this.batchSize = batchSize;
+        this.maxPerMinute = maxPerMinute;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofSeconds(initialBackoffSeconds);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+        this.lockLease = Duration.ofSeconds(lockSeconds);
+        this.retention = Duration.ofDays(retentionDays);
+
+        this.batchTimer = Timer.builder("email.outbox.batch")
+                .description("Envio de um lote da caixa de saída (conexão SMTP + mensagens)")
+                .register(meterRegistry);
+        Gauge.builder("email.outbox.pending", pending, AtomicLong::get)
+                .description("E-mails aguardando envio")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Poll da caixa de saída: envia um lote por execução, dentro do limite por minuto.
+     */
+    @Scheduled(fixedDelayString = "${mentorship.email.outbox.poll-interval-ms:2000}")
+    public void drain() {
+        int allowance = remainingInWindow();
+        if (allowance == 0 || !lockService.tryLock(LOCK_NAME, lockLease)) {
+            return;
+        }
+        try {
+            List<EmailOutboxMessage> batch = outboxRepository.findDue(EmailOutboxMessage.Status.PENDING,
+                    LocalDateTime.now(), Limit.of(Math.min(batchSize, allowance)));
+            if (batch.isEmpty()) {
+                return;
+            }
+            sentInWindow += batch.size();
+            Map<Long, Exception> failures = batchTimer.record(() -> deliver(batch));
+
+            List<Long> sent = new ArrayList<>();
+            for (EmailOutboxMessage message : batch) {
+                Exception failure = failures.get(message.getId());
+                if (failure == null) {
+                    sent.add(message.getId());
+                    meterRegistry.counter("email.outbox.sent", "type", message.getType().name()).increment();
+                } else {
+                    retryLater(message, failure);
+                }
+            }
+            if (!sent.isEmpty()) {
+                outboxRepository.markSent(sent, EmailOutboxMessage.Status.PENDING, EmailOutboxMessage.Status.SENT,
+                        LocalDateTime.now());
+                logger.info("{} e-mails enviados ({} com falha).", sent.size(), failures.size());
+            }
+        } catch (Exception e) {
+            logger.error("Falha ao enviar a caixa de saída de e-mails: {}", e.getMessage(), e);
+        } finally {
+            lockService.unlock(LOCK_NAME);
+        }
+    }
+
+    /**
+     * Envia o lote por uma única conexão SMTP.
+     * @return Falhas por id da mensagem (vazio se todas foram aceitas pelo servidor).
+     */
+    Map<Long, Exception> deliver(List<EmailOutboxMessage> batch) {
+        Map<Long, Exception> failures = new HashMap<>();
+        Map<MimeMessage, EmailOutboxMessage> messages = new LinkedHashMap<>();
+        for (EmailOutboxMessage message : batch) {
+            try {
+                messages.put(toMimeMessage(message), message);
+            } catch (MessagingException e) {
+                failures.put(message.getId(), e); // Ex.: destinatário inválido
+            }
+        }
+        if (messages.isEmpty()) {
+            return failures;
+        }
+
+        try {
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                messages.values().forEach(message -> failures.put(message.getId(), e));
+            } else {
+                e.getFailedMessages().forEach((mime, cause) -> {
+                    EmailOutboxMessage message = messages.get(mime);
+                    if (message != null) {
+                        failures.put(message.getId(), cause);
+                    }
+                });
+            }
+        } catch (MailException e) {
+            // Conexão/autenticação: nenhuma mensagem do lote saiu
+            messages.values().forEach(message -> failures.put(message.getId(), e));
+        }
+        return failures;
+    }
+
+    private MimeMessage toMimeMessage(EmailOutboxMessage message) throws MessagingException {
+        MimeMessage mime = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mime, "UTF-8");
+        if (from != null && !from.isBlank()) {
+            helper.setFrom(from);
+        }
+        helper.setTo(message.getRecipient());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getBody());
+        return mime;
+    }
+
+    private void retryLater(EmailOutboxMessage message, Exception cause) {
+        int attempt = message.getAttempts() + 1;
+        boolean exhausted = attempt >= maxAttempts;
+        String error = String.valueOf(cause.getMessage());
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        outboxRepository.reschedule(message.getId(), message.getAttempts(), EmailOutboxMessage.Status.PENDING,
+                exhausted ? EmailOutboxMessage.Status.FAILED : EmailOutboxMessage.Status.PENDING,
+                LocalDateTime.now().plus(backoff(attempt)), error);
+
+        meterRegistry.counter("email.outbox.failures", "result", exhausted ? "failed" : "retry").increment();
+        if (exhausted) {
+            logger.error("E-mail {} para {} desistido após {} tentativas: {}",
+                    message.getType(), message.getRecipient(), attempt, error);
+        } else {
+            logger.warn("Falha ao enviar o e-mail {} para {} (tentativa {}/{}): {}",
+                    message.getType(), message.getRecipient(), attempt, maxAttempts, error);
+        }
+    }
+
+    // initial-backoff * 2^(tentativa-1), limitado a max-backoff
+    Duration backoff(int attempt) {
+        int shift = Math.min(attempt - 1, 20);
+        Duration delay = initialBackoff.multipliedBy(1L << shift);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private int remainingInWindow() {
+        long now = System.currentTimeMillis();
+        if (now - windowStart >= Duration.ofMinutes(1).toMillis()) {
+            windowStart = now;
+            sentInWindow = 0;
+        }
+        return Math.max(0, maxPerMinute - sentInWindow);
+    }
+
+    @Scheduled(fixedDelayString = "${mentorship.email.outbox.metrics-interval-ms:15000}")
+    public void refreshBacklogMetrics() {
+        pending.set(outboxRepository.countByStatus(EmailOutboxMessage.Status.PENDING));
+    }
+
+    /**
+     * Remove e-mails enviados há mais de retention-days.
+     */
+    @Scheduled(cron = "${mentorship.email.outbox.cleanup-cron:0 40 3 * * *}")
+    public void purgeSent() {
+        int removed = outboxRepository.deleteSentBefore(EmailOutboxMessage.Status.SENT, LocalDateTime.now().minus(retention));
+        if (removed > 0) {
+            logger.info("{} e-mails enviados antigos removidos da caixa de saída.", removed);
+        }
+    }
+}
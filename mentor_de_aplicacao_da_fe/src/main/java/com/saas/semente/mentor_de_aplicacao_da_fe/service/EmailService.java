@@ -1,55 +1,84 @@
 package com.saas.semente.mentor_de_aplicacao_da_fe.service;
 
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.EmailOutboxMessage;
 import com.saas.semente.mentor_de_aplicacao_da_fe.model.User;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.EmailOutboxRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+
+/**
+ * Monta os e-mails transacionais e os grava na caixa de saída (email_outbox), na transação de quem chama.
+ * Nenhuma conexão SMTP aqui: o envio é feito depois, em lotes, pelo EmailOutboxSender.
+ */
 @Service
 public class EmailService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
-    private final JavaMailSender mailSender;
+    private final EmailOutboxRepository outboxRepository;
+    private final String appBaseUrl;
 
-    public EmailService(JavaMailSender mailSender) {
-        this.mailSender = mailSender;
+    public EmailService(EmailOutboxRepository outboxRepository,
+                        @Value("${app.base.url:http://localhost:8080}") String appBaseUrl) {
+        this.outboxRepository = outboxRepository;
+        this.appBaseUrl = appBaseUrl;
     }
 
     /**
-     * Envia um e-mail de boas-vindas com o link de confirmação (simulado).
+     * Enfileira o e-mail de boas-vindas com o link de confirmação (simulado).
      * @param user O novo usuário.
      */
-    public void sendWelcomeAndConfirmationEmail(User user) {
-        try {
-            SimpleMailMessage message = new SimpleMailMessage();
-            message.setTo(user.getEmail());
-            message.setSubject("Bem-vindo ao Semente! Confirme seu E-mail.");
-            
-            // Simulação de um link de confirmação. Na prática, um token seria gerado.
-            String confirmationLink = "http://localhost:8080/confirm?token=SIMULATED_TOKEN";
-
-            String text = String.format(
-                "Olá %s,\n\n" +
-                "Sua assinatura do plano %s foi ativada com sucesso! Bem-vindo(a) à jornada de crescimento.\n\n" +
-                "Para garantir a segurança de sua conta e validar seu acesso, por favor, clique no link abaixo para confirmar seu e-mail:\n" +
-                "%s\n\n" +
-                "Seu login é seu e-mail: %s\n\n" +
-                "Comece sua aplicação da fé agora mesmo.\n\n" +
-                "Atenciosamente,\n" +
-                "Time Semente - Mentor de Aplicação da Fé",
-                user.getName(), user.getSubscriptionPlan().name(), confirmationLink, user.getEmail()
-            );
-
-            message.setText(text);
-            mailSender.send(message);
-
-            logger.info("E-mail de boas-vindas enviado para: {}", user.getEmail());
-
-        } catch (Exception e) {
-            // O processo de pagamento NÃO deve falhar em função de um erro de e-mail.
-            logger.error("Falha ao enviar e-mail de boas-vindas para {}: {}", user.getEmail(), e.getMessage());
-        }
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void queueWelcomeAndConfirmationEmail(User user) {
+        // Simulação de um link de confirmação. Na prática, um token seria gerado.
+        String confirmationLink = appBaseUrl + "/confirm?token=SIMULATED_TOKEN";
+
+        String text = String.format(
+            "Olá %s,\n\n" +
+            "Sua assinatura do plano %s foi ativada com sucesso! Bem-vindo(a) à jornada de crescimento.\n\n" +
+            "Para garantir a segurança de sua conta e validar seu acesso, por favor, clique no link abaixo para confirmar seu e-mail:\n" +
+            "%s\n\n" +
+            "Seu login é seu e-mail: %s\n\n" +
+            "Comece sua aplicação da fé agora mesmo.\n\n" +
+            "Atenciosamente,\n" +
+            "Time Semente - Mentor de Aplicação da Fé",
+            user.getName(), user.getSubscriptionPlan().name(), confirmationLink, user.getEmail()
+        );
+
+        queue(EmailOutboxMessage.Type.WELCOME, user.getEmail(), "Bem-vindo ao Semente! Confirme seu E-mail.", text);
+    }
+
+    /**
+     * Enfileira a confirmação da troca de plano (upgrade pago).
+     * @param user O usuário, já com o novo plano.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void queueUpgradeConfirmationEmail(User user) {
+        String text = String.format(
+            "Olá %s,\n\n" +
+            "Recebemos o seu pagamento e o seu plano agora é o %s. Seu contador de mentorias do mês foi reiniciado.\n\n" +
+            "Continue sua jornada em: %s\n\n" +
+            "Atenciosamente,\n" +
+            "Time Semente - Mentor de Aplicação da Fé",
+            user.getName(), user.getSubscriptionPlan().name(), appBaseUrl
+        );
+
+        queue(EmailOutboxMessage.Type.UPGRADE_CONFIRMATION, user.getEmail(), "Seu plano Semente foi atualizado!", text);
+    }
+
+    private void queue(EmailOutboxMessage.Type type, String recipient, String subject, String body) {
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setType(type);
+        message.setRecipient(recipient);
+        message.setSubject(subject);
+        message.setBody(body);
+        message.setNextAttemptAt(LocalDateTime.now());
+        outboxRepository.save(message);
+        logger.info("E-mail {} enfileirado para: {}", type, recipient);
     }
-}
\ No newline at end of file
+}
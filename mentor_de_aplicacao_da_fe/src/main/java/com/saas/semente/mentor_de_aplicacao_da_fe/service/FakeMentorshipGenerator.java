@@ -0,0 +1,129 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplication;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.SubscriptionPlan;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiConsumer;
+
+/**
+ * Gerador FAKE em memória (perfil "fake-gemini"), para testes de carga sem rede e sem gastar quota.
+ * Devolve mentorias prontas com latência log-normal e taxas configuráveis de erro e de 429.
+ * Passa pelo mesmo controle de admissão e pela mesma camada de resiliência do Gemini real,
+ * então limite adaptativo, timeouts e circuit breaker são exercitados de ponta a ponta.
+ */
+@Service
+@Profile("fake-gemini")
+public class FakeMentorshipGenerator implements MentorshipGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(FakeMentorshipGenerator.class);
+    private static final String FAKE_MODEL = "fake";
+
+    private final GeminiAdmissionController admissionController;
+    private final GeminiResilience resilience;
+    private final double latencyMedianMs;
+    private final double latencySigma;
+    private final double errorRate;
+    private final double rateLimitRate;
+
+    public FakeMentorshipGenerator(GeminiAdmissionController admissionController,
+                                   GeminiResilience resilience,
+                                   @Value("${mentorship.fake.latency-median-ms:6000}") double latencyMedianMs,
+                                   @Value("${mentorship.fake.latency-sigma:0.4}") double latencySigma,
+                                   @Value("${mentorship.fake.error-rate:0.0}") double errorRate,
+                                   @Value("${mentorship.fake.rate-limit-rate:0.0}") double rateLimitRate) {
+        this.admissionController = admissionController;
+        this.resilience = resilience;
+        this.latencyMedianMs = latencyMedianMs;
+        this.latencySigma = latencySigma;
+        this.errorRate = errorRate;
+        this.rateLimitRate = rateLimitRate;
+        logger.warn("Gerador FAKE de mentorias ativo (mediana {} ms, erro {}, 429 {}). Nenhuma chamada ao Gemini será feita.",
+                latencyMedianMs, errorRate, rateLimitRate);
+    }
+
+    @Override
+    public GeneratedMentorship generate(String userChallenge, SubscriptionPlan plan) throws Exception {
+        FaithApplication app = admissionController.call(plan, () -> resilience.execute(FAKE_MODEL, () -> Mono.delay(sampleLatency())
+                        .then(Mono.fromCallable(() -> toApplication(userChallenge, pickOutcome()))), true)
+                .block());
+        return fakeResult(app);
+    }
+
+    @Override
+    public GeneratedMentorship stream(String userChallenge, SubscriptionPlan plan, BiConsumer<String, String> onField) throws Exception {
+        FaithApplication generated = admissionController.call(plan, () -> {
+            FaithApplication app = new FaithApplication();
+            app.setUserChallenge(userChallenge);
+
+            resilience.executeStream(FAKE_MODEL, () -> Flux.defer(() -> {
+                Map<String, String> mentorship = pickOutcome();
+                // A latência total é repartida entre os campos, como nos pedaços do streamGenerateContent
+                Duration perField = sampleLatency().dividedBy(mentorship.size());
+                return Flux.fromIterable(mentorship.entrySet())
+                        .concatMap(field -> Mono.delay(perField).thenReturn(field));
+            }))
+                    .doOnNext(field -> {
+                        GeminiCodec.applyField(app, field.getKey(), field.getValue());
+                        onField.accept(field.getKey(), field.getValue());
+                    })
+                    .blockLast();
+            return app;
+        });
+        return fakeResult(generated);
+    }
+
+    private static GeneratedMentorship fakeResult(FaithApplication app) {
+        app.setGenerationModel(FAKE_MODEL);
+        app.setRoutingReason(FAKE_MODEL);
+        return new GeneratedMentorship(app, FAKE_MODEL, estimateUsage(app));
+    }
+
+    /**
+     * Sorteia o resultado da chamada: 429, erro 500 ou uma mentoria pronta.
+     */
+    private Map<String, String> pickOutcome() {
+        double roll = ThreadLocalRandom.current().nextDouble();
+        if (roll < rateLimitRate) {
+            throw new GeminiApiException(429, "Erro na API Gemini (429 TOO_MANY_REQUESTS): [fake] quota excedida");
+        }
+        if (roll < rateLimitRate + errorRate) {
+            throw new GeminiApiException(500, "Erro na API Gemini (500 INTERNAL_SERVER_ERROR): [fake] falha interna");
+        }
+        return FakeMentorships.random();
+    }
+
+    /**
+     * Uso de tokens aproximado (~4 caracteres por token), para a contabilidade funcionar no teste de carga.
+     */
+    private static GeminiUsage estimateUsage(FaithApplication app) {
+        int prompt = (GeminiCodec.SYSTEM_PROMPT.length() + GeminiCodec.RESPONSE_SCHEMA.length() + app.getUserChallenge().length()) / 4;
+        int candidates = (length(app.getIdentifiedTheme()) + length(app.getVersiculoBussola()) + length(app.getReflexaoAplicada())
+                + length(app.getConselhosPraticos()) + length(app.getReferenciasCruzadas()) + length(app.getOracaoSemente())) / 4;
+        return new GeminiUsage(prompt, candidates, prompt + candidates, 0);
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    private Duration sampleLatency() {
+        return Duration.ofMillis(FakeMentorships.sampleLatencyMillis(latencyMedianMs, latencySigma));
+    }
+
+    private static FaithApplication toApplication(String userChallenge, Map<String, String> mentorship) {
+        FaithApplication app = new FaithApplication();
+        app.setUserChallenge(userChallenge);
+        mentorship.forEach((field, value) -> GeminiCodec.applyField(app, field, value));
+        return app;
+    }
+}
@@ -0,0 +1,63 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Mentorias prontas (válidas segundo o schema do GeminiCodec) para o gerador fake e o stub local.
+ */
+public final class FakeMentorships {
+
+    private static final List<Map<String, String>> CANNED = List.of(
+            mentorship("Ansiedade, Trabalho",
+                    "Filipenses 4:6-7",
+                    "Respire fundo. A ansiedade aparece quando tentamos carregar sozinhos o que Deus nos convida a entregar.\nHoje, antes de cada tarefa, apresente-a a Ele em oração.",
+                    "1. Comece o expediente com dois minutos de oração.\n2. Anote suas preocupações e entregue uma a uma a Deus.\n3. Termine o dia agradecendo por três coisas.",
+                    "Mateus 6:34, 1 Pedro 5:7, Salmos 46:1",
+                    "Senhor, acalma meu coração.\nEntrego a Ti o meu trabalho e as minhas preocupações. Amém."),
+            mentorship("Perdão, Família",
+                    "Colossenses 3:13",
+                    "Perdoar não é dizer que a ofensa não doeu; é escolher não deixar que ela governe o seu coração.\nDeus perdoou você primeiro.",
+                    "1. Ore pela pessoa que feriu você.\n2. Dê um primeiro passo de reconciliação, por menor que seja.\n3. Escreva o que precisa entregar a Deus.",
+                    "Efésios 4:32, Mateus 18:21-22, Lucas 6:37",
+                    "Pai, ensina-me a perdoar como Tu me perdoaste.\nCura as feridas da minha família. Amém."),
+            mentorship("Direção, Decisões",
+                    "Provérbios 3:5-6",
+                    "Quando o caminho não está claro, Deus ainda está presente.\nConfiar não é ter todas as respostas, mas dar o próximo passo com Ele.",
+                    "1. Leia Provérbios 3 antes de decidir.\n2. Converse com alguém maduro na fé.\n3. Liste o que honra a Deus em cada opção.",
+                    "Salmos 32:8, Isaías 30:21, Tiago 1:5",
+                    "Senhor, guia os meus passos.\nDá-me sabedoria e paz para decidir. Amém."));
+
+    private FakeMentorships() {
+    }
+
+    /**
+     * Uma das mentorias prontas, com os campos na ordem do schema.
+     */
+    public static Map<String, String> random() {
+        return CANNED.get(ThreadLocalRandom.current().nextInt(CANNED.size()));
+    }
+
+    /**
+     * Latência sorteada de uma distribuição log-normal (mediana + dispersão), como as do Gemini.
+     */
+    public static long sampleLatencyMillis(double medianMillis, double sigma) {
+        double gaussian = ThreadLocalRandom.current().nextGaussian();
+        return Math.max(0, Math.round(medianMillis * Math.exp(sigma * gaussian)));
+    }
+
+    private static Map<String, String> mentorship(String theme, String verse, String reflection,
+                                                  String advice, String references, String prayer) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("identifiedTheme", theme);
+        fields.put("versiculoBussola", verse);
+        fields.put("reflexaoAplicada", reflection);
+        fields.put("conselhosPraticos", advice);
+        fields.put("referenciasCruzadas", references);
+        fields.put("oracaoSemente", prayer);
+        return Collections.unmodifiableMap(fields);
+    }
+}
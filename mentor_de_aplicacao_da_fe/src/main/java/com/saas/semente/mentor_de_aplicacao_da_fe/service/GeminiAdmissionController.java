@@ -0,0 +1,265 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.SubscriptionPlan;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.Exceptions;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Controle de admissão das chamadas ao Gemini com limite de concorrência ADAPTATIVO (AIMD):
+ * o limite cresce +1 enquanto as respostas chegam dentro do limiar de latência e é multiplicado
+ * pelo backoff-ratio a cada 429/503, timeout ou resposta lenta demais.
+ * Acima do limite, as chamadas esperam numa fila de prioridade por plano
+ * (JARDINEIRO > COLHEITA > SEMENTE) com prazo máximo de espera.
+ */
+@Service
+public class GeminiAdmissionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeminiAdmissionController.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final int maxQueue;
+    private final long maxWaitNanos;
+
+    // Estado protegido pelo monitor desta instância
+    private int limit;
+    private int inFlight = 0;
+    private long sequence = 0;
+    private final PriorityQueue<Waiter> waiters = new PriorityQueue<>(
+            Comparator.comparingInt((Waiter w) -> priorityOf(w.plan)).thenComparingLong(w -> w.sequence));
+
+    private static final class Waiter {
+        private final SubscriptionPlan plan;
+        private final long sequence;
+        private boolean granted = false;
+
+        private Waiter(SubscriptionPlan plan, long sequence) {
+            this.plan = plan;
+            this.sequence = sequence;
+        }
+    }
+
+    public GeminiAdmissionController(MeterRegistry meterRegistry,
+                                     @Value("${mentorship.gemini.limiter.initial-limit:8}") int initialLimit,
+                                     @Value("${mentorship.gemini.limiter.min-limit:1}") int minLimit,
+                                     @Value("${mentorship.gemini.limiter.max-limit:32}") int maxLimit,
+                                     @Value("${mentorship.gemini.limiter.backoff-ratio:0.7}") double backoffRatio,
+                                     @Value("${mentorship.gemini.limiter.latency-threshold-ms:20000}") long latencyThresholdMs,
+                                     @Value("${mentorship.gemini.limiter.max-queue:200}") int maxQueue,
+                                     @Value("${mentorship.gemini.limiter.max-wait-ms:30000}") long maxWaitMs) {
+        this.meterRegistry = meterRegistry;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = TimeUnit.MILLISECONDS.toNanos(latencyThresholdMs);
+        this.maxQueue = maxQueue;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+
+        Gauge.builder("gemini.limiter.limit", this, c -> c.currentLimit())
+                .description("Limite adaptativo de chamadas simultâneas ao Gemini")
+                .register(meterRegistry);
+        Gauge.builder("gemini.limiter.inflight", this, c -> c.currentInFlight())
+                .description("Chamadas ao Gemini em andamento")
+                .register(meterRegistry);
+        Gauge.builder("gemini.limiter.queue.size", this, c -> c.currentQueueSize())
+                .description("Chamadas aguardando vaga para o Gemini")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Reserva uma vaga para chamar o Gemini, esperando na fila de prioridade do plano se necessário.
+     * @throws RejectedExecutionException se a fila estiver cheia ou o prazo de espera acabar.
+     */
+    public Permit acquire(SubscriptionPlan plan) throws InterruptedException {
+        long start = System.nanoTime();
+
+        synchronized (this) {
+            if (inFlight < limit && waiters.isEmpty()) {
+                inFlight++;
+                recordWait(plan, start);
+                return new Permit();
+            }
+
+            if (waiters.size() >= maxQueue) {
+                reject("queue_full");
+                throw new RejectedExecutionException("Fila de chamadas ao Gemini cheia.");
+            }
+
+            Waiter waiter = new Waiter(plan, sequence++);
+            waiters.add(waiter);
+            long deadline = start + maxWaitNanos;
+
+            try {
+                while (!waiter.granted) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        waiters.remove(waiter);
+                        reject("timeout");
+                        throw new RejectedExecutionException("Tempo máximo de espera por uma vaga no Gemini excedido.");
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            } catch (InterruptedException e) {
+                if (waiter.granted) {
+                    // A vaga já tinha sido concedida: devolve antes de desistir
+                    inFlight--;
+                    grantWaiters();
+                } else {
+                    waiters.remove(waiter);
+                }
+                throw e;
+            }
+        }
+
+        recordWait(plan, start);
+        return new Permit();
+    }
+
+    /**
+     * Executa {@code call} com uma vaga: sucesso e falha alimentam o limite adaptativo.
+     */
+    public <T> T call(SubscriptionPlan plan, Callable<T> call) throws Exception {
+        Permit permit = acquire(plan);
+        try {
+            T result = call.call();
+            permit.onSuccess();
+            return result;
+        } catch (Exception e) {
+            permit.onFailure(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Vaga concedida por {@link #acquire}. Deve ser liberada exatamente uma vez com
+     * {@link #onSuccess}, {@link #onFailure} ou {@link #release}.
+     */
+    public final class Permit {
+
+        private final long startNanos = System.nanoTime();
+        private boolean released = false;
+
+        /**
+         * Sucesso: aumenta o limite (AIMD) ou, se a resposta foi lenta demais, reduz.
+         */
+        public void onSuccess() {
+            long rtt = System.nanoTime() - startNanos;
+            complete(rtt > latencyThresholdNanos);
+        }
+
+        /**
+         * Falha: sobrecarga (429/503/timeout) reduz o limite; outros erros apenas liberam a vaga.
+         */
+        public void onFailure(Throwable error) {
+            if (isOverload(error)) {
+                complete(true);
+            } else {
+                release();
+            }
+        }
+
+        /**
+         * Libera a vaga sem ajustar o limite.
+         */
+        public void release() {
+            synchronized (GeminiAdmissionController.this) {
+                if (released) {
+                    return;
+                }
+                released = true;
+                inFlight--;
+                grantWaiters();
+            }
+        }
+
+        private void complete(boolean dropped) {
+            synchronized (GeminiAdmissionController.this) {
+                if (released) {
+                    return;
+                }
+                if (dropped) {
+                    int newLimit = Math.max(minLimit, (int) Math.floor(limit * backoffRatio));
+                    if (newLimit != limit) {
+                        logger.warn("Gemini sobrecarregado: limite de concorrência reduzido de {} para {}.", limit, newLimit);
+                    }
+                    limit = newLimit;
+                    meterRegistry.counter("gemini.limiter.drops").increment();
+                } else if (inFlight * 2 >= limit) {
+                    // Só cresce quando o limite está de fato sendo usado
+                    limit = Math.min(maxLimit, limit + 1);
+                }
+            }
+            release();
+        }
+    }
+
+    private static boolean isOverload(Throwable error) {
+        Throwable cause = Exceptions.unwrap(error);
+        if (cause instanceof GeminiApiException apiException) {
+            return apiException.isOverload();
+        }
+        return cause instanceof TimeoutException || cause instanceof WebClientRequestException;
+    }
+
+    // Deve ser chamado com o monitor desta instância
+    private void grantWaiters() {
+        boolean grantedAny = false;
+        while (inFlight < limit && !waiters.isEmpty()) {
+            Waiter next = waiters.poll();
+            next.granted = true;
+            inFlight++;
+            grantedAny = true;
+        }
+        if (grantedAny) {
+            notifyAll();
+        }
+    }
+
+    // Menor = mais prioritário (também ordena a fila do pool de jobs, MentorshipJobService)
+    static int priorityOf(SubscriptionPlan plan) {
+        return switch (plan) {
+            case JARDINEIRO -> 0;
+            case COLHEITA -> 1;
+            case SEMENTE -> 2;
+        };
+    }
+
+    private void reject(String reason) {
+        meterRegistry.counter("gemini.limiter.rejections", "reason", reason).increment();
+    }
+
+    private void recordWait(SubscriptionPlan plan, long startNanos) {
+        meterRegistry.timer("gemini.limiter.wait", "plan", plan.name())
+                .record(Duration.ofNanos(System.nanoTime() - startNanos));
+    }
+
+    private synchronized int currentLimit() {
+        return limit;
+    }
+
+    private synchronized int currentInFlight() {
+        return inFlight;
+    }
+
+    private synchronized int currentQueueSize() {
+        return waiters.size();
+    }
+}
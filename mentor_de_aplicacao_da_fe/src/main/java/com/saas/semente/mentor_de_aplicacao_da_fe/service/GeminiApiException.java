@@ -0,0 +1,26 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+/**
+ * Erro HTTP devolvido pela API Gemini (4xx/5xx), com o status preservado
+ * para que o controle de admissão reconheça sobrecarga (429/503).
+ */
+public class GeminiApiException extends RuntimeException {
+
+    private final int statusCode;
+
+    public GeminiApiException(int statusCode, String message) {
+        super(message);
+        this.statusCode = statusCode;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /**
+     * 429 (quota/rate limit) ou 503 (modelo sobrecarregado).
+     */
+    public boolean isOverload() {
+        return statusCode == 429 || statusCode == 503;
+    }
+}
@@ -0,0 +1,11 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+/**
+ * Chamada recusada sem tocar a rede: o circuit breaker do Gemini está aberto.
+ */
+public class GeminiCircuitOpenException extends RuntimeException {
+
+    public GeminiCircuitOpenException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,341 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplication;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+/**
+ * Codec da API Gemini com poucas alocações por chamada.
+ * O System Instruction e o Schema (constantes) são serializados UMA vez na inicialização;
+ * por requisição escrevemos apenas o texto do usuário. A resposta é lida com um
+ * JsonParser em streaming direto para a FaithApplication, sem Maps intermediários.
+ * Com o cache de contexto do Gemini (cachedContents), o System Instruction vai no cache
+ * e a requisição leva só a referência; o responseSchema continua no generationConfig,
+ * que a API não aceita dentro do cache.
+ */
+@Component
+public class GeminiCodec {
+
+    // 1. Definição do System Instruction (Persona e Regras)
+    static final String SYSTEM_PROMPT = "Você é o 'Mentor de Aplicação da Fé', um conselheiro cristão sábio e amigável. Seu objetivo é pegar o 'Desafio do Usuário' e, com base em princípios bíblicos, gerar uma mentoria estruturada em 5 partes (Versículo, Reflexão, Conselhos Práticos, Referências e Oração). Sua 'Reflexão Aplicada' deve ter um tom pessoal e caloroso. Os 'Conselhos Práticos' devem ser 3 ações concretas e diretas que o usuário pode tomar HOJE, baseadas na reflexão. Retorne a resposta APENAS como um objeto JSON que segue o schema fornecido.";
+
+    // 2. Definição do Schema JSON para a resposta
+    static final String RESPONSE_SCHEMA = """
+            {
+              "type": "OBJECT",
+              "properties": {
+                "identifiedTheme": { "type": "STRING", "description": "Tema(s) central(is) identificado(s) no desafio do usuário. Ex: Ansiedade, Perdão, Direção." },
+                "versiculoBussola": { "type": "STRING", "description": "O versículo bíblico central para o desafio. Ex: Filipenses 4:6-7" },
+                "reflexaoAplicada": { "type": "STRING", "description": "A reflexão e conselho com tom de amigo. Use quebras de linha (\\n) para formatar parágrafos." },
+                "conselhosPraticos": { "type": "STRING", "description": "Três conselhos práticos e acionáveis (numerados ou com marcadores) baseados no versículo e reflexão. Use quebras de linha (\\n) para formatar." },
+                "referenciasCruzadas": { "type": "STRING", "description": "Outras referências bíblicas contextuais para estudo. Ex: Mateus 6:34, 1 Pedro 5:7, Salmos 46:1" },
+                "oracaoSemente": { "type": "STRING", "description": "Uma oração curta e poderosa baseada no desafio e no versículo. Use quebras de linha (\\n) para formatar." }
+              }
+            }
+            """;
+
+    // Fecha: "text" (valor já escrito) -> part -> parts -> content -> contents -> raiz
+    private static final byte[] REQUEST_SUFFIX = "}]}]}".getBytes(StandardCharsets.UTF_8);
+
+    /**
+     * Resposta decodificada: a mentoria e o usageMetadata (null se ausente).
+     */
+    public record Decoded(FaithApplication application, GeminiUsage usage) {
+    }
+
+    /**
+     * Evento do streamGenerateContent: pedaço de texto ("" se não houver) e usageMetadata parcial.
+     */
+    public record Chunk(String text, GeminiUsage usage) {
+    }
+
+    private final JsonFactory jsonFactory;
+    private final byte[] requestPrefix;
+    private final byte[] cachedRequestPrefix;
+
+    public GeminiCodec(ObjectMapper objectMapper) throws IOException {
+        this.jsonFactory = objectMapper.getFactory();
+        this.requestPrefix = buildRequestPrefix(objectMapper, true);
+        this.cachedRequestPrefix = buildRequestPrefix(objectMapper, false);
+    }
+
+    /**
+     * 3. Montagem do corpo da requisição: prefixo constante + texto do usuário + sufixo constante.
+     */
+    public byte[] encodeRequest(String userChallenge) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(requestPrefix.length + userChallenge.length() * 2 + 16);
+        out.writeBytes(requestPrefix);
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            generator.writeString(userChallenge); // Apenas o escape do texto do usuário é feito por chamada
+        }
+        out.writeBytes(REQUEST_SUFFIX);
+        return out.toByteArray();
+    }
+
+    /**
+     * Mesma requisição, mas referenciando o cache de contexto no lugar do System Instruction.
+     */
+    public byte[] encodeCachedRequest(String userChallenge, String cachedContentName) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(cachedRequestPrefix.length + userChallenge.length() * 2 + 96);
+        out.writeBytes(cachedRequestPrefix);
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            generator.writeString(userChallenge);
+        }
+        // Fecha part -> parts -> content -> contents e acrescenta "cachedContent" antes de fechar a raiz
+        out.writeBytes("}]}],\"cachedContent\":".getBytes(StandardCharsets.UTF_8));
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            generator.writeString(cachedContentName);
+        }
+        out.write('}');
+        return out.toByteArray();
+    }
+
+    /**
+     * Corpo do POST /cachedContents: o System Instruction constante com o TTL pedido.
+     */
+    public byte[] encodeCacheCreateRequest(String model, Duration ttl) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(2048);
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeStringField("model", "models/" + model);
+            generator.writeObjectFieldStart("systemInstruction");
+            generator.writeArrayFieldStart("parts");
+            generator.writeStartObject();
+            generator.writeStringField("text", SYSTEM_PROMPT);
+            generator.writeEndObject();
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeStringField("ttl", ttl.toSeconds() + "s");
+            generator.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Corpo do PATCH /cachedContents/{id}?updateMask=ttl.
+     */
+    public byte[] encodeCacheTtlUpdate(Duration ttl) {
+        return ("{\"ttl\":\"" + ttl.toSeconds() + "s\"}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Lê candidates[0].content.parts[0].text e o usageMetadata da resposta.
+     */
+    public Decoded decodeResponse(byte[] responseBody, String userChallenge) throws Exception {
+        if (responseBody == null || responseBody.length == 0) {
+            throw new Exception("Resposta da API Gemini inválida ou vazia.");
+        }
+
+        Chunk parts = readResponse(jsonFactory.createParser(responseBody));
+
+        if (parts.text() == null) {
+            throw new Exception("Conteúdo da resposta Gemini está vazio ou malformado.");
+        }
+        return new Decoded(decodeMentorship(parts.text(), userChallenge), parts.usage());
+    }
+
+    /**
+     * Decodifica um evento do streamGenerateContent.
+     */
+    public Chunk decodeChunk(String eventData) throws IOException {
+        Chunk parts = readResponse(jsonFactory.createParser(eventData));
+        return parts.text() == null ? new Chunk("", parts.usage()) : parts;
+    }
+
+    /**
+     * Converte o JSON gerado pelo modelo (segundo o schema) na FaithApplication.
+     */
+    public FaithApplication decodeMentorship(String jsonText, String userChallenge) throws IOException {
+        FaithApplication app = new FaithApplication();
+        app.setUserChallenge(userChallenge);
+
+        try (JsonParser parser = jsonFactory.createParser(jsonText)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("O texto gerado pelo Gemini não é um objeto JSON.");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                if (parser.nextToken() == JsonToken.VALUE_STRING) {
+                    applyField(app, field, parser.getText());
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return app;
+    }
+
+    /**
+     * Mapeamento de um campo do schema para o Objeto FaithApplication.
+     */
+    public static void applyField(FaithApplication app, String field, String value) {
+        switch (field) {
+            case "identifiedTheme" -> app.setIdentifiedTheme(value);
+            case "versiculoBussola" -> app.setVersiculoBussola(value);
+            case "reflexaoAplicada" -> app.setReflexaoAplicada(value);
+            case "conselhosPraticos" -> app.setConselhosPraticos(value);
+            case "referenciasCruzadas" -> app.setReferenciasCruzadas(value);
+            case "oracaoSemente" -> app.setOracaoSemente(value);
+            default -> {
+                // Campo fora do schema: ignorado
+            }
+        }
+    }
+
+    private byte[] buildRequestPrefix(ObjectMapper objectMapper, boolean inlineSystemInstruction) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(4096);
+
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            // O JSON fica "aberto" de propósito: o texto do usuário entra logo depois de "text":
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+
+            generator.writeStartObject();
+
+            if (inlineSystemInstruction) {
+                generator.writeObjectFieldStart("systemInstruction");
+                generator.writeArrayFieldStart("parts");
+                generator.writeStartObject();
+                generator.writeStringField("text", SYSTEM_PROMPT);
+                generator.writeEndObject();
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+
+            generator.writeObjectFieldStart("generationConfig");
+            generator.writeStringField("responseMimeType", "application/json");
+            generator.writeFieldName("responseSchema");
+            objectMapper.writeTree(generator, objectMapper.readTree(RESPONSE_SCHEMA));
+            generator.writeEndObject();
+
+            generator.writeArrayFieldStart("contents");
+            generator.writeStartObject();
+            generator.writeStringField("role", "user");
+            generator.writeArrayFieldStart("parts");
+            generator.writeStartObject();
+            generator.writeFieldName("text");
+        }
+        return out.toByteArray();
+    }
+
+    // --- Navegação em streaming: candidates[0].content.parts[0].text + usageMetadata ---
+
+    private Chunk readResponse(JsonParser parser) throws IOException {
+        try (parser) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return new Chunk(null, null);
+            }
+            String text = null;
+            GeminiUsage usage = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if (text == null && "candidates".equals(field)) {
+                    text = readFirstElement(parser,
+                            candidate -> readField(candidate, "content",
+                                    content -> readField(content, "parts",
+                                            parts -> readFirstElement(parts,
+                                                    part -> readField(part, "text", GeminiCodec::readString)))));
+                } else if ("usageMetadata".equals(field)) {
+                    usage = readUsage(parser);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            return new Chunk(text, usage);
+        }
+    }
+
+    private static GeminiUsage readUsage(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        int prompt = 0;
+        int candidates = 0;
+        int total = 0;
+        int cached = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (value != JsonToken.VALUE_NUMBER_INT) {
+                parser.skipChildren();
+                continue;
+            }
+            switch (field) {
+                case "promptTokenCount" -> prompt = parser.getIntValue();
+                case "candidatesTokenCount" -> candidates = parser.getIntValue();
+                case "totalTokenCount" -> total = parser.getIntValue();
+                case "cachedContentTokenCount" -> cached = parser.getIntValue();
+                default -> {
+                    // Outros contadores (ex.: thoughtsTokenCount): ignorados
+                }
+            }
+        }
+        return new GeminiUsage(prompt, candidates, total, cached);
+    }
+
+    @FunctionalInterface
+    private interface StepReader {
+        String read(JsonParser parser) throws IOException;
+    }
+
+    /**
+     * Posicionado em START_OBJECT: lê o campo {@code name} com {@code next} e pula todo o resto.
+     */
+    private static String readField(JsonParser parser, String name, StepReader next) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        String result = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (result == null && name.equals(field)) {
+                result = next.read(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Posicionado em START_ARRAY: lê apenas o primeiro elemento e pula os demais.
+     */
+    private static String readFirstElement(JsonParser parser, StepReader next) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return null;
+        }
+        String result = null;
+        boolean first = true;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (first) {
+                result = next.read(parser);
+                first = false;
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return result;
+    }
+
+    private static String readString(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+}
@@ -0,0 +1,226 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Mantém um cachedContents do Gemini com o System Instruction constante, para não pagarmos
+ * (nem esperarmos o prefill de) os mesmos tokens a cada mentoria.
+ * O cache é criado na inicialização, renovado antes de expirar e, se sumir, as chamadas
+ * voltam a mandar as instruções inline até a próxima recriação.
+ * Desligado por padrão: o Gemini exige um mínimo de tokens por cachedContents (1.024 a 4.096,
+ * conforme o modelo) e o System Instruction atual tem cerca de 120. Se o Gemini recusar o cache
+ * por ser pequeno demais, as tentativas param até o próximo deploy.
+ */
+@Component
+@Profile("!fake-gemini")
+public class GeminiContextCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeminiContextCache.class);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    // Margem de segurança: perto do fim do TTL, o cache não é mais referenciado
+    private static final Duration EXPIRY_MARGIN = Duration.ofSeconds(30);
+
+    private record CachedContent(String name, Instant expireTime) {
+    }
+
+    @Value("${gemini.api.key:}")
+    private String geminiApiKey;
+
+    private final GeminiCodec geminiCodec;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final WebClient webClient;
+    private final String model;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Duration refreshBefore;
+
+    private volatile CachedContent current;
+    // Após uma falha, espera antes de tentar de novo
+    private volatile Instant retryAt = Instant.EPOCH;
+    // Conteúdo abaixo do mínimo de tokens do cache: não adianta tentar de novo com o mesmo prompt
+    private volatile boolean tooSmall = false;
+
+    public GeminiContextCache(GeminiCodec geminiCodec, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                              @Value("${gemini.api.base-url:https://generativelanguage.googleapis.com/v1beta}") String geminiApiBaseUrl,
+                              // O cachedContents pertence a um modelo: só o principal do roteamento usa o cache
+                              @Value("${mentorship.gemini.routing.primary-model:gemini-2.5-flash-preview-05-20}") String model,
+                              @Value("${mentorship.gemini.context-cache.enabled:false}") boolean enabled,
+                              @Value("${mentorship.gemini.context-cache.ttl-minutes:60}") long ttlMinutes,
+                              @Value("${mentorship.gemini.context-cache.refresh-before-minutes:10}") long refreshBeforeMinutes) {
+        this.geminiCodec = geminiCodec;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.webClient = WebClient.builder().baseUrl(geminiApiBaseUrl).build();
+        this.model = model;
+        this.enabled = enabled;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.refreshBefore = Duration.ofMinutes(refreshBeforeMinutes);
+    }
+
+    /**
+     * Nome do cachedContents a referenciar, ou vazio para mandar as instruções inline.
+     */
+    public Optional<String> currentName() {
+        CachedContent cached = current;
+        if (!enabled || cached == null || cached.expireTime().isBefore(Instant.now().plus(EXPIRY_MARGIN))) {
+            return Optional.empty();
+        }
+        return Optional.of(cached.name());
+    }
+
+    /**
+     * Como {@link #currentName()}, mas vazio se a chamada for para outro modelo (o cache não serve a ele).
+     */
+    public Optional<String> currentName(String requestModel) {
+        return model.equals(requestModel) ? currentName() : Optional.empty();
+    }
+
+    /**
+     * Cria o cache (se não existir) ou renova o TTL quando faltar menos que refresh-before.
+     * Roda na inicialização e depois a cada minuto.
+     */
+    @Scheduled(fixedDelayString = "${mentorship.gemini.context-cache.check-interval-ms:60000}")
+    public void refresh() {
+        if (!enabled || tooSmall || geminiApiKey == null || geminiApiKey.isBlank() || Instant.now().isBefore(retryAt)) {
+            return;
+        }
+        CachedContent cached = current;
+        try {
+            if (cached == null || cached.expireTime().isBefore(Instant.now().plus(EXPIRY_MARGIN))) {
+                create();
+            } else if (Duration.between(Instant.now(), cached.expireTime()).compareTo(refreshBefore) <= 0) {
+                extend(cached);
+            }
+        } catch (GeminiApiException e) {
+            if (isBelowMinimumSize(e)) {
+                current = null;
+                tooSmall = true;
+                meterRegistry.counter("gemini.context.cache.refresh", "result", "too_small").increment();
+                logger.warn("O Gemini recusou o cache de contexto por ter menos tokens que o mínimo ({}). "
+                        + "Usando instruções inline; desligue mentorship.gemini.context-cache.enabled.", e.getMessage());
+                return;
+            }
+            refreshFailed(e);
+        } catch (Exception e) {
+            refreshFailed(e);
+        }
+    }
+
+    private void refreshFailed(Exception e) {
+        current = null;
+        retryAt = Instant.now().plus(refreshBefore);
+        meterRegistry.counter("gemini.context.cache.refresh", "result", "failure").increment();
+        logger.warn("Cache de contexto do Gemini indisponível ({}). Usando instruções inline; nova tentativa em {} min.",
+                e.getMessage(), refreshBefore.toMinutes());
+    }
+
+    /**
+     * O Gemini não reconheceu o cache referenciado: para de usá-lo e recria na próxima verificação.
+     */
+    public void invalidate(String name) {
+        CachedContent cached = current;
+        if (cached != null && cached.name().equals(name)) {
+            current = null;
+            retryAt = Instant.EPOCH;
+            meterRegistry.counter("gemini.context.cache.invalidations").increment();
+            logger.warn("Cache de contexto {} não encontrado pelo Gemini; voltando às instruções inline.", name);
+        }
+    }
+
+    /**
+     * Erro causado por um cache referenciado que expirou ou foi apagado (404, ou "cached content not found").
+     * Erros de permissão/chave (403) NÃO são falta de cache: sobem como estão.
+     */
+    public boolean isCacheMiss(GeminiApiException e) {
+        if (e.getStatusCode() == 404) {
+            return true;
+        }
+        String message = e.getMessage() == null ? "" : e.getMessage().toLowerCase();
+        return (message.contains("cachedcontent") || message.contains("cached content")) && message.contains("not found");
+    }
+
+    // Ex.: "Cached content is too small. total_token_count=130, min_total_token_count=1024"
+    private static boolean isBelowMinimumSize(GeminiApiException e) {
+        String message = e.getMessage() == null ? "" : e.getMessage().toLowerCase();
+        return e.getStatusCode() == 400 && (message.contains("min_total_token_count") || message.contains("too small"));
+    }
+
+    /**
+     * Economia do cache a partir do usageMetadata: tokens do prompt servidos pelo cache x total.
+     */
+    public void recordUsage(GeminiUsage usage, boolean usedCache) {
+        meterRegistry.counter("gemini.context.cache.requests", "mode", usedCache ? "cached" : "inline").increment();
+        if (usage == null) {
+            return;
+        }
+        meterRegistry.counter("gemini.context.cache.tokens", "type", "prompt").increment(usage.promptTokenCount());
+        meterRegistry.counter("gemini.context.cache.tokens", "type", "cached").increment(usage.cachedContentTokenCount());
+    }
+
+    private void create() throws Exception {
+        byte[] response = send(webClient.post()
+                .uri(uriBuilder -> uriBuilder.path("/cachedContents").queryParam("key", geminiApiKey).build())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(geminiCodec.encodeCacheCreateRequest(model, ttl)));
+
+        current = parse(response);
+        meterRegistry.counter("gemini.context.cache.refresh", "result", "created").increment();
+        logger.info("Cache de contexto do Gemini criado: {} (expira em {}).", current.name(), current.expireTime());
+    }
+
+    private void extend(CachedContent cached) throws Exception {
+        try {
+            byte[] response = send(webClient.patch()
+                    .uri(uriBuilder -> uriBuilder.path("/" + cached.name())
+                            .queryParam("updateMask", "ttl")
+                            .queryParam("key", geminiApiKey)
+                            .build())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(geminiCodec.encodeCacheTtlUpdate(ttl)));
+
+            current = parse(response);
+            meterRegistry.counter("gemini.context.cache.refresh", "result", "extended").increment();
+        } catch (GeminiApiException e) {
+            if (!isCacheMiss(e)) {
+                throw e;
+            }
+            // Sumiu antes da renovação: cria outro
+            create();
+        }
+    }
+
+    private byte[] send(WebClient.RequestHeadersSpec<?> request) {
+        return request.retrieve()
+                .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(), clientResponse ->
+                        clientResponse.bodyToMono(String.class)
+                                .map(errorBody -> new GeminiApiException(clientResponse.statusCode().value(),
+                                        "Erro na API Gemini (" + clientResponse.statusCode() + "): " + errorBody)))
+                .bodyToMono(byte[].class)
+                .block(REQUEST_TIMEOUT);
+    }
+
+    private CachedContent parse(byte[] response) throws Exception {
+        JsonNode node = objectMapper.readTree(response);
+        String name = node.path("name").asText(null);
+        if (name == null || name.isBlank()) {
+            throw new Exception("Resposta de cachedContents sem 'name'.");
+        }
+        String expireTime = node.path("expireTime").asText(null);
+        return new CachedContent(name, expireTime == null ? Instant.now().plus(ttl) : Instant.parse(expireTime));
+    }
+}
@@ -0,0 +1,218 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplication;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.SubscriptionPlan;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiConsumer;
+
+/**
+ * Gerador padrão: API REST do Gemini (controle de admissão + roteamento de modelo + resiliência + GeminiCodec),
+ * referenciando o cache de contexto (GeminiContextCache) sempre que ele estiver disponível para o modelo escolhido.
+ * Ativo em todos os perfis, exceto "fake-gemini". Com o perfil "gemini-stub", a base URL
+ * aponta para o GeminiStubServer local.
+ */
+@Service
+@Profile("!fake-gemini")
+public class GeminiMentorshipGenerator implements MentorshipGenerator {
+
+    @Value("${gemini.api.key:}")
+    private String geminiApiKey;
+
+    private final GeminiCodec geminiCodec;
+    private final GeminiAdmissionController admissionController;
+    private final GeminiResilience resilience;
+    private final GeminiContextCache contextCache;
+    private final GeminiModelRouter modelRouter;
+    private final WebClient webClient;
+
+    @FunctionalInterface
+    private interface GeminiCall<T> {
+        T run(String cachedContentName) throws Exception;
+    }
+
+    public GeminiMentorshipGenerator(GeminiCodec geminiCodec, GeminiAdmissionController admissionController,
+                                     GeminiResilience resilience, GeminiContextCache contextCache,
+                                     GeminiModelRouter modelRouter,
+                                     // BASE URL configurável (permite apontar para um stub local nos testes)
+                                     @Value("${gemini.api.base-url:https://generativelanguage.googleapis.com/v1beta}") String geminiApiBaseUrl) {
+        this.geminiCodec = geminiCodec;
+        this.admissionController = admissionController;
+        this.resilience = resilience;
+        this.contextCache = contextCache;
+        this.modelRouter = modelRouter;
+        // Timeouts de rede: conexão e leitura (intervalo máximo sem receber bytes da resposta)
+        HttpClient httpClient = HttpClient.create()
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) resilience.getConnectTimeout().toMillis())
+                .responseTimeout(resilience.getAttemptTimeout());
+        // Configura o WebClient (Singleton)
+        this.webClient = WebClient.builder()
+                               .baseUrl(geminiApiBaseUrl)
+                               .clientConnector(new ReactorClientHttpConnector(httpClient))
+                               .build();
+    }
+
+    @Override
+    public GeneratedMentorship generate(String userChallenge, SubscriptionPlan plan) throws Exception {
+        return admissionController.call(plan, () -> {
+            GeminiModelRouter.Route route = modelRouter.route(plan, userChallenge);
+            return routed(route, () -> withContextCache(route.model(), cachedContent -> callGeminiApi(route, userChallenge, cachedContent)));
+        });
+    }
+
+    /**
+     * Modo streaming (streamGenerateContent via SSE): cada campo do JSON é entregue ao
+     * {@code onField} assim que fica completo. A FaithApplication é montada quando o stream fecha.
+     */
+    @Override
+    public GeneratedMentorship stream(String userChallenge, SubscriptionPlan plan, BiConsumer<String, String> onField) throws Exception {
+        return admissionController.call(plan, () -> {
+            GeminiModelRouter.Route route = modelRouter.route(plan, userChallenge);
+            return routed(route, () -> withContextCache(route.model(), cachedContent -> callGeminiStreamApi(route, userChallenge, cachedContent, onField)));
+        });
+    }
+
+    /**
+     * Mede a chamada ao modelo roteado e devolve o resultado ao roteador (p95 e taxa de erro por modelo).
+     * Circuito aberto conta como falha do modelo: é o que faz o roteador desviar para o fallback.
+     */
+    private GeneratedMentorship routed(GeminiModelRouter.Route route, Callable<GeneratedMentorship> call) throws Exception {
+        long start = System.nanoTime();
+        try {
+            GeneratedMentorship generated = call.call();
+            modelRouter.record(route.model(), Duration.ofNanos(System.nanoTime() - start), false);
+            generated.application().setGenerationModel(route.model());
+            generated.application().setRoutingReason(route.reason());
+            return generated;
+        } catch (Exception e) {
+            modelRouter.record(route.model(), Duration.ofNanos(System.nanoTime() - start), true);
+            throw e;
+        }
+    }
+
+    /**
+     * Referencia o cache de contexto quando existe; se o Gemini não o reconhecer (expirou/apagado),
+     * invalida e repete UMA vez com as instruções inline.
+     */
+    private <T> T withContextCache(String model, GeminiCall<T> call) throws Exception {
+        String cachedContent = contextCache.currentName(model).orElse(null);
+        try {
+            return call.run(cachedContent);
+        } catch (GeminiApiException e) {
+            if (cachedContent == null || !contextCache.isCacheMiss(e)) {
+                throw e;
+            }
+            contextCache.invalidate(cachedContent);
+            return call.run(null);
+        }
+    }
+
+    private byte[] encodeRequest(String userChallenge, String cachedContent) throws IOException {
+        return cachedContent == null
+                ? geminiCodec.encodeRequest(userChallenge)
+                : geminiCodec.encodeCachedRequest(userChallenge, cachedContent);
+    }
+
+    private GeneratedMentorship callGeminiStreamApi(GeminiModelRouter.Route route, String userChallenge, String cachedContent,
+                                                    BiConsumer<String, String> onField) throws Exception {
+        FaithApplication app = new FaithApplication();
+        app.setUserChallenge(userChallenge);
+        AtomicInteger receivedFields = new AtomicInteger();
+
+        MentorshipFieldStreamParser parser = new MentorshipFieldStreamParser((field, value) -> {
+            GeminiCodec.applyField(app, field, value);
+            receivedFields.incrementAndGet();
+            onField.accept(field, value);
+        });
+
+        AtomicReference<GeminiUsage> usage = new AtomicReference<>();
+        byte[] requestBody = encodeRequest(userChallenge, cachedContent);
+
+        // Timeouts + circuit breaker (sem hedging no streaming)
+        resilience.executeStream(route.model(), () -> webClient.post()
+            .uri(uriBuilder -> uriBuilder
+                .path("/models/" + route.model() + ":streamGenerateContent")
+                .queryParam("alt", "sse")
+                .queryParam("key", geminiApiKey)
+                .build())
+            .contentType(MediaType.APPLICATION_JSON)
+            .accept(MediaType.TEXT_EVENT_STREAM)
+            .bodyValue(requestBody)
+            .retrieve()
+            .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(), clientResponse ->
+                clientResponse.bodyToMono(String.class)
+                    .map(errorBody -> new GeminiApiException(clientResponse.statusCode().value(),
+                        "Erro na API Gemini (" + clientResponse.statusCode() + "): " + errorBody)))
+            .bodyToFlux(new ParameterizedTypeReference<ServerSentEvent<String>>() {}))
+            .doOnNext(event -> {
+                // Cada evento é um GenerateContentResponse parcial: pedaço de texto + usageMetadata acumulado
+                if (event.data() == null) {
+                    return;
+                }
+                try {
+                    GeminiCodec.Chunk chunk = geminiCodec.decodeChunk(event.data());
+                    if (chunk.usage() != null) {
+                        usage.set(chunk.usage());
+                    }
+                    parser.feed(chunk.text());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            })
+            .blockLast(); // Bloqueia o worker (nunca a thread do Tomcat) até o stream fechar
+
+        parser.finish();
+        contextCache.recordUsage(usage.get(), cachedContent != null);
+
+        if (receivedFields.get() == 0) {
+            throw new Exception("Resposta em streaming da API Gemini vazia ou malformada.");
+        }
+        return new GeneratedMentorship(app, route.model(), usage.get());
+    }
+
+    /**
+     * Lógica de Chamada da API Gemini (usando WebClient + GeminiCodec).
+     */
+    private GeneratedMentorship callGeminiApi(GeminiModelRouter.Route route, String userChallenge, String cachedContent) throws Exception {
+        byte[] requestBody = encodeRequest(userChallenge, cachedContent); // Corpo pré-serializado (só o texto do usuário muda)
+
+        // --- EXECUÇÃO DA CHAMADA COM WEBCLIENT (timeouts + circuit breaker + hedging opcional) ---
+        byte[] responseBody = resilience.execute(route.model(), () -> webClient.post()
+            .uri(uriBuilder -> uriBuilder
+                .path("/models/" + route.model() + ":generateContent")
+                .queryParam("key", geminiApiKey)
+                .build())
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(requestBody)
+            .retrieve()
+            // Trata status de erro HTTP (ex: 400 ou 500)
+            .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(), clientResponse -> {
+                // Lança exceção customizada com base no status de erro
+                return clientResponse.bodyToMono(String.class)
+                    .map(errorBody -> new GeminiApiException(clientResponse.statusCode().value(),
+                        "Erro na API Gemini (" + clientResponse.statusCode() + "): " + errorBody));
+            })
+            // Bytes crus: o codec faz o parse em streaming direto para a FaithApplication
+            .bodyToMono(byte[].class), true)
+            .block(); // Bloqueia a execução (mantendo o método síncrono)
+
+        GeminiCodec.Decoded decoded = geminiCodec.decodeResponse(responseBody, userChallenge);
+        contextCache.recordUsage(decoded.usage(), cachedContent != null);
+        return new GeneratedMentorship(decoded.application(), route.model(), decoded.usage());
+    }
+}
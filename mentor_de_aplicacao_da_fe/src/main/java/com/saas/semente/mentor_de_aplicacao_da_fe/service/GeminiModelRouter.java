@@ -0,0 +1,203 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.SubscriptionPlan;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escolhe o modelo Gemini de cada chamada: desafios curtos dos planos configurados vão para o
+ * modelo "lite"; os demais, para o principal. Se o modelo escolhido estiver acima do SLO de latência
+ * do plano (p95 recente) ou com taxa de erro alta, a chamada vai para o modelo de fallback.
+ * As estatísticas olham só a janela recente, então o modelo principal volta a receber tráfego
+ * assim que as amostras ruins envelhecem.
+ */
+@Component
+public class GeminiModelRouter {
+
+    // Amostras por modelo (latência + sucesso/falha) consideradas dentro da janela de tempo
+    private static final int MAX_SAMPLES = 256;
+
+    /**
+     * Modelo escolhido e o motivo (primary, lite, fallback-latency, fallback-errors).
+     */
+    public record Route(String model, String reason) {
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final String primaryModel;
+    private final String liteModel;
+    private final String fallbackModel;
+    private final EnumSet<SubscriptionPlan> litePlans;
+    private final int liteMaxChars;
+    private final Map<SubscriptionPlan, Duration> latencySlo = new EnumMap<>(SubscriptionPlan.class);
+    private final double maxErrorRate;
+    private final long statsWindowNanos;
+    private final int minSamples;
+
+    private final Map<String, ModelStats> stats = new ConcurrentHashMap<>();
+
+    public GeminiModelRouter(MeterRegistry meterRegistry,
+                             @Value("${mentorship.gemini.routing.enabled:true}") boolean enabled,
+                             @Value("${mentorship.gemini.routing.primary-model:gemini-2.5-flash-preview-05-20}") String primaryModel,
+                             @Value("${mentorship.gemini.routing.lite-model:gemini-2.5-flash-lite}") String liteModel,
+                             @Value("${mentorship.gemini.routing.fallback-model:gemini-2.0-flash}") String fallbackModel,
+                             @Value("${mentorship.gemini.routing.lite-plans:SEMENTE}") SubscriptionPlan[] litePlans,
+                             @Value("${mentorship.gemini.routing.lite-max-chars:300}") int liteMaxChars,
+                             @Value("${mentorship.gemini.routing.slo-ms.semente:30000}") long sementeSloMs,
+                             @Value("${mentorship.gemini.routing.slo-ms.colheita:20000}") long colheitaSloMs,
+                             @Value("${mentorship.gemini.routing.slo-ms.jardineiro:15000}") long jardineiroSloMs,
+                             @Value("${mentorship.gemini.routing.max-error-rate:0.25}") double maxErrorRate,
+                             @Value("${mentorship.gemini.routing.stats-window-seconds:300}") long statsWindowSeconds,
+                             @Value("${mentorship.gemini.routing.min-samples:20}") int minSamples) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.primaryModel = primaryModel;
+        this.liteModel = liteModel;
+        this.fallbackModel = fallbackModel;
+        this.litePlans = litePlans.length == 0
+                ? EnumSet.noneOf(SubscriptionPlan.class)
+                : EnumSet.copyOf(Arrays.asList(litePlans));
+        this.liteMaxChars = liteMaxChars;
+        this.latencySlo.put(SubscriptionPlan.SEMENTE, Duration.ofMillis(sementeSloMs));
+        this.latencySlo.put(SubscriptionPlan.COLHEITA, Duration.ofMillis(colheitaSloMs));
+        this.latencySlo.put(SubscriptionPlan.JARDINEIRO, Duration.ofMillis(jardineiroSloMs));
+        this.maxErrorRate = maxErrorRate;
+        this.statsWindowNanos = TimeUnit.SECONDS.toNanos(statsWindowSeconds);
+        this.minSamples = Math.min(minSamples, MAX_SAMPLES);
+    }
+
+    /**
+     * Modelo para uma chamada (deve ser decidido já com a vaga do controle de admissão em mãos).
+     */
+    public Route route(SubscriptionPlan plan, String userChallenge) {
+        Route route = decide(plan, userChallenge);
+        meterRegistry.counter("gemini.routing.decisions", "model", route.model(), "reason", route.reason(), "plan", plan.name())
+                .increment();
+        return route;
+    }
+
+    /**
+     * Resultado de uma chamada ao modelo, alimentando o p95 e a taxa de erro usados no roteamento.
+     */
+    public void record(String model, Duration latency, boolean failure) {
+        Timer.builder("gemini.model.latency")
+                .description("Latência das chamadas ao Gemini por modelo")
+                .tags("model", model, "outcome", failure ? "failure" : "success")
+                .publishPercentiles(0.5, 0.95)
+                .register(meterRegistry)
+                .record(latency);
+        stats.computeIfAbsent(model, name -> new ModelStats()).add(latency.toNanos(), failure);
+    }
+
+    /**
+     * Modelo principal (o único com cache de contexto).
+     */
+    public String getPrimaryModel() {
+        return primaryModel;
+    }
+
+    private Route decide(SubscriptionPlan plan, String userChallenge) {
+        if (!enabled) {
+            return new Route(primaryModel, "primary");
+        }
+        Route preferred = isLite(plan, userChallenge)
+                ? new Route(liteModel, "lite")
+                : new Route(primaryModel, "primary");
+
+        if (fallbackModel == null || fallbackModel.isBlank() || fallbackModel.equals(preferred.model())) {
+            return preferred;
+        }
+        String problem = problemWith(preferred.model(), latencySlo.get(plan));
+        if (problem == null || problemWith(fallbackModel, latencySlo.get(plan)) != null) {
+            // Saudável, ou o fallback também está degradado: não adianta trocar
+            return preferred;
+        }
+        return new Route(fallbackModel, "fallback-" + problem);
+    }
+
+    private boolean isLite(SubscriptionPlan plan, String userChallenge) {
+        return liteModel != null && !liteModel.isBlank()
+                && litePlans.contains(plan)
+                && userChallenge != null && userChallenge.length() <= liteMaxChars;
+    }
+
+    /**
+     * "errors", "latency" ou null (saudável ou com poucas amostras recentes).
+     */
+    private String problemWith(String model, Duration slo) {
+        ModelStats modelStats = stats.get(model);
+        if (modelStats == null) {
+            return null;
+        }
+        long[] snapshot = modelStats.snapshot(System.nanoTime() - statsWindowNanos);
+        int total = (int) snapshot[0];
+        if (total < minSamples) {
+            return null;
+        }
+        if ((double) snapshot[1] / total > maxErrorRate) {
+            return "errors";
+        }
+        return snapshot[2] > slo.toNanos() ? "latency" : null;
+    }
+
+    /**
+     * Últimas chamadas de um modelo: instante, latência e falha.
+     */
+    private static class ModelStats {
+        private final long[] timestamps = new long[MAX_SAMPLES];
+        private final long[] latencies = new long[MAX_SAMPLES];
+        private final boolean[] failures = new boolean[MAX_SAMPLES];
+        private int index = 0;
+        private int count = 0;
+
+        synchronized void add(long latencyNanos, boolean failure) {
+            timestamps[index] = System.nanoTime();
+            latencies[index] = latencyNanos;
+            failures[index] = failure;
+            index = (index + 1) % MAX_SAMPLES;
+            count = Math.min(MAX_SAMPLES, count + 1);
+        }
+
+        /**
+         * {total, falhas, p95 das latências bem-sucedidas} das amostras posteriores a {@code since}.
+         */
+        long[] snapshot(long since) {
+            long[] successLatencies;
+            int total = 0;
+            int failed = 0;
+            int successes = 0;
+            synchronized (this) {
+                successLatencies = new long[count];
+                for (int i = 0; i < count; i++) {
+                    if (timestamps[i] - since < 0) {
+                        continue;
+                    }
+                    total++;
+                    if (failures[i]) {
+                        failed++;
+                    } else {
+                        successLatencies[successes++] = latencies[i];
+                    }
+                }
+            }
+            long p95 = 0;
+            if (successes > 0) {
+                long[] samples = Arrays.copyOf(successLatencies, successes);
+                Arrays.sort(samples);
+                p95 = samples[(int) Math.ceil(samples.length * 0.95) - 1];
+            }
+            return new long[] { total, failed, p95 };
+        }
+    }
+}
@@ -0,0 +1,345 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Camada de resiliência das chamadas ao Gemini:
+ * prazo por tentativa + prazo total, circuit breaker POR MODELO com janela das últimas chamadas
+ * (falha rápido enquanto o modelo está degradado, sem bloquear o fallback nem o lite) e hedging opcional: se a resposta
+ * passar do p95 recente, dispara uma segunda tentativa e fica com a que chegar primeiro.
+ */
+@Component
+public class GeminiResilience {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeminiResilience.class);
+
+    // Amostras de latência usadas no p95; abaixo do mínimo não há hedging (p95 pouco confiável)
+    private static final int LATENCY_SAMPLES = 128;
+    private static final int MIN_HEDGE_SAMPLES = 20;
+
+    public enum CircuitState { CLOSED, HALF_OPEN, OPEN }
+
+    private final MeterRegistry meterRegistry;
+    private final Duration connectTimeout;
+    private final Duration attemptTimeout;
+    private final Duration overallTimeout;
+    private final double failureRateThreshold;
+    private final int minimumCalls;
+    private final long openDurationNanos;
+    private final boolean hedgingEnabled;
+    private final Duration hedgeMinDelay;
+    private final Timer attemptTimer;
+
+    private final int slidingWindowSize;
+
+    // Um circuito por modelo: o principal degradado não derruba as chamadas ao fallback
+    private final Map<String, Circuit> circuits = new ConcurrentHashMap<>();
+
+    // Latências das últimas tentativas bem-sucedidas (protegidas pelo próprio array)
+    private final long[] latencies = new long[LATENCY_SAMPLES];
+    private int latencyIndex = 0;
+    private int latencyCount = 0;
+
+    public GeminiResilience(MeterRegistry meterRegistry,
+                            @Value("${mentorship.gemini.resilience.connect-timeout-ms:5000}") long connectTimeoutMs,
+                            @Value("${mentorship.gemini.resilience.attempt-timeout-ms:45000}") long attemptTimeoutMs,
+                            @Value("${mentorship.gemini.resilience.overall-timeout-ms:90000}") long overallTimeoutMs,
+                            @Value("${mentorship.gemini.resilience.circuit.failure-rate-threshold:0.5}") double failureRateThreshold,
+                            @Value("${mentorship.gemini.resilience.circuit.sliding-window-size:20}") int slidingWindowSize,
+                            @Value("${mentorship.gemini.resilience.circuit.minimum-calls:10}") int minimumCalls,
+                            @Value("${mentorship.gemini.resilience.circuit.open-duration-ms:30000}") long openDurationMs,
+                            @Value("${mentorship.gemini.resilience.hedging.enabled:false}") boolean hedgingEnabled,
+                            @Value("${mentorship.gemini.resilience.hedging.min-delay-ms:3000}") long hedgeMinDelayMs) {
+        this.meterRegistry = meterRegistry;
+        this.connectTimeout = Duration.ofMillis(connectTimeoutMs);
+        this.attemptTimeout = Duration.ofMillis(attemptTimeoutMs);
+        this.overallTimeout = Duration.ofMillis(overallTimeoutMs);
+        this.failureRateThreshold = failureRateThreshold;
+        this.slidingWindowSize = slidingWindowSize;
+        this.minimumCalls = Math.min(minimumCalls, slidingWindowSize);
+        this.openDurationNanos = TimeUnit.MILLISECONDS.toNanos(openDurationMs);
+        this.hedgingEnabled = hedgingEnabled;
+        this.hedgeMinDelay = Duration.ofMillis(hedgeMinDelayMs);
+
+        this.attemptTimer = Timer.builder("gemini.attempt.latency")
+                .description("Latência de cada tentativa bem-sucedida ao Gemini")
+                .register(meterRegistry);
+    }
+
+    public Duration getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public Duration getAttemptTimeout() {
+        return attemptTimeout;
+    }
+
+    /**
+     * Chamada unária (generateContent) ao {@code model}. {@code hedgeable} permite a segunda tentativa,
+     * o que só é seguro para chamadas sem efeitos colaterais além do custo em tokens.
+     */
+    public <T> Mono<T> execute(String model, Supplier<Mono<T>> attempt, boolean hedgeable) {
+        return Mono.defer(() -> {
+            Circuit circuit = circuit(model);
+            if (!circuit.tryAcquirePermission()) {
+                return Mono.error(shortCircuit(model));
+            }
+            Mono<T> primary = timedAttempt(attempt);
+            Mono<T> call = hedgeable && hedgingEnabled ? hedged(primary, attempt) : primary;
+            return call.timeout(overallTimeout)
+                    .doOnSuccess(value -> circuit.onSuccess())
+                    .doOnError(circuit::onError)
+                    .doOnCancel(circuit::releaseTrial);
+        });
+    }
+
+    /**
+     * Chamada em streaming (streamGenerateContent). Aqui o prazo por tentativa vale para o
+     * intervalo entre eventos, limitado pelo prazo total. Sem hedging: os campos já entregues
+     * à página não podem vir de duas respostas diferentes.
+     */
+    public <T> Flux<T> executeStream(String model, Supplier<Flux<T>> attempt) {
+        return Flux.defer(() -> {
+            Circuit circuit = circuit(model);
+            if (!circuit.tryAcquirePermission()) {
+                return Flux.error(shortCircuit(model));
+            }
+            long deadline = System.nanoTime() + overallTimeout.toNanos();
+            return attempt.get()
+                    .timeout(Mono.delay(nextTimeout(deadline)), event -> Mono.delay(nextTimeout(deadline)))
+                    .doOnComplete(circuit::onSuccess)
+                    .doOnError(circuit::onError)
+                    .doOnCancel(circuit::releaseTrial);
+        });
+    }
+
+    private <T> Mono<T> timedAttempt(Supplier<Mono<T>> attempt) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return attempt.get()
+                    .timeout(attemptTimeout)
+                    .doOnSuccess(value -> recordLatency(System.nanoTime() - start));
+        });
+    }
+
+    private <T> Mono<T> hedged(Mono<T> primary, Supplier<Mono<T>> attempt) {
+        Duration delay = hedgeDelay();
+        if (delay == null) {
+            return primary;
+        }
+        Mono<T> hedge = Mono.delay(delay)
+                .then(Mono.defer(() -> {
+                    meterRegistry.counter("gemini.hedge", "result", "sent").increment();
+                    return timedAttempt(attempt);
+                }))
+                .doOnSuccess(value -> meterRegistry.counter("gemini.hedge", "result", "won").increment())
+                // Erro da tentativa extra não decide nada: vale o resultado da primeira
+                .onErrorResume(e -> Mono.never());
+        return Mono.firstWithSignal(primary, hedge);
+    }
+
+    private Duration nextTimeout(long deadline) {
+        long remaining = Math.max(0, deadline - System.nanoTime());
+        return Duration.ofNanos(Math.min(attemptTimeout.toNanos(), remaining));
+    }
+
+    // --- Hedging: atraso = max(p95 recente, atraso mínimo) ---
+
+    private void recordLatency(long nanos) {
+        attemptTimer.record(nanos, TimeUnit.NANOSECONDS);
+        synchronized (latencies) {
+            latencies[latencyIndex] = nanos;
+            latencyIndex = (latencyIndex + 1) % LATENCY_SAMPLES;
+            latencyCount = Math.min(LATENCY_SAMPLES, latencyCount + 1);
+        }
+    }
+
+    private Duration hedgeDelay() {
+        long[] samples;
+        synchronized (latencies) {
+            if (latencyCount < MIN_HEDGE_SAMPLES) {
+                return null;
+            }
+            samples = Arrays.copyOf(latencies, latencyCount);
+        }
+        Arrays.sort(samples);
+        long p95 = samples[(int) Math.ceil(samples.length * 0.95) - 1];
+        return Duration.ofNanos(Math.max(p95, hedgeMinDelay.toNanos()));
+    }
+
+    // --- Circuit breaker ---
+
+    private Circuit circuit(String model) {
+        return circuits.computeIfAbsent(model, name -> {
+            Circuit circuit = new Circuit(name);
+            Gauge.builder("gemini.circuit.state", circuit, c -> c.state().ordinal())
+                    .description("Estado do circuit breaker do modelo Gemini (0=fechado, 1=meio-aberto, 2=aberto)")
+                    .tag("model", name)
+                    .register(meterRegistry);
+            return circuit;
+        });
+    }
+
+    private GeminiCircuitOpenException shortCircuit(String model) {
+        countOutcome("short_circuited");
+        return new GeminiCircuitOpenException("Modelo Gemini " + model + " indisponível no momento (circuito aberto).");
+    }
+
+    private static boolean isGeminiFailure(Throwable cause) {
+        if (cause instanceof GeminiApiException apiException) {
+            return apiException.getStatusCode() >= 500 || apiException.getStatusCode() == 429;
+        }
+        return cause instanceof WebClientRequestException;
+    }
+
+    private void countOutcome(String outcome) {
+        meterRegistry.counter("gemini.calls", "outcome", outcome).increment();
+    }
+
+    /**
+     * Estado do circuito do modelo (CLOSED se o modelo ainda não foi chamado).
+     */
+    public CircuitState currentState(String model) {
+        Circuit circuit = circuits.get(model);
+        return circuit == null ? CircuitState.CLOSED : circuit.state();
+    }
+
+    /**
+     * Circuito de um modelo: janela das últimas chamadas, protegida pelo monitor do próprio circuito.
+     */
+    private final class Circuit {
+
+        private final String model;
+        private final boolean[] window = new boolean[slidingWindowSize]; // true = falha
+        private CircuitState state = CircuitState.CLOSED;
+        private int windowIndex = 0;
+        private int windowCount = 0;
+        private int windowFailures = 0;
+        private long openedAtNanos = 0;
+        private boolean trialInFlight = false;
+
+        private Circuit(String model) {
+            this.model = model;
+        }
+
+        synchronized boolean tryAcquirePermission() {
+            if (state == CircuitState.OPEN) {
+                if (System.nanoTime() - openedAtNanos < openDurationNanos) {
+                    return false;
+                }
+                transition(CircuitState.HALF_OPEN);
+            }
+            if (state == CircuitState.HALF_OPEN) {
+                // Uma única chamada de teste decide se o circuito fecha ou volta a abrir
+                if (trialInFlight) {
+                    return false;
+                }
+                trialInFlight = true;
+            }
+            return true;
+        }
+
+        void onSuccess() {
+            record(false, "success");
+        }
+
+        void onError(Throwable error) {
+            Throwable cause = Exceptions.unwrap(error);
+            if (cause instanceof TimeoutException) {
+                record(true, "timeout");
+            } else if (isGeminiFailure(cause)) {
+                record(true, "failure");
+            } else {
+                // Ex.: 400 por entrada inválida — não diz nada sobre a saúde do Gemini
+                countOutcome("ignored");
+                releaseTrial();
+            }
+        }
+
+        private synchronized void record(boolean failure, String outcome) {
+            countOutcome(outcome);
+
+            if (state == CircuitState.HALF_OPEN) {
+                trialInFlight = false;
+                if (failure) {
+                    logger.warn("Circuit breaker do Gemini ({}) reaberto: a chamada de teste falhou ({}).", model, outcome);
+                    open();
+                } else {
+                    resetWindow();
+                    transition(CircuitState.CLOSED);
+                    logger.info("Circuit breaker do Gemini ({}) fechado: chamada de teste bem-sucedida.", model);
+                }
+                return;
+            }
+            if (state == CircuitState.OPEN) {
+                return; // Resposta atrasada de uma chamada anterior à abertura
+            }
+
+            if (windowCount == window.length && window[windowIndex]) {
+                windowFailures--;
+            }
+            window[windowIndex] = failure;
+            if (failure) {
+                windowFailures++;
+            }
+            windowIndex = (windowIndex + 1) % window.length;
+            windowCount = Math.min(window.length, windowCount + 1);
+
+            if (windowCount >= minimumCalls && (double) windowFailures / windowCount >= failureRateThreshold) {
+                logger.warn("Circuit breaker do Gemini ({}) ABERTO: {} falhas nas últimas {} chamadas.",
+                        model, windowFailures, windowCount);
+                open();
+            }
+        }
+
+        synchronized void releaseTrial() {
+            if (state == CircuitState.HALF_OPEN) {
+                trialInFlight = false;
+            }
+        }
+
+        synchronized CircuitState state() {
+            return state;
+        }
+
+        // Deve ser chamado com o monitor do circuito
+        private void open() {
+            openedAtNanos = System.nanoTime();
+            resetWindow();
+            transition(CircuitState.OPEN);
+        }
+
+        private void resetWindow() {
+            Arrays.fill(window, false);
+            windowIndex = 0;
+            windowCount = 0;
+            windowFailures = 0;
+        }
+
+        private void transition(CircuitState target) {
+            if (state != target) {
+                state = target;
+                meterRegistry.counter("gemini.circuit.transitions", "model", model, "state", target.name().toLowerCase())
+                        .increment();
+            }
+        }
+    }
+}
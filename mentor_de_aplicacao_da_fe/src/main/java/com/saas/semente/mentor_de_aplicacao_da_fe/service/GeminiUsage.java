@@ -0,0 +1,11 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+/**
+ * Contagem de tokens do usageMetadata de uma resposta Gemini.
+ * {@code cachedContentTokenCount} é a parte do prompt servida pelo cache de contexto (cobrada com desconto).
+ */
+public record GeminiUsage(int promptTokenCount,
+                          int candidatesTokenCount,
+                          int totalTokenCount,
+                          int cachedContentTokenCount) {
+}
@@ -0,0 +1,10 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplication;
+
+/**
+ * Resultado de um {@link MentorshipGenerator}: a mentoria, o modelo que a gerou e o
+ * usageMetadata da resposta (null se o provedor não informou).
+ */
+public record GeneratedMentorship(FaithApplication application, String model, GeminiUsage usage) {
+}
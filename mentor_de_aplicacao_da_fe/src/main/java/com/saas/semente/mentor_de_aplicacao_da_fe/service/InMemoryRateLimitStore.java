@@ -0,0 +1,60 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token buckets em memória, sem locks: cada bucket é um estado imutável trocado por CAS.
+ * O limite vem em cada tentativa (o plano do usuário pode ter mudado): a reposição e o teto
+ * usam sempre o limite atual. Os limites valem por instância; com várias instâncias, use o modo "postgres".
+ */
+@Component
+@ConditionalOnProperty(name = "mentorship.ratelimit.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryRateLimitStore implements RateLimitStore {
+
+    // limit: o da última tentativa, usado só para decidir se o bucket ocioso já está cheio
+    private record State(double tokens, long refilledAtNanos, Limit limit) {
+
+        private double tokensAt(long now, Limit current) {
+            double refilled = (now - refilledAtNanos) / 1e9 * current.refillPerSecond();
+            return Math.min(current.capacity(), tokens + refilled);
+        }
+    }
+
+    private final Map<String, AtomicReference<State>> buckets = new ConcurrentHashMap<>();
+
+    @Override
+    public Decision tryConsume(String key, Limit limit) {
+        AtomicReference<State> bucket = buckets.computeIfAbsent(key,
+                k -> new AtomicReference<>(new State(limit.capacity(), System.nanoTime(), limit)));
+        while (true) {
+            State current = bucket.get();
+            long now = System.nanoTime();
+            double tokens = current.tokensAt(now, limit);
+            if (tokens < 1) {
+                return Decision.deniedFor(1 - tokens, limit);
+            }
+            if (bucket.compareAndSet(current, new State(tokens - 1, now, limit))) {
+                return Decision.ALLOWED;
+            }
+            // Outra thread consumiu ao mesmo tempo: recalcula com o estado novo
+        }
+    }
+
+    /**
+     * Descarta buckets já cheios (equivalem a um bucket novo), para o mapa não crescer sem limite.
+     */
+    @Scheduled(fixedDelay = 300_000)
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> {
+            State state = bucket.get();
+            return state.tokensAt(now, state.limit()) >= state.limit().capacity();
+        });
+    }
+}
@@ -0,0 +1,92 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.FaithApplicationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Busca textual no diário do usuário (PostgreSQL full-text, configuração 'portuguese': "perdoar" encontra
+ * "perdão"/"perdoei"). Resultados por relevância, paginados, com trechos destacados.
+ * Aceita a sintaxe de busca web: "frase exata", -excluir, ou.
+ */
+@Service
+public class JournalSearchService {
+
+    // Marcadores que o ts_headline põe em volta dos termos: trocados por <mark> DEPOIS de escapar o texto.
+    // Caracteres de controle (STX/ETX): a busca os remove do texto antes do ts_headline, então só os marcadores viram <mark>.
+    static final String MARK_START = "\u0002";
+    static final String MARK_END = "\u0003";
+    private static final String HEADLINE_OPTIONS = "StartSel=\"" + MARK_START + "\", StopSel=\"" + MARK_END + "\"" +
+            ", MaxWords=35, MinWords=15, MaxFragments=2, FragmentDelimiter=\" … \"";
+
+    /**
+     * Uma mentoria encontrada. snippetHtml já vem escapado: só as tags <mark> são HTML.
+     */
+    public record SearchHit(Long id, String identifiedTheme, String versiculoBussola, LocalDateTime createdAt,
+                            double rank, String snippetHtml) {
+    }
+
+    public record SearchPage(String query, int page, List<SearchHit> hits, boolean hasNext) {
+    }
+
+    private final FaithApplicationRepository repository;
+    private final MeterRegistry meterRegistry;
+    private final int pageSize;
+    private final int maxPage;
+    private final int maxQueryLength;
+
+    public JournalSearchService(FaithApplicationRepository repository, MeterRegistry meterRegistry,
+                                @Value("${mentorship.search.page-size:10}") int pageSize,
+                                @Value("${mentorship.search.max-page:50}") int maxPage,
+                                @Value("${mentorship.search.max-query-length:200}") int maxQueryLength) {
+        this.repository = repository;
+        this.meterRegistry = meterRegistry;
+        this.pageSize = pageSize;
+        this.maxPage = maxPage;
+        this.maxQueryLength = maxQueryLength;
+    }
+
+    /**
+     * Página (a partir de 0) dos resultados. Busca um a mais só para saber se há próxima página.
+     */
+    public SearchPage search(Long userId, String query, int page) {
+        String terms = query == null ? "" : query.trim();
+        if (terms.length() > maxQueryLength) {
+            terms = terms.substring(0, maxQueryLength);
+        }
+        int safePage = Math.max(0, Math.min(page, maxPage));
+        if (terms.isEmpty()) {
+            return new SearchPage(terms, safePage, List.of(), false);
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<FaithApplicationRepository.SearchRow> rows =
+                repository.search(userId, terms, HEADLINE_OPTIONS, pageSize + 1, safePage * pageSize);
+        sample.stop(meterRegistry.timer("journal.search.duration"));
+
+        List<SearchHit> hits = rows.stream()
+                .limit(pageSize)
+                .map(row -> new SearchHit(row.getId(), row.getIdentifiedTheme(), row.getVersiculoBussola(),
+                        row.getCreatedAt(), row.getRank(), highlight(row.getSnippet())))
+                .toList();
+        return new SearchPage(terms, safePage, hits, rows.size() > pageSize && safePage < maxPage);
+    }
+
+    /**
+     * Escapa o trecho e troca os marcadores por <mark>. Nenhum texto do usuário vira HTML.
+     */
+    static String highlight(String snippet) {
+        if (snippet == null) {
+            return "";
+        }
+        return HtmlUtils.htmlEscape(snippet, "UTF-8")
+                .replace(MARK_START, "<mark>")
+                .replace(MARK_END, "</mark>");
+    }
+}
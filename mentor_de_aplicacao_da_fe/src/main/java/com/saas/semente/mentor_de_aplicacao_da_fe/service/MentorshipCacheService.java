@@ -0,0 +1,290 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplication;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.MentorshipCacheEntry;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.SubscriptionPlan;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.MentorshipCacheEntryRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache de mentorias na frente do Gemini, indexado pelo desafio NORMALIZADO.
+ * Camada 1: LRU em memória (tamanho máximo + TTL). Camada 2 (opcional): tabela mentorship_cache.
+ * Apenas os planos configurados em mentorship.cache.plans aceitam respostas do cache.
+ */
+@Service
+public class MentorshipCacheService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MentorshipCacheService.class);
+
+    private final ChallengeNormalizer normalizer;
+    private final MentorshipCacheEntryRepository cacheRepository;
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+    private final boolean persistentEnabled;
+    private final int maxEntries;
+    private final int maxKeyLength;
+    private final Duration ttl;
+    private final Set<SubscriptionPlan> allowedPlans;
+
+    // LRU: LinkedHashMap em ordem de acesso, protegido pelo próprio monitor
+    private final LinkedHashMap<String, CachedMentorship> memory;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    // Média móvel (EWMA) da latência do Gemini, usada para estimar o tempo economizado em cada acerto
+    private final AtomicLong geminiLatencyEwmaNanos = new AtomicLong();
+    private final Timer savedLatencyTimer;
+
+    private record CachedMentorship(FaithApplication template, Instant storedAt) {
+    }
+
+    public MentorshipCacheService(ChallengeNormalizer normalizer,
+                                  MentorshipCacheEntryRepository cacheRepository,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${mentorship.cache.enabled:true}") boolean enabled,
+                                  @Value("${mentorship.cache.persistent.enabled:false}") boolean persistentEnabled,
+                                  @Value("${mentorship.cache.max-entries:1000}") int maxEntries,
+                                  @Value("${mentorship.cache.max-key-length:200}") int maxKeyLength,
+                                  @Value("${mentorship.cache.ttl-minutes:1440}") long ttlMinutes,
+                                  @Value("${mentorship.cache.plans:SEMENTE,COLHEITA}") SubscriptionPlan[] allowedPlans) {
+        this.normalizer = normalizer;
+        this.cacheRepository = cacheRepository;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.persistentEnabled = persistentEnabled;
+        this.maxEntries = maxEntries;
+        this.maxKeyLength = maxKeyLength;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.allowedPlans = allowedPlans.length == 0
+                ? EnumSet.noneOf(SubscriptionPlan.class)
+                : EnumSet.copyOf(Arrays.asList(allowedPlans));
+
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedMentorship> eldest) {
+                return size() > MentorshipCacheService.this.maxEntries;
+            }
+        };
+
+        Gauge.builder("mentorship.cache.size", this, service -> service.memorySize())
+                .description("Entradas no cache de mentorias em memória")
+                .register(meterRegistry);
+        Gauge.builder("mentorship.cache.hit.ratio", this, MentorshipCacheService::hitRatio)
+                .description("Proporção de acertos do cache de mentorias")
+                .register(meterRegistry);
+        this.savedLatencyTimer = Timer.builder("mentorship.cache.saved.latency")
+                .description("Latência do Gemini evitada em cada acerto (estimada pela média recente)")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Política por plano: o plano aceita respostas vindas do cache?
+     */
+    public boolean isAllowedFor(SubscriptionPlan plan) {
+        return enabled && allowedPlans.contains(plan);
+    }
+
+    /**
+     * Procura uma mentoria já gerada para um desafio equivalente.
+     * @return Uma NOVA FaithApplication (sem id/usuário) com os campos do cache.
+     */
+    public Optional<FaithApplication> lookup(String userChallenge, SubscriptionPlan plan) {
+        if (!isAllowedFor(plan)) {
+            return Optional.empty();
+        }
+        String normalized = normalizer.normalize(userChallenge);
+        if (!isCacheable(normalized)) {
+            return Optional.empty();
+        }
+
+        String key = hash(normalized);
+        Optional<FaithApplication> template = lookupMemory(key);
+        String tier = "memory";
+
+        if (template.isEmpty() && persistentEnabled) {
+            template = lookupDatabase(key);
+            tier = "database";
+        }
+
+        if (template.isEmpty()) {
+            misses.incrementAndGet();
+            meterRegistry.counter("mentorship.cache.lookups", "result", "miss", "tier", "none").increment();
+            return Optional.empty();
+        }
+
+        hits.incrementAndGet();
+        meterRegistry.counter("mentorship.cache.lookups", "result", "hit", "tier", tier).increment();
+        savedLatencyTimer.record(Duration.ofNanos(geminiLatencyEwmaNanos.get()));
+
+        return Optional.of(copyFor(template.get(), userChallenge));
+    }
+
+    /**
+     * Guarda a mentoria recém-gerada pelo Gemini (qualquer plano alimenta o cache).
+     */
+    public void store(String userChallenge, FaithApplication generated) {
+        if (!enabled) {
+            return;
+        }
+        String normalized = normalizer.normalize(userChallenge);
+        if (!isCacheable(normalized)) {
+            return;
+        }
+
+        String key = hash(normalized);
+        synchronized (memory) {
+            memory.put(key, new CachedMentorship(copyFor(generated, normalized), Instant.now()));
+        }
+
+        if (persistentEnabled) {
+            try {
+                cacheRepository.save(toEntry(key, normalized, generated));
+            } catch (Exception e) {
+                // O cache nunca deve derrubar a geração da mentoria
+                logger.warn("Falha ao gravar a mentoria no cache persistente: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Alimenta a média de latência do Gemini (chamado a cada geração real).
+     */
+    public void recordGeminiLatency(Duration latency) {
+        long sample = latency.toNanos();
+        geminiLatencyEwmaNanos.updateAndGet(current -> current == 0 ? sample : (current * 4 + sample) / 5);
+    }
+
+    /**
+     * Limpa a camada persistente (TTL) uma vez por hora.
+     */
+    @Scheduled(fixedDelay = 3_600_000)
+    @Transactional
+    public void purgeExpired() {
+        if (!persistentEnabled) {
+            return;
+        }
+        int removed = cacheRepository.deleteExpired(LocalDateTime.now().minus(ttl));
+        if (removed > 0) {
+            logger.info("Cache de mentorias: {} entradas expiradas removidas do banco.", removed);
+        }
+    }
+
+    private Optional<FaithApplication> lookupMemory(String key) {
+        synchronized (memory) {
+            CachedMentorship cached = memory.get(key);
+            if (cached == null) {
+                return Optional.empty();
+            }
+            if (cached.storedAt().plus(ttl).isBefore(Instant.now())) {
+                memory.remove(key);
+                return Optional.empty();
+            }
+            return Optional.of(cached.template());
+        }
+    }
+
+    private Optional<FaithApplication> lookupDatabase(String key) {
+        try {
+            Optional<MentorshipCacheEntry> entry = cacheRepository.findById(key)
+                    .filter(e -> e.getCreatedAt() != null && e.getCreatedAt().plus(ttl).isAfter(LocalDateTime.now()));
+
+            entry.ifPresent(e -> {
+                // Promove para a memória
+                FaithApplication template = fromEntry(e);
+                synchronized (memory) {
+                    memory.put(key, new CachedMentorship(template, Instant.now()));
+                }
+            });
+            return entry.map(this::fromEntry);
+        } catch (Exception e) {
+            logger.warn("Falha ao consultar o cache persistente de mentorias: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private boolean isCacheable(String normalized) {
+        // Desafios longos e pessoais quase nunca se repetem: não poluem o cache
+        return !normalized.isEmpty() && normalized.length() <= maxKeyLength;
+    }
+
+    private int memorySize() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+    private double hitRatio() {
+        long total = hits.get() + misses.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    private FaithApplication copyFor(FaithApplication source, String userChallenge) {
+        FaithApplication app = new FaithApplication();
+        app.setUserChallenge(userChallenge);
+        app.setIdentifiedTheme(source.getIdentifiedTheme());
+        app.setVersiculoBussola(source.getVersiculoBussola());
+        app.setReflexaoAplicada(source.getReflexaoAplicada());
+        app.setConselhosPraticos(source.getConselhosPraticos());
+        app.setReferenciasCruzadas(source.getReferenciasCruzadas());
+        app.setOracaoSemente(source.getOracaoSemente());
+        return app;
+    }
+
+    private MentorshipCacheEntry toEntry(String key, String normalized, FaithApplication app) {
+        MentorshipCacheEntry entry = new MentorshipCacheEntry();
+        entry.setCacheKey(key);
+        entry.setNormalizedChallenge(normalized);
+        entry.setIdentifiedTheme(app.getIdentifiedTheme());
+        entry.setVersiculoBussola(app.getVersiculoBussola());
+        entry.setReflexaoAplicada(app.getReflexaoAplicada());
+        entry.setConselhosPraticos(app.getConselhosPraticos());
+        entry.setReferenciasCruzadas(app.getReferenciasCruzadas());
+        entry.setOracaoSemente(app.getOracaoSemente());
+        return entry;
+    }
+
+    private FaithApplication fromEntry(MentorshipCacheEntry entry) {
+        FaithApplication app = new FaithApplication();
+        app.setUserChallenge(entry.getNormalizedChallenge());
+        app.setIdentifiedTheme(entry.getIdentifiedTheme());
+        app.setVersiculoBussola(entry.getVersiculoBussola());
+        app.setReflexaoAplicada(entry.getReflexaoAplicada());
+        app.setConselhosPraticos(entry.getConselhosPraticos());
+        app.setReferenciasCruzadas(entry.getReferenciasCruzadas());
+        app.setOracaoSemente(entry.getOracaoSemente());
+        return app;
+    }
+
+    private static String hash(String normalized) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(normalized.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível na JVM.", e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.BiConsumer;
+
+/**
+ * Parser JSON incremental (não-bloqueante) para o modo streaming.
+ * Recebe os pedaços de texto que o Gemini envia em cada evento SSE e avisa
+ * cada campo do objeto raiz (ex: "versiculoBussola") assim que o valor fica completo.
+ */
+public class MentorshipFieldStreamParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final BiConsumer<String, String> onField;
+
+    private int depth = 0;
+    private String currentField;
+
+    public MentorshipFieldStreamParser(BiConsumer<String, String> onField) throws IOException {
+        this.parser = JSON_FACTORY.createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        this.onField = onField;
+    }
+
+    /**
+     * Alimenta o parser com mais um pedaço do JSON (pode cortar no meio de um valor).
+     */
+    public void feed(String textChunk) throws IOException {
+        if (textChunk == null || textChunk.isEmpty()) {
+            return;
+        }
+        byte[] bytes = textChunk.getBytes(StandardCharsets.UTF_8);
+        feeder.feedInput(bytes, 0, bytes.length);
+        drain();
+    }
+
+    /**
+     * Sinaliza o fim do stream e processa o que ainda estiver no buffer.
+     */
+    public void finish() throws IOException {
+        feeder.endOfInput();
+        drain();
+        parser.close();
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            switch (token) {
+                case START_OBJECT, START_ARRAY -> depth++;
+                case END_OBJECT, END_ARRAY -> depth--;
+                case FIELD_NAME -> {
+                    if (depth == 1) {
+                        currentField = parser.currentName();
+                    }
+                }
+                case VALUE_STRING -> {
+                    // Apenas campos do objeto raiz interessam (o schema é "plano")
+                    if (depth == 1 && currentField != null) {
+                        onField.accept(currentField, parser.getText());
+                    }
+                }
+                default -> {
+                    // Números, booleanos e nulls não fazem parte do schema
+                }
+            }
+        }
+    }
+}
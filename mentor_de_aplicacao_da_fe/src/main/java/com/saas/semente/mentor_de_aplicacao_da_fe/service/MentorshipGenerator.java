@@ -0,0 +1,24 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.SubscriptionPlan;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Origem das mentorias geradas. A implementação é escolhida pelo perfil do Spring:
+ * Gemini real (padrão), fake em memória ("fake-gemini") ou Gemini apontado para o stub local ("gemini-stub").
+ * As chamadas são bloqueantes e rodam SEM transação, nos workers do MentorshipJobService.
+ */
+public interface MentorshipGenerator {
+
+    /**
+     * Gera a mentoria completa de uma vez.
+     * @return Mentoria (FaithApplication ainda sem usuário/id), modelo e uso de tokens.
+     */
+    GeneratedMentorship generate(String userChallenge, SubscriptionPlan plan) throws Exception;
+
+    /**
+     * Gera a mentoria entregando cada campo do schema ao {@code onField} assim que fica pronto.
+     */
+    GeneratedMentorship stream(String userChallenge, SubscriptionPlan plan, BiConsumer<String, String> onField) throws Exception;
+}
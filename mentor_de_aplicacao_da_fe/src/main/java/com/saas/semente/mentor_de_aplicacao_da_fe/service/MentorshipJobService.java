@@ -0,0 +1,531 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplication;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.MentorshipJob;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.MentorshipJobState;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.SubscriptionPlan;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.User;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.MentorshipJobStateRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Geração de mentorias em modo "job": o POST /generate apenas registra o job,
+ * um pool limitado de workers chama o Gemini FORA de qualquer transação e uma
+ * transação curta salva a FaithApplication. A página acompanha o job via SSE
+ * (ou polling, como fallback). No modo streaming, cada seção da mentoria é
+ * enviada à página (evento "field") assim que o Gemini a completa.
+ * <p>
+ * O estado de cada job é gravado na tabela mentorship_job: o polling e o SSE funcionam em qualquer
+ * instância. Quem roda o job avisa os seus inscritos na hora; as demais instâncias consultam a tabela
+ * (mentorship.jobs.remote-poll-ms) e repassam as mudanças aos inscritos delas.
+ */
+@Service
+public class MentorshipJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MentorshipJobService.class);
+    private static final long SSE_TIMEOUT_MS = Duration.ofMinutes(2).toMillis();
+    private static final TypeReference<LinkedHashMap<String, String>> FIELDS_TYPE = new TypeReference<>() {
+    };
+
+    private final FaithApplicationService applicationService;
+    private final MentorshipGenerator mentorshipGenerator;
+    private final MentorshipCacheService cacheService;
+    private final UsageAccountingService usageService;
+    private final QuotaService quotaService;
+    private final MentorshipJobStateRepository stateRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final ThreadPoolExecutor executor;
+    private final int queueCapacity;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Timer queueWaitTimer;
+    private final Timer latencyTimer;
+
+    private final Map<String, MentorshipJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+    // Inscritos desta instância em jobs que rodam em outra instância (acompanhados pela tabela)
+    private final Map<String, RemoteWatch> remoteWatches = new ConcurrentHashMap<>();
+
+    @Value("${mentorship.jobs.retention-minutes:15}")
+    private long retentionMinutes;
+
+    @Value("${mentorship.streaming.enabled:true}")
+    private boolean streamingEnabled;
+
+    public MentorshipJobService(FaithApplicationService applicationService,
+                                MentorshipGenerator mentorshipGenerator,
+                                MentorshipCacheService cacheService,
+                                UsageAccountingService usageService,
+                                QuotaService quotaService,
+                                MentorshipJobStateRepository stateRepository,
+                                ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${mentorship.jobs.workers:32}") int workers,
+                                @Value("${mentorship.jobs.queue-capacity:100}") int queueCapacity) {
+        this.applicationService = applicationService;
+        this.mentorshipGenerator = mentorshipGenerator;
+        this.cacheService = cacheService;
+        this.usageService = usageService;
+        this.quotaService = quotaService;
+        this.stateRepository = stateRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+
+        // Pool LIMITADO: quando a fila enche, o POST falha rápido em vez de empilhar threads.
+        // Com workers = limite máximo do GeminiAdmissionController, é a fila de prioridade dele que ordena
+        // as chamadas; a fila do pool (também por plano) só enche se todos os workers estiverem ocupados.
+        this.executor = newJobExecutor(workers);
+        this.queueCapacity = queueCapacity;
+
+        Gauge.builder("mentorship.jobs.queue.depth", executor, e -> e.getQueue().size())
+                .description("Jobs de mentoria aguardando um worker")
+                .register(meterRegistry);
+        Gauge.builder("mentorship.jobs.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Jobs de mentoria em execução")
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("mentorship.jobs.wait")
+                .description("Tempo do job na fila até um worker assumir")
+                .register(meterRegistry);
+        this.latencyTimer = Timer.builder("mentorship.jobs.latency")
+                .description("Tempo total do job (fila + Gemini + persistência)")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Registra um job PENDING (em memória e na tabela) e o entrega ao pool de workers.
+     * @param reservation Vaga da cota já reservada: confirmada ao salvar a mentoria, devolvida se o job falhar.
+     * @throws RejectedExecutionException se a fila de jobs estiver cheia (a vaga é devolvida).
+     */
+    public MentorshipJob submit(String userChallenge, User user, QuotaService.Reservation reservation) {
+        MentorshipJob job = new MentorshipJob(UUID.randomUUID().toString(), user.getId(), userChallenge);
+        try {
+            stateRepository.save(new MentorshipJobState(job));
+        } catch (RuntimeException e) {
+            // Sem o registro, nenhuma instância conseguiria acompanhar o job
+            releaseQuota(job, reservation);
+            countOutcome("failure");
+            throw e;
+        }
+        jobs.put(job.getId(), job);
+
+        try {
+            // PriorityBlockingQueue não tem limite: a capacidade é conferida aqui
+            synchronized (executor) {
+                if (executor.getQueue().size() >= queueCapacity) {
+                    throw new RejectedExecutionException("Fila de jobs de mentoria cheia.");
+                }
+                executor.execute(new PrioritizedTask(user.getSubscriptionPlan(), sequence.getAndIncrement(),
+                        () -> run(job, user, reservation)));
+            }
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            deleteState(job);
+            releaseQuota(job, reservation);
+            countOutcome("rejected");
+            throw e;
+        }
+        return job;
+    }
+
+    /**
+     * Busca o estado de um job (de qualquer instância) garantindo que ele pertence ao usuário logado.
+     */
+    public Optional<MentorshipJobState> findJob(String jobId, Long userId) {
+        return stateRepository.findByIdAndUserId(jobId, userId);
+    }
+
+    /**
+     * Abre um canal SSE que recebe o estado atual do job e o estado final. Se o job roda nesta instância,
+     * os eventos chegam direto do worker; senão, da consulta periódica à tabela.
+     */
+    public SseEmitter subscribe(MentorshipJobState state) {
+        MentorshipJob local = jobs.get(state.getId());
+        return local != null ? subscribeLocal(local) : subscribeRemote(state);
+    }
+
+    private SseEmitter subscribeLocal(MentorshipJob job) {
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+
+        synchronized (job) {
+            if (!job.isFinished()) {
+                List<SseEmitter> emitters = subscribers.computeIfAbsent(job.getId(), id -> new CopyOnWriteArrayList<>());
+                emitters.add(emitter);
+                emitter.onCompletion(() -> emitters.remove(emitter));
+                emitter.onTimeout(() -> emitters.remove(emitter));
+                emitter.onError(e -> emitters.remove(emitter)); // Conexão do cliente caiu
+                send(emitter, "status", toPayload(job));
+                job.getStreamedFields().forEach((field, value) -> send(emitter, "field", toFieldPayload(field, value)));
+                return emitter;
+            }
+        }
+
+        // Job já terminou: envia o resultado e fecha o canal
+        send(emitter, "status", toPayload(job));
+        emitter.complete();
+        return emitter;
+    }
+
+    private SseEmitter subscribeRemote(MentorshipJobState state) {
+        SseEmitter emitter = new SseEmitter(SSE_TIMEOUT_MS);
+        Map<String, String> fields = readStreamedFields(state);
+        send(emitter, "status", toPayload(state));
+        fields.forEach((field, value) -> send(emitter, "field", toFieldPayload(field, value)));
+        if (state.isFinished()) {
+            emitter.complete();
+            return emitter;
+        }
+
+        // Sincronizado com pollRemoteJobs: o inscrito nunca entra numa vigília já encerrada
+        synchronized (remoteWatches) {
+            RemoteWatch watch = remoteWatches.computeIfAbsent(state.getId(), id -> new RemoteWatch(state.getStatus(), fields));
+            watch.emitters.add(emitter);
+            emitter.onCompletion(() -> watch.emitters.remove(emitter));
+            emitter.onTimeout(() -> watch.emitters.remove(emitter));
+            emitter.onError(e -> watch.emitters.remove(emitter));
+        }
+        return emitter;
+    }
+
+    /**
+     * Repassa aos inscritos desta instância as mudanças dos jobs que rodam em outras instâncias.
+     */
+    @Scheduled(fixedDelayString = "${mentorship.jobs.remote-poll-ms:1000}")
+    public void pollRemoteJobs() {
+        if (remoteWatches.isEmpty()) {
+            return;
+        }
+
+        Map<String, MentorshipJobState> states = stateRepository.findAllById(List.copyOf(remoteWatches.keySet())).stream()
+                .collect(Collectors.toMap(MentorshipJobState::getId, Function.identity()));
+
+        synchronized (remoteWatches) {
+            remoteWatches.entrySet().removeIf(entry -> {
+                RemoteWatch watch = entry.getValue();
+                MentorshipJobState state = states.get(entry.getKey());
+                if (state == null) {
+                    // Removido pela limpeza: a página cai no polling e recebe 404
+                    watch.emitters.forEach(SseEmitter::complete);
+                    return true;
+                }
+                readStreamedFields(state).forEach((field, value) -> {
+                    if (!value.equals(watch.sentFields.put(field, value))) {
+                        watch.emitters.forEach(emitter -> send(emitter, "field", toFieldPayload(field, value)));
+                    }
+                });
+                if (state.getStatus() != watch.sentStatus) {
+                    watch.sentStatus = state.getStatus();
+                    watch.emitters.forEach(emitter -> send(emitter, "status", toPayload(state)));
+                }
+                if (state.isFinished()) {
+                    watch.emitters.forEach(SseEmitter::complete);
+                    return true;
+                }
+                return watch.emitters.isEmpty();
+            });
+        }
+    }
+
+    /**
+     * Representação JSON do job (usada pelo polling e pelo SSE).
+     */
+    public Map<String, Object> toPayload(MentorshipJobState state) {
+        return toPayload(state.getId(), state.getStatus(), state.getApplicationId(), state.getMessage());
+    }
+
+    private Map<String, Object> toPayload(MentorshipJob job) {
+        return toPayload(job.getId(), job.getStatus(), job.getApplicationId(), job.getMessage());
+    }
+
+    private Map<String, Object> toPayload(String id, MentorshipJob.Status status, Long applicationId, String message) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("id", id);
+        payload.put("status", status.name());
+        if (applicationId != null) {
+            payload.put("applicationId", applicationId);
+        }
+        if (message != null) {
+            payload.put("message", message);
+        }
+        return payload;
+    }
+
+    private Map<String, Object> toFieldPayload(String field, String value) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("name", field);
+        payload.put("value", value);
+        return payload;
+    }
+
+    private void run(MentorshipJob job, User user, QuotaService.Reservation reservation) {
+        queueWaitTimer.record(Duration.between(job.getCreatedAt(), Instant.now()));
+        job.markRunning();
+        saveState(job, () -> stateRepository.updateStatus(job.getId(), job.getStatus()));
+        publish(job);
+
+        try {
+            // 1. Cache de desafios normalizados ou chamada lenta ao Gemini (sem transação)
+            FaithApplication newApp = generate(job, user);
+
+            // 2. Transação curta: confirma a vaga da cota e salva
+            FaithApplication saved = applicationService.saveGeneratedMentorship(newApp, user, reservation);
+
+            int limit = reservation.limit();
+            job.complete(saved.getId(),
+                    "Mentoria gerada e registrada com sucesso! Você usou " + reservation.usedCount() + " de " + (limit == Integer.MAX_VALUE ? "∞" : limit) + " prompts neste mês.");
+            countOutcome("success");
+        } catch (RejectedExecutionException e) {
+            // Controle de admissão do Gemini: fila cheia ou prazo de espera esgotado
+            logger.warn("Job {} recusado pelo controle de admissão do Gemini: {}", job.getId(), e.getMessage());
+            releaseQuota(job, reservation);
+            job.fail("O Mentor está atendendo muitas pessoas agora. Tente novamente em alguns instantes.");
+            countOutcome("rejected");
+        } catch (Exception e) {
+            // Mensagem de erro apenas no console, para não expor a API
+            logger.error("Erro ao chamar a API do Gemini ou processar JSON (job {}): {}", job.getId(), e.getMessage(), e);
+            releaseQuota(job, reservation);
+            job.fail("Erro ao gerar a mentoria. Verifique sua chave de API ou a conexão.");
+            countOutcome("failure");
+        } finally {
+            latencyTimer.record(Duration.between(job.getCreatedAt(), Instant.now()));
+            saveState(job, () -> stateRepository.finish(job.getId(), job.getStatus(), job.getApplicationId(), job.getMessage(),
+                    LocalDateTime.ofInstant(job.getFinishedAt(), ZoneId.systemDefault())));
+            publish(job);
+        }
+    }
+
+    /**
+     * Consulta o cache (se o plano permitir) e, em caso de falta, chama o gerador e alimenta o cache.
+     */
+    private FaithApplication generate(MentorshipJob job, User user) throws Exception {
+        Optional<FaithApplication> cached = cacheService.lookup(job.getUserChallenge(), user.getSubscriptionPlan());
+        if (cached.isPresent()) {
+            cached.get().setRoutingReason("cache");
+            return cached.get();
+        }
+
+        long start = System.nanoTime();
+        GeneratedMentorship generated = streamingEnabled
+                ? mentorshipGenerator.stream(job.getUserChallenge(), user.getSubscriptionPlan(), (field, value) -> publishField(job, field, value))
+                : mentorshipGenerator.generate(job.getUserChallenge(), user.getSubscriptionPlan());
+
+        Duration latency = Duration.ofNanos(System.nanoTime() - start);
+        cacheService.recordGeminiLatency(latency);
+        cacheService.store(job.getUserChallenge(), generated.application());
+        try {
+            usageService.record(user, generated, latency);
+        } catch (Exception e) {
+            // A contabilidade de uso não pode derrubar a mentoria já gerada
+            logger.warn("Falha ao registrar o uso de tokens (job {}): {}", job.getId(), e.getMessage());
+        }
+        return generated.application();
+    }
+
+    /**
+     * Envia o estado do job aos inscritos; no estado final, encerra os canais.
+     */
+    private void publish(MentorshipJob job) {
+        List<SseEmitter> emitters;
+        synchronized (job) {
+            emitters = job.isFinished() ? subscribers.remove(job.getId()) : subscribers.get(job.getId());
+        }
+        if (emitters == null) {
+            return;
+        }
+
+        Map<String, Object> payload = toPayload(job);
+        for (SseEmitter emitter : emitters) {
+            send(emitter, "status", payload);
+            if (job.isFinished()) {
+                emitter.complete();
+            }
+        }
+    }
+
+    /**
+     * Modo streaming: repassa aos inscritos uma seção da mentoria recém-completada.
+     */
+    private void publishField(MentorshipJob job, String field, String value) {
+        job.putStreamedField(field, value);
+        saveState(job, () -> stateRepository.updateStreamedFields(job.getId(), writeStreamedFields(job)));
+
+        List<SseEmitter> emitters = subscribers.get(job.getId());
+        if (emitters == null) {
+            return;
+        }
+
+        Map<String, Object> payload = toFieldPayload(field, value);
+        for (SseEmitter emitter : emitters) {
+            send(emitter, "field", payload);
+        }
+    }
+
+    /**
+     * Grava uma mudança do job na tabela. Uma falha aqui não derruba o job: quem roda o job ainda avisa
+     * os inscritos desta instância; as demais só veem a mudança na próxima gravação.
+     */
+    private void saveState(MentorshipJob job, Runnable write) {
+        try {
+            write.run();
+        } catch (Exception e) {
+            logger.warn("Falha ao gravar o estado do job {}: {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private void deleteState(MentorshipJob job) {
+        saveState(job, () -> stateRepository.deleteById(job.getId()));
+    }
+
+    private String writeStreamedFields(MentorshipJob job) {
+        try {
+            return objectMapper.writeValueAsString(job.getStreamedFields());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private Map<String, String> readStreamedFields(MentorshipJobState state) {
+        if (state.getStreamedFields() == null) {
+            return Map.of();
+        }
+        try {
+            return objectMapper.readValue(state.getStreamedFields(), FIELDS_TYPE);
+        } catch (JsonProcessingException e) {
+            logger.warn("Seções do job {} ilegíveis: {}", state.getId(), e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private void send(SseEmitter emitter, String eventName, Object data) {
+        try {
+            emitter.send(SseEmitter.event().name(eventName).data(data));
+        } catch (IOException | IllegalStateException e) {
+            // Cliente fechou a página: não é um erro do job
+            logger.debug("Canal SSE encerrado pelo cliente: {}", e.getMessage());
+            emitter.completeWithError(e);
+        }
+    }
+
+    /**
+     * Devolve a vaga da cota; se falhar, a reserva expira sozinha (QuotaService.expireStaleReservations).
+     */
+    private void releaseQuota(MentorshipJob job, QuotaService.Reservation reservation) {
+        try {
+            quotaService.release(reservation);
+        } catch (Exception e) {
+            logger.warn("Falha ao devolver a vaga da cota (job {}): {}", job.getId(), e.getMessage());
+        }
+    }
+
+    private void countOutcome(String outcome) {
+        meterRegistry.counter("mentorship.jobs.completed", "outcome", outcome).increment();
+    }
+
+    /**
+     * Remove da memória os jobs finalizados há mais tempo que a retenção configurada e, da tabela,
+     * os jobs criados antes disso (inclusive os órfãos de uma instância que caiu no meio do job).
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void evictFinishedJobs() {
+        Instant threshold = Instant.now().minus(Duration.ofMinutes(retentionMinutes));
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(threshold));
+        try {
+            stateRepository.deleteCreatedBefore(LocalDateTime.ofInstant(threshold, ZoneId.systemDefault()));
+        } catch (Exception e) {
+            logger.warn("Falha ao limpar a tabela de jobs: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Pool de workers cuja fila entrega primeiro os jobs dos planos maiores (JARDINEIRO > COLHEITA > SEMENTE).
+     * Só aceita {@link PrioritizedTask} (execute, nunca submit: o FutureTask não é comparável).
+     */
+    static ThreadPoolExecutor newJobExecutor(int workers) {
+        return new ThreadPoolExecutor(
+                workers, workers,
+                60L, TimeUnit.SECONDS,
+                new PriorityBlockingQueue<>(),
+                new CustomizableThreadFactory("mentorship-job-"));
+    }
+
+    /**
+     * Job na fila do pool: ordenado pelo plano e, dentro do plano, pela chegada.
+     */
+    static final class PrioritizedTask implements Runnable, Comparable<PrioritizedTask> {
+
+        private final int priority;
+        private final long sequence;
+        private final Runnable body;
+
+        PrioritizedTask(SubscriptionPlan plan, long sequence, Runnable body) {
+            this.priority = GeminiAdmissionController.priorityOf(plan);
+            this.sequence = sequence;
+            this.body = body;
+        }
+
+        @Override
+        public void run() {
+            body.run();
+        }
+
+        @Override
+        public int compareTo(PrioritizedTask other) {
+            int byPlan = Integer.compare(priority, other.priority);
+            return byPlan != 0 ? byPlan : Long.compare(sequence, other.sequence);
+        }
+    }
+
+    /**
+     * Inscritos desta instância num job de outra instância e o que já foi repassado a eles.
+     */
+    private static final class RemoteWatch {
+
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        private final Map<String, String> sentFields = new HashMap<>();
+        private MentorshipJob.Status sentStatus;
+
+        private RemoteWatch(MentorshipJob.Status status, Map<String, String> fields) {
+            this.sentStatus = status;
+            this.sentFields.putAll(fields);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -2,6 +2,7 @@ package com.saas.semente.mentor_de_aplicacao_da_fe.service;
 
 import com.mercadopago.MercadoPagoConfig;
 import com.mercadopago.client.common.IdentificationRequest;
+import com.mercadopago.client.payment.PaymentClient;
 import com.mercadopago.client.preference.PreferenceBackUrlsRequest;
 import com.mercadopago.client.preference.PreferenceClient;
 import com.mercadopago.client.preference.PreferenceItemRequest;
@@ -10,6 +11,7 @@ import com.mercadopago.client.preference.PreferencePayerRequest;
 import com.mercadopago.client.preference.PreferenceRequest;
 import com.mercadopago.exceptions.MPApiException;
 import com.mercadopago.exceptions.MPException;
+import com.mercadopago.resources.payment.Payment;
 import com.mercadopago.resources.preference.Preference;
 import com.saas.semente.mentor_de_aplicacao_da_fe.model.SubscriptionPlan;
 import org.springframework.beans.factory.annotation.Value;
@@ -45,20 +47,17 @@ public class MercadoPagoService {
 
         SubscriptionPlan plan = SubscriptionPlan.getByName(planName);
         String planDescription;
-        BigDecimal planPrice;
+        BigDecimal planPrice = getPlanPrice(plan);
         
         switch (plan) {
             case SEMENTE:
                 planDescription = "Plano Semente - 10 Mentorias/Mês";
-                planPrice = SEMENTE_PRICE;
                 break;
             case COLHEITA:
                 planDescription = "Plano Colheita - 30 Mentorias/Mês";
-                planPrice = COLHEITA_PRICE;
                 break;
             case JARDINEIRO:
                 planDescription = "Plano Jardineiro - Ilimitado";
-                planPrice = JARDINEIRO_PRICE;
                 break;
             default:
                 throw new IllegalArgumentException("Plano inválido: " + planName);
@@ -108,4 +107,23 @@ public class MercadoPagoService {
         
         return client.create(request);
     }
+
+    /**
+     * Busca o pagamento no Mercado Pago (a notificação do webhook traz só o id; o status vem daqui).
+     */
+    public Payment getPayment(Long paymentId) throws MPException, MPApiException {
+        MercadoPagoConfig.setAccessToken(mpAccessToken);
+        return new PaymentClient().get(paymentId);
+    }
+
+    /**
+     * Preço mensal cobrado pelo plano (usado também no relatório de custo por plano).
+     */
+    public BigDecimal getPlanPrice(SubscriptionPlan plan) {
+        return switch (plan) {
+            case SEMENTE -> SEMENTE_PRICE;
+            case COLHEITA -> COLHEITA_PRICE;
+            case JARDINEIRO -> JARDINEIRO_PRICE;
+        };
+    }
 }
\ No newline at end of file
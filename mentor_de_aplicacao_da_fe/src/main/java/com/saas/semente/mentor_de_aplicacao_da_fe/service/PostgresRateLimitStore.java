@@ -0,0 +1,40 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.RateLimitBucketRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Token buckets compartilhados entre instâncias na tabela rate_limit_bucket.
+ * Cada tentativa é um único upsert condicional (refill + consumo atômicos na própria linha).
+ */
+@Component
+@ConditionalOnProperty(name = "mentorship.ratelimit.store", havingValue = "postgres")
+public class PostgresRateLimitStore implements RateLimitStore {
+
+    private final RateLimitBucketRepository bucketRepository;
+
+    public PostgresRateLimitStore(RateLimitBucketRepository bucketRepository) {
+        this.bucketRepository = bucketRepository;
+    }
+
+    @Override
+    public Decision tryConsume(String key, Limit limit) {
+        if (bucketRepository.tryConsume(key, limit.capacity(), limit.refillPerSecond()) == 1) {
+            return Decision.ALLOWED;
+        }
+        Double tokens = bucketRepository.availableTokens(key, limit.capacity(), limit.refillPerSecond());
+        return Decision.deniedFor(1 - (tokens == null ? 0 : tokens), limit);
+    }
+
+    /**
+     * Remove buckets sem uso há mais de um dia (já estariam cheios).
+     */
+    @Scheduled(fixedDelay = 3_600_000)
+    public void purgeIdleBuckets() {
+        bucketRepository.deleteIdle(LocalDateTime.now().minusDays(1));
+    }
+}
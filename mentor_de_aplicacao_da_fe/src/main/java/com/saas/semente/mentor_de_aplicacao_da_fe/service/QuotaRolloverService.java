@@ -0,0 +1,98 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Virada mensal da cota em lote: zera, em blocos (UPDATEs por conjunto), os contadores de todos os
+ * usuários cujo ciclo é anterior ao mês/ano corrente. Roda em uma única instância (ClusterLockService)
+ * e é idempotente: rodar de novo, ou em paralelo por engano, não zera ninguém duas vezes.
+ * Entre a virada do mês e esta execução, a própria reserva (QuotaService) já abre o ciclo novo.
+ */
+@Service
+public class QuotaRolloverService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuotaRolloverService.class);
+    private static final String LOCK_NAME = "quota-rollover";
+
+    private final UserRepository userRepository;
+    private final ClusterLockService lockService;
+    private final MeterRegistry meterRegistry;
+    private final int chunkSize;
+    private final Duration lockLease;
+    private final Counter usersReset;
+    private final Counter chunks;
+    private final Timer duration;
+
+    public QuotaRolloverService(UserRepository userRepository,
+                                ClusterLockService lockService,
+                                MeterRegistry meterRegistry,
+                                @Value("${mentorship.quota.rollover.chunk-size:1000}") int chunkSize,
+                                @Value("${mentorship.quota.rollover.lock-minutes:30}") long lockMinutes) {
+        this.userRepository = userRepository;
+        this.lockService = lockService;
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = chunkSize;
+        this.lockLease = Duration.ofMinutes(lockMinutes);
+        this.usersReset = Counter.builder("quota.rollover.users")
+                .description("Usuários com a cota zerada pela virada mensal")
+                .register(meterRegistry);
+        this.chunks = Counter.builder("quota.rollover.chunks")
+                .description("Blocos (UPDATEs) executados pela virada mensal")
+                .register(meterRegistry);
+        this.duration = Timer.builder("quota.rollover.duration")
+                .description("Duração de cada execução da virada mensal")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Roda todo dia (padrão 00:05): no dia 1º faz a virada; nos demais, só pega quem ficou para trás.
+     */
+    @Scheduled(cron = "${mentorship.quota.rollover.cron:0 5 0 * * *}")
+    public void rollover() {
+        if (!lockService.tryLock(LOCK_NAME, lockLease)) {
+            countRun("skipped");
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            LocalDateTime cycleStart = QuotaService.currentCycleStart();
+            int total = 0;
+            int updated;
+            do {
+                updated = userRepository.resetDueChunk(cycleStart, LocalDateTime.now(), chunkSize);
+                total += updated;
+                usersReset.increment(updated);
+                chunks.increment();
+                if (updated > 0) {
+                    logger.info("Virada mensal da cota: {} usuários zerados até agora.", total);
+                }
+            } while (updated == chunkSize);
+
+            countRun("completed");
+            if (total > 0) {
+                logger.info("Virada mensal da cota concluída: {} usuários (ciclo iniciado em {}).", total, cycleStart.toLocalDate());
+            }
+        } catch (Exception e) {
+            countRun("failed");
+            logger.error("Falha na virada mensal da cota: {}", e.getMessage(), e);
+        } finally {
+            duration.record(Duration.ofNanos(System.nanoTime() - start));
+            lockService.unlock(LOCK_NAME);
+        }
+    }
+
+    private void countRun(String result) {
+        meterRegistry.counter("quota.rollover.runs", "result", result).increment();
+    }
+}
@@ -0,0 +1,150 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.QuotaReservation;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.User;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.QuotaReservationRepository;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Cota mensal de mentorias com semântica reservar/confirmar/liberar.
+ * A reserva é um único UPDATE condicional (count < limite) no banco, então abas concorrentes,
+ * duplo envio e várias instâncias da aplicação nunca ultrapassam o limite; a linha do usuário
+ * só fica travada durante essa transação curta, nunca durante a chamada ao Gemini.
+ */
+@Service
+public class QuotaService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuotaService.class);
+
+    /**
+     * Reserva ativa: {@code usedCount} já inclui a vaga reservada.
+     */
+    public record Reservation(Long id, Long userId, int usedCount, int limit, LocalDateTime reservedAt) {
+    }
+
+    private final UserRepository userRepository;
+    private final QuotaReservationRepository reservationRepository;
+    private final MeterRegistry meterRegistry;
+    private final Duration reservationTimeout;
+
+    public QuotaService(UserRepository userRepository,
+                        QuotaReservationRepository reservationRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${mentorship.quota.reservation-timeout-minutes:10}") long reservationTimeoutMinutes) {
+        this.userRepository = userRepository;
+        this.reservationRepository = reservationRepository;
+        this.meterRegistry = meterRegistry;
+        this.reservationTimeout = Duration.ofMinutes(reservationTimeoutMinutes);
+    }
+
+    /**
+     * Ocupa uma vaga da cota do mês.
+     * @return A reserva, ou vazio se o usuário já atingiu o limite do plano.
+     */
+    @Transactional
+    public Optional<Reservation> reserve(User user) {
+        int limit = user.getSubscriptionPlan().getMonthlyLimit();
+        if (userRepository.tryReserveSlot(user.getId(), limit, currentCycleStart(), LocalDateTime.now()) == 0) {
+            count("rejected");
+            return Optional.empty();
+        }
+
+        QuotaReservation reservation = new QuotaReservation();
+        reservation.setUserId(user.getId());
+        reservation = reservationRepository.save(reservation);
+
+        count("reserved");
+        return Optional.of(new Reservation(reservation.getId(), user.getId(),
+                userRepository.findMonthlyPromptCount(user.getId()), limit, reservation.getCreatedAt()));
+    }
+
+    /**
+     * Início do ciclo de cota vigente: primeiro dia do mês corrente (mês E ano).
+     */
+    public static LocalDateTime currentCycleStart() {
+        return LocalDate.now().withDayOfMonth(1).atStartOfDay();
+    }
+
+    /**
+     * Vagas usadas no ciclo vigente, sem escrever nada: um contador de ciclo anterior
+     * (virada em lote ainda não executada) vale zero.
+     */
+    public int usedInCurrentCycle(Long userId) {
+        return userRepository.findUsedInCycle(userId, currentCycleStart());
+    }
+
+    /**
+     * Confirma a vaga. Roda DENTRO da transação que salva a mentoria: ou as duas coisas acontecem, ou nenhuma.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void commit(Reservation reservation) {
+        if (reservationRepository.transition(reservation.id(), QuotaReservation.Status.RESERVED,
+                QuotaReservation.Status.COMMITTED, LocalDateTime.now()) == 1) {
+            count("committed");
+            return;
+        }
+        // A reserva expirou (vaga devolvida) mas a mentoria foi gerada: a geração ainda conta
+        logger.warn("Reserva de cota {} já resolvida ao salvar a mentoria; contando a vaga novamente.", reservation.id());
+        userRepository.forceConsumeSlot(reservation.userId());
+        count("late-commit");
+    }
+
+    /**
+     * Devolve a vaga (geração falhou ou foi recusada). Idempotente: só a primeira liberação devolve.
+     */
+    @Transactional
+    public void release(Reservation reservation) {
+        if (releaseReservation(reservation.id(), reservation.userId(), reservation.reservedAt())) {
+            count("released");
+        }
+    }
+
+    /**
+     * Libera reservas abandonadas (ex.: o nó caiu no meio da geração).
+     * Seguro com várias instâncias: cada liberação é uma transição condicional da reserva.
+     */
+    @Scheduled(fixedDelayString = "${mentorship.quota.expire-check-interval-ms:60000}")
+    @Transactional
+    public void expireStaleReservations() {
+        List<QuotaReservation> stale = reservationRepository.findTop500ByStatusAndCreatedAtBefore(
+                QuotaReservation.Status.RESERVED, LocalDateTime.now().minus(reservationTimeout));
+
+        int expired = 0;
+        for (QuotaReservation reservation : stale) {
+            if (releaseReservation(reservation.getId(), reservation.getUserId(), reservation.getCreatedAt())) {
+                expired++;
+            }
+        }
+        if (expired > 0) {
+            meterRegistry.counter("quota.reservations", "result", "expired").increment(expired);
+            logger.warn("Cota mensal: {} reservas abandonadas foram liberadas.", expired);
+        }
+    }
+
+    private boolean releaseReservation(Long id, Long userId, LocalDateTime reservedAt) {
+        if (reservationRepository.transition(id, QuotaReservation.Status.RESERVED,
+                QuotaReservation.Status.RELEASED, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        userRepository.releaseSlot(userId, reservedAt);
+        return true;
+    }
+
+    private void count(String result) {
+        meterRegistry.counter("quota.reservations", "result", result).increment();
+    }
+}
@@ -0,0 +1,85 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.SubscriptionPlan;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.UserSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Limite de taxa por usuário e por IP (token bucket), complementar à cota mensal do plano:
+ * mesmo o plano ilimitado não pode disparar centenas de gerações por minuto e esgotar a
+ * quota compartilhada do Gemini. Também protege o checkout (BCrypt + preferência no Mercado Pago).
+ */
+@Service
+public class RateLimitService {
+
+    private final RateLimitStore store;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final Map<SubscriptionPlan, RateLimitStore.Limit> generatePerPlan = new EnumMap<>(SubscriptionPlan.class);
+    private final RateLimitStore.Limit generatePerIp;
+    private final RateLimitStore.Limit checkout;
+
+    public RateLimitService(RateLimitStore store, MeterRegistry meterRegistry,
+                            @Value("${mentorship.ratelimit.enabled:true}") boolean enabled,
+                            @Value("${mentorship.ratelimit.generate.semente.capacity:3}") int sementeCapacity,
+                            @Value("${mentorship.ratelimit.generate.semente.refill-per-minute:2}") double sementeRefill,
+                            @Value("${mentorship.ratelimit.generate.colheita.capacity:5}") int colheitaCapacity,
+                            @Value("${mentorship.ratelimit.generate.colheita.refill-per-minute:4}") double colheitaRefill,
+                            @Value("${mentorship.ratelimit.generate.jardineiro.capacity:10}") int jardineiroCapacity,
+                            @Value("${mentorship.ratelimit.generate.jardineiro.refill-per-minute:6}") double jardineiroRefill,
+                            @Value("${mentorship.ratelimit.generate.ip.capacity:20}") int generateIpCapacity,
+                            @Value("${mentorship.ratelimit.generate.ip.refill-per-minute:10}") double generateIpRefill,
+                            @Value("${mentorship.ratelimit.checkout.capacity:5}") int checkoutCapacity,
+                            @Value("${mentorship.ratelimit.checkout.refill-per-minute:1}") double checkoutRefill) {
+        this.store = store;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.generatePerPlan.put(SubscriptionPlan.SEMENTE, limit(sementeCapacity, sementeRefill));
+        this.generatePerPlan.put(SubscriptionPlan.COLHEITA, limit(colheitaCapacity, colheitaRefill));
+        this.generatePerPlan.put(SubscriptionPlan.JARDINEIRO, limit(jardineiroCapacity, jardineiroRefill));
+        this.generatePerIp = limit(generateIpCapacity, generateIpRefill);
+        this.checkout = limit(checkoutCapacity, checkoutRefill);
+    }
+
+    /**
+     * POST /generate: primeiro o bucket do IP, depois o do usuário (rajada/reposição do plano).
+     */
+    public RateLimitStore.Decision checkGenerate(UserSnapshot user, String clientIp) {
+        if (!enabled) {
+            return RateLimitStore.Decision.ALLOWED;
+        }
+        RateLimitStore.Decision decision = consume("generate", "ip", "generate:ip:" + clientIp, generatePerIp);
+        if (!decision.allowed()) {
+            return decision;
+        }
+        return consume("generate", "user", "generate:user:" + user.id(), generatePerPlan.get(user.plan()));
+    }
+
+    /**
+     * Checkout/upgrade: por usuário logado ou, no registro (anônimo), por IP.
+     */
+    public RateLimitStore.Decision checkCheckout(String username, String clientIp) {
+        if (!enabled) {
+            return RateLimitStore.Decision.ALLOWED;
+        }
+        return username != null
+                ? consume("checkout", "user", "checkout:user:" + username, checkout)
+                : consume("checkout", "ip", "checkout:ip:" + clientIp, checkout);
+    }
+
+    private RateLimitStore.Decision consume(String endpoint, String scope, String key, RateLimitStore.Limit limit) {
+        RateLimitStore.Decision decision = store.tryConsume(key, limit);
+        meterRegistry.counter("ratelimit.decisions", "endpoint", endpoint, "scope", scope,
+                "result", decision.allowed() ? "allowed" : "limited").increment();
+        return decision;
+    }
+
+    private static RateLimitStore.Limit limit(int capacity, double refillPerMinute) {
+        return new RateLimitStore.Limit(capacity, refillPerMinute / 60.0);
+    }
+}
@@ -0,0 +1,32 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+/**
+ * Armazenamento dos token buckets do limitador de taxa: em memória (uma instância)
+ * ou no Postgres (compartilhado entre instâncias), conforme mentorship.ratelimit.store.
+ */
+public interface RateLimitStore {
+
+    /**
+     * Capacidade (rajada) e reposição do bucket.
+     */
+    record Limit(int capacity, double refillPerSecond) {
+    }
+
+    /**
+     * Resultado da tentativa: se negada, em quantos segundos haverá uma ficha.
+     */
+    record Decision(boolean allowed, long retryAfterSeconds) {
+
+        public static final Decision ALLOWED = new Decision(true, 0);
+
+        static Decision deniedFor(double missingTokens, Limit limit) {
+            return new Decision(false, Math.max(1, (long) Math.ceil(missingTokens / limit.refillPerSecond())));
+        }
+    }
+
+    /**
+     * Consome uma ficha do bucket {@code key} (criado cheio no primeiro uso).
+     * A reposição e o teto seguem o {@code limit} desta chamada, não o da criação do bucket.
+     */
+    Decision tryConsume(String key, Limit limit);
+}
@@ -0,0 +1,152 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplicationDetail;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.FaithApplicationRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * JSON pronto (bytes) das mentorias abertas recentemente, em cache local limitado por tamanho total (LRU + TTL).
+ * Mentorias não mudam depois de criadas: a única invalidação é a exclusão. Como o evict só vale para esta
+ * instância, todo acerto confere antes, pelo created_at (sem ler os textos), que a mentoria ainda existe e é
+ * do usuário. Com max-bytes = 0 o cache fica desligado e toda leitura vai ao banco.
+ */
+@Service
+public class RecordDetailCache {
+
+    /**
+     * JSON de uma mentoria e o seu ETag.
+     */
+    public record SerializedRecord(String etag, byte[] json) {
+    }
+
+    // O dono fica junto: um id de outro usuário nunca é servido do cache
+    private record Entry(Long userId, SerializedRecord record, long loadedAtNanos) {
+    }
+
+    private final FaithApplicationRepository repository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final long maxBytes;
+    private final long ttlNanos;
+    private final LinkedHashMap<Long, Entry> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    public RecordDetailCache(FaithApplicationRepository repository, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                             @Value("${mentorship.record-cache.max-bytes:8388608}") long maxBytes,
+                             @Value("${mentorship.record-cache.ttl-minutes:30}") long ttlMinutes) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.maxBytes = maxBytes;
+        this.ttlNanos = Duration.ofMinutes(ttlMinutes).toNanos();
+
+        Gauge.builder("record.detail.cache.bytes", this, RecordDetailCache::bytes)
+                .description("Bytes de JSON de mentorias em cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * ETag atual da mentoria, sem ler os textos: só o created_at no banco (a exclusão pode ter sido em outra instância).
+     * Vazio se não existir ou não for do usuário.
+     */
+    public Optional<String> etag(Long id, Long userId) {
+        return repository.findCreatedAt(id, userId).map(createdAt -> FaithApplicationDetail.etag(id, createdAt));
+    }
+
+    /**
+     * JSON da mentoria (serializado uma vez e reaproveitado). Vazio se não existir ou não for do usuário.
+     */
+    public Optional<SerializedRecord> get(Long id, Long userId) {
+        Entry entry = cached(id, userId);
+        if (entry != null && repository.findCreatedAt(id, userId).isEmpty()) {
+            // Excluída (aqui ou em outra instância) depois de entrar no cache
+            evict(id);
+            meterRegistry.counter("record.detail.cache.lookups", "result", "deleted").increment();
+            return Optional.empty();
+        }
+        if (entry != null) {
+            meterRegistry.counter("record.detail.cache.lookups", "result", "hit").increment();
+            return Optional.of(entry.record());
+        }
+
+        meterRegistry.counter("record.detail.cache.lookups", "result", "miss").increment();
+        return repository.findDetail(id, userId).map(detail -> {
+            SerializedRecord record = new SerializedRecord(
+                    FaithApplicationDetail.etag(detail.id(), detail.createdAt()), serialize(detail));
+            put(id, new Entry(userId, record, System.nanoTime()));
+            return record;
+        });
+    }
+
+    /**
+     * Chamado depois da exclusão confirmada (as demais instâncias descobrem a exclusão no próximo acerto).
+     */
+    public void evict(Long id) {
+        synchronized (cache) {
+            Entry removed = cache.remove(id);
+            if (removed != null) {
+                totalBytes -= removed.record().json().length;
+            }
+        }
+    }
+
+    private Entry cached(Long id, Long userId) {
+        synchronized (cache) {
+            Entry entry = cache.get(id);
+            if (entry == null || !entry.userId().equals(userId)) {
+                return null;
+            }
+            if (System.nanoTime() - entry.loadedAtNanos() >= ttlNanos) {
+                cache.remove(id);
+                totalBytes -= entry.record().json().length;
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    private void put(Long id, Entry entry) {
+        long size = entry.record().json().length;
+        if (size > maxBytes) {
+            return; // Cache desligado (0) ou mentoria maior que o cache inteiro
+        }
+        synchronized (cache) {
+            Entry previous = cache.put(id, entry);
+            if (previous != null) {
+                totalBytes -= previous.record().json().length;
+            }
+            totalBytes += size;
+            // Descarta as menos usadas até caber no limite
+            Iterator<Entry> eldest = cache.values().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                totalBytes -= eldest.next().record().json().length;
+                eldest.remove();
+            }
+        }
+    }
+
+    private byte[] serialize(FaithApplicationDetail detail) {
+        try {
+            return objectMapper.writeValueAsBytes(detail);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar a mentoria " + detail.id() + ".", e);
+        }
+    }
+
+    private long bytes() {
+        synchronized (cache) {
+            return totalBytes;
+        }
+    }
+}
@@ -23,12 +23,15 @@ public class SubscriptionService {
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
+    private final UserSnapshotCache userSnapshotCache;
 
     // Construtor corrigido: Injeta EmailService (necessário para o Webhook)
-    public SubscriptionService(UserRepository userRepository, PasswordEncoder passwordEncoder, EmailService emailService) {
+    public SubscriptionService(UserRepository userRepository, PasswordEncoder passwordEncoder, EmailService emailService,
+                               UserSnapshotCache userSnapshotCache) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.emailService = emailService;
+        this.userSnapshotCache = userSnapshotCache;
     }
 
     /**
@@ -73,6 +76,7 @@ public class SubscriptionService {
         existingUser.setIdentificationNumber(cpf);
         existingUser.setSubscriptionPlan(plan);
         // isEnabled continua false até o webhook confirmar o pagamento
+        userSnapshotCache.invalidate(existingUser.getEmail());
         
         return userRepository.save(existingUser);
     }
@@ -111,9 +115,10 @@ public class SubscriptionService {
                 user.setLastPromptMonthCheck(LocalDateTime.now()); // Ativa o ciclo mensal
                 user.setSubscriptionPlan(newPlan); // Garante o plano correto
                 userRepository.save(user);
+                userSnapshotCache.invalidate(email); // Todas as instâncias passam a ver o usuário ativo
 
-                // Envia o E-mail de Boas-Vindas e Confirmação
-                emailService.sendWelcomeAndConfirmationEmail(user);
+                // Enfileira o E-mail de Boas-Vindas e Confirmação (enviado após o commit, pelo EmailOutboxSender)
+                emailService.queueWelcomeAndConfirmationEmail(user);
                 logger.info("Usuário ATIVADO (REG) para o plano {}: {}", planName, email);
             } else {
                 logger.warn("Webhook de REGISTRO recebido para usuário já ativo: {}", email);
@@ -126,9 +131,10 @@ public class SubscriptionService {
             user.setMonthlyPromptCount(0); // Reseta o contador no upgrade
             user.setLastPromptMonthCheck(LocalDateTime.now()); 
             userRepository.save(user);
+            userSnapshotCache.invalidate(email); // Todas as instâncias passam a ver o novo plano
             
-            // (Opcional) Enviar um email de "Upgrade Confirmado"
-            // emailService.sendUpgradeConfirmationEmail(user); 
+            // Enfileira o email de "Upgrade Confirmado"
+            emailService.queueUpgradeConfirmationEmail(user);
             logger.info("Upgrade para {} concluído para o usuário: {}", planName, email);
             
         } else {
@@ -163,10 +169,7 @@ public class SubscriptionService {
     /**
      * Calcula a porcentagem de uso mensal de prompts.
      */
-    public int calculateUsagePercentage(User user) {
-        int currentCount = user.getMonthlyPromptCount();
-        int limit = user.getSubscriptionPlan().getMonthlyLimit();
-        
+    public int calculateUsagePercentage(int currentCount, int limit) {
         if (limit == Integer.MAX_VALUE) {
             return 0;
         } else if (limit > 0) {
@@ -0,0 +1,103 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Único ponto que interpreta o identifiedTheme ("Ansiedade, Perdão"): separa os temas e gera a chave canônica
+ * de cada um (minúsculas, sem acentos, espaços colapsados, sinônimos unidos).
+ * Ex: "Preocupação", "preocupacao" e "Angústia" viram o tema "ansiedade".
+ * A migração V15 tem uma cópia congelada destas regras: mudá-las aqui não altera o índice já criado por ela.
+ */
+@Component
+public class ThemeCanonicalizer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    /**
+     * Tema canônico: a chave (única na tabela theme) e o nome exibido.
+     */
+    public record CanonicalTheme(String key, String displayName) {
+    }
+
+    // Chave canônica -> nome exibido
+    private static final Map<String, String> DISPLAY_NAMES = Map.of(
+            "ansiedade", "Ansiedade",
+            "perdao", "Perdão",
+            "medo", "Medo",
+            "paciencia", "Paciência",
+            "direcao", "Direção",
+            "gratidao", "Gratidão",
+            "tristeza", "Tristeza",
+            "fe", "Fé");
+
+    // Variante (já sem acento/caixa) -> chave canônica
+    private static final Map<String, String> SYNONYMS = Map.ofEntries(
+            Map.entry("preocupacao", "ansiedade"),
+            Map.entry("preocupacoes", "ansiedade"),
+            Map.entry("angustia", "ansiedade"),
+            Map.entry("nervosismo", "ansiedade"),
+            Map.entry("perdoar", "perdao"),
+            Map.entry("temor", "medo"),
+            Map.entry("receio", "medo"),
+            Map.entry("orientacao", "direcao"),
+            Map.entry("discernimento", "direcao"),
+            Map.entry("agradecimento", "gratidao"),
+            Map.entry("melancolia", "tristeza"),
+            Map.entry("confianca em deus", "fe"));
+
+    /**
+     * Temas como vieram ("Ansiedade, Paciência"), sem vazios nem repetidos, na ordem em que aparecem.
+     */
+    public static List<String> split(String identifiedTheme) {
+        if (identifiedTheme == null || identifiedTheme.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(identifiedTheme.split(","))
+                .map(String::trim)
+                .filter(theme -> !theme.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    /**
+     * Temas canônicos da mentoria, sem repetir chave (ex: "Medo, Temor" gera só "medo").
+     */
+    public List<CanonicalTheme> canonicalize(String identifiedTheme) {
+        Map<String, CanonicalTheme> themes = new LinkedHashMap<>();
+        for (String theme : split(identifiedTheme)) {
+            String key = key(theme);
+            if (!key.isEmpty()) {
+                themes.putIfAbsent(key, new CanonicalTheme(key, DISPLAY_NAMES.getOrDefault(key, displayName(theme))));
+            }
+        }
+        return new ArrayList<>(themes.values());
+    }
+
+    public String key(String theme) {
+        String folded = DIACRITICS.matcher(Normalizer.normalize(theme, Normalizer.Form.NFD)).replaceAll("");
+        String key = SPACES.matcher(folded.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+        if (key.length() > 255) {
+            key = key.substring(0, 255);
+        }
+        return SYNONYMS.getOrDefault(key, key);
+    }
+
+    // Primeira letra maiúscula, resto como o modelo escreveu
+    private static String displayName(String theme) {
+        String name = SPACES.matcher(theme.trim()).replaceAll(" ");
+        if (name.length() > 255) {
+            name = name.substring(0, 255);
+        }
+        return name.substring(0, 1).toUpperCase(Locale.ROOT) + name.substring(1);
+    }
+}
@@ -0,0 +1,73 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplication;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.FaithApplicationThemeRepository;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.ThemeRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Índice de temas do diário: cada mentoria salva ganha um vínculo por tema canônico,
+ * na mesma transação. Filtrar o diário por tema não lê nem reinterpreta o identifiedTheme.
+ */
+@Service
+public class ThemeIndexService {
+
+    private final ThemeRepository themeRepository;
+    private final FaithApplicationThemeRepository linkRepository;
+    private final ThemeCanonicalizer canonicalizer;
+    // Chave canônica -> id: temas nunca mudam de id, então não há o que invalidar
+    private final Map<String, Long> themeIds = new ConcurrentHashMap<>();
+
+    public ThemeIndexService(ThemeRepository themeRepository, FaithApplicationThemeRepository linkRepository,
+                             ThemeCanonicalizer canonicalizer) {
+        this.themeRepository = themeRepository;
+        this.linkRepository = linkRepository;
+        this.canonicalizer = canonicalizer;
+    }
+
+    /**
+     * Vincula a mentoria recém-salva aos seus temas. Deve rodar na transação que a salvou.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void index(FaithApplication app) {
+        LocalDateTime createdAt = app.getCreatedAt() != null ? app.getCreatedAt() : LocalDateTime.now();
+        for (ThemeCanonicalizer.CanonicalTheme theme : canonicalizer.canonicalize(app.getIdentifiedTheme())) {
+            linkRepository.link(app.getId(), themeId(theme), app.getUser().getId(), createdAt);
+        }
+    }
+
+    /**
+     * Remove os vínculos da mentoria. Deve rodar na transação da exclusão, ANTES do delete.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void unindex(Long applicationId) {
+        linkRepository.deleteByApplication(applicationId);
+    }
+
+    public List<ThemeRepository.ThemeCount> userThemes(Long userId) {
+        return themeRepository.findUserThemes(userId);
+    }
+
+    private Long themeId(ThemeCanonicalizer.CanonicalTheme theme) {
+        Long cached = themeIds.get(theme.key());
+        if (cached != null) {
+            return cached;
+        }
+        boolean created = themeRepository.insertIfAbsent(theme.key(), theme.displayName()) > 0;
+        Long id = themeRepository.findByCanonicalKey(theme.key())
+                .orElseThrow(() -> new IllegalStateException("Tema não encontrado após inserção: " + theme.key()))
+                .getId();
+        // Tema criado nesta transação só entra no cache depois de confirmado (na próxima leitura)
+        if (!created) {
+            themeIds.put(theme.key(), id);
+        }
+        return id;
+    }
+}
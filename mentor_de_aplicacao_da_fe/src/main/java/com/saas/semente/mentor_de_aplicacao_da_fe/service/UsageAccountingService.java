@@ -0,0 +1,188 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.GenerationUsage;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.SubscriptionPlan;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.User;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.GenerationUsageRepository;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.UsageDailyRollupRepository;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Contabilidade de tokens, latência e custo estimado de cada geração, a partir do usageMetadata do Gemini.
+ * Cada geração vira uma linha em generation_usage e soma no total diário do usuário/plano;
+ * o relatório compara o custo estimado por assinante com o preço do plano.
+ */
+@Service
+public class UsageAccountingService {
+
+    private static final BigDecimal ONE_MILLION = new BigDecimal("1000000");
+
+    private final GenerationUsageRepository usageRepository;
+    private final UsageDailyRollupRepository rollupRepository;
+    private final UserRepository userRepository;
+    private final MercadoPagoService mercadoPagoService;
+    private final MeterRegistry meterRegistry;
+
+    // Preços do modelo (USD por milhão de tokens) e câmbio para comparar com os planos em R$
+    private final BigDecimal inputUsdPerMillion;
+    private final BigDecimal outputUsdPerMillion;
+    private final BigDecimal cachedInputUsdPerMillion;
+    private final BigDecimal usdBrl;
+
+    public UsageAccountingService(GenerationUsageRepository usageRepository,
+                                  UsageDailyRollupRepository rollupRepository,
+                                  UserRepository userRepository,
+                                  MercadoPagoService mercadoPagoService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${mentorship.usage.price.input-usd-per-million:0.30}") BigDecimal inputUsdPerMillion,
+                                  @Value("${mentorship.usage.price.output-usd-per-million:2.50}") BigDecimal outputUsdPerMillion,
+                                  @Value("${mentorship.usage.price.cached-input-usd-per-million:0.075}") BigDecimal cachedInputUsdPerMillion,
+                                  @Value("${mentorship.usage.usd-brl:5.50}") BigDecimal usdBrl) {
+        this.usageRepository = usageRepository;
+        this.rollupRepository = rollupRepository;
+        this.userRepository = userRepository;
+        this.mercadoPagoService = mercadoPagoService;
+        this.meterRegistry = meterRegistry;
+        this.inputUsdPerMillion = inputUsdPerMillion;
+        this.outputUsdPerMillion = outputUsdPerMillion;
+        this.cachedInputUsdPerMillion = cachedInputUsdPerMillion;
+        this.usdBrl = usdBrl;
+    }
+
+    /**
+     * Registra uma geração (linha append-only + total diário) e publica as métricas de tokens/custo.
+     * Gerações servidas pelo cache de mentorias não passam por aqui: não consomem tokens.
+     */
+    @Transactional
+    public void record(User user, GeneratedMentorship generated, Duration latency) {
+        GeminiUsage usage = generated.usage() != null ? generated.usage() : new GeminiUsage(0, 0, 0, 0);
+        SubscriptionPlan plan = user.getSubscriptionPlan();
+
+        GenerationUsage row = new GenerationUsage();
+        row.setUserId(user.getId());
+        row.setPlan(plan);
+        row.setModel(generated.model());
+        row.setPromptTokens(usage.promptTokenCount());
+        row.setCandidatesTokens(usage.candidatesTokenCount());
+        row.setCachedTokens(usage.cachedContentTokenCount());
+        row.setTotalTokens(usage.totalTokenCount());
+        row.setLatencyMs(latency.toMillis());
+        usageRepository.save(row);
+
+        rollupRepository.accumulate(LocalDate.now(), user.getId(), plan.name(),
+                usage.promptTokenCount(), usage.candidatesTokenCount(), usage.cachedContentTokenCount(),
+                usage.totalTokenCount(), latency.toMillis());
+
+        String planTag = plan.name();
+        meterRegistry.counter("gemini.tokens", "type", "prompt", "plan", planTag).increment(usage.promptTokenCount());
+        meterRegistry.counter("gemini.tokens", "type", "candidates", "plan", planTag).increment(usage.candidatesTokenCount());
+        meterRegistry.counter("gemini.tokens", "type", "cached", "plan", planTag).increment(usage.cachedContentTokenCount());
+        meterRegistry.counter("gemini.cost.brl", "plan", planTag)
+                .increment(estimateCostBrl(usage.promptTokenCount(), usage.candidatesTokenCount(), usage.cachedContentTokenCount()).doubleValue());
+        Timer.builder("mentorship.generation.latency")
+                .description("Latência da geração por plano e modelo (sem fila)")
+                .tags("plan", planTag, "model", generated.model())
+                .register(meterRegistry)
+                .record(latency);
+    }
+
+    /**
+     * Uso e custo por plano no período: gerações, tokens, latência média e custo estimado
+     * por assinante ativo frente ao preço mensal do plano.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> planReport(LocalDate from, LocalDate to) {
+        Map<SubscriptionPlan, UsageDailyRollupRepository.PlanUsage> byPlan = new LinkedHashMap<>();
+        for (UsageDailyRollupRepository.PlanUsage usage : rollupRepository.summarizeByPlan(from, to)) {
+            byPlan.put(usage.getPlan(), usage);
+        }
+
+        List<Map<String, Object>> report = new ArrayList<>();
+        for (SubscriptionPlan plan : SubscriptionPlan.values()) {
+            UsageDailyRollupRepository.PlanUsage usage = byPlan.get(plan);
+            long generations = usage == null ? 0 : usage.getGenerations();
+            long promptTokens = usage == null ? 0 : usage.getPromptTokens();
+            long candidatesTokens = usage == null ? 0 : usage.getCandidatesTokens();
+            long cachedTokens = usage == null ? 0 : usage.getCachedTokens();
+            long activeSubscribers = userRepository.countActiveByPlan(plan);
+            BigDecimal planPrice = mercadoPagoService.getPlanPrice(plan);
+            BigDecimal cost = estimateCostBrl(promptTokens, candidatesTokens, cachedTokens);
+            BigDecimal costPerActiveUser = costPerActiveUser(cost, activeSubscribers);
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("plan", plan.name());
+            row.put("planPrice", planPrice);
+            row.put("activeSubscribers", activeSubscribers);
+            row.put("activeUsers", usage == null ? 0 : usage.getUsers());
+            row.put("generations", generations);
+            row.put("promptTokens", promptTokens);
+            row.put("candidatesTokens", candidatesTokens);
+            row.put("cachedTokens", cachedTokens);
+            row.put("totalTokens", usage == null ? 0 : usage.getTotalTokens());
+            row.put("avgLatencyMs", generations == 0 ? 0 : usage.getLatencyMsSum() / generations);
+            row.put("estimatedCostBrl", cost.setScale(2, RoundingMode.HALF_UP));
+            row.put("costPerActiveUserBrl", costPerActiveUser.setScale(2, RoundingMode.HALF_UP));
+            row.put("costShareOfPrice", costShareOfPrice(costPerActiveUser, planPrice));
+            report.add(row);
+        }
+        return report;
+    }
+
+    /**
+     * Usuários que mais consumiram tokens no período.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> topUsers(LocalDate from, LocalDate to, int limit) {
+        List<Map<String, Object>> report = new ArrayList<>();
+        for (UsageDailyRollupRepository.UserUsage usage : rollupRepository.findTopUsers(from, to, PageRequest.of(0, limit))) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("userId", usage.getUserId());
+            row.put("plan", usage.getPlan().name());
+            row.put("generations", usage.getGenerations());
+            row.put("totalTokens", usage.getTotalTokens());
+            row.put("estimatedCostBrl", estimateCostBrl(usage.getPromptTokens(), usage.getCandidatesTokens(), usage.getCachedTokens())
+                    .setScale(2, RoundingMode.HALF_UP));
+            report.add(row);
+        }
+        return report;
+    }
+
+    BigDecimal costPerActiveUser(BigDecimal cost, long activeSubscribers) {
+        return activeSubscribers == 0 ? BigDecimal.ZERO
+                : cost.divide(BigDecimal.valueOf(activeSubscribers), 4, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Fração do preço mensal consumida em tokens por assinante (no período consultado); acima de 1, o plano dá prejuízo.
+     */
+    BigDecimal costShareOfPrice(BigDecimal costPerActiveUser, BigDecimal planPrice) {
+        return planPrice.signum() == 0 ? BigDecimal.ZERO : costPerActiveUser.divide(planPrice, 4, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Custo estimado em R$: tokens do prompt servidos pelo cache de contexto são cobrados com desconto.
+     */
+    BigDecimal estimateCostBrl(long promptTokens, long candidatesTokens, long cachedTokens) {
+        long uncachedPrompt = Math.max(0, promptTokens - cachedTokens);
+        BigDecimal usd = BigDecimal.valueOf(uncachedPrompt).multiply(inputUsdPerMillion)
+                .add(BigDecimal.valueOf(cachedTokens).multiply(cachedInputUsdPerMillion))
+                .add(BigDecimal.valueOf(candidatesTokens).multiply(outputUsdPerMillion))
+                .divide(ONE_MILLION, 8, RoundingMode.HALF_UP);
+        return usd.multiply(usdBrl);
+    }
+}
@@ -1,13 +1,12 @@
 package com.saas.semente.mentor_de_aplicacao_da_fe.service;
 
 import com.saas.semente.mentor_de_aplicacao_da_fe.model.User;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.UserSnapshot;
 import com.saas.semente.mentor_de_aplicacao_da_fe.repository.UserRepository;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDate;
-import java.time.LocalDateTime;
 import java.util.Optional;
 
 import org.springframework.transaction.annotation.Transactional;
@@ -16,9 +15,11 @@ import org.springframework.transaction.annotation.Transactional;
 public class UserService {
 
     private final UserRepository userRepository;
+    private final UserSnapshotCache userSnapshotCache;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, UserSnapshotCache userSnapshotCache) {
         this.userRepository = userRepository;
+        this.userSnapshotCache = userSnapshotCache;
     }
 
     /**
@@ -33,31 +34,14 @@ public class UserService {
     }
 
     /**
-     * Reseta o contador se for um novo mês.
-     * @param user O usuário atual.
-     * @return true se o contador foi resetado/checado, false se não foi.
+     * Retrato em cache do usuário logado (id, plano, ativo), sem consultar o banco.
+     * Para páginas de leitura; quem precisa da entidade completa usa getAuthenticatedUser().
      */
-    @Transactional
-    public void checkAndResetMonthlyPromptCount(User user) {
-        // Verifica se é um novo mês desde o último uso
-        if (user.getLastPromptMonthCheck().getMonth() != LocalDate.now().getMonth()) {
-            // Se o mês da última checagem for diferente do mês atual, o contador é resetado.
-            user.setMonthlyPromptCount(0);
-            user.setLastPromptMonthCheck(LocalDateTime.now());
-            userRepository.save(user); // Salva a alteração (reset)
-        }
+    public UserSnapshot getAuthenticatedSnapshot() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return userSnapshotCache.get(authentication.getName());
     }
 
-    /**
-     * Incrementa o contador de prompts e salva o usuário.
-     * @param user O usuário atual.
-     */
-    @Transactional
-    public void incrementPromptCount(User user) {
-        user.setMonthlyPromptCount(user.getMonthlyPromptCount() + 1);
-        userRepository.save(user);
-    }
-    
     /**
      * Salva ou atualiza um usuário.
      */
@@ -0,0 +1,193 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.UserCacheInvalidation;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.UserSnapshot;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.UserCacheInvalidationRepository;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.UserRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cache local e limitado (LRU + TTL) do retrato do usuário logado, por e-mail.
+ * Mudanças de plano/ativação gravam um aviso em user_cache_invalidation na mesma transação;
+ * todas as instâncias leem os avisos novos (por id) a cada poucos segundos e descartam o retrato.
+ * Limites: um aviso só é visto depois do commit e do próximo poll (atraso de alguns segundos); um id pulado
+ * é relido por GAP_GRACE e, se a transação demorar mais que isso para commitar, o aviso se perde.
+ * O TTL é a rede de segurança nesses casos e caso a leitura dos avisos falhe.
+ */
+@Service
+public class UserSnapshotCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserSnapshotCache.class);
+    // Por quanto tempo um id pulado é relido: a transação que o reservou pode commitar depois de ids maiores
+    private static final Duration GAP_GRACE = Duration.ofMinutes(1);
+    // Saltos maiores (cache da sequence após queda do banco) não são rastreados; o TTL cobre
+    private static final int MAX_TRACKED_GAPS = 1_000;
+
+    private record Entry(UserSnapshot snapshot, long loadedAtNanos) {
+    }
+
+    // Versão de uma chave com carga em andamento: a evicção a incrementa e a carga antiga não grava o retrato
+    private static final class Generation {
+        long value;
+        int loaders;
+    }
+
+    private final UserRepository userRepository;
+    private final UserCacheInvalidationRepository invalidationRepository;
+    private final MeterRegistry meterRegistry;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<String, Entry> cache;
+    private final Map<String, Generation> generations = new HashMap<>(); // Só chaves com carga em andamento
+
+    // Estado do poll (guardado pelo próprio método, synchronized)
+    private long lastSeenId;
+    private final Map<Long, Long> gaps = new HashMap<>(); // id pulado → nanoTime em que foi notado
+
+    public UserSnapshotCache(UserRepository userRepository,
+                             UserCacheInvalidationRepository invalidationRepository,
+                             MeterRegistry meterRegistry,
+                             @Value("${mentorship.user-cache.max-entries:10000}") int maxEntries,
+                             @Value("${mentorship.user-cache.ttl-minutes:10}") long ttlMinutes) {
+        this.userRepository = userRepository;
+        this.invalidationRepository = invalidationRepository;
+        this.meterRegistry = meterRegistry;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = Duration.ofMinutes(ttlMinutes).toNanos();
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > UserSnapshotCache.this.maxEntries;
+            }
+        };
+
+        Gauge.builder("user.snapshot.cache.size", this, UserSnapshotCache::size)
+                .description("Retratos de usuário em cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Retrato do usuário, carregado do banco só na primeira vez (ou após invalidação/TTL).
+     */
+    public UserSnapshot get(String email) {
+        Generation generation;
+        long seen;
+        synchronized (cache) {
+            Entry entry = cache.get(email);
+            if (entry != null && System.nanoTime() - entry.loadedAtNanos() < ttlNanos) {
+                meterRegistry.counter("user.snapshot.cache.lookups", "result", "hit").increment();
+                return entry.snapshot();
+            }
+            generation = generations.computeIfAbsent(email, key -> new Generation());
+            generation.loaders++;
+            seen = generation.value;
+        }
+
+        meterRegistry.counter("user.snapshot.cache.lookups", "result", "miss").increment();
+        UserSnapshot snapshot = null;
+        try {
+            snapshot = userRepository.findByEmail(email)
+                    .map(UserSnapshot::of)
+                    .orElseThrow(() -> new RuntimeException("Usuário logado não encontrado no banco de dados."));
+            return snapshot;
+        } finally {
+            synchronized (cache) {
+                // Evicção durante a carga: o retrato lido pode ser anterior à mudança, então só é devolvido
+                if (snapshot != null && generation.value == seen) {
+                    cache.put(email, new Entry(snapshot, System.nanoTime()));
+                }
+                if (--generation.loaders == 0) {
+                    generations.remove(email);
+                }
+            }
+        }
+    }
+
+    /**
+     * Marca o retrato como velho em TODAS as instâncias. Deve rodar na transação que alterou o usuário:
+     * se ela for desfeita, o aviso também é.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void invalidate(String email) {
+        invalidationRepository.save(new UserCacheInvalidation(email));
+        evict(email);
+        meterRegistry.counter("user.snapshot.cache.invalidations", "source", "local").increment();
+    }
+
+    /**
+     * Lê os avisos gravados por qualquer instância desde o último id lido, mais os ids pulados na leitura anterior.
+     * Inclui os avisos desta instância: uma carga concorrente pode ter lido o usuário antes do commit da mudança.
+     */
+    @Scheduled(fixedDelayString = "${mentorship.user-cache.poll-interval-ms:2000}")
+    public synchronized void pollInvalidations() {
+        try {
+            List<UserCacheInvalidation> found = new ArrayList<>(invalidationRepository.findAfter(lastSeenId));
+            if (!gaps.isEmpty()) {
+                found.addAll(invalidationRepository.findByIdIn(gaps.keySet()));
+            }
+
+            long now = System.nanoTime();
+            for (UserCacheInvalidation invalidation : found) {
+                long id = invalidation.getId();
+                if (gaps.remove(id) == null && id > lastSeenId) {
+                    if (id - lastSeenId - 1 <= MAX_TRACKED_GAPS) {
+                        for (long skipped = lastSeenId + 1; skipped < id; skipped++) {
+                            gaps.put(skipped, now);
+                        }
+                    }
+                    lastSeenId = id;
+                }
+                evict(invalidation.getEmail());
+            }
+            // Id reservado por transação desfeita (ou lenta demais): para de reler
+            gaps.values().removeIf(noticedAt -> now - noticedAt > GAP_GRACE.toNanos());
+
+            if (!found.isEmpty()) {
+                meterRegistry.counter("user.snapshot.cache.invalidations", "source", "poll").increment(found.size());
+            }
+        } catch (Exception e) {
+            // Sem os avisos, o TTL limita por quanto tempo um retrato velho sobrevive
+            logger.warn("Falha ao ler as invalidações do cache de usuários: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Avisos com mais de um dia já foram lidos por todas as instâncias.
+     */
+    @Scheduled(fixedDelay = 3_600_000)
+    public void purgeOldInvalidations() {
+        invalidationRepository.deleteOlderThan(LocalDateTime.now().minusDays(1));
+    }
+
+    private void evict(String email) {
+        synchronized (cache) {
+            cache.remove(email);
+            Generation generation = generations.get(email);
+            if (generation != null) {
+                generation.value++;
+            }
+        }
+    }
+
+    private int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.WebhookInboxEntry;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.WebhookInboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * Caixa de entrada dos webhooks do Mercado Pago (tabela webhook_inbox).
+ * O controller só grava a notificação; o WebhookInboxWorker busca o pagamento e aplica o efeito depois.
+ */
+@Service
+public class WebhookInboxService {
+
+    private final WebhookInboxRepository inboxRepository;
+    private final SubscriptionService subscriptionService;
+    private final MeterRegistry meterRegistry;
+
+    public WebhookInboxService(WebhookInboxRepository inboxRepository,
+                               SubscriptionService subscriptionService,
+                               MeterRegistry meterRegistry) {
+        this.inboxRepository = inboxRepository;
+        this.subscriptionService = subscriptionService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Grava a notificação (idempotente por tópico + id do recurso): um único INSERT, sem chamadas externas.
+     */
+    public void receive(String topic, String resourceId) {
+        inboxRepository.receive(topic, resourceId, LocalDateTime.now());
+        meterRegistry.counter("webhook.inbox.received", "topic", topic).increment();
+    }
+
+    /**
+     * Aplica o pagamento aprovado e encerra a entrada na MESMA transação.
+     * Se outra instância já encerrou a entrada, nada é aplicado (exatamente uma vez por pagamento).
+     * @throws AlreadyProcessedException se a entrada já foi encerrada (a transação é desfeita).
+     */
+    @Transactional
+    public void applyApproved(WebhookInboxEntry entry, String externalReference) {
+        subscriptionService.processPaymentConfirmation(externalReference);
+        close(entry);
+    }
+
+    /**
+     * Encerra a entrada sem efeito no usuário (pagamento recusado, cancelado, estornado...).
+     */
+    @Transactional
+    public void complete(WebhookInboxEntry entry) {
+        close(entry);
+    }
+
+    private void close(WebhookInboxEntry entry) {
+        int updated = inboxRepository.complete(entry.getId(), WebhookInboxEntry.Status.PENDING, entry.getAttempts(),
+                WebhookInboxEntry.Status.DONE, LocalDateTime.now());
+        if (updated != 1) {
+            throw new AlreadyProcessedException(entry.getId());
+        }
+    }
+
+    /**
+     * A entrada mudou desde que o worker a leu (outra instância a processou).
+     */
+    public static class AlreadyProcessedException extends IllegalStateException {
+        public AlreadyProcessedException(Long entryId) {
+            super("Notificação " + entryId + " já processada por outra instância.");
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.mercadopago.resources.payment.Payment;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.WebhookInboxEntry;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.WebhookInboxRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Esvazia a caixa de entrada dos webhooks (webhook_inbox): uma instância por vez (ClusterLockService)
+ * lê lotes de entradas vencidas e as processa num pool limitado. Cada entrada busca o pagamento no
+ * Mercado Pago; aprovado, aplica o efeito e encerra a entrada na mesma transação (WebhookInboxService).
+ * Falhas são reagendadas com backoff exponencial até max-attempts (depois, FAILED).
+ */
+@Service
+public class WebhookInboxWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookInboxWorker.class);
+    private static final String LOCK_NAME = "webhook-inbox";
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    // Status finais do pagamento sem efeito no usuário; os demais (pending, in_process, authorized) aguardam
+    private static final Set<String> FINAL_NOT_APPROVED = Set.of("rejected", "cancelled", "refunded", "charged_back");
+
+    private final WebhookInboxRepository inboxRepository;
+    private final WebhookInboxService inboxService;
+    private final MercadoPagoService mercadoPagoService;
+    private final ClusterLockService lockService;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService executor;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lockLease;
+    private final Duration retention;
+    private final Timer processingTimer;
+    private final Timer delayTimer;
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong oldestPendingSeconds = new AtomicLong();
+
+    public WebhookInboxWorker(WebhookInboxRepository inboxRepository,
+                              WebhookInboxService inboxService,
+                              MercadoPagoService mercadoPagoService,
+                              ClusterLockService lockService,
+                              MeterRegistry meterRegistry,
+                              @Value("${mentorship.webhook.inbox.workers:4}") int workers,
+                              @Value("${mentorship.webhook.inbox.batch-size:50}") int batchSize,
+                              @Value("${mentorship.webhook.inbox.max-attempts:8}") int maxAttempts,
+                              @Value("${mentorship.webhook.inbox.initial-backoff-seconds:30}") long initialBackoffSeconds,
+                              @Value("${mentorship.webhook.inbox.max-backoff-seconds:3600}") long maxBackoffSeconds,
+                              @Value("${mentorship.webhook.inbox.lock-seconds:120}") long lockSeconds,
+                              @Value("${mentorship.webhook.inbox.retention-days:30}") long retentionDays) {
+        this.inboxRepository = inboxRepository;
+        this.inboxService = inboxService;
+        this.mercadoPagoService = mercadoPagoService;
+        this.lockService = lockService;
+        this.meterRegistry = meterRegistry;
+        this.executor = Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("webhook-inbox-"));
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofSeconds(initialBackoffSeconds);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+        this.lockLease = Duration.ofSeconds(lockSeconds);
+        this.retention = Duration.ofDays(retentionDays);
+
+        this.processingTimer = Timer.builder("webhook.inbox.processing")
+                .description("Processamento de uma notificação (consulta ao Mercado Pago + efeito no usuário)")
+                .register(meterRegistry);
+        this.delayTimer = Timer.builder("webhook.inbox.delay")
+                .description("Tempo entre o recebimento da notificação e o seu encerramento")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("webhook.inbox.pending", pending, AtomicLong::get)
+                .description("Notificações aguardando processamento")
+                .register(meterRegistry);
+        Gauge.builder("webhook.inbox.lag.seconds", oldestPendingSeconds, AtomicLong::get)
+                .description("Idade da notificação pendente mais antiga")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Poll da caixa de entrada. Com a trava, processa lotes até esvaziar as entradas vencidas
+     * (ou até metade do prazo da trava, para não ultrapassá-lo). Cada lote só recebe o tempo que falta até esse limite.
+     */
+    @Scheduled(fixedDelayString = "${mentorship.webhook.inbox.poll-interval-ms:1000}")
+    public void drain() {
+        if (!lockService.tryLock(LOCK_NAME, lockLease)) {
+            return;
+        }
+        long deadline = System.nanoTime() + lockLease.dividedBy(2).toNanos();
+        try {
+            List<WebhookInboxEntry> batch;
+            do {
+                batch = inboxRepository.findDue(WebhookInboxEntry.Status.PENDING, LocalDateTime.now(), Limit.of(batchSize));
+                if (batch.isEmpty()) {
+                    break;
+                }
+                List<Callable<Void>> tasks = new ArrayList<>(batch.size());
+                for (WebhookInboxEntry entry : batch) {
+                    tasks.add(() -> {
+                        processingTimer.record(() -> process(entry));
+                        return null;
+                    });
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                // No limite, o invokeAll cancela o que não terminou: as que nem começaram seguem PENDING e as
+                // interrompidas desfazem a transação. Se alguma ainda commitar, o encerramento condicional evita repetir o efeito.
+                List<Future<Void>> results = executor.invokeAll(tasks, remaining, TimeUnit.NANOSECONDS);
+                long unfinished = results.stream().filter(Future::isCancelled).count();
+                if (unfinished > 0) {
+                    meterRegistry.counter("webhook.inbox.processed", "outcome", "timeout").increment(unfinished);
+                    logger.warn("{} notificações não terminaram antes do limite da trava; voltam no próximo ciclo.", unfinished);
+                    break;
+                }
+            } while (batch.size() == batchSize && System.nanoTime() < deadline);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            logger.error("Falha ao esvaziar a caixa de entrada dos webhooks: {}", e.getMessage(), e);
+        } finally {
+            lockService.unlock(LOCK_NAME);
+        }
+    }
+
+    private void process(WebhookInboxEntry entry) {
+        try {
+            Payment payment = mercadoPagoService.getPayment(Long.valueOf(entry.getResourceId()));
+            String status = payment.getStatus();
+
+            if ("approved".equals(status)) {
+                inboxService.applyApproved(entry, payment.getExternalReference());
+                finished(entry, "applied");
+                logger.info("Pagamento APROVADO e Processado. ID MP: {} | External Reference: {}",
+                        entry.getResourceId(), payment.getExternalReference());
+            } else if (FINAL_NOT_APPROVED.contains(status)) {
+                inboxService.complete(entry);
+                finished(entry, "not-approved");
+                logger.warn("Pagamento {} (sem efeito no usuário). ID MP: {} | External Reference: {}",
+                        status, entry.getResourceId(), payment.getExternalReference());
+            } else {
+                inboxRepository.park(entry.getId(), entry.getAttempts(), entry.getNotifications(),
+                        WebhookInboxEntry.Status.PENDING, WebhookInboxEntry.Status.WAITING);
+                countOutcome("waiting");
+                logger.info("Pagamento ainda não decidido ({}). ID MP: {} aguarda a próxima notificação.",
+                        status, entry.getResourceId());
+            }
+        } catch (WebhookInboxService.AlreadyProcessedException e) {
+            countOutcome("duplicate");
+            logger.info(e.getMessage());
+        } catch (Exception e) {
+            retryLater(entry, e);
+        }
+    }
+
+    private void retryLater(WebhookInboxEntry entry, Exception cause) {
+        int attempt = entry.getAttempts() + 1;
+        boolean exhausted = attempt >= maxAttempts;
+        String error = String.valueOf(cause.getMessage());
+        if (error.length() > MAX_ERROR_LENGTH) {
+            error = error.substring(0, MAX_ERROR_LENGTH);
+        }
+        inboxRepository.reschedule(entry.getId(), entry.getAttempts(), WebhookInboxEntry.Status.PENDING,
+                exhausted ? WebhookInboxEntry.Status.FAILED : WebhookInboxEntry.Status.PENDING,
+                LocalDateTime.now().plus(backoff(attempt)), error);
+
+        if (exhausted) {
+            countOutcome("failed");
+            logger.error("Notificação do pagamento {} desistida após {} tentativas: {}",
+                    entry.getResourceId(), attempt, error, cause);
+        } else {
+            countOutcome("retry");
+            logger.warn("Falha ao processar o pagamento {} (tentativa {}/{}): {}",
+                    entry.getResourceId(), attempt, maxAttempts, error);
+        }
+    }
+
+    // initial-backoff * 2^(tentativa-1), limitado a max-backoff
+    Duration backoff(int attempt) {
+        int shift = Math.min(attempt - 1, 20);
+        Duration delay = initialBackoff.multipliedBy(1L << shift);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private void finished(WebhookInboxEntry entry, String outcome) {
+        countOutcome(outcome);
+        delayTimer.record(Duration.between(entry.getReceivedAt(), LocalDateTime.now()));
+    }
+
+    private void countOutcome(String outcome) {
+        meterRegistry.counter("webhook.inbox.processed", "outcome", outcome).increment();
+    }
+
+    /**
+     * Atualiza os gauges de atraso (em todas as instâncias, não só na que processa).
+     */
+    @Scheduled(fixedDelayString = "${mentorship.webhook.inbox.metrics-interval-ms:15000}")
+    public void refreshBacklogMetrics() {
+        pending.set(inboxRepository.countByStatus(WebhookInboxEntry.Status.PENDING));
+        LocalDateTime oldest = inboxRepository.findOldestReceivedAt(WebhookInboxEntry.Status.PENDING);
+        oldestPendingSeconds.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, LocalDateTime.now()).toSeconds()));
+    }
+
+    /**
+     * Remove entradas encerradas há mais de retention-days (a unicidade só importa enquanto o MP reenvia).
+     */
+    @Scheduled(cron = "${mentorship.webhook.inbox.cleanup-cron:0 30 3 * * *}")
+    public void purgeProcessed() {
+        int removed = inboxRepository.deleteProcessedBefore(WebhookInboxEntry.Status.DONE, LocalDateTime.now().minus(retention));
+        if (removed > 0) {
+            logger.info("{} notificações de webhook antigas removidas.", removed);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,181 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Textos da mentoria em faith_application: de large objects (oid, um round trip ao pg_largeobject por campo)
+ * para colunas TEXT inline (comprimidas pelo TOAST).
+ *
+ * Roda FORA de transação para não travar a tabela durante a cópia:
+ * 1. cria as colunas *_text; 2. copia em lotes por id, com commit a cada lote (instâncias antigas seguem servindo);
+ * 3. numa transação curta com a tabela travada, copia o que chegou durante a cópia, remove os large objects
+ *    órfãos (de mentorias excluídas: o Hibernate apagava a linha, mas não o large object), libera os ainda
+ *    referenciados e troca as colunas. Órfão = large object do usuário atual que nenhuma coluna oid/lo do schema
+ *    atual referencia (o mesmo critério do vacuumlo); nada roda num banco sem colunas oid em faith_application.
+ * Cada passo é idempotente: se a migração falhar no meio, "flyway repair" e uma nova execução continuam de onde parou.
+ */
+public class V12__FaithApplicationTextColumns extends BaseJavaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(V12__FaithApplicationTextColumns.class);
+    private static final String[] COLUMNS = {
+            "user_challenge", "versiculo_bussola", "reflexao_aplicada", "conselhos_praticos", "oracao_semente"};
+    private static final int BATCH_SIZE = 500;
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(true);
+        try {
+            List<String> lobColumns = lobColumns(connection);
+            if (!lobColumns.isEmpty()) {
+                for (String column : lobColumns) {
+                    execute(connection, "ALTER TABLE faith_application ADD COLUMN IF NOT EXISTS " + column + "_text TEXT");
+                }
+                long lastId = copyInBatches(connection, lobColumns);
+                swapColumns(connection, lobColumns, lastId);
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private List<String> lobColumns(Connection connection) throws SQLException {
+        List<String> found = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT column_name FROM information_schema.columns " +
+                "WHERE table_schema = current_schema() AND table_name = 'faith_application' AND data_type = 'oid'");
+             ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                found.add(rs.getString(1));
+            }
+        }
+        // Mantém a ordem de COLUMNS e ignora colunas que já são TEXT
+        List<String> ordered = new ArrayList<>();
+        for (String column : COLUMNS) {
+            if (found.contains(column)) {
+                ordered.add(column);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Copia os textos em lotes por id crescente, cada lote na própria transação (autocommit).
+     * @return Maior id copiado.
+     */
+    private long copyInBatches(Connection connection, List<String> columns) throws SQLException {
+        String sql = "UPDATE faith_application SET " + assignments(columns) +
+                " WHERE id IN (SELECT id FROM faith_application WHERE id > ? ORDER BY id LIMIT " + BATCH_SIZE + ")" +
+                " RETURNING id";
+        long lastId = 0;
+        long copied = 0;
+        while (true) {
+            long batchMax = -1;
+            int rows = 0;
+            try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                statement.setLong(1, lastId);
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        batchMax = Math.max(batchMax, rs.getLong(1));
+                        rows++;
+                    }
+                }
+            }
+            if (rows == 0) {
+                break;
+            }
+            lastId = batchMax;
+            copied += rows;
+        }
+        logger.info("V12: {} mentorias copiadas de large objects para TEXT (até o id {}).", copied, lastId);
+        return lastId;
+    }
+
+    private void swapColumns(Connection connection, List<String> columns, long lastId) throws SQLException {
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("LOCK TABLE faith_application IN ACCESS EXCLUSIVE MODE");
+            // Registros inseridos por instâncias antigas durante a cópia
+            statement.execute("UPDATE faith_application SET " + assignments(columns) + " WHERE id > " + lastId);
+
+            // Órfãos: calculado ANTES do DROP COLUMN, enquanto as colunas oid ainda existem
+            removeOrphanLargeObjects(connection, statement);
+
+            // Libera os large objects ainda referenciados (a coluna vai sumir)
+            for (String column : columns) {
+                statement.execute("SELECT lo_unlink(" + column + ") FROM faith_application WHERE " + column + " IS NOT NULL " +
+                        "AND EXISTS (SELECT 1 FROM pg_largeobject_metadata m WHERE m.oid = " + column + ")");
+            }
+            for (String column : columns) {
+                statement.execute("ALTER TABLE faith_application DROP COLUMN " + column);
+                statement.execute("ALTER TABLE faith_application RENAME COLUMN " + column + "_text TO " + column);
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(true);
+        }
+    }
+
+    /**
+     * Remove os large objects do usuário atual que nenhuma coluna oid/lo do schema atual referencia
+     * (colunas do tipo lo aparecem com data_type = 'oid' no information_schema).
+     */
+    private void removeOrphanLargeObjects(Connection connection, Statement statement) throws SQLException {
+        List<String> references = new ArrayList<>();
+        try (PreparedStatement columns = connection.prepareStatement(
+                "SELECT quote_ident(table_name), quote_ident(column_name) FROM information_schema.columns " +
+                "WHERE table_schema = current_schema() AND data_type = 'oid'");
+             ResultSet rs = columns.executeQuery()) {
+            while (rs.next()) {
+                references.add("SELECT 1 FROM " + rs.getString(1) + " r WHERE r." + rs.getString(2) + " = m.oid");
+            }
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT count(lo_unlink(m.oid)) FROM pg_largeobject_metadata m " +
+                "WHERE m.lomowner = (SELECT oid FROM pg_roles WHERE rolname = current_user)");
+        for (String reference : references) {
+            sql.append(" AND NOT EXISTS (").append(reference).append(")");
+        }
+        try (ResultSet rs = statement.executeQuery(sql.toString())) {
+            rs.next();
+            logger.info("V12: {} large objects órfãos removidos.", rs.getLong(1));
+        }
+    }
+
+    // "x_text = texto do large object x" para cada coluna (oid nulo ou já inexistente vira NULL)
+    private static String assignments(List<String> columns) {
+        List<String> parts = new ArrayList<>();
+        for (String column : columns) {
+            parts.add(column + "_text = CASE WHEN " + column + " IS NOT NULL AND EXISTS " +
+                    "(SELECT 1 FROM pg_largeobject_metadata m WHERE m.oid = " + column + ") " +
+                    "THEN convert_from(lo_get(" + column + "), 'UTF8') END");
+        }
+        return String.join(", ", parts);
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
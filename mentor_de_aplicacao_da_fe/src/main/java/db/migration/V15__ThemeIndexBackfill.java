@@ -0,0 +1,159 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.text.Normalizer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Indexa os temas do histórico (tabelas da V14), lendo faith_application em lotes por id.
+ * A canonicalização é uma cópia CONGELADA das regras do ThemeCanonicalizer de quando a migração foi escrita:
+ * a migração não depende do código da aplicação, e mudar as regras depois não altera o que ela faz.
+ */
+public class V15__ThemeIndexBackfill extends BaseJavaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(V15__ThemeIndexBackfill.class);
+    private static final int BATCH_SIZE = 1000;
+    private static final int MAX_LENGTH = 255;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    // Chave canônica -> nome exibido
+    private static final Map<String, String> DISPLAY_NAMES = Map.of(
+            "ansiedade", "Ansiedade",
+            "perdao", "Perdão",
+            "medo", "Medo",
+            "paciencia", "Paciência",
+            "direcao", "Direção",
+            "gratidao", "Gratidão",
+            "tristeza", "Tristeza",
+            "fe", "Fé");
+
+    // Variante (já sem acento/caixa) -> chave canônica
+    private static final Map<String, String> SYNONYMS = Map.ofEntries(
+            Map.entry("preocupacao", "ansiedade"),
+            Map.entry("preocupacoes", "ansiedade"),
+            Map.entry("angustia", "ansiedade"),
+            Map.entry("nervosismo", "ansiedade"),
+            Map.entry("perdoar", "perdao"),
+            Map.entry("temor", "medo"),
+            Map.entry("receio", "medo"),
+            Map.entry("orientacao", "direcao"),
+            Map.entry("discernimento", "direcao"),
+            Map.entry("agradecimento", "gratidao"),
+            Map.entry("melancolia", "tristeza"),
+            Map.entry("confianca em deus", "fe"));
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        Map<String, Long> themeIds = new HashMap<>();
+        long lastId = 0;
+        long applications = 0;
+        long links = 0;
+
+        try (PreparedStatement select = connection.prepareStatement(
+                     "SELECT id, user_id, COALESCE(created_at, now()) AS created_at, identified_theme FROM faith_application " +
+                     "WHERE id > ? ORDER BY id LIMIT " + BATCH_SIZE);
+             PreparedStatement link = connection.prepareStatement(
+                     "INSERT INTO faith_application_theme (application_id, theme_id, user_id, created_at) " +
+                     "VALUES (?, ?, ?, ?) ON CONFLICT DO NOTHING")) {
+            while (true) {
+                select.setLong(1, lastId);
+                int rows = 0;
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        rows++;
+                        lastId = rs.getLong("id");
+                        long userId = rs.getLong("user_id");
+                        Timestamp createdAt = rs.getTimestamp("created_at");
+                        for (Map.Entry<String, String> theme : canonicalize(rs.getString("identified_theme")).entrySet()) {
+                            link.setLong(1, lastId);
+                            link.setLong(2, themeId(connection, themeIds, theme.getKey(), theme.getValue()));
+                            link.setLong(3, userId);
+                            link.setTimestamp(4, createdAt);
+                            link.addBatch();
+                            links++;
+                        }
+                    }
+                }
+                if (rows == 0) {
+                    break;
+                }
+                link.executeBatch();
+                applications += rows;
+            }
+        }
+        logger.info("V15: {} mentorias indexadas, {} vínculos, {} temas.", applications, links, themeIds.size());
+    }
+
+    private Long themeId(Connection connection, Map<String, Long> themeIds, String key, String displayName)
+            throws SQLException {
+        Long cached = themeIds.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        // DO UPDATE sem efeito só para o RETURNING devolver o id também quando o tema já existe
+        try (PreparedStatement upsert = connection.prepareStatement(
+                "INSERT INTO theme (canonical_key, display_name) VALUES (?, ?) " +
+                "ON CONFLICT (canonical_key) DO UPDATE SET canonical_key = EXCLUDED.canonical_key RETURNING id")) {
+            upsert.setString(1, key);
+            upsert.setString(2, displayName);
+            try (ResultSet rs = upsert.executeQuery()) {
+                rs.next();
+                long id = rs.getLong(1);
+                themeIds.put(key, id);
+                return id;
+            }
+        }
+    }
+
+    // Chave canônica -> nome exibido, sem repetir chave, na ordem em que os temas aparecem
+    private static Map<String, String> canonicalize(String identifiedTheme) {
+        Map<String, String> themes = new LinkedHashMap<>();
+        if (identifiedTheme == null || identifiedTheme.isBlank()) {
+            return themes;
+        }
+        Arrays.stream(identifiedTheme.split(","))
+                .map(String::trim)
+                .filter(theme -> !theme.isEmpty())
+                .forEach(theme -> {
+                    String key = key(theme);
+                    if (!key.isEmpty()) {
+                        themes.putIfAbsent(key, DISPLAY_NAMES.getOrDefault(key, displayName(theme)));
+                    }
+                });
+        return themes;
+    }
+
+    private static String key(String theme) {
+        String folded = DIACRITICS.matcher(Normalizer.normalize(theme, Normalizer.Form.NFD)).replaceAll("");
+        String key = SPACES.matcher(folded.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+        if (key.length() > MAX_LENGTH) {
+            key = key.substring(0, MAX_LENGTH);
+        }
+        return SYNONYMS.getOrDefault(key, key);
+    }
+
+    private static String displayName(String theme) {
+        String name = SPACES.matcher(theme.trim()).replaceAll(" ");
+        if (name.length() > MAX_LENGTH) {
+            name = name.substring(0, MAX_LENGTH);
+        }
+        return name.substring(0, 1).toUpperCase(Locale.ROOT) + name.substring(1);
+    }
+}
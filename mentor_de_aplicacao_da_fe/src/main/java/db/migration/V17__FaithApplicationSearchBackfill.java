@@ -0,0 +1,66 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Preenche o search_vector (V16) das mentorias existentes em lotes com commit próprio e só então cria
+ * o índice GIN com CONCURRENTLY: nem a cópia nem o índice travam as gravações em faith_application.
+ * Idempotente: refeita após uma falha, continua pelos registros ainda sem vetor.
+ */
+public class V17__FaithApplicationSearchBackfill extends BaseJavaMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(V17__FaithApplicationSearchBackfill.class);
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    public boolean canExecuteInTransaction() {
+        return false;
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(true);
+        try {
+            long lastId = 0;
+            long filled = 0;
+            try (PreparedStatement update = connection.prepareStatement(
+                    "UPDATE faith_application SET search_vector = faith_application_search_vector(" +
+                    "user_challenge, versiculo_bussola, referencias_cruzadas, reflexao_aplicada, conselhos_praticos, oracao_semente) " +
+                    "WHERE id IN (SELECT id FROM faith_application WHERE id > ? AND search_vector IS NULL ORDER BY id LIMIT " +
+                    BATCH_SIZE + ") RETURNING id")) {
+                while (true) {
+                    update.setLong(1, lastId);
+                    int rows = 0;
+                    try (ResultSet rs = update.executeQuery()) {
+                        while (rs.next()) {
+                            lastId = Math.max(lastId, rs.getLong(1));
+                            rows++;
+                        }
+                    }
+                    if (rows == 0) {
+                        break;
+                    }
+                    filled += rows;
+                }
+            }
+            logger.info("V17: search_vector preenchido em {} mentorias.", filled);
+
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_faith_application_search " +
+                                  "ON faith_application USING GIN (search_vector)");
+            }
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+}
@@ -0,0 +1,5 @@
+-- Paginação por cursor (keyset) do diário: WHERE user_id = ? AND (created_at, id) < (?, ?) ORDER BY created_at DESC, id DESC.
+-- CONCURRENTLY não bloqueia escritas em faith_application (o Flyway roda este script fora de transação).
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_faith_application_user_created
+    ON faith_application (user_id, created_at DESC, id DESC);
@@ -0,0 +1,20 @@
+-- Começo do desafio em coluna curta para as listagens (FaithApplicationSummary), sem ler o LOB user_challenge.
+-- Registros novos são preenchidos pela entidade (@PrePersist); os antigos, aqui a partir do large object.
+-- Cada large object é lido uma única vez (CTE materializada); um oid órfão (large object já removido) fica sem
+-- trecho em vez de abortar a migração, como na V12.
+
+ALTER TABLE faith_application ADD COLUMN challenge_excerpt VARCHAR(160);
+
+WITH challenge AS MATERIALIZED (
+    SELECT f.id, convert_from(lo_get(f.user_challenge), 'UTF8') AS body
+    FROM faith_application f
+    WHERE f.user_challenge IS NOT NULL
+      AND EXISTS (SELECT 1 FROM pg_largeobject_metadata m WHERE m.oid = f.user_challenge)
+)
+UPDATE faith_application a
+SET challenge_excerpt = CASE
+        WHEN char_length(c.body) <= 160 THEN c.body
+        ELSE left(c.body, 159) || '…'
+    END
+FROM challenge c
+WHERE a.id = c.id;
@@ -0,0 +1,49 @@
+-- Estatísticas do dashboard mantidas a cada mentoria salva/excluída (DashboardStatsService),
+-- em vez de recalculadas a partir do histórico em cada visita. Já nascem preenchidas com o histórico atual.
+
+CREATE TABLE user_theme_stat (
+    user_id           BIGINT       NOT NULL,
+    stat_month        DATE         NOT NULL,
+    theme             VARCHAR(255) NOT NULL,
+    application_count BIGINT       NOT NULL,
+    PRIMARY KEY (user_id, stat_month, theme)
+);
+
+CREATE TABLE user_day_activity (
+    user_id           BIGINT NOT NULL,
+    activity_day      DATE   NOT NULL,
+    application_count BIGINT NOT NULL,
+    PRIMARY KEY (user_id, activity_day)
+);
+
+-- Últimos temas distintos (mais recente primeiro), separados por vírgula
+CREATE TABLE user_recent_themes (
+    user_id BIGINT PRIMARY KEY,
+    themes  VARCHAR(1000) NOT NULL
+);
+
+INSERT INTO user_theme_stat (user_id, stat_month, theme, application_count)
+SELECT a.user_id, CAST(date_trunc('month', a.created_at) AS DATE), t.theme, COUNT(*)
+FROM faith_application a
+CROSS JOIN LATERAL (SELECT DISTINCT btrim(part) AS theme
+                    FROM regexp_split_to_table(a.identified_theme, ',') AS part) t
+WHERE a.created_at IS NOT NULL AND t.theme <> ''
+GROUP BY 1, 2, 3;
+
+INSERT INTO user_day_activity (user_id, activity_day, application_count)
+SELECT a.user_id, CAST(a.created_at AS DATE), COUNT(*)
+FROM faith_application a
+WHERE a.created_at IS NOT NULL
+GROUP BY 1, 2;
+
+INSERT INTO user_recent_themes (user_id, themes)
+SELECT user_id, string_agg(theme, ',' ORDER BY last_seen DESC, theme)
+FROM (SELECT user_id, theme, last_seen,
+             row_number() OVER (PARTITION BY user_id ORDER BY last_seen DESC, theme) AS position
+      FROM (SELECT a.user_id, btrim(part) AS theme, MAX(a.created_at) AS last_seen
+            FROM faith_application a
+            CROSS JOIN LATERAL regexp_split_to_table(a.identified_theme, ',') AS part
+            WHERE a.created_at IS NOT NULL AND btrim(part) <> ''
+            GROUP BY 1, 2) seen) ranked
+WHERE position <= 3
+GROUP BY user_id;
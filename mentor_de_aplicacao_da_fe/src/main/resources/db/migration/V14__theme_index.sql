@@ -0,0 +1,20 @@
+-- Temas normalizados (ThemeCanonicalizer: sem caixa/acentos, sinônimos unidos) e o vínculo mentoria -> tema.
+-- user_id e created_at são copiados da mentoria para que "registros do tema X" seja uma varredura do índice.
+-- O histórico é indexado pela V15 (Java, mesma regra de canonicalização da aplicação).
+
+CREATE TABLE theme (
+    id            BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    canonical_key VARCHAR(255) NOT NULL UNIQUE,
+    display_name  VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE faith_application_theme (
+    application_id BIGINT       NOT NULL REFERENCES faith_application (id) ON DELETE CASCADE,
+    theme_id       BIGINT       NOT NULL REFERENCES theme (id),
+    user_id        BIGINT       NOT NULL,
+    created_at     TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (application_id, theme_id)
+);
+
+CREATE INDEX idx_faith_application_theme_user_theme_created
+    ON faith_application_theme (user_id, theme_id, created_at DESC, application_id DESC);
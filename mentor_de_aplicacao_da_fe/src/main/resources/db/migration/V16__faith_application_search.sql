@@ -0,0 +1,32 @@
+-- Busca textual do diário (JournalSearchService): tsvector com a configuração 'portuguese' (radicais, sem stop-words).
+-- Pesos: A = versículos, B = desafio do usuário, C = reflexão, conselhos e oração.
+-- A coluna é mantida por trigger em cada INSERT/UPDATE; o histórico é preenchido em lotes e indexado pela V17.
+-- ADD COLUMN sem default não reescreve a tabela.
+
+ALTER TABLE faith_application ADD COLUMN search_vector tsvector;
+
+CREATE OR REPLACE FUNCTION faith_application_search_vector(
+    user_challenge TEXT, versiculo_bussola TEXT, referencias_cruzadas TEXT,
+    reflexao_aplicada TEXT, conselhos_praticos TEXT, oracao_semente TEXT)
+RETURNS tsvector
+LANGUAGE sql IMMUTABLE AS $$
+    SELECT setweight(to_tsvector('portuguese', coalesce(versiculo_bussola, '') || ' ' || coalesce(referencias_cruzadas, '')), 'A')
+        || setweight(to_tsvector('portuguese', coalesce(user_challenge, '')), 'B')
+        || setweight(to_tsvector('portuguese', coalesce(reflexao_aplicada, '') || ' ' || coalesce(conselhos_praticos, '')
+                                               || ' ' || coalesce(oracao_semente, '')), 'C')
+$$;
+
+CREATE OR REPLACE FUNCTION faith_application_search_vector_trigger() RETURNS trigger
+LANGUAGE plpgsql AS $$
+BEGIN
+    NEW.search_vector := faith_application_search_vector(NEW.user_challenge, NEW.versiculo_bussola, NEW.referencias_cruzadas,
+                                                         NEW.reflexao_aplicada, NEW.conselhos_praticos, NEW.oracao_semente);
+    RETURN NEW;
+END
+$$;
+
+CREATE TRIGGER faith_application_search_vector_update
+    BEFORE INSERT OR UPDATE OF user_challenge, versiculo_bussola, referencias_cruzadas,
+                               reflexao_aplicada, conselhos_praticos, oracao_semente
+    ON faith_application
+    FOR EACH ROW EXECUTE FUNCTION faith_application_search_vector_trigger();
@@ -0,0 +1,21 @@
+-- Caixa de entrada dos webhooks do Mercado Pago: cada notificação é gravada uma única vez por (tópico, recurso)
+-- e processada depois por WebhookInboxWorker, fora da requisição do Mercado Pago.
+
+CREATE TABLE webhook_inbox (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    topic           VARCHAR(40)  NOT NULL,
+    resource_id     VARCHAR(64)  NOT NULL,
+    status          VARCHAR(20)  NOT NULL,
+    attempts        INTEGER      NOT NULL DEFAULT 0,
+    notifications   INTEGER      NOT NULL DEFAULT 1,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    received_at     TIMESTAMP(6) NOT NULL,
+    processed_at    TIMESTAMP(6),
+    last_error      VARCHAR(500),
+    CONSTRAINT uk_webhook_inbox_resource UNIQUE (topic, resource_id)
+);
+
+-- Fila do worker: só as entradas pendentes, na ordem em que vencem
+CREATE INDEX idx_webhook_inbox_due ON webhook_inbox (next_attempt_at) WHERE status = 'PENDING';
+-- Limpeza das entradas concluídas antigas
+CREATE INDEX idx_webhook_inbox_processed_at ON webhook_inbox (processed_at);
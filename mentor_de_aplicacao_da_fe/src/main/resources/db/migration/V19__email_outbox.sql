@@ -0,0 +1,21 @@
+-- Caixa de saída de e-mails: gravada na mesma transação do evento (ativação, upgrade)
+-- e enviada depois, em lotes, pelo EmailOutboxSender.
+
+CREATE TABLE email_outbox (
+    id              BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    message_type    VARCHAR(40)  NOT NULL,
+    recipient       VARCHAR(255) NOT NULL,
+    subject         VARCHAR(255) NOT NULL,
+    body            TEXT         NOT NULL,
+    status          VARCHAR(20)  NOT NULL,
+    attempts        INTEGER      NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP(6) NOT NULL,
+    created_at      TIMESTAMP(6),
+    sent_at         TIMESTAMP(6),
+    last_error      VARCHAR(500)
+);
+
+-- Fila do sender: só os e-mails pendentes, na ordem em que vencem
+CREATE INDEX idx_email_outbox_due ON email_outbox (next_attempt_at) WHERE status = 'PENDING';
+-- Limpeza dos e-mails enviados antigos
+CREATE INDEX idx_email_outbox_sent_at ON email_outbox (sent_at);
@@ -0,0 +1,28 @@
+-- Schema existente antes do Flyway (equivalente ao gerado pelo ddl-auto).
+-- Bancos que já possuem estas tabelas são marcados na versão 1 (spring.flyway.baseline-on-migrate).
+
+CREATE TABLE app_user (
+    id                      BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    created_at              TIMESTAMP(6),
+    email                   VARCHAR(255) NOT NULL UNIQUE,
+    identification_number   VARCHAR(255),
+    is_enabled              BOOLEAN NOT NULL,
+    last_prompt_month_check TIMESTAMP(6),
+    monthly_prompt_count    INTEGER NOT NULL,
+    name                    VARCHAR(255),
+    password                VARCHAR(255) NOT NULL,
+    subscription_plan       VARCHAR(255) NOT NULL CHECK (subscription_plan IN ('SEMENTE', 'COLHEITA', 'JARDINEIRO'))
+);
+
+CREATE TABLE faith_application (
+    id                   BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id              BIGINT NOT NULL REFERENCES app_user (id),
+    user_challenge       OID,
+    identified_theme     VARCHAR(255),
+    versiculo_bussola    OID,
+    reflexao_aplicada    OID,
+    conselhos_praticos   OID,
+    referencias_cruzadas VARCHAR(255),
+    oracao_semente       OID,
+    created_at           TIMESTAMP(6)
+);
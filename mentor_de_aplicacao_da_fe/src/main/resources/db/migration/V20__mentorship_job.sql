@@ -0,0 +1,16 @@
+-- Estado dos jobs de geração de mentoria, visível a todas as instâncias: o worker que roda o job grava cada
+-- mudança aqui e o polling / SSE de qualquer instância lê desta tabela (sem afinidade de sessão no balanceador).
+
+CREATE TABLE mentorship_job (
+    id              VARCHAR(36)  PRIMARY KEY,
+    user_id         BIGINT       NOT NULL,
+    status          VARCHAR(20)  NOT NULL,
+    application_id  BIGINT,
+    message         VARCHAR(500),
+    streamed_fields TEXT,
+    created_at      TIMESTAMP(6) NOT NULL,
+    finished_at     TIMESTAMP(6)
+);
+
+-- Limpeza dos jobs antigos (MentorshipJobService.evictFinishedJobs)
+CREATE INDEX idx_mentorship_job_created_at ON mentorship_job (created_at);
@@ -0,0 +1,15 @@
+-- Camada persistente (opcional) do cache de mentorias por desafio normalizado.
+
+CREATE TABLE mentorship_cache (
+    cache_key            VARCHAR(64) PRIMARY KEY,
+    normalized_challenge TEXT NOT NULL,
+    identified_theme     TEXT,
+    versiculo_bussola    TEXT,
+    reflexao_aplicada    TEXT,
+    conselhos_praticos   TEXT,
+    referencias_cruzadas TEXT,
+    oracao_semente       TEXT,
+    created_at           TIMESTAMP(6)
+);
+
+CREATE INDEX idx_mentorship_cache_created_at ON mentorship_cache (created_at);
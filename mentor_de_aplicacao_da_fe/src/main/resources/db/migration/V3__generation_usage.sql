@@ -0,0 +1,29 @@
+-- Contabilidade de tokens/latência das gerações (append-only) e totais diários por usuário e plano.
+
+CREATE TABLE generation_usage (
+    id                BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id           BIGINT       NOT NULL,
+    plan              VARCHAR(20)  NOT NULL,
+    model             VARCHAR(80)  NOT NULL,
+    prompt_tokens     INTEGER      NOT NULL,
+    candidates_tokens INTEGER      NOT NULL,
+    cached_tokens     INTEGER      NOT NULL,
+    total_tokens      INTEGER      NOT NULL,
+    latency_ms        BIGINT       NOT NULL,
+    created_at        TIMESTAMP(6)
+);
+
+CREATE INDEX idx_generation_usage_created_at ON generation_usage (created_at);
+
+CREATE TABLE usage_daily_rollup (
+    usage_day         DATE        NOT NULL,
+    user_id           BIGINT      NOT NULL,
+    plan              VARCHAR(20) NOT NULL,
+    generations       BIGINT      NOT NULL,
+    prompt_tokens     BIGINT      NOT NULL,
+    candidates_tokens BIGINT      NOT NULL,
+    cached_tokens     BIGINT      NOT NULL,
+    total_tokens      BIGINT      NOT NULL,
+    latency_ms_sum    BIGINT      NOT NULL,
+    PRIMARY KEY (usage_day, user_id, plan)
+);
@@ -0,0 +1,4 @@
+-- Modelo Gemini que gerou cada mentoria e o motivo do roteamento (primary, lite, fallback-*, cache).
+
+ALTER TABLE faith_application ADD COLUMN generation_model VARCHAR(80);
+ALTER TABLE faith_application ADD COLUMN routing_reason VARCHAR(40);
@@ -0,0 +1,12 @@
+-- Reservas da cota mensal (reservar antes do Gemini, confirmar ao salvar, liberar em caso de falha).
+
+CREATE TABLE quota_reservation (
+    id          BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id     BIGINT      NOT NULL,
+    status      VARCHAR(20) NOT NULL,
+    created_at  TIMESTAMP(6),
+    resolved_at TIMESTAMP(6)
+);
+
+-- Varredura das reservas abandonadas
+CREATE INDEX idx_quota_reservation_status_created_at ON quota_reservation (status, created_at);
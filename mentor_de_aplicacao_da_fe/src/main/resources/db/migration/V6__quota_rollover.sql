@@ -0,0 +1,9 @@
+-- Virada mensal da cota em lote: travas das tarefas agendadas e índice dos usuários a zerar.
+
+CREATE TABLE scheduler_lock (
+    name         VARCHAR(64) PRIMARY KEY,
+    locked_until TIMESTAMP(6) NOT NULL,
+    locked_by    VARCHAR(255)
+);
+
+CREATE INDEX idx_app_user_last_prompt_month_check ON app_user (last_prompt_month_check);
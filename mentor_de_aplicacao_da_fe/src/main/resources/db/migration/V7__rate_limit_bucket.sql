@@ -0,0 +1,7 @@
+-- Token buckets do limitador de taxa no modo compartilhado entre instâncias (mentorship.ratelimit.store=postgres).
+
+CREATE TABLE rate_limit_bucket (
+    bucket_key VARCHAR(120) PRIMARY KEY,
+    tokens     DOUBLE PRECISION NOT NULL,
+    updated_at TIMESTAMP(6)     NOT NULL
+);
@@ -0,0 +1,9 @@
+-- Avisos de invalidação do retrato do usuário em cache (UserSnapshotCache), lidos por todas as instâncias.
+
+CREATE TABLE user_cache_invalidation (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    email      VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6)
+);
+
+CREATE INDEX idx_user_cache_invalidation_created_at ON user_cache_invalidation (created_at);
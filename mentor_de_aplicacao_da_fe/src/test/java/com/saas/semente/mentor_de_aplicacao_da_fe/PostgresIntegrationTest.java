@@ -0,0 +1,24 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe;
+
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Base dos testes que precisam do PostgreSQL de verdade (ON CONFLICT, tsvector, ts_headline...), que o H2 não tem.
+ * O schema é criado pelas migrações do Flyway, como em produção. Sem Docker, os testes são ignorados.
+ * Uso: {@code @DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")} na subclasse.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+public abstract class PostgresIntegrationTest {
+
+    // Um container para todas as classes (o contexto do Spring em cache guarda a mesma URL); o Ryuk o remove no fim
+    @ServiceConnection
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    static {
+        POSTGRES.start();
+    }
+}
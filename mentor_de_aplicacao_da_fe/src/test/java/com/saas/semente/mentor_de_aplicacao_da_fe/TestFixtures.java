@@ -0,0 +1,49 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplication;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.SubscriptionPlan;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.User;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+/**
+ * Usuários e mentorias dos testes. O e-mail leva o nanoTime para não colidir entre testes que compartilham o banco
+ * (contêiner do PostgreSQL) ou que não desfazem a transação.
+ */
+public final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    /** Usuário habilitado, ainda não salvo (para quem persiste pelo repositório). */
+    public static User user(String name, SubscriptionPlan plan) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(name.toLowerCase() + "-" + System.nanoTime() + "@teste.com");
+        user.setPassword("{noop}senha");
+        user.setSubscriptionPlan(plan);
+        user.setEnabled(true);
+        return user;
+    }
+
+    /** Usuário SEMENTE salvo e relido. */
+    public static User user(TestEntityManager entityManager, String name) {
+        return entityManager.persistFlushFind(user(name, SubscriptionPlan.SEMENTE));
+    }
+
+    /** Mentoria ainda não salva, só com o desafio. */
+    public static FaithApplication application(User user, String challenge) {
+        FaithApplication app = new FaithApplication();
+        app.setUser(user);
+        app.setUserChallenge(challenge);
+        return app;
+    }
+
+    /** Mentoria salva com os campos que a busca e o detalhe leem; devolve o id. */
+    public static Long application(TestEntityManager entityManager, User user, String challenge, String verse,
+                                   String reflection) {
+        FaithApplication app = application(user, challenge);
+        app.setVersiculoBussola(verse);
+        app.setReflexaoAplicada(reflection);
+        return entityManager.persistAndFlush(app).getId();
+    }
+}
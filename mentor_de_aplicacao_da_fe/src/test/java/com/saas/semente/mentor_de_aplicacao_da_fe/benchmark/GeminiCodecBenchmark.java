@@ -0,0 +1,144 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplication;
+import com.saas.semente.mentor_de_aplicacao_da_fe.service.GeminiCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara a codificação/decodificação antiga do Gemini (ObjectMapper novo por chamada,
+ * schema re-parseado, Maps aninhados) com o GeminiCodec.
+ *
+ * Execução (não roda no "mvn test"): rodar o main() pela IDE após "mvn test-compile".
+ * O GCProfiler reporta "gc.alloc.rate.norm" = bytes alocados por chamada.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GeminiCodecBenchmark {
+
+    private static final String USER_CHALLENGE = "Sinto-me sobrecarregado(a) pelas responsabilidades do trabalho e estou perdendo a paciência com a minha família...";
+
+    private static final String LEGACY_SYSTEM_PROMPT = "Você é o 'Mentor de Aplicação da Fé', um conselheiro cristão sábio e amigável. Seu objetivo é pegar o 'Desafio do Usuário' e, com base em princípios bíblicos, gerar uma mentoria estruturada em 5 partes (Versículo, Reflexão, Conselhos Práticos, Referências e Oração). Sua 'Reflexão Aplicada' deve ter um tom pessoal e caloroso. Os 'Conselhos Práticos' devem ser 3 ações concretas e diretas que o usuário pode tomar HOJE, baseadas na reflexão. Retorne a resposta APENAS como um objeto JSON que segue o schema fornecido.";
+
+    private static final String LEGACY_SCHEMA = """
+            {
+              "type": "OBJECT",
+              "properties": {
+                "identifiedTheme": { "type": "STRING", "description": "Tema(s) central(is) identificado(s) no desafio do usuário. Ex: Ansiedade, Perdão, Direção." },
+                "versiculoBussola": { "type": "STRING", "description": "O versículo bíblico central para o desafio. Ex: Filipenses 4:6-7" },
+                "reflexaoAplicada": { "type": "STRING", "description": "A reflexão e conselho com tom de amigo. Use quebras de linha (\\n) para formatar parágrafos." },
+                "conselhosPraticos": { "type": "STRING", "description": "Três conselhos práticos e acionáveis (numerados ou com marcadores) baseados no versículo e reflexão. Use quebras de linha (\\n) para formatar." },
+                "referenciasCruzadas": { "type": "STRING", "description": "Outras referências bíblicas contextuais para estudo. Ex: Mateus 6:34, 1 Pedro 5:7, Salmos 46:1" },
+                "oracaoSemente": { "type": "STRING", "description": "Uma oração curta e poderosa baseada no desafio e no versículo. Use quebras de linha (\\n) para formatar." }
+              }
+            }
+            """;
+
+    // Simula o ObjectMapper compartilhado que o WebClient usa para (de)serializar o corpo
+    private final ObjectMapper webClientMapper = new ObjectMapper();
+
+    private GeminiCodec codec;
+    private byte[] responseBody;
+
+    @Setup
+    public void setUp() throws Exception {
+        codec = new GeminiCodec(new ObjectMapper());
+
+        Map<String, String> mentorship = Map.of(
+                "identifiedTheme", "Ansiedade, Trabalho, Família",
+                "versiculoBussola", "Filipenses 4:6-7",
+                "reflexaoAplicada", "Respire fundo. ".repeat(60),
+                "conselhosPraticos", "1. Ore antes do expediente.\n2. Anote suas preocupações.\n3. Descanse.",
+                "referenciasCruzadas", "Mateus 6:34, 1 Pedro 5:7, Salmos 46:1",
+                "oracaoSemente", "Senhor, acalma meu coração. ".repeat(10));
+
+        Map<String, Object> response = Map.of(
+                "candidates", List.of(Map.of(
+                        "content", Map.of("role", "model", "parts", List.of(Map.of("text", webClientMapper.writeValueAsString(mentorship)))),
+                        "finishReason", "STOP")),
+                "usageMetadata", Map.of("promptTokenCount", 420, "candidatesTokenCount", 680, "totalTokenCount", 1100),
+                "modelVersion", "gemini-2.5-flash-preview-05-20");
+        responseBody = webClientMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public void legacyMaps(Blackhole blackhole) throws Exception {
+        blackhole.consume(legacyEncode(USER_CHALLENGE));
+        blackhole.consume(legacyDecode(responseBody, USER_CHALLENGE));
+    }
+
+    @Benchmark
+    public void geminiCodec(Blackhole blackhole) throws Exception {
+        blackhole.consume(codec.encodeRequest(USER_CHALLENGE));
+        blackhole.consume(codec.decodeResponse(responseBody, USER_CHALLENGE));
+    }
+
+    // --- Réplica do caminho antigo de FaithApplicationService.callGeminiApi ---
+
+    @SuppressWarnings("unchecked")
+    private byte[] legacyEncode(String userChallenge) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        Map<String, Object> payload = new HashMap<>();
+        Map<String, Object> userPart = Map.of("text", userChallenge);
+        Map<String, Object> contents = Map.of("role", "user", "parts", List.of(userPart));
+        payload.put("contents", List.of(contents));
+        payload.put("systemInstruction", Map.of("parts", List.of(Map.of("text", LEGACY_SYSTEM_PROMPT))));
+        payload.put("generationConfig", Map.of(
+                "responseMimeType", "application/json",
+                "responseSchema", objectMapper.readValue(LEGACY_SCHEMA, Map.class)));
+
+        return webClientMapper.writeValueAsBytes(payload);
+    }
+
+    @SuppressWarnings("unchecked")
+    private FaithApplication legacyDecode(byte[] body, String userChallenge) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        Map<String, Object> responseBody = webClientMapper.readValue(body, Map.class);
+        List<Map<String, Object>> candidates = (List<Map<String, Object>>) responseBody.get("candidates");
+        Map<String, Object> content = (Map<String, Object>) candidates.get(0).get("content");
+        List<Map<String, String>> parts = (List<Map<String, String>>) content.get("parts");
+        Map<String, String> result = objectMapper.readValue(parts.get(0).get("text"), Map.class);
+
+        FaithApplication app = new FaithApplication();
+        app.setUserChallenge(userChallenge);
+        app.setIdentifiedTheme(result.get("identifiedTheme"));
+        app.setVersiculoBussola(result.get("versiculoBussola"));
+        app.setReflexaoAplicada(result.get("reflexaoAplicada"));
+        app.setConselhosPraticos(result.get("conselhosPraticos"));
+        app.setReferenciasCruzadas(result.get("referenciasCruzadas"));
+        app.setOracaoSemente(result.get("oracaoSemente"));
+        return app;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(GeminiCodecBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
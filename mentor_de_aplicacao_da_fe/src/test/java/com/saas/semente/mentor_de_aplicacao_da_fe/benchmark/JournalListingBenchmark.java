@@ -0,0 +1,168 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.benchmark;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.TestFixtures;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplication;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplicationSummary;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.SubscriptionPlan;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.User;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.FaithApplicationRepository;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Listagem do diário (uma página de 20): entidades completas, com os textos longos, contra a projeção
+ * FaithApplicationSummary. Além do tempo, o setup imprime os caracteres transferidos por página.
+ *
+ * Execução (não roda no "mvn test"): rodar o main() pela IDE após "mvn test-compile".
+ * Padrão: H2 em memória. Para medir no PostgreSQL (textos em TEXT inline desde a V12):
+ * -Dbench.jdbc-url=jdbc:postgresql://localhost:5432/mentor_bench -Dbench.jdbc-user=... -Dbench.jdbc-password=...
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JournalListingBenchmark {
+
+    private static final int HISTORY = 500;
+    private static final int PAGE = 20;
+
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class,
+            HibernateJpaAutoConfiguration.class, TransactionAutoConfiguration.class})
+    @EntityScan(basePackageClasses = FaithApplication.class)
+    @EnableJpaRepositories(basePackageClasses = FaithApplicationRepository.class)
+    static class Config {
+    }
+
+    private ConfigurableApplicationContext context;
+    private FaithApplicationRepository repository;
+    private EntityManager entityManager;
+    private TransactionTemplate transaction;
+    private Long userId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(Config.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + System.getProperty("bench.jdbc-url", "jdbc:h2:mem:journal;DB_CLOSE_DELAY=-1"),
+                        "spring.datasource.username=" + System.getProperty("bench.jdbc-user", "sa"),
+                        "spring.datasource.password=" + System.getProperty("bench.jdbc-password", ""),
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.flyway.enabled=false")
+                .run();
+        repository = context.getBean(FaithApplicationRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        transaction = context.getBean(TransactionTemplate.class);
+
+        User saved = context.getBean(UserRepository.class).save(TestFixtures.user("Bench", SubscriptionPlan.JARDINEIRO));
+        userId = saved.getId();
+
+        for (int i = 0; i < HISTORY; i++) {
+            repository.save(sampleApplication(saved, i));
+        }
+
+        long entityChars = transaction.execute(status -> loadEntities().stream().mapToLong(JournalListingBenchmark::chars).sum());
+        long summaryChars = transaction.execute(status -> loadSummaries().stream().mapToLong(JournalListingBenchmark::chars).sum());
+        System.out.printf("%nCaracteres por página de %d: entidades=%d, projeção=%d (%.1fx menos)%n",
+                PAGE, entityChars, summaryChars, (double) entityChars / summaryChars);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long fullEntities() {
+        return transaction.execute(status -> loadEntities().stream().mapToLong(JournalListingBenchmark::chars).sum());
+    }
+
+    @Benchmark
+    public long summaryProjection() {
+        return transaction.execute(status -> loadSummaries().stream().mapToLong(JournalListingBenchmark::chars).sum());
+    }
+
+    // O que a listagem fazia antes: a entidade inteira (o template lia o desafio completo)
+    private List<FaithApplication> loadEntities() {
+        entityManager.clear();
+        return entityManager.createQuery(
+                        "SELECT a FROM FaithApplication a WHERE a.user.id = :userId ORDER BY a.createdAt DESC, a.id DESC",
+                        FaithApplication.class)
+                .setParameter("userId", userId)
+                .setMaxResults(PAGE)
+                .getResultList();
+    }
+
+    private List<FaithApplicationSummary> loadSummaries() {
+        return repository.findJournalFirstPage(userId, Limit.of(PAGE));
+    }
+
+    private static long chars(FaithApplication app) {
+        return length(app.getUserChallenge()) + length(app.getIdentifiedTheme()) + length(app.getVersiculoBussola())
+                + length(app.getReflexaoAplicada()) + length(app.getConselhosPraticos())
+                + length(app.getReferenciasCruzadas()) + length(app.getOracaoSemente());
+    }
+
+    private static long chars(FaithApplicationSummary app) {
+        return length(app.identifiedTheme()) + length(app.versiculoBussola()) + length(app.excerpt());
+    }
+
+    private static int length(String value) {
+        return value == null ? 0 : value.length();
+    }
+
+    // Tamanhos típicos de uma mentoria gerada (reflexão longa, três conselhos, oração)
+    private static FaithApplication sampleApplication(User user, int i) {
+        FaithApplication app = new FaithApplication();
+        app.setUser(user);
+        app.setUserChallenge(("Desafio " + i + ": sinto-me sobrecarregado(a) pelas responsabilidades do trabalho e estou perdendo a paciência com a minha família. ").repeat(3));
+        app.setIdentifiedTheme("Ansiedade, Paciência");
+        app.setVersiculoBussola("Filipenses 4:6-7");
+        app.setReflexaoAplicada("Querido(a) amigo(a), a sobrecarga que você sente é real, e Deus a vê. ".repeat(40));
+        app.setConselhosPraticos("1. Separe dez minutos de silêncio antes do trabalho.\n".repeat(12));
+        app.setReferenciasCruzadas("Mateus 6:34, 1 Pedro 5:7, Salmos 46:1");
+        app.setOracaoSemente("Senhor, entrego a Ti o peso deste dia e peço a Tua paz. ".repeat(10));
+        return app;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JournalListingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
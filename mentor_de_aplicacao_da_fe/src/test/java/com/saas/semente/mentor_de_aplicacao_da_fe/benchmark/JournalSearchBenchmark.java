@@ -0,0 +1,177 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.benchmark;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplication;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.FaithApplicationRepository;
+import com.saas.semente.mentor_de_aplicacao_da_fe.service.JournalSearchService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceTransactionManagerAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Busca no diário com 100 mil mentorias: tsvector + GIN (JournalSearchService) contra o ILIKE nas colunas de texto,
+ * que era a única alternativa. users=1 é o pior caso (um único diário com todo o volume).
+ *
+ * Precisa de PostgreSQL (o schema vem das migrações Flyway; use um banco só para isso):
+ * -Dbench.jdbc-url=jdbc:postgresql://localhost:5432/mentor_bench -Dbench.jdbc-user=... -Dbench.jdbc-password=...
+ * Execução (não roda no "mvn test"): rodar o main() pela IDE após "mvn test-compile".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JournalSearchBenchmark {
+
+    private static final String QUERY = "perdoar meu pai";
+
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({DataSourceAutoConfiguration.class, DataSourceTransactionManagerAutoConfiguration.class,
+            JdbcTemplateAutoConfiguration.class, FlywayAutoConfiguration.class, HibernateJpaAutoConfiguration.class,
+            TransactionAutoConfiguration.class})
+    @EntityScan(basePackageClasses = FaithApplication.class)
+    @EnableJpaRepositories(basePackageClasses = FaithApplicationRepository.class)
+    @Import(JournalSearchService.class)
+    static class Config {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Param({"100000"})
+    public int records;
+
+    @Param({"1", "100"})
+    public int users;
+
+    private ConfigurableApplicationContext context;
+    private JournalSearchService searchService;
+    private JdbcTemplate jdbc;
+    private String emailSuffix;
+    private Long userId;
+
+    @Setup
+    public void setUp() {
+        String url = System.getProperty("bench.jdbc-url");
+        if (url == null) {
+            throw new IllegalStateException("Informe -Dbench.jdbc-url (PostgreSQL): a busca usa tsvector.");
+        }
+        context = new SpringApplicationBuilder(Config.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=" + url,
+                        "spring.datasource.username=" + System.getProperty("bench.jdbc-user", "postgres"),
+                        "spring.datasource.password=" + System.getProperty("bench.jdbc-password", ""),
+                        "spring.jpa.hibernate.ddl-auto=validate")
+                .run();
+        searchService = context.getBean(JournalSearchService.class);
+        jdbc = context.getBean(JdbcTemplate.class);
+
+        emailSuffix = "-" + System.nanoTime() + "@bench.com";
+        jdbc.update("INSERT INTO app_user (email, is_enabled, monthly_prompt_count, name, password, subscription_plan, created_at) " +
+                    "SELECT 'bench-' || g || ?, true, 0, 'Bench ' || g, '{noop}senha', 'JARDINEIRO', now() " +
+                    "FROM generate_series(1, ?) g", emailSuffix, users);
+        // Textos combinados de frases típicas; o trigger da V16 preenche o search_vector
+        jdbc.update("""
+                INSERT INTO faith_application (user_id, user_challenge, challenge_excerpt, identified_theme, versiculo_bussola,
+                                               reflexao_aplicada, conselhos_praticos, referencias_cruzadas, oracao_semente, created_at)
+                SELECT u.ids[1 + g % ?],
+                       c.texts[1 + g % 6] || ' (registro ' || g || ')', left(c.texts[1 + g % 6], 160),
+                       c.themes[1 + g % 6], c.verses[1 + (g / 7) % 6],
+                       repeat(c.reflections[1 + (g / 3) % 6] || ' ', 30), repeat('Separe um tempo de oração e silêncio. ', 10),
+                       'Mateus 6:34, 1 Pedro 5:7', repeat('Senhor, entrego a Ti este dia. ', 8),
+                       now() - g * interval '1 minute'
+                FROM generate_series(1, ?) g,
+                     (SELECT array_agg(id ORDER BY id) AS ids FROM app_user WHERE email LIKE ?) u,
+                     (SELECT ARRAY['Não consigo perdoar meu pai pelo que ele fez', 'Estou ansioso com o trabalho e as contas',
+                                   'Sinto medo do futuro e da doença na família', 'Brigo muito com minha esposa',
+                                   'Perdi o emprego e estou desanimado', 'Tenho inveja do sucesso dos meus amigos'] AS texts,
+                             ARRAY['Perdão, Família', 'Ansiedade', 'Medo, Fé', 'Casamento, Paciência', 'Direção', 'Inveja'] AS themes,
+                             ARRAY['Mateus 6:14-15', 'Filipenses 4:6-7', 'Isaías 41:10', 'Efésios 4:2', 'Provérbios 3:5-6', 'Tiago 3:16'] AS verses,
+                             ARRAY['O perdão liberta quem perdoa antes de alcançar quem errou.',
+                                   'A ansiedade diminui quando entregamos a Deus o que não controlamos.',
+                                   'Deus está conosco mesmo quando o caminho é incerto.',
+                                   'A paciência no casamento é construída dia após dia.',
+                                   'Deus abre portas no tempo certo; confie na direção Dele.',
+                                   'Celebrar a vitória do outro cura o coração invejoso.'] AS reflections) c
+                """, users, records, "bench-%" + emailSuffix);
+        jdbc.execute("ANALYZE faith_application");
+        userId = jdbc.queryForObject("SELECT min(id) FROM app_user WHERE email LIKE ?", Long.class, "bench-%" + emailSuffix);
+
+        System.out.printf("%nPrimeira página para \"%s\": %d resultados%n", QUERY,
+                searchService.search(userId, QUERY, 0).hits().size());
+    }
+
+    @TearDown
+    public void tearDown() {
+        jdbc.update("DELETE FROM faith_application WHERE user_id IN (SELECT id FROM app_user WHERE email LIKE ?)", "bench-%" + emailSuffix);
+        jdbc.update("DELETE FROM app_user WHERE email LIKE ?", "bench-%" + emailSuffix);
+        context.close();
+    }
+
+    @Benchmark
+    public int fullTextSearch() {
+        return searchService.search(userId, QUERY, 0).hits().size();
+    }
+
+    @Benchmark
+    public int fullTextSearchDeepPage() {
+        return searchService.search(userId, QUERY, 20).hits().size();
+    }
+
+    // Sem índice de texto: ILIKE varre todos os textos do usuário (e não entende "perdão" x "perdoar")
+    @Benchmark
+    public int ilikeScan() {
+        List<Long> ids = jdbc.queryForList(
+                "SELECT id FROM faith_application WHERE user_id = ? AND (user_challenge ILIKE ? OR reflexao_aplicada ILIKE ? " +
+                "OR conselhos_praticos ILIKE ? OR oracao_semente ILIKE ?) ORDER BY created_at DESC LIMIT 11",
+                Long.class, userId, "%perdo%", "%perdo%", "%perdo%", "%perdo%");
+        return ids.size();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        // O fork do JMH é outra JVM: repassa as -Dbench.*
+        String[] benchProperties = System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("bench."))
+                .map(name -> "-D" + name + "=" + System.getProperty(name))
+                .toArray(String[]::new);
+        new Runner(new OptionsBuilder()
+                .include(JournalSearchBenchmark.class.getSimpleName())
+                .jvmArgsAppend(benchProperties)
+                .build()).run();
+    }
+}
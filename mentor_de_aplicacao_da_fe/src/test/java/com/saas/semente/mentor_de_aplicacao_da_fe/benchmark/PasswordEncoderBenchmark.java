@@ -0,0 +1,91 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.benchmark;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.config.BoundedPasswordEncoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do caminho de senha por custo do BCrypt: hash no cadastro (encode), verificação no login
+ * (matches, com hash novo e com hash legado sem prefixo) e o BCrypt direto, sem o pool, como referência.
+ * Ajuda a escolher mentorship.password.bcrypt.target-ms e o tamanho do pool para a máquina de produção.
+ *
+ * Execução (não roda no "mvn test"): rodar o main() pela IDE após "mvn test-compile".
+ * Com 4 threads de benchmark e 2 no pool, a diferença para o "direto" mostra a espera na fila.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 3)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+@Threads(4)
+public class PasswordEncoderBenchmark {
+
+    private static final String PASSWORD = "Senha@Forte123";
+
+    @Param({"10", "11", "12"})
+    private int strength;
+
+    private BoundedPasswordEncoder encoder;
+    private BCryptPasswordEncoder direct;
+    private String currentHash;
+    private String legacyHash;
+
+    @Setup
+    public void setUp() {
+        // Fila grande e espera longa: aqui interessa a latência, não a recusa
+        encoder = new BoundedPasswordEncoder(new SimpleMeterRegistry(), strength, 2, 1_000, 60_000);
+        direct = new BCryptPasswordEncoder(strength);
+        currentHash = encoder.encode(PASSWORD);
+        legacyHash = new BCryptPasswordEncoder(strength).encode(PASSWORD); // Sem "{bcrypt}", como os hashes antigos
+    }
+
+    @TearDown
+    public void tearDown() {
+        encoder.destroy();
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean matchesCurrentHash() {
+        return encoder.matches(PASSWORD, currentHash);
+    }
+
+    @Benchmark
+    public boolean matchesLegacyHash() {
+        return encoder.matches(PASSWORD, legacyHash);
+    }
+
+    @Benchmark
+    public boolean matchesDirect() {
+        return direct.matches(PASSWORD, legacyHash);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PasswordEncoderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
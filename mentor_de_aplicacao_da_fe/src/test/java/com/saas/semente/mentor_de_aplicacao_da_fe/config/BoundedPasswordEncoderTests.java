@@ -0,0 +1,73 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Rehash de hashes antigos e recusa rápida quando o pool do BCrypt está saturado.
+ */
+class BoundedPasswordEncoderTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    void shutDown() {
+        encoder.destroy();
+    }
+
+    @Test
+    void legacyHashStillMatchesAndIsUpgraded() {
+        encoder = new BoundedPasswordEncoder(meterRegistry, 5, 2, 8, 5_000);
+        String legacyHash = new BCryptPasswordEncoder(4).encode("senha"); // Sem prefixo e com custo menor
+
+        assertThat(encoder.matches("senha", legacyHash)).isTrue();
+        assertThat(encoder.upgradeEncoding(legacyHash)).isTrue();
+
+        String newHash = encoder.encode("senha");
+        assertThat(newHash).startsWith("{bcrypt}$2a$05$");
+        assertThat(encoder.matches("senha", newHash)).isTrue();
+        assertThat(encoder.upgradeEncoding(newHash)).isFalse();
+    }
+
+    @Test
+    void saturatedPoolRejectsInsteadOfQueueingForever() throws Exception {
+        // Uma thread, fila de um: com 6 hashes caros simultâneos, os excedentes são recusados na hora
+        encoder = new BoundedPasswordEncoder(meterRegistry, 12, 1, 1, 30_000);
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<Boolean>> results = IntStream.range(0, 6)
+                    .mapToObj(i -> callers.submit(() -> {
+                        try {
+                            encoder.encode("senha");
+                            return true;
+                        } catch (BoundedPasswordEncoder.HashingRejectedException e) {
+                            return false;
+                        }
+                    }))
+                    .toList();
+
+            long rejected = 0;
+            for (Future<Boolean> result : results) {
+                if (!result.get()) {
+                    rejected++;
+                }
+            }
+            assertThat(rejected).isGreaterThanOrEqualTo(1);
+            assertThat(meterRegistry.counter("password.hashing", "operation", "encode", "result", "rejected").count())
+                    .isEqualTo((double) rejected);
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.config;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.service.InMemoryRateLimitStore;
+import com.saas.semente.mentor_de_aplicacao_da_fe.service.RateLimitService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitInterceptorTests {
+
+    // Checkout: rajada de 2, uma ficha por minuto
+    private final RateLimitService rateLimitService = new RateLimitService(new InMemoryRateLimitStore(),
+            new SimpleMeterRegistry(), true, 3, 2, 5, 4, 10, 6, 20, 10, 2, 1);
+    private final RateLimitInterceptor interceptor = new RateLimitInterceptor(rateLimitService, null);
+
+    @Test
+    void answers429WithRetryAfterWhenTheBucketIsEmpty() throws Exception {
+        assertThat(interceptor.preHandle(checkout("203.0.113.7"), new MockHttpServletResponse(), null)).isTrue();
+        assertThat(interceptor.preHandle(checkout("203.0.113.7"), new MockHttpServletResponse(), null)).isTrue();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(checkout("203.0.113.7"), response, null)).isFalse();
+        assertThat(response.getStatus()).isEqualTo(429);
+        assertThat(response.getHeader("Retry-After")).isIn("59", "60");
+        assertThat(response.getContentAsString()).contains("Tente novamente em");
+    }
+
+    @Test
+    void otherClientsAndNonPostRequestsAreNotLimited() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            interceptor.preHandle(checkout("203.0.113.7"), new MockHttpServletResponse(), null);
+        }
+
+        assertThat(interceptor.preHandle(checkout("198.51.100.1"), new MockHttpServletResponse(), null)).isTrue();
+        MockHttpServletRequest get = checkout("203.0.113.7");
+        get.setMethod("GET");
+        assertThat(interceptor.preHandle(get, new MockHttpServletResponse(), null)).isTrue();
+    }
+
+    private static MockHttpServletRequest checkout(String ip) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/checkout/process");
+        request.setServletPath("/checkout/process");
+        request.setRemoteAddr(ip);
+        return request;
+    }
+}
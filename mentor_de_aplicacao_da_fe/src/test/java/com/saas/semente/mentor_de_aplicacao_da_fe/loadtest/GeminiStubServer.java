@@ -0,0 +1,157 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.semente.mentor_de_aplicacao_da_fe.service.FakeMentorships;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stub HTTP local que fala o formato do Gemini (generateContent, streamGenerateContent?alt=sse
+ * e cachedContents), para testes de carga do caminho /generate inteiro, incluindo WebClient, codec e timeouts.
+ *
+ * Execução (não roda no "mvn test"): rodar o main() pela IDE após "mvn test-compile" e subir a
+ * aplicação com o perfil "gemini-stub" (ex.: SPRING_PROFILES_ACTIVE=local,gemini-stub).
+ * Parâmetros (-D): stub.port=8089, stub.latency-median-ms=6000, stub.latency-sigma=0.4,
+ * stub.error-rate=0.0, stub.rate-limit-rate=0.0.
+ */
+public class GeminiStubServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeminiStubServer.class);
+    private static final int STREAM_CHUNK_CHARS = 48;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final double latencyMedianMs;
+    private final double latencySigma;
+    private final double errorRate;
+    private final double rateLimitRate;
+
+    public GeminiStubServer(double latencyMedianMs, double latencySigma, double errorRate, double rateLimitRate) {
+        this.latencyMedianMs = latencyMedianMs;
+        this.latencySigma = latencySigma;
+        this.errorRate = errorRate;
+        this.rateLimitRate = rateLimitRate;
+    }
+
+    public HttpServer start(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.setExecutor(Executors.newCachedThreadPool()); // Uma thread por requisição: a latência é simulada com sleep
+        server.createContext("/", this::handle);
+        server.start();
+        return server;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        String path = exchange.getRequestURI().getPath();
+        if (path.contains("/cachedContents")) {
+            // Cache de contexto: sempre aceito, expira em 1 hora
+            sendJson(exchange, 200, Map.of("name", "cachedContents/stub",
+                    "expireTime", Instant.now().plus(Duration.ofHours(1)).toString()));
+            exchange.close();
+            return;
+        }
+        boolean cached = body.contains("\"cachedContent\"");
+        long latency = FakeMentorships.sampleLatencyMillis(latencyMedianMs, latencySigma);
+
+        try {
+            double roll = ThreadLocalRandom.current().nextDouble();
+            if (roll < rateLimitRate) {
+                sleep(latency / 10);
+                sendError(exchange, 429, "RESOURCE_EXHAUSTED", "[stub] Quota exceeded.");
+            } else if (roll < rateLimitRate + errorRate) {
+                sleep(latency / 2);
+                sendError(exchange, 500, "INTERNAL", "[stub] Internal error.");
+            } else if (path.endsWith(":streamGenerateContent")) {
+                sendStream(exchange, latency, cached);
+            } else if (path.endsWith(":generateContent")) {
+                sleep(latency);
+                sendJson(exchange, 200, response(mentorshipJson(), true, cached));
+            } else {
+                sendError(exchange, 404, "NOT_FOUND", "[stub] Unknown method: " + path);
+            }
+        } catch (IOException e) {
+            // O cliente desistiu (timeout/hedging): nada a fazer
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void sendStream(HttpExchange exchange, long latency, boolean cached) throws IOException {
+        String text = mentorshipJson();
+        int chunks = (text.length() + STREAM_CHUNK_CHARS - 1) / STREAM_CHUNK_CHARS;
+
+        exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream out = exchange.getResponseBody()) {
+            for (int i = 0; i < chunks; i++) {
+                sleep(latency / chunks);
+                String chunk = text.substring(i * STREAM_CHUNK_CHARS, Math.min(text.length(), (i + 1) * STREAM_CHUNK_CHARS));
+                byte[] event = objectMapper.writeValueAsBytes(response(chunk, i == chunks - 1, cached));
+                out.write("data: ".getBytes(StandardCharsets.UTF_8));
+                out.write(event);
+                out.write("\r\n\r\n".getBytes(StandardCharsets.UTF_8));
+                out.flush();
+            }
+        }
+    }
+
+    private Map<String, Object> response(String text, boolean last, boolean cached) {
+        Map<String, Object> candidate = last
+                ? Map.of("content", Map.of("role", "model", "parts", List.of(Map.of("text", text))), "finishReason", "STOP")
+                : Map.of("content", Map.of("role", "model", "parts", List.of(Map.of("text", text))));
+        return Map.of(
+                "candidates", List.of(candidate),
+                "usageMetadata", Map.of("promptTokenCount", 420, "candidatesTokenCount", 680, "totalTokenCount", 1100,
+                        "cachedContentTokenCount", cached ? 300 : 0),
+                "modelVersion", "stub");
+    }
+
+    private String mentorshipJson() throws IOException {
+        return objectMapper.writeValueAsString(FakeMentorships.random());
+    }
+
+    private void sendError(HttpExchange exchange, int status, String reason, String message) throws IOException {
+        sendJson(exchange, status, Map.of("error", Map.of("code", status, "message", message, "status", reason)));
+    }
+
+    private void sendJson(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = Integer.getInteger("stub.port", 8089);
+        GeminiStubServer stub = new GeminiStubServer(
+                Double.parseDouble(System.getProperty("stub.latency-median-ms", "6000")),
+                Double.parseDouble(System.getProperty("stub.latency-sigma", "0.4")),
+                Double.parseDouble(System.getProperty("stub.error-rate", "0.0")),
+                Double.parseDouble(System.getProperty("stub.rate-limit-rate", "0.0")));
+        stub.start(port);
+        logger.info("Stub do Gemini ouvindo em http://localhost:{}/v1beta", port);
+    }
+}
@@ -0,0 +1,67 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cookie do checkout: gravado por uma instância e lido por outra com o mesmo segredo,
+ * recusado se adulterado, expirado ou cifrado com outro segredo.
+ */
+class CheckoutStateServiceTests {
+
+    private static final CheckoutStateService.CheckoutState STATE =
+            new CheckoutStateService.CheckoutState("Maria Silva", "maria@teste.com", "123.456.789-09", "COLHEITA");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CheckoutStateService nodeA = new CheckoutStateService(objectMapper, "segredo-compartilhado", 60);
+    private final CheckoutStateService nodeB = new CheckoutStateService(objectMapper, "segredo-compartilhado", 60);
+
+    @Test
+    void stateWrittenByOneInstanceIsRestoredByAnother() {
+        MockHttpServletResponse checkoutResponse = new MockHttpServletResponse();
+        nodeA.store(STATE, new MockHttpServletRequest(), checkoutResponse);
+        String setCookie = checkoutResponse.getHeader(HttpHeaders.SET_COOKIE);
+        assertThat(setCookie).contains("HttpOnly").contains("SameSite=Lax").doesNotContain("maria");
+
+        MockHttpServletRequest cancelRequest = new MockHttpServletRequest();
+        cancelRequest.setCookies(checkoutResponse.getCookie(CheckoutStateService.COOKIE_NAME));
+        MockHttpServletResponse cancelResponse = new MockHttpServletResponse();
+
+        assertThat(nodeB.consume(cancelRequest, cancelResponse)).contains(STATE);
+        assertThat(cancelResponse.getHeader(HttpHeaders.SET_COOKIE)).contains("Max-Age=0"); // Lido uma vez só
+    }
+
+    @Test
+    void tamperedExpiredOrForeignTokensAreRejected() {
+        Instant now = Instant.now();
+        String token = nodeA.encode(STATE, now);
+
+        char last = token.charAt(token.length() - 1);
+        String tampered = token.substring(0, token.length() - 1) + (last == 'A' ? 'B' : 'A');
+        assertThat(nodeB.decode(tampered, now)).isEmpty();
+
+        assertThat(nodeB.decode(token, now.plus(Duration.ofMinutes(61)))).isEmpty();
+
+        CheckoutStateService otherSecret = new CheckoutStateService(objectMapper, "outro-segredo", 60);
+        assertThat(otherSecret.decode(token, now)).isEmpty();
+
+        assertThat(nodeB.decode("lixo", now)).isEmpty();
+    }
+
+    @Test
+    void missingCookieRestoresNothing() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(new Cookie("JSESSIONID", "abc"));
+
+        assertThat(nodeA.consume(request, new MockHttpServletResponse())).isEmpty();
+    }
+}
@@ -0,0 +1,68 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.PostgresIntegrationTest;
+import com.saas.semente.mentor_de_aplicacao_da_fe.TestFixtures;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplication;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Estatísticas incrementais (upserts +1/-1 e últimos temas) batem com a reconstrução a partir do histórico.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@Import(DashboardStatsService.class)
+class DashboardStatsServiceTests extends PostgresIntegrationTest {
+
+    @Autowired
+    private DashboardStatsService statsService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void incrementalStatsMatchAFullRebuildAfterInsertsAndDeletes() {
+        User user = TestFixtures.user(entityManager, "Ana");
+        create(user, "Ansiedade, Fé");
+        FaithApplication gratidao = create(user, "Gratidão");
+        create(user, "Fé, Perdão");
+        FaithApplication esperanca = create(user, "Esperança, Ansiedade");
+
+        // Exclui a mais recente (refaz os últimos temas) e uma do meio (só desconta os contadores)
+        delete(esperanca);
+        delete(gratidao);
+        DashboardStatsService.DashboardStats incremental = statsService.getStats(user.getId(), YearMonth.now());
+
+        statsService.rebuild(user.getId());
+        DashboardStatsService.DashboardStats rebuilt = statsService.getStats(user.getId(), YearMonth.now());
+
+        assertThat(incremental.themeFrequency())
+                .containsExactlyInAnyOrderEntriesOf(rebuilt.themeFrequency())
+                .containsEntry("Fé", 2L)
+                .doesNotContainKeys("Gratidão", "Esperança");
+        assertThat(incremental.registrationDays()).isEqualTo(rebuilt.registrationDays());
+        assertThat(incremental.recentThemes()).isEqualTo(rebuilt.recentThemes()).containsExactly("Fé", "Perdão", "Ansiedade");
+    }
+
+    // Como FaithApplicationService: as estatísticas mudam na mesma transação que salva/exclui
+    private FaithApplication create(User user, String themes) {
+        FaithApplication app = TestFixtures.application(user, "Desafio");
+        app.setIdentifiedTheme(themes);
+        entityManager.persistAndFlush(app);
+        statsService.recordCreated(app);
+        return app;
+    }
+
+    private void delete(FaithApplication app) {
+        entityManager.remove(app);
+        entityManager.flush();
+        statsService.recordDeleted(app);
+    }
+}
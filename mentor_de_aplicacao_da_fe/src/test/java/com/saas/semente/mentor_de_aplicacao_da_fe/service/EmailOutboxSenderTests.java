@@ -0,0 +1,73 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.EmailOutboxMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Envio em lote contra um SMTP local (GreenMail), sem banco: só o deliver() do EmailOutboxSender.
+ */
+class EmailOutboxSenderTests {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Test
+    void sendsTheWholeBatchAndReportsOnlyTheInvalidMessage() throws Exception {
+        EmailOutboxSender sender = sender(ServerSetupTest.SMTP.getPort());
+        List<EmailOutboxMessage> batch = List.of(
+                message(1L, "ana@teste.com", "Bem-vindo ao Semente! Confirme seu E-mail."),
+                message(2L, "destinatario<sem-fim@teste.com", "Inválido"),
+                message(3L, "joao@teste.com", "Seu plano Semente foi atualizado!"));
+
+        Map<Long, Exception> failures = sender.deliver(batch);
+
+        assertThat(failures).containsOnlyKeys(2L);
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(2);
+        assertThat(received[0].getSubject()).isEqualTo("Bem-vindo ao Semente! Confirme seu E-mail.");
+        assertThat(received[0].getFrom()[0].toString()).isEqualTo("semente@teste.com");
+        assertThat(GreenMailUtil.getBody(received[1])).contains("Olá");
+    }
+
+    @Test
+    void unreachableServerFailsEveryMessageOfTheBatch() {
+        EmailOutboxSender sender = sender(ServerSetupTest.SMTP.getPort() + 1);
+
+        Map<Long, Exception> failures = sender.deliver(List.of(
+                message(1L, "ana@teste.com", "Assunto"),
+                message(2L, "joao@teste.com", "Assunto")));
+
+        assertThat(failures).containsOnlyKeys(1L, 2L);
+    }
+
+    private static EmailOutboxSender sender(int port) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(port);
+        mailSender.setDefaultEncoding("UTF-8");
+        return new EmailOutboxSender(null, mailSender, null, new SimpleMeterRegistry(), "semente@teste.com",
+                20, 30, 8, 60, 3600, 120, 30);
+    }
+
+    private static EmailOutboxMessage message(Long id, String recipient, String subject) {
+        EmailOutboxMessage message = new EmailOutboxMessage();
+        message.setId(id);
+        message.setType(EmailOutboxMessage.Type.WELCOME);
+        message.setRecipient(recipient);
+        message.setSubject(subject);
+        message.setBody("Olá,\n\nSua assinatura foi ativada.");
+        return message;
+    }
+}
@@ -0,0 +1,115 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.PostgresIntegrationTest;
+import com.saas.semente.mentor_de_aplicacao_da_fe.TestFixtures;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.User;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.FaithApplicationRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Busca do diário no PostgreSQL (search_vector mantido pelo trigger da V16): sintaxe web, ordem por relevância
+ * (peso dos campos), isolamento por usuário e trechos destacados só para a página pedida.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@Import({JournalSearchService.class, FaithApplicationSearchTests.Beans.class})
+class FaithApplicationSearchTests extends PostgresIntegrationTest {
+
+    @TestConfiguration
+    static class Beans {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private FaithApplicationRepository repository;
+
+    @Autowired
+    private JournalSearchService searchService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User owner;
+    private Long inVerse;
+    private Long inChallenge;
+    private Long inReflection;
+
+    @BeforeEach
+    void setUp() {
+        owner = TestFixtures.user(entityManager, "dono");
+        // Peso A (versículo) + B (desafio) > B (desafio) > C (reflexão)
+        inVerse = TestFixtures.application(entityManager, owner,
+                "Quero perdoar meu irmão ⟦sic⟧", "Perdoar como Cristo nos perdoou", null);
+        inChallenge = TestFixtures.application(entityManager, owner,
+                "Não consigo perdoar a raiva que sinto", null, null);
+        inReflection = TestFixtures.application(entityManager, owner,
+                "Um dia difícil no trabalho", null, "É preciso perdoar todos os dias");
+        TestFixtures.application(entityManager, TestFixtures.user(entityManager, "outro"),
+                "Preciso perdoar meu vizinho", "Perdoar sempre", null);
+        entityManager.clear();
+    }
+
+    @Test
+    void ranksByFieldWeightAndOnlySearchesTheUsersOwnJournal() {
+        List<FaithApplicationRepository.SearchRow> rows = search("perdoar", 10, 0);
+
+        assertThat(rows).extracting(FaithApplicationRepository.SearchRow::getId)
+                .containsExactly(inVerse, inChallenge, inReflection);
+        assertThat(rows.get(0).getRank()).isGreaterThan(rows.get(1).getRank());
+        assertThat(rows.get(1).getRank()).isGreaterThan(rows.get(2).getRank());
+    }
+
+    @Test
+    void acceptsWebSearchSyntax() {
+        assertThat(search("perdoar -raiva", 10, 0)).extracting(FaithApplicationRepository.SearchRow::getId)
+                .containsExactly(inVerse, inReflection);
+        assertThat(search("\"perdoar meu irmão\"", 10, 0)).extracting(FaithApplicationRepository.SearchRow::getId)
+                .containsExactly(inVerse);
+        assertThat(search("perdoar or trabalho", 10, 0)).hasSize(3);
+    }
+
+    @Test
+    void pageKeepsTheRankOrderAndCarriesTheHighlightedSnippet() {
+        List<FaithApplicationRepository.SearchRow> page = search("perdoar", 1, 1);
+
+        assertThat(page).extracting(FaithApplicationRepository.SearchRow::getId).containsExactly(inChallenge);
+        assertThat(page.get(0).getSnippet())
+                .contains(JournalSearchService.MARK_START + "perdoar" + JournalSearchService.MARK_END);
+    }
+
+    @Test
+    void snippetHtmlMarksOnlyTheMatchedTerms() {
+        JournalSearchService.SearchPage page = searchService.search(owner.getId(), "perdoar", 0);
+
+        assertThat(page.hits()).hasSize(3);
+        assertThat(page.hasNext()).isFalse();
+        assertThat(page.hits().get(0).snippetHtml())
+                .contains("<mark>perdoar</mark>")
+                .contains("⟦sic⟧")
+                .doesNotContain("<mark>sic");
+    }
+
+    private List<FaithApplicationRepository.SearchRow> search(String query, int limit, int offset) {
+        return repository.search(owner.getId(), query, headlineOptions(), limit, offset);
+    }
+
+    // As mesmas opções do serviço (marcadores STX/ETX)
+    private static String headlineOptions() {
+        return "StartSel=\"" + JournalSearchService.MARK_START + "\", StopSel=\"" + JournalSearchService.MARK_END + "\"";
+    }
+}
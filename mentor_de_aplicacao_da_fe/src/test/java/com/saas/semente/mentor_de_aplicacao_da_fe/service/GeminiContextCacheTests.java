@@ -0,0 +1,174 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.SubscriptionPlan;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cache de contexto (cachedContents) contra um stub local dos endpoints do Gemini.
+ */
+class GeminiContextCacheTests {
+
+    private static final String CACHE_NAME = "cachedContents/stub-cache";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    private final List<String> generateBodies = new CopyOnWriteArrayList<>();
+
+    // Comportamento do stub
+    private volatile Duration cacheLifetime = Duration.ofHours(1);
+    private volatile boolean cacheGone = false;
+    private volatile boolean cacheTooSmall = false;
+
+    private HttpServer server;
+    private GeminiContextCache contextCache;
+    private GeminiMentorshipGenerator generator;
+
+    @BeforeEach
+    void startStub() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::handle);
+        server.start();
+
+        String baseUrl = "http://localhost:" + server.getAddress().getPort() + "/v1beta";
+        GeminiCodec codec = new GeminiCodec(objectMapper);
+        contextCache = new GeminiContextCache(codec, objectMapper, meterRegistry, baseUrl, "gemini-2.5-flash-preview-05-20", true, 60, 10);
+        ReflectionTestUtils.setField(contextCache, "geminiApiKey", "stub-key");
+
+        generator = new GeminiMentorshipGenerator(codec,
+                new GeminiAdmissionController(meterRegistry, 8, 1, 32, 0.7, 20_000, 200, 30_000),
+                new GeminiResilience(meterRegistry, 1_000, 5_000, 10_000, 0.5, 20, 10, 30_000, false, 3_000),
+                contextCache, staticRouter(meterRegistry), baseUrl);
+        ReflectionTestUtils.setField(generator, "geminiApiKey", "stub-key");
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void generateContentReferencesTheCacheInsteadOfTheSystemInstruction() throws Exception {
+        contextCache.refresh();
+        assertThat(contextCache.currentName()).contains(CACHE_NAME);
+
+        generator.generate("Estou ansioso", SubscriptionPlan.SEMENTE);
+
+        assertThat(generateBodies).hasSize(1);
+        assertThat(generateBodies.get(0)).contains("\"cachedContent\":\"" + CACHE_NAME + "\"").doesNotContain("systemInstruction");
+        assertThat(meterRegistry.counter("gemini.context.cache.requests", "mode", "cached").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("gemini.context.cache.tokens", "type", "cached").count()).isEqualTo(300.0);
+        assertThat(meterRegistry.counter("gemini.context.cache.tokens", "type", "prompt").count()).isEqualTo(420.0);
+    }
+
+    @Test
+    void fallsBackToInlineInstructionsWhenTheCacheIsGone() throws Exception {
+        contextCache.refresh();
+        cacheGone = true;
+
+        generator.generate("Estou ansioso", SubscriptionPlan.SEMENTE);
+
+        assertThat(generateBodies).hasSize(2);
+        assertThat(generateBodies.get(1)).contains("systemInstruction").doesNotContain("cachedContent");
+        assertThat(contextCache.currentName()).isEmpty();
+        assertThat(meterRegistry.counter("gemini.context.cache.requests", "mode", "inline").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void extendsTheTtlBeforeExpiry() {
+        cacheLifetime = Duration.ofMinutes(5); // Já abaixo do refresh-before (10 min)
+        contextCache.refresh();
+        contextCache.refresh();
+
+        assertThat(requests).containsExactly(
+                "POST /v1beta/cachedContents",
+                "PATCH /v1beta/" + CACHE_NAME);
+        assertThat(contextCache.currentName()).contains(CACHE_NAME);
+    }
+
+    @Test
+    void stopsRetryingWhenTheContentIsBelowTheMinimumSize() {
+        cacheTooSmall = true;
+        contextCache.refresh();
+        ReflectionTestUtils.setField(contextCache, "retryAt", Instant.EPOCH);
+        contextCache.refresh();
+
+        assertThat(requests).containsExactly("POST /v1beta/cachedContents");
+        assertThat(contextCache.currentName()).isEmpty();
+        assertThat(meterRegistry.counter("gemini.context.cache.refresh", "result", "too_small").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void onlyNotFoundErrorsCountAsCacheMisses() {
+        assertThat(contextCache.isCacheMiss(new GeminiApiException(404, "Erro na API Gemini (404 NOT_FOUND): {}"))).isTrue();
+        assertThat(contextCache.isCacheMiss(new GeminiApiException(400,
+                "Erro na API Gemini (400 BAD_REQUEST): CachedContent not found"))).isTrue();
+        assertThat(contextCache.isCacheMiss(new GeminiApiException(403,
+                "Erro na API Gemini (403 FORBIDDEN): Method doesn't allow unregistered callers"))).isFalse();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String path = exchange.getRequestURI().getPath();
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        requests.add(method + " " + path);
+
+        if (cacheTooSmall && path.endsWith("/cachedContents")) {
+            send(exchange, 400, Map.of("error", Map.of("code", 400, "status", "INVALID_ARGUMENT",
+                    "message", "Cached content is too small. total_token_count=130, min_total_token_count=1024")));
+            return;
+        }
+        if (path.endsWith("/cachedContents") || path.endsWith("/" + CACHE_NAME)) {
+            send(exchange, 200, Map.of("name", CACHE_NAME,
+                    "expireTime", Instant.now().plus(cacheLifetime).toString(),
+                    "usageMetadata", Map.of("totalTokenCount", 300)));
+            return;
+        }
+
+        generateBodies.add(body);
+        if (cacheGone && body.contains("cachedContent")) {
+            send(exchange, 404, Map.of("error", Map.of("code", 404, "message", "CachedContent not found", "status", "NOT_FOUND")));
+            return;
+        }
+        boolean cached = body.contains("cachedContent");
+        send(exchange, 200, Map.of(
+                "candidates", List.of(Map.of("content", Map.of("parts", List.of(Map.of("text",
+                        "{\"versiculoBussola\": \"Salmos 46:1\", \"oracaoSemente\": \"Amém\"}"))))),
+                "usageMetadata", Map.of("promptTokenCount", 420, "candidatesTokenCount", 680,
+                        "totalTokenCount", 1100, "cachedContentTokenCount", cached ? 300 : 0)));
+    }
+
+    private void send(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    // Roteamento desligado: toda chamada vai para o modelo principal
+    private static GeminiModelRouter staticRouter(SimpleMeterRegistry meterRegistry) {
+        return new GeminiModelRouter(meterRegistry, false, "gemini-2.5-flash-preview-05-20", "", "",
+                new SubscriptionPlan[0], 300, 30_000, 20_000, 15_000, 0.25, 300, 20);
+    }
+}
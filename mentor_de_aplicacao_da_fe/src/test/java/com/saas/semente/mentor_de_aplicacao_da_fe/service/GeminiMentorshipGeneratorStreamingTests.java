@@ -0,0 +1,117 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplication;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.SubscriptionPlan;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Modo streaming contra um stub SSE local que imita o streamGenerateContent do Gemini.
+ */
+class GeminiMentorshipGeneratorStreamingTests {
+
+    private static final String MENTORSHIP_JSON = """
+            {"identifiedTheme": "Ansiedade, Trabalho",
+             "versiculoBussola": "Filipenses 4:6-7",
+             "reflexaoAplicada": "Respire fundo.\\nVocê não está sozinho(a) \\u2014 Deus cuida de você.",
+             "conselhosPraticos": "1. Ore antes do expediente.\\n2. Anote suas preocupações.\\n3. Descanse.",
+             "referenciasCruzadas": "Mateus 6:34, 1 Pedro 5:7",
+             "oracaoSemente": "Senhor, acalma meu coração. Amém."}
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicReference<String> requestedUri = new AtomicReference<>();
+    private HttpServer server;
+
+    @BeforeEach
+    void startStub() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            requestedUri.set(exchange.getRequestURI().toString());
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+
+            try (OutputStream out = exchange.getResponseBody()) {
+                // Corta o JSON em pedaços pequenos (inclusive no meio de escapes), como o Gemini faz
+                for (int i = 0; i < MENTORSHIP_JSON.length(); i += 7) {
+                    String chunk = MENTORSHIP_JSON.substring(i, Math.min(MENTORSHIP_JSON.length(), i + 7));
+                    Map<String, Object> event = Map.of("candidates", List.of(
+                            Map.of("content", Map.of("parts", List.of(Map.of("text", chunk))))));
+                    out.write(("data: " + objectMapper.writeValueAsString(event) + "\n\n").getBytes(StandardCharsets.UTF_8));
+                    out.flush();
+                }
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+    }
+
+    @Test
+    void streamsEachFieldAsSoonAsItCompletes() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        GeminiAdmissionController admissionController = new GeminiAdmissionController(
+                meterRegistry, 8, 1, 32, 0.7, 20_000, 200, 30_000);
+        GeminiResilience resilience = new GeminiResilience(
+                meterRegistry, 1_000, 5_000, 10_000, 0.5, 20, 10, 30_000, false, 3_000);
+        GeminiCodec codec = new GeminiCodec(objectMapper);
+        String baseUrl = "http://localhost:" + server.getAddress().getPort();
+        GeminiContextCache contextCache = new GeminiContextCache(codec, objectMapper, meterRegistry, baseUrl, "gemini-2.5-flash-preview-05-20", false, 60, 10);
+        GeminiMentorshipGenerator generator = new GeminiMentorshipGenerator(
+                codec, admissionController, resilience, contextCache, staticRouter(meterRegistry), baseUrl);
+        ReflectionTestUtils.setField(generator, "geminiApiKey", "stub-key");
+
+        Map<String, String> received = new LinkedHashMap<>();
+        FaithApplication app = generator.stream("Estou ansioso com o trabalho", SubscriptionPlan.SEMENTE, received::put).application();
+
+        assertThat(requestedUri.get()).contains(":streamGenerateContent").contains("alt=sse");
+        assertThat(received.keySet()).containsExactly(
+                "identifiedTheme", "versiculoBussola", "reflexaoAplicada",
+                "conselhosPraticos", "referenciasCruzadas", "oracaoSemente");
+
+        assertThat(app.getUserChallenge()).isEqualTo("Estou ansioso com o trabalho");
+        assertThat(app.getVersiculoBussola()).isEqualTo("Filipenses 4:6-7");
+        assertThat(app.getReflexaoAplicada()).isEqualTo("Respire fundo.\nVocê não está sozinho(a) — Deus cuida de você.");
+        assertThat(app.getOracaoSemente()).isEqualTo("Senhor, acalma meu coração. Amém.");
+    }
+
+    @Test
+    void parserOnlyEmitsCompletedTopLevelStrings() throws Exception {
+        List<String> fields = new ArrayList<>();
+        MentorshipFieldStreamParser parser = new MentorshipFieldStreamParser((field, value) -> fields.add(field + "=" + value));
+
+        parser.feed("{\"versiculoBussola\": \"Salmos");
+        assertThat(fields).isEmpty();
+
+        parser.feed(" 23:1\", \"extra\": {\"nested\": \"ignorado\"}, \"oracaoSemente\": \"Amém\"}");
+        parser.finish();
+
+        assertThat(fields).containsExactly("versiculoBussola=Salmos 23:1", "oracaoSemente=Amém");
+    }
+
+    // Roteamento desligado: toda chamada vai para o modelo principal
+    private static GeminiModelRouter staticRouter(SimpleMeterRegistry meterRegistry) {
+        return new GeminiModelRouter(meterRegistry, false, "gemini-2.5-flash-preview-05-20", "", "",
+                new SubscriptionPlan[0], 300, 30_000, 20_000, 15_000, 0.25, 300, 20);
+    }
+}
@@ -0,0 +1,76 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.SubscriptionPlan;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Roteamento de modelos: lite para desafios curtos do SEMENTE e fallback por latência (p95 acima do SLO)
+ * ou por taxa de erro, só quando o fallback está saudável.
+ */
+class GeminiModelRouterTests {
+
+    private static final String PRIMARY = "gemini-2.5-flash-preview-05-20";
+    private static final String LITE = "gemini-2.5-flash-lite";
+    private static final String FALLBACK = "gemini-2.0-flash";
+    private static final String LONG_CHALLENGE = "x".repeat(301);
+
+    private final GeminiModelRouter router = new GeminiModelRouter(new SimpleMeterRegistry(), true, PRIMARY, LITE, FALLBACK,
+            new SubscriptionPlan[]{SubscriptionPlan.SEMENTE}, 300, 30_000, 20_000, 15_000, 0.25, 300, 20);
+
+    @Test
+    void shortSementeChallengeGoesToTheLiteModel() {
+        assertThat(router.route(SubscriptionPlan.SEMENTE, "Estou ansioso"))
+                .isEqualTo(new GeminiModelRouter.Route(LITE, "lite"));
+        assertThat(router.route(SubscriptionPlan.SEMENTE, LONG_CHALLENGE))
+                .isEqualTo(new GeminiModelRouter.Route(PRIMARY, "primary"));
+        assertThat(router.route(SubscriptionPlan.JARDINEIRO, "Estou ansioso"))
+                .isEqualTo(new GeminiModelRouter.Route(PRIMARY, "primary"));
+    }
+
+    @Test
+    void p95AboveThePlanSloGoesToTheFallback() {
+        record(PRIMARY, 20, Duration.ofSeconds(18), false);
+
+        // 18s: acima do SLO do JARDINEIRO (15s), abaixo do COLHEITA (20s)
+        assertThat(router.route(SubscriptionPlan.JARDINEIRO, LONG_CHALLENGE))
+                .isEqualTo(new GeminiModelRouter.Route(FALLBACK, "fallback-latency"));
+        assertThat(router.route(SubscriptionPlan.COLHEITA, LONG_CHALLENGE))
+                .isEqualTo(new GeminiModelRouter.Route(PRIMARY, "primary"));
+    }
+
+    @Test
+    void highErrorRateGoesToTheFallback() {
+        record(PRIMARY, 14, Duration.ofSeconds(2), false);
+        record(PRIMARY, 6, Duration.ZERO, true); // 30% > 25%
+
+        assertThat(router.route(SubscriptionPlan.COLHEITA, LONG_CHALLENGE))
+                .isEqualTo(new GeminiModelRouter.Route(FALLBACK, "fallback-errors"));
+    }
+
+    @Test
+    void fewSamplesAreNotEnoughToSwitch() {
+        record(PRIMARY, 19, Duration.ZERO, true);
+
+        assertThat(router.route(SubscriptionPlan.COLHEITA, LONG_CHALLENGE).model()).isEqualTo(PRIMARY);
+    }
+
+    @Test
+    void staysOnThePreferredModelWhenTheFallbackIsAlsoUnhealthy() {
+        record(PRIMARY, 20, Duration.ZERO, true);
+        record(FALLBACK, 20, Duration.ZERO, true);
+
+        assertThat(router.route(SubscriptionPlan.COLHEITA, LONG_CHALLENGE))
+                .isEqualTo(new GeminiModelRouter.Route(PRIMARY, "primary"));
+    }
+
+    private void record(String model, int calls, Duration latency, boolean failure) {
+        for (int i = 0; i < calls; i++) {
+            router.record(model, latency, failure);
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplication;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.SubscriptionPlan;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.Exceptions;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Timeouts, circuit breaker e hedging contra um stub local do generateContent com latência injetada.
+ */
+class GeminiResilienceTests {
+
+    private static final String MODEL = "gemini-2.5-flash-preview-05-20";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    // Comportamento do stub: atraso de todas as respostas, atraso de UMA requisição específica e status HTTP
+    private volatile long delayMillis = 0;
+    private volatile int slowRequestNumber = -1;
+    private volatile long slowRequestDelayMillis = 0;
+    private volatile int status = 200;
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+
+    @BeforeEach
+    void startStub() throws Exception {
+        byte[] okBody = objectMapper.writeValueAsBytes(Map.of("candidates", List.of(Map.of(
+                "content", Map.of("parts", List.of(Map.of("text",
+                        "{\"versiculoBussola\": \"Salmos 46:1\", \"oracaoSemente\": \"Amém\"}")))))));
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool(); // Atende as tentativas em paralelo (hedging)
+        server.setExecutor(serverExecutor);
+        server.createContext("/", exchange -> {
+            int number = requests.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(number == slowRequestNumber ? slowRequestDelayMillis : delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = status == 200 ? okBody : "{\"error\": \"indisponível\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            } catch (Exception e) {
+                // O cliente já desistiu (timeout ou hedging)
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void attemptTimeoutFailsInsteadOfHanging() throws Exception {
+        GeminiMentorshipGenerator generator = newGenerator(new GeminiResilience(
+                meterRegistry, 1_000, 300, 5_000, 0.5, 20, 10, 30_000, false, 3_000));
+        delayMillis = 3_000;
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> generator.generate("Estou ansioso", SubscriptionPlan.SEMENTE))
+                .satisfies(e -> assertThat(Exceptions.unwrap(e)).isInstanceOf(TimeoutException.class));
+
+        assertThat(elapsedMillis(start)).isLessThan(2_000);
+        assertThat(meterRegistry.counter("gemini.calls", "outcome", "timeout").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void circuitOpensAfterFailuresAndFailsFast() throws Exception {
+        GeminiResilience resilience = new GeminiResilience(
+                meterRegistry, 1_000, 2_000, 5_000, 0.5, 4, 4, 60_000, false, 3_000);
+        GeminiMentorshipGenerator generator = newGenerator(resilience);
+        status = 500;
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> generator.generate("Estou ansioso", SubscriptionPlan.SEMENTE))
+                    .isInstanceOf(GeminiApiException.class);
+        }
+        assertThat(resilience.currentState(MODEL)).isEqualTo(GeminiResilience.CircuitState.OPEN);
+        assertThat(resilience.currentState("gemini-2.0-flash")).isEqualTo(GeminiResilience.CircuitState.CLOSED);
+
+        assertThatThrownBy(() -> generator.generate("Estou ansioso", SubscriptionPlan.SEMENTE))
+                .isInstanceOf(GeminiCircuitOpenException.class);
+        assertThat(requests.get()).isEqualTo(4); // A quinta chamada nem chegou ao stub
+        assertThat(meterRegistry.counter("gemini.calls", "outcome", "short_circuited").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void hedgedAttemptWinsWhenFirstAttemptIsSlow() throws Exception {
+        GeminiMentorshipGenerator generator = newGenerator(new GeminiResilience(
+                meterRegistry, 1_000, 5_000, 10_000, 0.5, 20, 10, 30_000, true, 200));
+
+        // Aquece o p95 com respostas rápidas
+        for (int i = 0; i < 20; i++) {
+            generator.generate("Estou ansioso", SubscriptionPlan.SEMENTE);
+        }
+
+        slowRequestNumber = 21;
+        slowRequestDelayMillis = 3_000;
+
+        long start = System.nanoTime();
+        FaithApplication app = generator.generate("Estou ansioso", SubscriptionPlan.SEMENTE).application();
+
+        assertThat(app.getVersiculoBussola()).isEqualTo("Salmos 46:1");
+        assertThat(elapsedMillis(start)).isLessThan(2_000);
+        assertThat(meterRegistry.counter("gemini.hedge", "result", "sent").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("gemini.hedge", "result", "won").count()).isEqualTo(1.0);
+    }
+
+    private GeminiMentorshipGenerator newGenerator(GeminiResilience resilience) throws Exception {
+        GeminiAdmissionController admissionController = new GeminiAdmissionController(
+                meterRegistry, 8, 1, 32, 0.7, 20_000, 200, 30_000);
+        GeminiCodec codec = new GeminiCodec(objectMapper);
+        String baseUrl = "http://localhost:" + server.getAddress().getPort();
+        GeminiContextCache contextCache = new GeminiContextCache(codec, objectMapper, meterRegistry, baseUrl, "gemini-2.5-flash-preview-05-20", false, 60, 10);
+        GeminiMentorshipGenerator generator = new GeminiMentorshipGenerator(
+                codec, admissionController, resilience, contextCache, staticRouter(meterRegistry), baseUrl);
+        ReflectionTestUtils.setField(generator, "geminiApiKey", "stub-key");
+        return generator;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    // Roteamento desligado: toda chamada vai para o modelo principal
+    private static GeminiModelRouter staticRouter(SimpleMeterRegistry meterRegistry) {
+        return new GeminiModelRouter(meterRegistry, false, "gemini-2.5-flash-preview-05-20", "", "",
+                new SubscriptionPlan[0], 300, 30_000, 20_000, 15_000, 0.25, 300, 20);
+    }
+}
@@ -0,0 +1,99 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Token buckets em memória: consumo concorrente, reposição e troca de limite (mudança de plano).
+ */
+class InMemoryRateLimitStoreTests {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 50;
+
+    // Reposição desprezível durante o teste
+    private static final RateLimitStore.Limit NO_REFILL = new RateLimitStore.Limit(100, 1e-6);
+
+    private final InMemoryRateLimitStore store = new InMemoryRateLimitStore();
+
+    @Test
+    void concurrentConsumersNeverExceedTheCapacity() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Callable<Integer>> tasks = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                tasks.add(() -> {
+                    start.await();
+                    int allowed = 0;
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        if (store.tryConsume("generate:user:1", NO_REFILL).allowed()) {
+                            allowed++;
+                        }
+                    }
+                    return allowed;
+                });
+            }
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (Callable<Integer> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+
+            int total = 0;
+            for (Future<Integer> future : futures) {
+                total += future.get();
+            }
+            assertThat(total).isEqualTo(NO_REFILL.capacity());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void emptyBucketRefillsOverTime() throws Exception {
+        RateLimitStore.Limit fast = new RateLimitStore.Limit(1, 100); // Uma ficha a cada 10 ms
+        assertThat(store.tryConsume("k", fast).allowed()).isTrue();
+        RateLimitStore.Decision denied = store.tryConsume("k", fast);
+        assertThat(denied.allowed()).isFalse();
+        assertThat(denied.retryAfterSeconds()).isEqualTo(1);
+
+        Thread.sleep(50);
+        assertThat(store.tryConsume("k", fast).allowed()).isTrue();
+    }
+
+    @Test
+    void retryAfterFollowsTheRefillRate() {
+        RateLimitStore.Limit slow = new RateLimitStore.Limit(1, 1 / 60.0); // Uma ficha por minuto
+        store.tryConsume("k", slow);
+
+        assertThat(store.tryConsume("k", slow).retryAfterSeconds()).isBetween(59L, 60L);
+    }
+
+    @Test
+    void upgradedLimitAppliesToAnExistingBucket() throws Exception {
+        RateLimitStore.Limit semente = new RateLimitStore.Limit(1, 1e-6);
+        assertThat(store.tryConsume("generate:user:7", semente).allowed()).isTrue();
+        assertThat(store.tryConsume("generate:user:7", semente).allowed()).isFalse();
+
+        // Após o upgrade, a reposição (e o teto) seguem o novo plano sem esperar o bucket ser descartado
+        RateLimitStore.Limit jardineiro = new RateLimitStore.Limit(10, 1_000);
+        Thread.sleep(20);
+        int allowed = 0;
+        for (int i = 0; i < 20; i++) {
+            if (store.tryConsume("generate:user:7", jardineiro).allowed()) {
+                allowed++;
+            }
+        }
+        assertThat(allowed).isGreaterThanOrEqualTo(10);
+    }
+}
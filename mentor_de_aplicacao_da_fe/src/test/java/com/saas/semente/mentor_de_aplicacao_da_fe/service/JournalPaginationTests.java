@@ -0,0 +1,141 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.TestFixtures;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplication;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplicationSummary;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.FaithApplicationTheme;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.Theme;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Paginação por cursor do diário: percorre o histórico inteiro sem repetir nem pular registros,
+ * inclusive quando vários têm o mesmo created_at.
+ */
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop",
+        "mentorship.journal.page-size=4"})
+@Import({FaithApplicationService.class, QuotaService.class, DashboardStatsService.class, ThemeIndexService.class,
+        ThemeCanonicalizer.class, JournalPaginationTests.Metrics.class})
+class JournalPaginationTests {
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private FaithApplicationService applicationService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void walksTheWholeHistoryInOrderAcrossTies() {
+        User owner = TestFixtures.user(entityManager, "dono");
+        User other = TestFixtures.user(entityManager, "outro");
+        LocalDateTime base = LocalDateTime.of(2025, 3, 1, 10, 0);
+        // 11 registros; de 3 em 3 compartilham o mesmo instante (empate resolvido pelo id)
+        List<Long> ownerIds = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            ownerIds.add(newApplication(owner, base.plusMinutes(i / 3)));
+        }
+        newApplication(other, base.plusDays(1)); // Nunca aparece no diário do dono
+        entityManager.clear();
+
+        List<FaithApplicationSummary> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            FaithApplicationService.JournalPage page = applicationService.getJournalPage(owner.getId(), cursor);
+            seen.addAll(page.applications());
+            cursor = page.nextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).extracting(FaithApplicationSummary::id).containsExactlyInAnyOrderElementsOf(ownerIds);
+        for (int i = 1; i < seen.size(); i++) {
+            FaithApplicationSummary previous = seen.get(i - 1);
+            FaithApplicationSummary current = seen.get(i);
+            assertThat(current.createdAt()).isBeforeOrEqualTo(previous.createdAt());
+            if (current.createdAt().equals(previous.createdAt())) {
+                assertThat(current.id()).isLessThan(previous.id());
+            }
+        }
+        assertThat(seen.get(0).excerpt()).isEqualTo("Desafio");
+    }
+
+    @Test
+    void malformedCursorFallsBackToTheFirstPage() {
+        User owner = TestFixtures.user(entityManager, "dono");
+        newApplication(owner, LocalDateTime.now());
+        entityManager.clear();
+
+        assertThat(applicationService.getJournalPage(owner.getId(), "nao-e-um-cursor").applications()).hasSize(1);
+    }
+
+    @Test
+    void themeFilterPagesOnlyThroughLinkedRecords() {
+        User owner = TestFixtures.user(entityManager, "dono");
+        Theme anxiety = new Theme();
+        anxiety.setCanonicalKey("ansiedade");
+        anxiety.setDisplayName("Ansiedade");
+        anxiety = entityManager.persistFlushFind(anxiety);
+        LocalDateTime base = LocalDateTime.of(2025, 3, 1, 10, 0);
+        List<Long> themedIds = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Long id = newApplication(owner, base.plusMinutes(i));
+            if (i % 2 == 0) {
+                FaithApplicationTheme link = new FaithApplicationTheme();
+                link.setApplicationId(id);
+                link.setThemeId(anxiety.getId());
+                link.setUserId(owner.getId());
+                link.setCreatedAt(base.plusMinutes(i));
+                entityManager.persist(link);
+                themedIds.add(id);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        FaithApplicationService.JournalPage first = applicationService.getJournalPage(owner.getId(), anxiety.getId(), null);
+        FaithApplicationService.JournalPage second = applicationService.getJournalPage(owner.getId(), anxiety.getId(), first.nextCursor());
+
+        assertThat(first.applications()).hasSize(4);
+        assertThat(second.nextCursor()).isNull();
+        List<Long> seen = new ArrayList<>();
+        first.applications().forEach(app -> seen.add(app.id()));
+        second.applications().forEach(app -> seen.add(app.id()));
+        Collections.reverse(themedIds); // Mais recentes primeiro
+        assertThat(seen).containsExactlyElementsOf(themedIds);
+    }
+
+    private Long newApplication(User user, LocalDateTime createdAt) {
+        FaithApplication app = entityManager.persistAndFlush(TestFixtures.application(user, "Desafio"));
+        // @CreationTimestamp preenche o instante na inserção: ajusta depois para controlar os empates
+        entityManager.getEntityManager()
+                .createQuery("UPDATE FaithApplication a SET a.createdAt = :createdAt WHERE a.id = :id")
+                .setParameter("createdAt", createdAt)
+                .setParameter("id", app.getId())
+                .executeUpdate();
+        return app.getId();
+    }
+}
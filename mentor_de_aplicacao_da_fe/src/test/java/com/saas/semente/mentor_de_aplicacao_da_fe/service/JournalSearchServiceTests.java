@@ -0,0 +1,21 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JournalSearchServiceTests {
+
+    @Test
+    void snippetIsEscapedAndOnlyTheMarkersBecomeHtml() {
+        assertThat(JournalSearchService.highlight("<script>x</script> quero \u0002perdoar\u0003 meu pai & seguir"))
+                .isEqualTo("&lt;script&gt;x&lt;/script&gt; quero <mark>perdoar</mark> meu pai &amp; seguir");
+        assertThat(JournalSearchService.highlight(null)).isEmpty();
+    }
+
+    @Test
+    void bracketsTypedByTheUserStayLiteral() {
+        assertThat(JournalSearchService.highlight("anotei ⟦isto⟧ e \u0002perdoar\u0003"))
+                .isEqualTo("anotei ⟦isto⟧ e <mark>perdoar</mark>");
+    }
+}
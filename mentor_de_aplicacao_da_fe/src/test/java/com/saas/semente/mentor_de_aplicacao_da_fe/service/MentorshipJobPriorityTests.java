@@ -0,0 +1,100 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.SubscriptionPlan;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Saturação: um plano maior que chega depois passa à frente dos planos menores já na fila,
+ * tanto na fila do pool de jobs quanto na do controle de admissão do Gemini.
+ */
+class MentorshipJobPriorityTests {
+
+    @Test
+    void jobPoolRunsHigherPlansFirstWhenAllWorkersAreBusy() throws Exception {
+        ThreadPoolExecutor executor = MentorshipJobService.newJobExecutor(1);
+        CountDownLatch blocker = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(3);
+        List<SubscriptionPlan> order = new CopyOnWriteArrayList<>();
+        try {
+            // Ocupa o único worker
+            executor.execute(new MentorshipJobService.PrioritizedTask(SubscriptionPlan.SEMENTE, 0, () -> await(blocker)));
+
+            executor.execute(task(SubscriptionPlan.SEMENTE, 1, order, done));
+            executor.execute(task(SubscriptionPlan.COLHEITA, 2, order, done));
+            executor.execute(task(SubscriptionPlan.JARDINEIRO, 3, order, done));
+            blocker.countDown();
+
+            assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(order).containsExactly(SubscriptionPlan.JARDINEIRO, SubscriptionPlan.COLHEITA, SubscriptionPlan.SEMENTE);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void admissionControllerGrantsTheFreedSlotToTheHigherPlan() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        GeminiAdmissionController controller = new GeminiAdmissionController(registry, 1, 1, 1, 0.7, 20_000, 10, 5_000);
+        List<SubscriptionPlan> order = new CopyOnWriteArrayList<>();
+
+        GeminiAdmissionController.Permit busy = controller.acquire(SubscriptionPlan.SEMENTE);
+        Thread semente = waiter(controller, SubscriptionPlan.SEMENTE, order);
+        awaitQueueSize(registry, 1);
+        Thread jardineiro = waiter(controller, SubscriptionPlan.JARDINEIRO, order);
+        awaitQueueSize(registry, 2);
+
+        busy.release();
+        semente.join(5_000);
+        jardineiro.join(5_000);
+
+        assertThat(order).containsExactly(SubscriptionPlan.JARDINEIRO, SubscriptionPlan.SEMENTE);
+    }
+
+    private static MentorshipJobService.PrioritizedTask task(SubscriptionPlan plan, long sequence,
+                                                             List<SubscriptionPlan> order, CountDownLatch done) {
+        return new MentorshipJobService.PrioritizedTask(plan, sequence, () -> {
+            order.add(plan);
+            done.countDown();
+        });
+    }
+
+    // Espera a vaga, registra a ordem e a devolve (o próximo da fila é liberado)
+    private static Thread waiter(GeminiAdmissionController controller, SubscriptionPlan plan, List<SubscriptionPlan> order) {
+        Thread thread = new Thread(() -> {
+            try {
+                GeminiAdmissionController.Permit permit = controller.acquire(plan);
+                order.add(plan);
+                permit.release();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitQueueSize(SimpleMeterRegistry registry, int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (registry.get("gemini.limiter.queue.size").gauge().value() < size) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
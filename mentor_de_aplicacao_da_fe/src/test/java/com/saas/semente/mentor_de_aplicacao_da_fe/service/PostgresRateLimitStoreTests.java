@@ -0,0 +1,83 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.PostgresIntegrationTest;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Token buckets compartilhados (upsert condicional no PostgreSQL): muitas instâncias/threads
+ * consumindo o mesmo bucket nunca passam da capacidade; a reposição segue o limite de cada chamada.
+ * Sem transação no teste: cada tentativa roda na própria transação, como em produção.
+ */
+@DataJpaTest(properties = {"spring.jpa.hibernate.ddl-auto=none", "mentorship.ratelimit.store=postgres"})
+@Import(PostgresRateLimitStore.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PostgresRateLimitStoreTests extends PostgresIntegrationTest {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 20;
+
+    @Autowired
+    private PostgresRateLimitStore store;
+
+    @Test
+    void concurrentConsumersNeverExceedTheCapacity() throws Exception {
+        String key = "generate:user:" + UUID.randomUUID();
+        RateLimitStore.Limit limit = new RateLimitStore.Limit(50, 1e-6);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int allowed = 0;
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        if (store.tryConsume(key, limit).allowed()) {
+                            allowed++;
+                        }
+                    }
+                    return allowed;
+                }));
+            }
+            start.countDown();
+
+            int total = 0;
+            for (Future<Integer> future : futures) {
+                total += future.get();
+            }
+            assertThat(total).isEqualTo(limit.capacity());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void emptyBucketRefillsWithTheLimitOfTheCurrentCall() throws Exception {
+        String key = "generate:user:" + UUID.randomUUID();
+        RateLimitStore.Limit semente = new RateLimitStore.Limit(1, 1 / 60.0);
+        assertThat(store.tryConsume(key, semente).allowed()).isTrue();
+
+        RateLimitStore.Decision denied = store.tryConsume(key, semente);
+        assertThat(denied.allowed()).isFalse();
+        assertThat(denied.retryAfterSeconds()).isBetween(59L, 60L);
+
+        // Upgrade: reposição rápida do novo plano vale para o bucket existente
+        Thread.sleep(50);
+        assertThat(store.tryConsume(key, new RateLimitStore.Limit(10, 1_000)).allowed()).isTrue();
+    }
+}
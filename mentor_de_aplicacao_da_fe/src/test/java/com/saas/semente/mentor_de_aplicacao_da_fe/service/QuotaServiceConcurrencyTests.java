@@ -0,0 +1,163 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.TestFixtures;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.QuotaReservation;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.SubscriptionPlan;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.User;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.QuotaReservationRepository;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Estresse da cota mensal: muitas reservas simultâneas (abas, duplo envio, várias instâncias)
+ * contra o mesmo usuário nunca ultrapassam o limite do plano.
+ * Sem transação no teste: cada reserva roda na própria transação, como em produção.
+ */
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop"})
+@Import({QuotaService.class, QuotaServiceConcurrencyTests.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class QuotaServiceConcurrencyTests {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS = 200;
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private QuotaService quotaService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private QuotaReservationRepository reservationRepository;
+
+    @AfterEach
+    void cleanUp() {
+        reservationRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentReservationsNeverExceedTheMonthlyLimit() throws Exception {
+        User user = userRepository.save(TestFixtures.user("Cota", SubscriptionPlan.SEMENTE));
+
+        List<QuotaService.Reservation> granted = reserveConcurrently(user);
+
+        int limit = SubscriptionPlan.SEMENTE.getMonthlyLimit();
+        assertThat(granted).hasSize(limit);
+        assertThat(granted).extracting(QuotaService.Reservation::usedCount).doesNotHaveDuplicates();
+        assertThat(userRepository.findMonthlyPromptCount(user.getId())).isEqualTo(limit);
+        assertThat(reservationRepository.count()).isEqualTo(limit);
+    }
+
+    @Test
+    void releasedSlotsCanBeReservedAgainExactlyOnce() throws Exception {
+        User user = userRepository.save(TestFixtures.user("Cota", SubscriptionPlan.SEMENTE));
+        List<QuotaService.Reservation> granted = reserveConcurrently(user);
+
+        // Metade das gerações falha; cada liberação é repetida por duas threads (idempotência)
+        List<QuotaService.Reservation> failed = granted.subList(0, granted.size() / 2);
+        runConcurrently(failed.size() * 2, i -> {
+            quotaService.release(failed.get(i % failed.size()));
+            return null;
+        });
+        assertThat(userRepository.findMonthlyPromptCount(user.getId())).isEqualTo(granted.size() - failed.size());
+
+        List<QuotaService.Reservation> regranted = reserveConcurrently(user);
+
+        assertThat(regranted).hasSize(failed.size());
+        assertThat(userRepository.findMonthlyPromptCount(user.getId())).isEqualTo(SubscriptionPlan.SEMENTE.getMonthlyLimit());
+        assertThat(reservationRepository.findAll())
+                .filteredOn(reservation -> reservation.getStatus() == QuotaReservation.Status.RELEASED)
+                .hasSize(failed.size());
+    }
+
+    @Test
+    void unlimitedPlanCountsEveryReservation() throws Exception {
+        User user = userRepository.save(TestFixtures.user("Cota", SubscriptionPlan.JARDINEIRO));
+
+        List<QuotaService.Reservation> granted = reserveConcurrently(user);
+
+        assertThat(granted).hasSize(ATTEMPTS);
+        assertThat(userRepository.findMonthlyPromptCount(user.getId())).isEqualTo(ATTEMPTS);
+    }
+
+    @Test
+    void reservationOpensTheNewCycleBeforeTheBatchRolloverRuns() throws Exception {
+        // Cota esgotada no MESMO mês do ano passado: antes, só o mês era comparado
+        User user = userRepository.save(TestFixtures.user("Cota", SubscriptionPlan.SEMENTE));
+        user.setMonthlyPromptCount(SubscriptionPlan.SEMENTE.getMonthlyLimit());
+        user.setLastPromptMonthCheck(LocalDateTime.now().minusYears(1));
+        userRepository.save(user);
+
+        List<QuotaService.Reservation> granted = reserveConcurrently(user);
+
+        assertThat(granted).hasSize(SubscriptionPlan.SEMENTE.getMonthlyLimit());
+        assertThat(granted).extracting(QuotaService.Reservation::usedCount).contains(1);
+        assertThat(userRepository.findMonthlyPromptCount(user.getId())).isEqualTo(SubscriptionPlan.SEMENTE.getMonthlyLimit());
+    }
+
+    private List<QuotaService.Reservation> reserveConcurrently(User user) throws Exception {
+        ConcurrentLinkedQueue<QuotaService.Reservation> granted = new ConcurrentLinkedQueue<>();
+        runConcurrently(ATTEMPTS, i -> {
+            Optional<QuotaService.Reservation> reservation = quotaService.reserve(user);
+            reservation.ifPresent(granted::add);
+            return null;
+        });
+        return List.copyOf(granted);
+    }
+
+    private void runConcurrently(int tasks, IndexedTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Object>> futures = IntStream.range(0, tasks)
+                    .mapToObj(i -> executor.submit((Callable<Object>) () -> {
+                        start.await();
+                        return task.run(i);
+                    }))
+                    .toList();
+            start.countDown(); // Todas as threads disparam juntas
+            for (Future<Object> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexedTask {
+        Object run(int index) throws Exception;
+    }
+}
@@ -0,0 +1,77 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.saas.semente.mentor_de_aplicacao_da_fe.TestFixtures;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * /record/{id}: DTO sem o usuário, ETag estável, filtro pelo dono e cache que não serve mentorias excluídas.
+ */
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop"})
+@Import({RecordDetailCache.class, RecordDetailCacheTests.Beans.class})
+class RecordDetailCacheTests {
+
+    @TestConfiguration
+    static class Beans {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper().findAndRegisterModules();
+        }
+    }
+
+    @Autowired
+    private RecordDetailCache recordCache;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void servesTheOwnerOnlyWithoutTheUserAndWithAStableEtag() {
+        User owner = TestFixtures.user(entityManager, "dono");
+        User other = TestFixtures.user(entityManager, "outro");
+        Long id = TestFixtures.application(entityManager, owner, "Desafio", null, "Reflexão longa");
+        entityManager.clear();
+
+        RecordDetailCache.SerializedRecord record = recordCache.get(id, owner.getId()).orElseThrow();
+        String json = new String(record.json(), StandardCharsets.UTF_8);
+        assertThat(json).contains("Reflexão longa").doesNotContain("password").doesNotContain("senha");
+        assertThat(recordCache.etag(id, owner.getId())).contains(record.etag());
+
+        assertThat(recordCache.get(id, other.getId())).isEmpty();
+        assertThat(recordCache.etag(id, other.getId())).isEmpty();
+    }
+
+    @Test
+    void recordDeletedByAnotherInstanceIsNotServedFromCache() {
+        User owner = TestFixtures.user(entityManager, "dono");
+        Long id = TestFixtures.application(entityManager, owner, "Desafio", null, "Reflexão longa");
+        entityManager.clear();
+        recordCache.get(id, owner.getId()).orElseThrow();
+
+        // Apagado direto no banco (como outra instância faria): sem evict local, o cache não pode responder
+        entityManager.getEntityManager().createQuery("DELETE FROM FaithApplication a WHERE a.id = :id")
+                .setParameter("id", id)
+                .executeUpdate();
+
+        assertThat(recordCache.get(id, owner.getId())).isEmpty();
+        assertThat(recordCache.etag(id, owner.getId())).isEmpty();
+    }
+}
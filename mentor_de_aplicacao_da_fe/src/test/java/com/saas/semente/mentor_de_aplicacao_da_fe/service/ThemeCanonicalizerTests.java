@@ -0,0 +1,25 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ThemeCanonicalizerTests {
+
+    private final ThemeCanonicalizer canonicalizer = new ThemeCanonicalizer();
+
+    @Test
+    void foldsCaseAccentsAndSynonymsIntoOneTheme() {
+        assertThat(canonicalizer.canonicalize("Preocupação, ANSIEDADE , angústia, Perdão"))
+                .containsExactly(
+                        new ThemeCanonicalizer.CanonicalTheme("ansiedade", "Ansiedade"),
+                        new ThemeCanonicalizer.CanonicalTheme("perdao", "Perdão"));
+    }
+
+    @Test
+    void keepsUnknownThemesWithTheirOwnName() {
+        assertThat(canonicalizer.canonicalize("vida  em família,,"))
+                .containsExactly(new ThemeCanonicalizer.CanonicalTheme("vida em familia", "Vida em família"));
+        assertThat(canonicalizer.canonicalize(null)).isEmpty();
+    }
+}
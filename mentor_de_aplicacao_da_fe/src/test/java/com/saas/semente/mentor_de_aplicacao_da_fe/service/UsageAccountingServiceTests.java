@@ -0,0 +1,61 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.SubscriptionPlan;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tabela de preços (USD por milhão de tokens, câmbio para R$) e fração do preço de cada plano consumida em tokens.
+ */
+class UsageAccountingServiceTests {
+
+    private final MercadoPagoService mercadoPagoService = new MercadoPagoService();
+
+    // Os padrões do application.properties
+    private final UsageAccountingService service = new UsageAccountingService(null, null, null, mercadoPagoService,
+            new SimpleMeterRegistry(), new BigDecimal("0.30"), new BigDecimal("2.50"), new BigDecimal("0.075"),
+            new BigDecimal("5.50"));
+
+    @Test
+    void pricesEachTokenTypeAndConvertsToBrl() {
+        assertThat(service.estimateCostBrl(1_000_000, 0, 0)).isEqualByComparingTo("1.65");
+        assertThat(service.estimateCostBrl(0, 1_000_000, 0)).isEqualByComparingTo("13.75");
+        // Mentoria típica: 1.500 de prompt, 1.200 gerados → (450 + 3.000) / 1e6 USD
+        assertThat(service.estimateCostBrl(1_500, 1_200, 0)).isEqualByComparingTo("0.0189750");
+    }
+
+    @Test
+    void cachedPromptTokensArePricedAtTheDiscount() {
+        // 600 mil sem cache a 0,30 + 400 mil do cache a 0,075 = 0,21 USD
+        assertThat(service.estimateCostBrl(1_000_000, 0, 400_000)).isEqualByComparingTo("1.155");
+        // Cache maior que o prompt (contagens inconsistentes) não gera custo negativo
+        assertThat(service.estimateCostBrl(100, 0, 1_000_000)).isEqualByComparingTo("0.4125");
+    }
+
+    @Test
+    void costShareIsTheCostPerSubscriberOverThePlanPrice() {
+        BigDecimal semente = mercadoPagoService.getPlanPrice(SubscriptionPlan.SEMENTE);
+        BigDecimal colheita = mercadoPagoService.getPlanPrice(SubscriptionPlan.COLHEITA);
+        BigDecimal jardineiro = mercadoPagoService.getPlanPrice(SubscriptionPlan.JARDINEIRO);
+
+        BigDecimal perUser = service.costPerActiveUser(new BigDecimal("24.95"), 2);
+        assertThat(perUser).isEqualByComparingTo("12.475");
+        assertThat(service.costShareOfPrice(perUser, colheita)).isEqualByComparingTo("0.2500");
+        assertThat(service.costShareOfPrice(new BigDecimal("9.99"), jardineiro)).isEqualByComparingTo("0.1000");
+        // Acima de 1: o consumo de tokens passa do que o assinante paga
+        assertThat(service.costShareOfPrice(new BigDecimal("1.50"), semente)).isEqualByComparingTo("1.5000");
+    }
+
+    @Test
+    void planWithoutSubscribersHasNoCostShare() {
+        BigDecimal perUser = service.costPerActiveUser(new BigDecimal("3.00"), 0);
+
+        assertThat(perUser).isEqualByComparingTo("0");
+        assertThat(service.costShareOfPrice(perUser, mercadoPagoService.getPlanPrice(SubscriptionPlan.COLHEITA)))
+                .isEqualByComparingTo("0");
+    }
+}
@@ -0,0 +1,178 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.PostgresIntegrationTest;
+import com.saas.semente.mentor_de_aplicacao_da_fe.TestFixtures;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.GenerationUsage;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.SubscriptionPlan;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.UsageDailyRollup;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.User;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.GenerationUsageRepository;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.UsageDailyRollupRepository;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Total diário (upsert ON CONFLICT) contra o PostgreSQL: bate com as linhas de generation_usage, inclusive
+ * quando duas gerações do mesmo usuário disputam a primeira linha do dia, e alimenta os relatórios por plano e usuário.
+ * Sem transação no teste: cada registro roda na própria transação, como em produção.
+ */
+@DataJpaTest(properties = {"spring.jpa.hibernate.ddl-auto=none", "mercadopago.access.token=teste"})
+@Import({UsageAccountingService.class, MercadoPagoService.class, UsageRollupTests.Beans.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UsageRollupTests extends PostgresIntegrationTest {
+
+    private static final String MODEL = "gemini-2.5-flash";
+
+    @TestConfiguration
+    static class Beans {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @Autowired
+    private UsageAccountingService usageService;
+
+    @Autowired
+    private GenerationUsageRepository usageRepository;
+
+    @Autowired
+    private UsageDailyRollupRepository rollupRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MercadoPagoService mercadoPagoService;
+
+    @AfterEach
+    void cleanUp() {
+        usageRepository.deleteAll();
+        rollupRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void dailyTotalsMatchTheGenerationRows() {
+        User ana = userRepository.save(TestFixtures.user("Ana", SubscriptionPlan.SEMENTE));
+        User bia = userRepository.save(TestFixtures.user("Bia", SubscriptionPlan.COLHEITA));
+
+        record(ana, MODEL, new GeminiUsage(1_500, 1_200, 2_700, 0), 800);
+        record(ana, "gemini-2.5-flash-lite", new GeminiUsage(900, 700, 1_600, 0), 400);
+        record(bia, MODEL, new GeminiUsage(2_000, 1_500, 3_500, 1_024), 1_200);
+        record(bia, MODEL, new GeminiUsage(2_100, 1_400, 3_500, 1_024), 1_000);
+        record(bia, MODEL, new GeminiUsage(1_800, 1_300, 3_100, 0), 900);
+
+        assertRollupMatchesRows(ana);
+        assertRollupMatchesRows(bia);
+        assertThat(rollup(bia).getGenerations()).isEqualTo(3);
+    }
+
+    @Test
+    void concurrentFirstGenerationsOfTheDayAreBothCounted() throws Exception {
+        User ana = userRepository.save(TestFixtures.user("Ana", SubscriptionPlan.SEMENTE));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            // Os dois INSERTs disputam a mesma linha (dia, usuário, plano): sem o ON CONFLICT, um falharia
+            List<Future<Object>> futures = List.of(
+                    executor.submit((Callable<Object>) () -> {
+                        start.await();
+                        record(ana, MODEL, new GeminiUsage(1_000, 500, 1_500, 0), 700);
+                        return null;
+                    }),
+                    executor.submit((Callable<Object>) () -> {
+                        start.await();
+                        record(ana, MODEL, new GeminiUsage(1_200, 600, 1_800, 256), 900);
+                        return null;
+                    }));
+            start.countDown();
+            for (Future<Object> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(rollup(ana).getGenerations()).isEqualTo(2);
+        assertRollupMatchesRows(ana);
+    }
+
+    @Test
+    void reportsPriceTheRollupAgainstEachPlan() {
+        User ana = userRepository.save(TestFixtures.user("Ana", SubscriptionPlan.SEMENTE));
+        User bia = userRepository.save(TestFixtures.user("Bia", SubscriptionPlan.COLHEITA));
+        record(ana, MODEL, new GeminiUsage(1_500, 1_200, 2_700, 0), 800);
+        record(bia, MODEL, new GeminiUsage(2_000, 1_500, 3_500, 1_024), 1_200);
+        record(bia, MODEL, new GeminiUsage(1_800, 1_300, 3_100, 0), 1_000);
+        LocalDate today = LocalDate.now();
+
+        Map<String, Object> colheita = usageService.planReport(today, today).stream()
+                .filter(row -> row.get("plan").equals(SubscriptionPlan.COLHEITA.name()))
+                .findFirst()
+                .orElseThrow();
+
+        BigDecimal cost = usageService.estimateCostBrl(3_800, 2_800, 1_024);
+        long subscribers = (Long) colheita.get("activeSubscribers");
+        BigDecimal perUser = usageService.costPerActiveUser(cost, subscribers);
+        assertThat(subscribers).isGreaterThanOrEqualTo(1);
+        assertThat(colheita.get("planPrice")).isEqualTo(mercadoPagoService.getPlanPrice(SubscriptionPlan.COLHEITA));
+        assertThat(colheita.get("generations")).isEqualTo(2L);
+        assertThat(colheita.get("avgLatencyMs")).isEqualTo(1_100L);
+        assertThat(colheita.get("estimatedCostBrl")).isEqualTo(cost.setScale(2, RoundingMode.HALF_UP));
+        assertThat(colheita.get("costShareOfPrice"))
+                .isEqualTo(perUser.divide(new BigDecimal("49.90"), 4, RoundingMode.HALF_UP));
+
+        List<Map<String, Object>> top = usageService.topUsers(today, today, 1);
+        assertThat(top).hasSize(1);
+        assertThat(top.get(0)).containsEntry("userId", bia.getId()).containsEntry("totalTokens", 6_600L);
+    }
+
+    private void record(User user, String model, GeminiUsage usage, long latencyMs) {
+        usageService.record(user, new GeneratedMentorship(null, model, usage), Duration.ofMillis(latencyMs));
+    }
+
+    private UsageDailyRollup rollup(User user) {
+        return rollupRepository.findById(new UsageDailyRollup.Key(LocalDate.now(), user.getId(), user.getSubscriptionPlan()))
+                .orElseThrow();
+    }
+
+    private void assertRollupMatchesRows(User user) {
+        List<GenerationUsage> rows = usageRepository.findAll().stream()
+                .filter(row -> row.getUserId().equals(user.getId()))
+                .toList();
+        UsageDailyRollup rollup = rollup(user);
+
+        assertThat(rollup.getGenerations()).isEqualTo(rows.size());
+        assertThat(rollup.getPromptTokens()).isEqualTo(rows.stream().mapToLong(GenerationUsage::getPromptTokens).sum());
+        assertThat(rollup.getCandidatesTokens()).isEqualTo(rows.stream().mapToLong(GenerationUsage::getCandidatesTokens).sum());
+        assertThat(rollup.getCachedTokens()).isEqualTo(rows.stream().mapToLong(GenerationUsage::getCachedTokens).sum());
+        assertThat(rollup.getTotalTokens()).isEqualTo(rows.stream().mapToLong(GenerationUsage::getTotalTokens).sum());
+        assertThat(rollup.getLatencyMsSum()).isEqualTo(rows.stream().mapToLong(GenerationUsage::getLatencyMs).sum());
+    }
+}
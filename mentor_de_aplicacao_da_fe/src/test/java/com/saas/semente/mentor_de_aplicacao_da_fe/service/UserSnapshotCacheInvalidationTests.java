@@ -0,0 +1,148 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.TestFixtures;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.SubscriptionPlan;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.UserCacheInvalidation;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.User;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.EmailOutboxRepository;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.UserCacheInvalidationRepository;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Duas instâncias: o UserSnapshotCache do contexto (instância A, usado pelo SubscriptionService) e
+ * um segundo cache sobre o mesmo banco (instância B). Uma mudança feita em A só chega a B pelo
+ * aviso em user_cache_invalidation, lido no poll de B.
+ * Sem transação no teste: cada mudança é confirmada na própria transação, como em produção.
+ */
+@DataJpaTest(properties = {"spring.flyway.enabled=false", "spring.jpa.hibernate.ddl-auto=create-drop"})
+@Import({SubscriptionService.class, EmailService.class, UserSnapshotCache.class,
+        UserSnapshotCacheInvalidationTests.Beans.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserSnapshotCacheInvalidationTests {
+
+    private static final String EMAIL = "ana@teste.com";
+
+    @TestConfiguration
+    static class Beans {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        PasswordEncoder passwordEncoder() {
+            return NoOpPasswordEncoder.getInstance();
+        }
+    }
+
+    @Autowired
+    private SubscriptionService subscriptionService;
+
+    @Autowired
+    private UserSnapshotCache nodeA;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCacheInvalidationRepository invalidationRepository;
+
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UserSnapshotCache nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeB = new UserSnapshotCache(userRepository, invalidationRepository, new SimpleMeterRegistry(), 100, 10);
+
+        User user = TestFixtures.user("Ana", SubscriptionPlan.SEMENTE);
+        user.setEmail(EMAIL);
+        user.setPassword("senha-antiga");
+        userRepository.save(user);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        outboxRepository.deleteAll();
+        invalidationRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void planChangeOnOneInstanceEvictsTheSnapshotOnAnother() {
+        assertThat(nodeA.get(EMAIL).plan()).isEqualTo(SubscriptionPlan.SEMENTE);
+        assertThat(nodeB.get(EMAIL).plan()).isEqualTo(SubscriptionPlan.SEMENTE);
+
+        subscriptionService.processPaymentConfirmation("UPG-JARDINEIRO-" + EMAIL + "-uuid");
+
+        assertThat(nodeA.get(EMAIL).plan()).isEqualTo(SubscriptionPlan.JARDINEIRO); // Evicção local imediata
+        assertThat(nodeB.get(EMAIL).plan()).isEqualTo(SubscriptionPlan.SEMENTE);    // B ainda não leu o aviso
+
+        nodeB.pollInvalidations();
+
+        assertThat(nodeB.get(EMAIL).plan()).isEqualTo(SubscriptionPlan.JARDINEIRO);
+    }
+
+    @Test
+    void passwordAndPlanUpdateOfAnInactiveUserEvictsTheSnapshotOnAnother() {
+        User user = userRepository.findByEmail(EMAIL).orElseThrow();
+        user.setEnabled(false);
+        userRepository.save(user);
+        assertThat(nodeB.get(EMAIL).plan()).isEqualTo(SubscriptionPlan.SEMENTE);
+
+        subscriptionService.updateInactiveUser(user, "Ana Maria", "senha-nova", "12345678900", "COLHEITA");
+        nodeB.pollInvalidations();
+
+        assertThat(nodeB.get(EMAIL).plan()).isEqualTo(SubscriptionPlan.COLHEITA);
+        assertThat(nodeB.get(EMAIL).name()).isEqualTo("Ana Maria");
+        assertThat(userRepository.findByEmail(EMAIL).orElseThrow().getPassword()).isEqualTo("senha-nova");
+    }
+
+    @Test
+    void invalidationCommittedAfterAHigherIdIsStillRead() {
+        long base = invalidationRepository.save(new UserCacheInvalidation("outro@teste.com")).getId();
+        nodeB.pollInvalidations();
+        assertThat(nodeB.get(EMAIL).plan()).isEqualTo(SubscriptionPlan.SEMENTE);
+
+        // base + 1 reservado por uma transação ainda aberta; base + 2 já commitou e é lido antes
+        insertInvalidation(base + 2, "outro@teste.com");
+        nodeB.pollInvalidations();
+
+        User user = userRepository.findByEmail(EMAIL).orElseThrow();
+        user.setSubscriptionPlan(SubscriptionPlan.COLHEITA);
+        userRepository.save(user);
+        insertInvalidation(base + 1, EMAIL); // A transação lenta commita
+        assertThat(nodeB.get(EMAIL).plan()).isEqualTo(SubscriptionPlan.SEMENTE);
+
+        nodeB.pollInvalidations();
+
+        assertThat(nodeB.get(EMAIL).plan()).isEqualTo(SubscriptionPlan.COLHEITA);
+    }
+
+    // Id explícito: simula a ordem de commit diferente da ordem da identity
+    private void insertInvalidation(long id, String email) {
+        jdbcTemplate.update("INSERT INTO user_cache_invalidation (id, email, created_at) VALUES (?, ?, CURRENT_TIMESTAMP)",
+                id, email);
+    }
+}
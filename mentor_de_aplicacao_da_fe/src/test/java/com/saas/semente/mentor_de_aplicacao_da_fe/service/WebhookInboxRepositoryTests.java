@@ -0,0 +1,116 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.saas.semente.mentor_de_aplicacao_da_fe.PostgresIntegrationTest;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.WebhookInboxEntry;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.WebhookInboxRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Caixa de entrada dos webhooks no PostgreSQL: o upsert do recebimento (reenvios, reabertura de WAITING/FAILED)
+ * e as atualizações condicionais que garantem um único encerramento por notificação.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+class WebhookInboxRepositoryTests extends PostgresIntegrationTest {
+
+    private static final String TOPIC = "payment";
+
+    @Autowired
+    private WebhookInboxRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Test
+    void resentNotificationIsStoredOnce() {
+        repository.receive(TOPIC, "101", LocalDateTime.now());
+        repository.receive(TOPIC, "101", LocalDateTime.now());
+
+        WebhookInboxEntry entry = entry("101");
+        assertThat(repository.count()).isEqualTo(1);
+        assertThat(entry.getStatus()).isEqualTo(WebhookInboxEntry.Status.PENDING);
+        assertThat(entry.getNotifications()).isEqualTo(2);
+    }
+
+    @Test
+    void newNotificationReopensWaitingAndFailedEntries() {
+        repository.receive(TOPIC, "201", LocalDateTime.now());
+        WebhookInboxEntry waiting = entry("201");
+        assertThat(repository.park(waiting.getId(), 0, 1,
+                WebhookInboxEntry.Status.PENDING, WebhookInboxEntry.Status.WAITING)).isEqualTo(1);
+
+        repository.receive(TOPIC, "202", LocalDateTime.now());
+        WebhookInboxEntry failed = entry("202");
+        assertThat(repository.reschedule(failed.getId(), 0, WebhookInboxEntry.Status.PENDING,
+                WebhookInboxEntry.Status.FAILED, LocalDateTime.now().plusHours(1), "erro")).isEqualTo(1);
+        assertThat(entry("202").getAttempts()).isEqualTo(1);
+
+        LocalDateTime now = LocalDateTime.now();
+        repository.receive(TOPIC, "201", now);
+        repository.receive(TOPIC, "202", now);
+
+        for (String resourceId : new String[]{"201", "202"}) {
+            WebhookInboxEntry reopened = entry(resourceId);
+            assertThat(reopened.getStatus()).isEqualTo(WebhookInboxEntry.Status.PENDING);
+            assertThat(reopened.getAttempts()).isZero();
+            assertThat(reopened.getNotifications()).isEqualTo(2);
+            assertThat(reopened.getNextAttemptAt()).isBeforeOrEqualTo(now);
+        }
+    }
+
+    @Test
+    void doneEntryIsNotReopened() {
+        repository.receive(TOPIC, "301", LocalDateTime.now());
+        WebhookInboxEntry entry = entry("301");
+        repository.complete(entry.getId(), WebhookInboxEntry.Status.PENDING, 0, WebhookInboxEntry.Status.DONE, LocalDateTime.now());
+
+        repository.receive(TOPIC, "301", LocalDateTime.now());
+
+        assertThat(entry("301").getStatus()).isEqualTo(WebhookInboxEntry.Status.DONE);
+    }
+
+    @Test
+    void entryIsClosedExactlyOnce() {
+        repository.receive(TOPIC, "401", LocalDateTime.now());
+        WebhookInboxEntry read = entry("401");
+
+        // Duas instâncias que leram a mesma entrada: só a primeira encerra
+        assertThat(repository.complete(read.getId(), WebhookInboxEntry.Status.PENDING, read.getAttempts(),
+                WebhookInboxEntry.Status.DONE, LocalDateTime.now())).isEqualTo(1);
+        assertThat(repository.complete(read.getId(), WebhookInboxEntry.Status.PENDING, read.getAttempts(),
+                WebhookInboxEntry.Status.DONE, LocalDateTime.now())).isZero();
+    }
+
+    @Test
+    void staleReadCannotCloseOrParkTheEntry() {
+        repository.receive(TOPIC, "501", LocalDateTime.now());
+        WebhookInboxEntry read = entry("501");
+
+        // Outra tentativa já foi registrada (attempts mudou) e uma nova notificação chegou (notifications mudou)
+        repository.reschedule(read.getId(), read.getAttempts(), WebhookInboxEntry.Status.PENDING,
+                WebhookInboxEntry.Status.PENDING, LocalDateTime.now(), "erro");
+        assertThat(repository.complete(read.getId(), WebhookInboxEntry.Status.PENDING, read.getAttempts(),
+                WebhookInboxEntry.Status.DONE, LocalDateTime.now())).isZero();
+
+        WebhookInboxEntry retried = entry("501");
+        repository.receive(TOPIC, "501", LocalDateTime.now());
+        assertThat(repository.park(retried.getId(), retried.getAttempts(), retried.getNotifications(),
+                WebhookInboxEntry.Status.PENDING, WebhookInboxEntry.Status.WAITING)).isZero();
+        assertThat(entry("501").getStatus()).isEqualTo(WebhookInboxEntry.Status.PENDING);
+    }
+
+    // Relê do banco: os upserts nativos não passam pelo contexto de persistência
+    private WebhookInboxEntry entry(String resourceId) {
+        entityManager.clear();
+        return repository.findAll().stream()
+                .filter(entry -> entry.getResourceId().equals(resourceId))
+                .findFirst()
+                .orElseThrow();
+    }
+}
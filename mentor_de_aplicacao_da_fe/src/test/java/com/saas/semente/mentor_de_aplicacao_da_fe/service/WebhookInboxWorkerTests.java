@@ -0,0 +1,242 @@
+package com.saas.semente.mentor_de_aplicacao_da_fe.service;
+
+import com.mercadopago.resources.payment.Payment;
+import com.saas.semente.mentor_de_aplicacao_da_fe.PostgresIntegrationTest;
+import com.saas.semente.mentor_de_aplicacao_da_fe.model.WebhookInboxEntry;
+import com.saas.semente.mentor_de_aplicacao_da_fe.repository.WebhookInboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Worker da caixa de entrada contra o PostgreSQL, com o Mercado Pago e a confirmação do pagamento simulados:
+ * efeito aplicado uma vez, pagamento pendente estacionado, novas tentativas com backoff, desistência (FAILED)
+ * e o limite de tempo de cada ciclo. Sem transação no teste: cada passo roda na própria transação, como em produção.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@Import({WebhookInboxService.class, ClusterLockService.class, WebhookInboxWorkerTests.Beans.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class WebhookInboxWorkerTests extends PostgresIntegrationTest {
+
+    private static final String TOPIC = "payment";
+    private static final String REFERENCE = "UPG-JARDINEIRO-ana@teste.com-uuid";
+
+    @TestConfiguration
+    static class Beans {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        CountingSubscriptionService subscriptionService() {
+            return new CountingSubscriptionService();
+        }
+    }
+
+    /**
+     * Só conta as confirmações: o efeito no usuário é testado em UserSnapshotCacheInvalidationTests.
+     */
+    static class CountingSubscriptionService extends SubscriptionService {
+        final List<String> confirmed = new ArrayList<>();
+
+        CountingSubscriptionService() {
+            super(null, null, null, null);
+        }
+
+        @Override
+        public synchronized void processPaymentConfirmation(String externalReference) {
+            confirmed.add(externalReference);
+        }
+    }
+
+    /**
+     * Mercado Pago simulado: devolve um pagamento com o status configurado (ou falha / demora).
+     */
+    static class StubMercadoPagoService extends MercadoPagoService {
+        volatile String status = "approved";
+        volatile RuntimeException failure;
+        volatile long delayMillis;
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public Payment getPayment(Long paymentId) {
+            calls.incrementAndGet();
+            if (delayMillis > 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException("Consulta interrompida.", e);
+                }
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            Payment payment = new Payment();
+            ReflectionTestUtils.setField(payment, "id", paymentId);
+            ReflectionTestUtils.setField(payment, "status", status);
+            ReflectionTestUtils.setField(payment, "externalReference", REFERENCE);
+            return payment;
+        }
+    }
+
+    @Autowired
+    private WebhookInboxRepository inboxRepository;
+
+    @Autowired
+    private WebhookInboxService inboxService;
+
+    @Autowired
+    private ClusterLockService lockService;
+
+    @Autowired
+    private CountingSubscriptionService subscriptionService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final StubMercadoPagoService mercadoPago = new StubMercadoPagoService();
+    private final List<WebhookInboxWorker> workers = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        workers.forEach(WebhookInboxWorker::shutdown);
+        inboxRepository.deleteAll();
+        subscriptionService.confirmed.clear();
+    }
+
+    @Test
+    void duplicateNotificationKeepsOneRow() {
+        inboxService.receive(TOPIC, "1001");
+        inboxService.receive(TOPIC, "1001");
+
+        assertThat(inboxRepository.count()).isEqualTo(1);
+        assertThat(entry("1001").getNotifications()).isEqualTo(2);
+    }
+
+    @Test
+    void approvedPaymentIsAppliedExactlyOnce() {
+        WebhookInboxWorker worker = worker(8, 30, 120);
+        inboxService.receive(TOPIC, "2001");
+        WebhookInboxEntry read = entry("2001");
+
+        worker.drain();
+        // Reenvio depois de processada e um novo ciclo: nada é aplicado de novo
+        inboxService.receive(TOPIC, "2001");
+        worker.drain();
+
+        assertThat(subscriptionService.confirmed).containsExactly(REFERENCE);
+        assertThat(entry("2001").getStatus()).isEqualTo(WebhookInboxEntry.Status.DONE);
+        assertThat(mercadoPago.calls.get()).isEqualTo(1);
+
+        // Outra instância com a leitura antiga da entrada: o encerramento condicional recusa
+        assertThatThrownBy(() -> inboxService.applyApproved(read, REFERENCE))
+                .isInstanceOf(WebhookInboxService.AlreadyProcessedException.class);
+    }
+
+    @Test
+    void undecidedPaymentIsParked() {
+        WebhookInboxWorker worker = worker(8, 30, 120);
+        mercadoPago.status = "in_process";
+        inboxService.receive(TOPIC, "3001");
+
+        worker.drain();
+
+        assertThat(entry("3001").getStatus()).isEqualTo(WebhookInboxEntry.Status.WAITING);
+        assertThat(subscriptionService.confirmed).isEmpty();
+    }
+
+    @Test
+    void failureIsRescheduledWithBackoff() {
+        WebhookInboxWorker worker = worker(8, 30, 120);
+        mercadoPago.failure = new IllegalStateException("Mercado Pago fora do ar");
+        inboxService.receive(TOPIC, "4001");
+
+        LocalDateTime before = LocalDateTime.now();
+        worker.drain();
+
+        WebhookInboxEntry entry = entry("4001");
+        assertThat(entry.getStatus()).isEqualTo(WebhookInboxEntry.Status.PENDING);
+        assertThat(entry.getAttempts()).isEqualTo(1);
+        assertThat(entry.getLastError()).isEqualTo("Mercado Pago fora do ar");
+        assertThat(entry.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(30));
+
+        // Ainda não venceu: o próximo ciclo não tenta de novo
+        worker.drain();
+        assertThat(mercadoPago.calls.get()).isEqualTo(1);
+    }
+
+    @Test
+    void exhaustedAttemptsMarkTheEntryFailed() {
+        WebhookInboxWorker worker = worker(2, 0, 120); // Sem backoff: a nova tentativa vence na hora
+        mercadoPago.failure = new IllegalStateException("Mercado Pago fora do ar");
+        inboxService.receive(TOPIC, "5001");
+
+        worker.drain();
+        assertThat(entry("5001").getStatus()).isEqualTo(WebhookInboxEntry.Status.PENDING);
+        worker.drain();
+
+        WebhookInboxEntry entry = entry("5001");
+        assertThat(entry.getStatus()).isEqualTo(WebhookInboxEntry.Status.FAILED);
+        assertThat(entry.getAttempts()).isEqualTo(2);
+        assertThat(meterRegistry.counter("webhook.inbox.processed", "outcome", "failed").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void cycleStopsAtHalfTheLockLease() {
+        WebhookInboxWorker worker = worker(8, 30, 2); // Prazo do ciclo: 1s
+        mercadoPago.delayMillis = 10_000;
+        inboxService.receive(TOPIC, "6001");
+
+        long start = System.nanoTime();
+        worker.drain();
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+        assertThat(meterRegistry.counter("webhook.inbox.processed", "outcome", "timeout").count()).isEqualTo(1.0);
+        assertThat(entry("6001").getStatus()).isEqualTo(WebhookInboxEntry.Status.PENDING);
+        assertThat(subscriptionService.confirmed).isEmpty();
+    }
+
+    @Test
+    void backoffDoublesPerAttemptUpToTheCap() {
+        WebhookInboxWorker worker = worker(8, 30, 120);
+
+        assertThat(worker.backoff(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(worker.backoff(2)).isEqualTo(Duration.ofSeconds(60));
+        assertThat(worker.backoff(5)).isEqualTo(Duration.ofSeconds(480));
+        assertThat(worker.backoff(8)).isEqualTo(Duration.ofHours(1));
+        assertThat(worker.backoff(60)).isEqualTo(Duration.ofHours(1));
+    }
+
+    private WebhookInboxWorker worker(int maxAttempts, long initialBackoffSeconds, long lockSeconds) {
+        WebhookInboxWorker worker = new WebhookInboxWorker(inboxRepository, inboxService, mercadoPago, lockService,
+                meterRegistry, 2, 50, maxAttempts, initialBackoffSeconds, 3600, lockSeconds, 30);
+        workers.add(worker);
+        return worker;
+    }
+
+    private WebhookInboxEntry entry(String resourceId) {
+        return inboxRepository.findAll().stream()
+                .filter(entry -> entry.getResourceId().equals(resourceId))
+                .findFirst()
+                .orElseThrow();
+    }
+}